@@ -0,0 +1,171 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb;
+
+import static org.jaxdb.jsql.DML.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.jaxdb.jsql.RowIterator;
+import org.jaxdb.jsql.Transaction;
+import org.jaxdb.jsql.classicmodels;
+import org.jaxdb.jsql.data;
+import org.jaxdb.runner.Derby;
+import org.jaxdb.runner.MySQL;
+import org.jaxdb.runner.Oracle;
+import org.jaxdb.runner.PostgreSQL;
+import org.jaxdb.runner.SQLite;
+import org.jaxdb.runner.VendorSchemaRunner;
+import org.jaxdb.runner.VendorSchemaRunner.Schema;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(VendorSchemaRunner.class)
+public abstract class AsyncTest {
+  @VendorSchemaRunner.Vendor(value=Derby.class, parallel=2)
+  @VendorSchemaRunner.Vendor(SQLite.class)
+  public static class IntegrationTest extends AsyncTest {
+  }
+
+  @VendorSchemaRunner.Vendor(MySQL.class)
+  @VendorSchemaRunner.Vendor(PostgreSQL.class)
+  @VendorSchemaRunner.Vendor(Oracle.class)
+  public static class RegressionTest extends AsyncTest {
+  }
+
+  private static CompletableFuture<RowIterator<data.CHAR>> selectTerritory(final Transaction transaction, final int officeCode) {
+    final classicmodels.Office o = classicmodels.Office();
+    return
+      SELECT(o.territory).
+      FROM(o).
+      WHERE(EQ(o.officeCode, officeCode))
+        .executeAsync(transaction);
+  }
+
+  @Test
+  public void testQuery(@Schema(classicmodels.class) final Transaction transaction) throws ExecutionException, InterruptedException, IOException, SQLException {
+    final ArrayList<CompletableFuture<RowIterator<data.CHAR>>> futures = new ArrayList<>();
+    for (int i = 1; i <= 7; ++i)
+      futures.add(selectTerritory(transaction, i));
+
+    for (final CompletableFuture<RowIterator<data.CHAR>> future : futures) {
+      try (final RowIterator<data.CHAR> rows = future.get()) {
+        assertTrue(rows.nextRow());
+        assertNotNull(rows.nextEntity().get());
+        assertFalse(rows.nextRow());
+      }
+    }
+  }
+
+  @Test
+  public void testModify(@Schema(classicmodels.class) final Transaction transaction) throws ExecutionException, InterruptedException, IOException, SQLException {
+    final ArrayList<CompletableFuture<Integer>> futures = new ArrayList<>();
+    for (int i = 0; i < 5; ++i) {
+      final classicmodels.Office o = classicmodels.Office();
+      futures.add(
+        UPDATE(o).
+        SET(o.territory, "A" + i).
+        WHERE(EQ(o.officeCode, 1))
+          .executeAsync(transaction));
+    }
+
+    for (final CompletableFuture<Integer> future : futures)
+      assertEquals(1, future.get().intValue());
+
+    try (final RowIterator<data.CHAR> rows = selectTerritory(transaction, 1).get()) {
+      assertTrue(rows.nextRow());
+      assertEquals("A4", rows.nextEntity().get());
+    }
+  }
+
+  @Test
+  public void testQueryThenModify(@Schema(classicmodels.class) final Transaction transaction) throws ExecutionException, InterruptedException, IOException, SQLException {
+    final CompletableFuture<RowIterator<data.CHAR>> query = selectTerritory(transaction, 1);
+    final classicmodels.Office o = classicmodels.Office();
+    final CompletableFuture<Integer> update =
+      UPDATE(o).
+      SET(o.territory, "B").
+      WHERE(EQ(o.officeCode, 1))
+        .executeAsync(transaction);
+
+    try (final RowIterator<data.CHAR> rows = query.get()) {
+      // The modify does not start on the connection while the result of the query is open
+      try {
+        update.get(200, TimeUnit.MILLISECONDS);
+        fail("Expected TimeoutException");
+      }
+      catch (final TimeoutException e) {
+      }
+
+      assertTrue(rows.nextRow());
+      assertNotEquals("B", rows.nextEntity().get());
+      assertFalse(rows.nextRow());
+    }
+
+    assertEquals(1, update.get().intValue());
+  }
+
+  @Test
+  public void testRollback(@Schema(classicmodels.class) final Transaction transaction) throws ExecutionException, InterruptedException, IOException, SQLException {
+    final String territory;
+    try (final RowIterator<data.CHAR> rows = selectTerritory(transaction, 1).get()) {
+      assertTrue(rows.nextRow());
+      territory = rows.nextEntity().get();
+    }
+
+    final classicmodels.Office o = classicmodels.Office();
+    final CompletableFuture<Integer> update =
+      UPDATE(o).
+      SET(o.territory, "C").
+      WHERE(EQ(o.officeCode, 1))
+        .executeAsync(transaction);
+
+    // The rollback waits for the update to finish, whereby the update is rolled back
+    transaction.rollback();
+    assertTrue(update.isDone());
+    assertEquals(1, update.get().intValue());
+
+    try (final RowIterator<data.CHAR> rows = selectTerritory(transaction, 1).get()) {
+      assertTrue(rows.nextRow());
+      assertEquals(territory, rows.nextEntity().get());
+    }
+  }
+
+  @Test
+  public void testFailure(@Schema(classicmodels.class) final Transaction transaction) throws InterruptedException {
+    final classicmodels.Office o = classicmodels.Office();
+    final CompletableFuture<Integer> future =
+      INSERT(o).
+      VALUES(SELECT(o).FROM(o))
+        .executeAsync(transaction);
+
+    try {
+      future.get();
+      fail("Expected ExecutionException");
+    }
+    catch (final ExecutionException e) {
+      assertTrue(e.getCause() instanceof SQLException);
+    }
+  }
+}
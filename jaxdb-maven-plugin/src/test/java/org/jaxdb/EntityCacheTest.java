@@ -0,0 +1,208 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+
+package org.jaxdb;
+
+import static org.jaxdb.jsql.DML.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+
+import org.jaxdb.jsql.CacheStatistics;
+import org.jaxdb.jsql.Execution;
+import org.jaxdb.jsql.ExecutionListener;
+import org.jaxdb.jsql.Registry;
+import org.jaxdb.jsql.RowIterator;
+import org.jaxdb.jsql.Transaction;
+import org.jaxdb.jsql.world;
+import org.jaxdb.runner.Derby;
+import org.jaxdb.runner.MySQL;
+import org.jaxdb.runner.Oracle;
+import org.jaxdb.runner.PostgreSQL;
+import org.jaxdb.runner.SQLite;
+import org.jaxdb.runner.VendorSchemaRunner;
+import org.jaxdb.runner.VendorSchemaRunner.Schema;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(VendorSchemaRunner.class)
+public abstract class EntityCacheTest {
+  @VendorSchemaRunner.Vendor(value=Derby.class, parallel=2)
+  @VendorSchemaRunner.Vendor(SQLite.class)
+  public static class IntegrationTest extends EntityCacheTest {
+  }
+
+  @VendorSchemaRunner.Vendor(MySQL.class)
+  @VendorSchemaRunner.Vendor(PostgreSQL.class)
+  @VendorSchemaRunner.Vendor(Oracle.class)
+  public static class RegressionTest extends EntityCacheTest {
+  }
+
+  private static world.Country selectCountry(final Transaction transaction, final String code) throws IOException, SQLException {
+    final world.Country c = new world.Country();
+    c.code.set(code);
+    try (final RowIterator<world.Country> rows =
+      SELECT(c)
+        .execute(transaction)) {
+      assertTrue(rows.nextRow());
+      final world.Country country = rows.nextEntity();
+      assertFalse(rows.nextRow());
+      return country;
+    }
+  }
+
+  private static void touchCountry(final Transaction transaction, final String code) throws IOException, SQLException {
+    final world.Country c = world.Country();
+    assertEquals(1,
+      UPDATE(c).
+      SET(c.name, c.name).
+      WHERE(EQ(c.code, code))
+        .execute(transaction));
+  }
+
+  private static CacheStatistics enableEntityCache(final int maxSize) {
+    Registry.threadLocal().enableEntityCache(world.class, maxSize);
+    final CacheStatistics statistics = Registry.threadLocal().getEntityCacheStatistics(world.class);
+    assertNotNull(statistics);
+    return statistics;
+  }
+
+  @Test
+  public void testHit(@Schema(world.class) final Transaction transaction) throws IOException, SQLException {
+    final CacheStatistics statistics = enableEntityCache(16);
+    final ArrayList<Execution> executions = new ArrayList<>();
+    final ExecutionListener listener = executions::add;
+    Registry.threadLocal().addExecutionListener(listener);
+    try {
+      final world.Country country = selectCountry(transaction, "NLD");
+      assertEquals("Netherlands", country.name.get());
+      assertEquals(1, executions.size());
+
+      // The cached entity is returned as a copy, without a round trip to the database
+      final world.Country cached = selectCountry(transaction, "NLD");
+      assertNotSame(country, cached);
+      assertEquals(country.name.get(), cached.name.get());
+      assertEquals(country.population.get(), cached.population.get());
+      assertEquals(1, executions.size());
+
+      assertEquals(1, statistics.getMissCount());
+      assertEquals(1, statistics.getHitCount());
+      assertEquals(2, statistics.getRequestCount());
+      assertEquals(0.5, statistics.getHitRate(), 0);
+    }
+    finally {
+      assertTrue(Registry.threadLocal().removeExecutionListener(listener));
+    }
+  }
+
+  @Test
+  public void testMaxSize(@Schema(world.class) final Transaction transaction) throws IOException, SQLException {
+    final CacheStatistics statistics = enableEntityCache(1);
+    selectCountry(transaction, "NLD");
+    selectCountry(transaction, "USA");
+    assertEquals(1, statistics.getEvictionCount());
+
+    selectCountry(transaction, "USA");
+    assertEquals(1, statistics.getHitCount());
+
+    selectCountry(transaction, "NLD");
+    assertEquals(3, statistics.getMissCount());
+    assertEquals(2, statistics.getEvictionCount());
+  }
+
+  @Test
+  public void testAutoCommit(@Schema(world.class) final Transaction transaction) throws IOException, SQLException {
+    final CacheStatistics statistics = enableEntityCache(16);
+    selectCountry(null, "NLD");
+    selectCountry(null, "NLD");
+    assertEquals(1, statistics.getHitCount());
+
+    touchCountry(null, "NLD");
+
+    selectCountry(null, "NLD");
+    assertEquals(2, statistics.getMissCount());
+    assertEquals(1, statistics.getHitCount());
+  }
+
+  @Test
+  public void testCommit(@Schema(world.class) final Transaction transaction) throws IOException, SQLException {
+    final CacheStatistics statistics = enableEntityCache(16);
+    selectCountry(transaction, "NLD");
+    touchCountry(transaction, "NLD");
+
+    // The transaction that modified the table does not read its entities from the cache
+    selectCountry(transaction, "NLD");
+    assertEquals(0, statistics.getHitCount());
+
+    // The cached entity is not evicted until the transaction is committed
+    selectCountry(null, "NLD");
+    assertEquals(1, statistics.getHitCount());
+
+    transaction.commit();
+
+    selectCountry(null, "NLD");
+    assertEquals(2, statistics.getMissCount());
+    assertEquals(1, statistics.getHitCount());
+  }
+
+  @Test
+  public void testRollback(@Schema(world.class) final Transaction transaction) throws IOException, SQLException {
+    final CacheStatistics statistics = enableEntityCache(16);
+    selectCountry(transaction, "NLD");
+    touchCountry(transaction, "NLD");
+    transaction.rollback();
+
+    // The invalidation of the rolled back transaction is dropped
+    selectCountry(null, "NLD");
+    assertEquals(1, statistics.getMissCount());
+    assertEquals(1, statistics.getHitCount());
+  }
+
+  @Test
+  public void testGeneration(@Schema(world.class) final Transaction transaction) throws IOException, SQLException {
+    final CacheStatistics statistics = enableEntityCache(16);
+    final world.Country c = world.Country();
+    try (final RowIterator<world.Country> rows =
+      SELECT(c).
+      FROM(c).
+      WHERE(EQ(c.code, "NLD"))
+        .execute(transaction)) {
+      // Invalidate the cache after the query is started, but before its row is read
+      touchCountry(transaction, "NLD");
+      transaction.commit();
+
+      assertTrue(rows.nextRow());
+      assertEquals("NLD", rows.nextEntity().code.get());
+    }
+
+    // The row read by the query that was started before the invalidation is not cached
+    selectCountry(null, "NLD");
+    assertEquals(1, statistics.getMissCount());
+    assertEquals(0, statistics.getHitCount());
+
+    selectCountry(null, "NLD");
+    assertEquals(1, statistics.getHitCount());
+  }
+
+  @Test
+  public void testDisabled(@Schema(world.class) final Transaction transaction) throws IOException, SQLException {
+    selectCountry(transaction, "NLD");
+    assertNull(Registry.threadLocal().getEntityCacheStatistics(world.class));
+  }
+}
@@ -0,0 +1,146 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+
+package org.jaxdb;
+
+import static org.jaxdb.jsql.DML.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+
+import org.jaxdb.jsql.Batch;
+import org.jaxdb.jsql.Execution;
+import org.jaxdb.jsql.ExecutionListener;
+import org.jaxdb.jsql.Registry;
+import org.jaxdb.jsql.RowIterator;
+import org.jaxdb.jsql.Transaction;
+import org.jaxdb.jsql.classicmodels;
+import org.jaxdb.runner.Derby;
+import org.jaxdb.runner.MySQL;
+import org.jaxdb.runner.Oracle;
+import org.jaxdb.runner.PostgreSQL;
+import org.jaxdb.runner.SQLite;
+import org.jaxdb.runner.VendorSchemaRunner;
+import org.jaxdb.runner.VendorSchemaRunner.Schema;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(VendorSchemaRunner.class)
+public abstract class ExecutionListenerTest {
+  @VendorSchemaRunner.Vendor(value=Derby.class, parallel=2)
+  @VendorSchemaRunner.Vendor(SQLite.class)
+  public static class IntegrationTest extends ExecutionListenerTest {
+  }
+
+  @VendorSchemaRunner.Vendor(MySQL.class)
+  @VendorSchemaRunner.Vendor(PostgreSQL.class)
+  @VendorSchemaRunner.Vendor(Oracle.class)
+  public static class RegressionTest extends ExecutionListenerTest {
+  }
+
+  private static void assertExecution(final Execution execution, final Execution.Type type, final long rowCount) {
+    assertEquals(type, execution.getType());
+    assertEquals(classicmodels.class, execution.getSchema());
+    assertNull(execution.getDataSourceId());
+    assertNotNull(execution.getSql());
+    assertNull(execution.getException());
+    assertEquals(rowCount, execution.getRowCount());
+    assertTrue(execution.getExecuteNanos() > 0);
+    assertEquals(execution.getCompileNanos() + execution.getConnectNanos() + execution.getPrepareNanos() + execution.getExecuteNanos() + execution.getFetchNanos(), execution.getTotalNanos());
+  }
+
+  @Test
+  public void testSelect(@Schema(classicmodels.class) final Transaction transaction) throws IOException, SQLException {
+    final ArrayList<Execution> executions = new ArrayList<>();
+    final ExecutionListener listener = executions::add;
+    Registry.threadLocal().addExecutionListener(listener);
+    try {
+      final classicmodels.Office o = classicmodels.Office();
+      try (final RowIterator<classicmodels.Office> rows =
+        SELECT(o).
+        FROM(o).
+        WHERE(EQ(o.territory, "EMEA"))
+          .execute(transaction)) {
+        assertTrue(rows.nextRow());
+        assertTrue(rows.nextRow());
+        assertFalse(rows.nextRow());
+        // The execution is reported when the RowIterator is closed
+        assertEquals(0, executions.size());
+      }
+
+      assertEquals(1, executions.size());
+      final Execution execution = executions.get(0);
+      assertExecution(execution, Execution.Type.SELECT, 2);
+      assertEquals(1, execution.getParameterCount());
+      assertTrue(execution.getFetchNanos() > 0);
+    }
+    finally {
+      assertTrue(Registry.threadLocal().removeExecutionListener(listener));
+    }
+  }
+
+  @Test
+  public void testUpdate(@Schema(classicmodels.class) final Transaction transaction) throws IOException, SQLException {
+    final ArrayList<Execution> executions = new ArrayList<>();
+    final ExecutionListener listener = executions::add;
+    Registry.threadLocal().addExecutionListener(listener);
+    try {
+      final classicmodels.Office o = classicmodels.Office();
+      assertEquals(2,
+        UPDATE(o).
+        SET(o.territory, "EMEA").
+        WHERE(EQ(o.territory, "EMEA"))
+          .execute(transaction));
+
+      assertEquals(1, executions.size());
+      assertExecution(executions.get(0), Execution.Type.UPDATE, 2);
+    }
+    finally {
+      assertTrue(Registry.threadLocal().removeExecutionListener(listener));
+    }
+  }
+
+  @Test
+  public void testBatch(@Schema(classicmodels.class) final Transaction transaction) throws IOException, SQLException {
+    final ArrayList<Execution> executions = new ArrayList<>();
+    final ExecutionListener listener = executions::add;
+    Registry.threadLocal().addExecutionListener(listener);
+    try (final Batch batch = new Batch()) {
+      final classicmodels.Office o = classicmodels.Office();
+      batch.addStatement(
+        UPDATE(o).
+        SET(o.territory, "EMEA").
+        WHERE(EQ(o.territory, "EMEA")));
+      batch.addStatement(
+        UPDATE(o).
+        SET(o.territory, "APAC").
+        WHERE(EQ(o.territory, "APAC")));
+
+      batch.execute(transaction);
+      assertEquals(1, executions.size());
+      final Execution execution = executions.get(0);
+      assertEquals(Execution.Type.BATCH, execution.getType());
+      assertTrue(execution.getParameterCount() > 0);
+      assertTrue(execution.getSql().contains(";\n"));
+    }
+    finally {
+      assertTrue(Registry.threadLocal().removeExecutionListener(listener));
+    }
+  }
+}
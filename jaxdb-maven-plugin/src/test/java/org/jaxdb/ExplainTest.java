@@ -0,0 +1,75 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+
+package org.jaxdb;
+
+import static org.jaxdb.jsql.DML.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.jaxdb.jsql.QueryPlan;
+import org.jaxdb.jsql.Transaction;
+import org.jaxdb.jsql.classicmodels;
+import org.jaxdb.runner.Derby;
+import org.jaxdb.runner.SQLite;
+import org.jaxdb.runner.VendorSchemaRunner;
+import org.jaxdb.runner.VendorSchemaRunner.Schema;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(VendorSchemaRunner.class)
+public abstract class ExplainTest {
+  @VendorSchemaRunner.Vendor(value=Derby.class, parallel=2)
+  @VendorSchemaRunner.Vendor(SQLite.class)
+  public static class IntegrationTest extends ExplainTest {
+  }
+
+  private static QueryPlan.Node getScan(final QueryPlan plan) {
+    final List<QueryPlan.Node> scans = plan.getScans();
+    assertEquals(plan.toString(), 1, scans.size());
+    return scans.get(0);
+  }
+
+  @Test
+  public void testPrimaryKey(@Schema(classicmodels.class) final Transaction transaction) throws IOException, SQLException {
+    final classicmodels.Office o = classicmodels.Office();
+    final QueryPlan plan =
+      SELECT(o).
+      FROM(o).
+      WHERE(EQ(o.officeCode, 1))
+        .explain(transaction);
+
+    final QueryPlan.Node scan = getScan(plan);
+    assertNotEquals(plan.toString(), QueryPlan.ScanType.TABLE_SCAN, scan.getScanType());
+    assertNotNull(plan.toString(), scan.getIndex());
+  }
+
+  @Test
+  public void testTableScan(@Schema(classicmodels.class) final Transaction transaction) throws IOException, SQLException {
+    final classicmodels.Office o = classicmodels.Office();
+    final QueryPlan plan =
+      SELECT(o).
+      FROM(o).
+      WHERE(EQ(o.territory, "EMEA"))
+        .explain(transaction);
+
+    assertEquals(plan.toString(), QueryPlan.ScanType.TABLE_SCAN, getScan(plan).getScanType());
+  }
+}
@@ -0,0 +1,142 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+
+package org.jaxdb;
+
+import static org.jaxdb.jsql.DML.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import org.jaxdb.jsql.RowIterator;
+import org.jaxdb.jsql.Transaction;
+import org.jaxdb.jsql.classicmodels;
+import org.jaxdb.runner.Derby;
+import org.jaxdb.runner.MySQL;
+import org.jaxdb.runner.Oracle;
+import org.jaxdb.runner.PostgreSQL;
+import org.jaxdb.runner.SQLite;
+import org.jaxdb.runner.VendorSchemaRunner;
+import org.jaxdb.runner.VendorSchemaRunner.Schema;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(VendorSchemaRunner.class)
+public abstract class IdentityMapTest {
+  @VendorSchemaRunner.Vendor(value=Derby.class, parallel=2)
+  @VendorSchemaRunner.Vendor(SQLite.class)
+  public static class IntegrationTest extends IdentityMapTest {
+  }
+
+  @VendorSchemaRunner.Vendor(MySQL.class)
+  @VendorSchemaRunner.Vendor(PostgreSQL.class)
+  @VendorSchemaRunner.Vendor(Oracle.class)
+  public static class RegressionTest extends IdentityMapTest {
+  }
+
+  private static classicmodels.Office selectOffice(final Transaction transaction, final int officeCode) throws IOException, SQLException {
+    final classicmodels.Office o = new classicmodels.Office();
+    o.officeCode.set(officeCode);
+    try (final RowIterator<classicmodels.Office> rows =
+      SELECT(o)
+        .execute(transaction)) {
+      assertTrue(rows.nextRow());
+      final classicmodels.Office office = rows.nextEntity();
+      assertFalse(rows.nextRow());
+      return office;
+    }
+  }
+
+  @Test
+  public void testPrimaryKeyLookup(@Schema(classicmodels.class) final Transaction transaction) throws IOException, SQLException {
+    transaction.setIdentityMap(true);
+    final classicmodels.Office office = selectOffice(transaction, 1);
+    assertEquals("100 Market Street", office.address1.get());
+    assertSame(office, selectOffice(transaction, 1));
+    assertNotSame(office, selectOffice(transaction, 2));
+  }
+
+  @Test
+  public void testOneInstancePerRow(@Schema(classicmodels.class) final Transaction transaction) throws IOException, SQLException {
+    transaction.setIdentityMap(true);
+    final classicmodels.Office office = selectOffice(transaction, 1);
+    final classicmodels.Office o = classicmodels.Office();
+    try (final RowIterator<classicmodels.Office> rows =
+      SELECT(o).
+      FROM(o).
+      WHERE(EQ(o.officeCode, 1))
+        .execute(transaction)) {
+      assertTrue(rows.nextRow());
+      assertSame(office, rows.nextEntity());
+    }
+  }
+
+  @Test
+  public void testDisabled(@Schema(classicmodels.class) final Transaction transaction) throws IOException, SQLException {
+    assertNotSame(selectOffice(transaction, 1), selectOffice(transaction, 1));
+  }
+
+  @Test
+  public void testUpdate(@Schema(classicmodels.class) final Transaction transaction) throws IOException, SQLException {
+    transaction.setIdentityMap(true);
+    final classicmodels.Office office = selectOffice(transaction, 1);
+    office.territory.set("IM");
+    UPDATE(office)
+      .execute(transaction);
+
+    assertSame(office, selectOffice(transaction, 1));
+
+    final classicmodels.Office o = classicmodels.Office();
+    UPDATE(o).
+    SET(o.territory, "WH").
+    WHERE(EQ(o.officeCode, 1))
+      .execute(transaction);
+
+    final classicmodels.Office updated = selectOffice(transaction, 1);
+    assertNotSame(office, updated);
+    assertEquals("WH", updated.territory.get());
+  }
+
+  @Test
+  public void testPartialUpdate(@Schema(classicmodels.class) final Transaction transaction) throws IOException, SQLException {
+    transaction.setIdentityMap(true);
+    final classicmodels.Office cached = selectOffice(transaction, 1);
+
+    // Only the set columns are written, whereby the other columns of the updated instance are not known
+    final classicmodels.Office office = new classicmodels.Office();
+    office.officeCode.set(1);
+    office.territory.set("IM");
+    UPDATE(office)
+      .execute(transaction);
+
+    final classicmodels.Office updated = selectOffice(transaction, 1);
+    assertNotSame(office, updated);
+    assertNotSame(cached, updated);
+    assertEquals("100 Market Street", updated.address1.get());
+    assertEquals("IM", updated.territory.get());
+    assertSame(updated, selectOffice(transaction, 1));
+  }
+
+  @Test
+  public void testRollback(@Schema(classicmodels.class) final Transaction transaction) throws IOException, SQLException {
+    transaction.setIdentityMap(true);
+    final classicmodels.Office office = selectOffice(transaction, 1);
+    transaction.rollback();
+    assertNotSame(office, selectOffice(transaction, 1));
+  }
+}
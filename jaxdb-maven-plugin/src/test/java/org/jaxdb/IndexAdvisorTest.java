@@ -0,0 +1,143 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+
+package org.jaxdb;
+
+import static org.jaxdb.jsql.DML.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.jaxdb.jsql.IndexAdvisor;
+import org.jaxdb.jsql.Registry;
+import org.jaxdb.jsql.RowIterator;
+import org.jaxdb.jsql.Transaction;
+import org.jaxdb.jsql.classicmodels;
+import org.jaxdb.runner.Derby;
+import org.jaxdb.runner.MySQL;
+import org.jaxdb.runner.Oracle;
+import org.jaxdb.runner.PostgreSQL;
+import org.jaxdb.runner.SQLite;
+import org.jaxdb.runner.VendorSchemaRunner;
+import org.jaxdb.runner.VendorSchemaRunner.Schema;
+import org.jaxdb.www.ddlx_0_5.xLygluGCXAA;
+import org.jaxsb.runtime.Bindings;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+@RunWith(VendorSchemaRunner.class)
+public abstract class IndexAdvisorTest {
+  @VendorSchemaRunner.Vendor(value=Derby.class, parallel=2)
+  @VendorSchemaRunner.Vendor(SQLite.class)
+  public static class IntegrationTest extends IndexAdvisorTest {
+  }
+
+  @VendorSchemaRunner.Vendor(MySQL.class)
+  @VendorSchemaRunner.Vendor(PostgreSQL.class)
+  @VendorSchemaRunner.Vendor(Oracle.class)
+  public static class RegressionTest extends IndexAdvisorTest {
+  }
+
+  private static xLygluGCXAA.Schema parseSchema() throws IOException, SAXException {
+    try (final InputStream in = ClassLoader.getSystemClassLoader().getResourceAsStream("classicmodels.ddlx")) {
+      return (xLygluGCXAA.Schema)Bindings.parse(new InputSource(in));
+    }
+  }
+
+  private static IndexAdvisor.Recommendation find(final List<IndexAdvisor.Recommendation> recommendations, final IndexAdvisor.Recommendation.Kind kind, final String table, final String ... columns) {
+    for (final IndexAdvisor.Recommendation recommendation : recommendations)
+      if (recommendation.getKind() == kind && table.equals(recommendation.getTable()) && Arrays.asList(columns).equals(recommendation.getColumns()))
+        return recommendation;
+
+    return null;
+  }
+
+  private static void execute(final Transaction transaction, final classicmodels.Customer c) throws IOException, SQLException {
+    try (final RowIterator<classicmodels.Customer> rows =
+      SELECT(c).
+      FROM(c).
+      WHERE(AND(EQ(c.companyName, "Atelier graphique"), LTE(c.creditLimit, 329939933L))).
+      ORDER_BY(c.creditLimit)
+        .execute(transaction)) {
+      while (rows.nextRow());
+    }
+  }
+
+  @Test
+  public void testReport(@Schema(classicmodels.class) final Transaction transaction) throws IOException, SAXException, SQLException {
+    final IndexAdvisor advisor = new IndexAdvisor();
+    Registry.threadLocal().setIndexAdvisor(advisor);
+    try {
+      final classicmodels.Customer c = classicmodels.Customer();
+      execute(transaction, c);
+      execute(transaction, c);
+
+      final classicmodels.Employee e = classicmodels.Employee();
+      final classicmodels.Office o = classicmodels.Office();
+      try (final RowIterator<classicmodels.Employee> rows =
+        SELECT(e).
+        FROM(e).
+        JOIN(o).ON(EQ(e.officeCode, o.officeCode)).
+        WHERE(EQ(o.territory, "EMEA"))
+          .execute(transaction)) {
+        while (rows.nextRow());
+      }
+    }
+    finally {
+      Registry.threadLocal().setIndexAdvisor(null);
+    }
+
+    final List<IndexAdvisor.Recommendation> recommendations = advisor.report(parseSchema());
+
+    final IndexAdvisor.Recommendation creditLimit = find(recommendations, IndexAdvisor.Recommendation.Kind.MISSING, "customer", "credit_limit");
+    assertNotNull(recommendations.toString(), creditLimit);
+    assertEquals(2, creditLimit.getCount(IndexAdvisor.Clause.WHERE));
+    assertEquals(2, creditLimit.getCount(IndexAdvisor.Clause.ORDER_BY));
+    assertEquals(4, creditLimit.getCount());
+    assertEquals(creditLimit, recommendations.get(0));
+    assertEquals("<index>\n  <column name=\"credit_limit\"/>\n</index>", creditLimit.getSnippet());
+
+    assertNotNull(recommendations.toString(), find(recommendations, IndexAdvisor.Recommendation.Kind.MISSING, "customer", "company_name"));
+
+    final IndexAdvisor.Recommendation officeCode = find(recommendations, IndexAdvisor.Recommendation.Kind.MISSING, "employee", "office_code");
+    assertNotNull(recommendations.toString(), officeCode);
+    assertEquals(1, officeCode.getCount(IndexAdvisor.Clause.JOIN));
+    assertNotNull(recommendations.toString(), find(recommendations, IndexAdvisor.Recommendation.Kind.MISSING, "office", "territory"));
+
+    // The primary key of office covers the join column
+    assertNull(recommendations.toString(), find(recommendations, IndexAdvisor.Recommendation.Kind.MISSING, "office", "office_code"));
+
+    final IndexAdvisor.Recommendation lastName = find(recommendations, IndexAdvisor.Recommendation.Kind.UNUSED, "customer", "last_name");
+    assertNotNull(recommendations.toString(), lastName);
+    assertEquals(2, lastName.getCount());
+    assertNull(lastName.getSnippet());
+    assertNotNull(recommendations.toString(), find(recommendations, IndexAdvisor.Recommendation.Kind.UNUSED, "employee", "last_name"));
+
+    // Tables that have not been observed are not reported
+    assertNull(recommendations.toString(), find(recommendations, IndexAdvisor.Recommendation.Kind.UNUSED, "product", "name"));
+
+    advisor.reset();
+    assertEquals(Collections.emptyList(), advisor.report(parseSchema()));
+  }
+}
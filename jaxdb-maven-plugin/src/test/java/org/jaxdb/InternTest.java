@@ -0,0 +1,86 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+
+package org.jaxdb;
+
+import static org.jaxdb.jsql.DML.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.HashMap;
+
+import org.jaxdb.jsql.RowIterator;
+import org.jaxdb.jsql.Transaction;
+import org.jaxdb.jsql.world;
+import org.jaxdb.runner.Derby;
+import org.jaxdb.runner.MySQL;
+import org.jaxdb.runner.Oracle;
+import org.jaxdb.runner.PostgreSQL;
+import org.jaxdb.runner.SQLite;
+import org.jaxdb.runner.VendorSchemaRunner;
+import org.jaxdb.runner.VendorSchemaRunner.Schema;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(VendorSchemaRunner.class)
+public abstract class InternTest {
+  @VendorSchemaRunner.Vendor(value=Derby.class, parallel=2)
+  @VendorSchemaRunner.Vendor(SQLite.class)
+  public static class IntegrationTest extends InternTest {
+  }
+
+  @VendorSchemaRunner.Vendor(MySQL.class)
+  @VendorSchemaRunner.Vendor(PostgreSQL.class)
+  @VendorSchemaRunner.Vendor(Oracle.class)
+  public static class RegressionTest extends InternTest {
+  }
+
+  @Test
+  public void testIntern(@Schema(world.class) final Transaction transaction) throws IOException, SQLException {
+    final HashMap<String,String> regions = new HashMap<>();
+    final HashMap<String,String> governmentForms = new HashMap<>();
+    int internedDuplicates = 0;
+    int distinctDuplicates = 0;
+    final world.Country c = world.Country();
+    try (final RowIterator<world.Country> rows =
+      SELECT(c).
+      FROM(c)
+        .execute(transaction)) {
+      while (rows.nextRow()) {
+        final world.Country country = rows.nextEntity();
+
+        // country.region is declared with jsql:intern="true"
+        final String region = country.region.get();
+        final String firstRegion = regions.putIfAbsent(region, region);
+        if (firstRegion != null) {
+          assertSame(firstRegion, region);
+          ++internedDuplicates;
+        }
+
+        // country.government_form is declared without jsql:intern
+        final String governmentForm = country.governmentForm.get();
+        final String firstGovernmentForm = governmentForms.putIfAbsent(governmentForm, governmentForm);
+        if (firstGovernmentForm != null && firstGovernmentForm != governmentForm)
+          ++distinctDuplicates;
+      }
+    }
+
+    assertTrue(internedDuplicates > 0);
+    assertTrue(distinctDuplicates > 0);
+  }
+}
@@ -0,0 +1,114 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+
+package org.jaxdb;
+
+import static org.jaxdb.jsql.DML.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import org.jaxdb.jsql.DML.IS;
+import org.jaxdb.jsql.RowIterator;
+import org.jaxdb.jsql.Transaction;
+import org.jaxdb.jsql.types;
+import org.jaxdb.runner.Derby;
+import org.jaxdb.runner.MySQL;
+import org.jaxdb.runner.Oracle;
+import org.jaxdb.runner.PostgreSQL;
+import org.jaxdb.runner.SQLite;
+import org.jaxdb.runner.VendorSchemaRunner;
+import org.jaxdb.runner.VendorSchemaRunner.Schema;
+import org.jaxdb.vendor.DBVendor;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Round trips of {@code DATE}, {@code TIME} and {@code DATETIME} values. The
+ * values are bound and read via the JDBC 4.2 {@code java.time} mapping for
+ * MySQL and PostgreSQL, and via {@link java.sql.Date} and
+ * {@link java.sql.Timestamp} for the other vendors.
+ */
+@RunWith(VendorSchemaRunner.class)
+public abstract class JavaTimeTest {
+  @VendorSchemaRunner.Vendor(value=Derby.class, parallel=2)
+  @VendorSchemaRunner.Vendor(SQLite.class)
+  public static class IntegrationTest extends JavaTimeTest {
+  }
+
+  @VendorSchemaRunner.Vendor(MySQL.class)
+  @VendorSchemaRunner.Vendor(PostgreSQL.class)
+  @VendorSchemaRunner.Vendor(Oracle.class)
+  public static class RegressionTest extends JavaTimeTest {
+  }
+
+  private static boolean hasFractionalTime(final Transaction transaction) {
+    final DBVendor vendor = transaction.getVendor();
+    return vendor == DBVendor.MY_SQL || vendor == DBVendor.POSTGRE_SQL;
+  }
+
+  private static void assertRoundTrip(final Transaction transaction, final LocalDate date, final LocalDateTime dateTime, final LocalTime time) throws IOException, SQLException {
+    final types.Type t = new types.Type();
+    t.dateType.set(date);
+    t.datetimeType.set(dateTime);
+    t.timeType.set(time);
+    assertEquals(1,
+      INSERT(t)
+        .execute(transaction));
+
+    final types.Type r = types.Type();
+    try (final RowIterator<types.Type> rows =
+      SELECT(r).
+      FROM(r).
+      WHERE(AND(
+        EQ(r.id, t.id.getAsInt()),
+        date != null ? EQ(r.dateType, date) : IS.NULL(r.dateType),
+        dateTime != null ? EQ(r.datetimeType, dateTime) : IS.NULL(r.datetimeType)))
+          .execute(transaction)) {
+      assertTrue(rows.nextRow());
+      final types.Type row = rows.nextEntity();
+      assertEquals(date, row.dateType.get());
+      assertEquals(dateTime, row.datetimeType.get());
+      assertEquals(time, row.timeType.get());
+      assertFalse(rows.nextRow());
+    }
+  }
+
+  @Test
+  public void testNull(@Schema(types.class) final Transaction transaction) throws IOException, SQLException {
+    assertRoundTrip(transaction, null, null, null);
+  }
+
+  @Test
+  public void testBoundaries(@Schema(types.class) final Transaction transaction) throws IOException, SQLException {
+    assertRoundTrip(transaction, LocalDate.of(1000, 1, 1), LocalDateTime.of(1000, 1, 1, 0, 0), LocalTime.MIDNIGHT);
+    assertRoundTrip(transaction, LocalDate.of(1970, 1, 1), LocalDateTime.of(1970, 1, 1, 0, 0), LocalTime.NOON);
+    assertRoundTrip(transaction, LocalDate.of(9999, 12, 31), LocalDateTime.of(9999, 12, 31, 23, 59, 59), LocalTime.of(23, 59, 59));
+  }
+
+  @Test
+  public void testFractionalSeconds(@Schema(types.class) final Transaction transaction) throws IOException, SQLException {
+    final LocalTime time = hasFractionalTime(transaction) ? LocalTime.of(23, 59, 59, 999_999_000) : LocalTime.of(23, 59, 59);
+    assertRoundTrip(transaction, LocalDate.of(2020, 2, 29), LocalDateTime.of(2020, 2, 29, 12, 34, 56, 123_456_000), time);
+    assertRoundTrip(transaction, LocalDate.of(2020, 2, 29), LocalDateTime.of(9999, 12, 31, 23, 59, 59, 999_999_000), time);
+    assertRoundTrip(transaction, LocalDate.of(2020, 2, 29), LocalDateTime.of(2020, 2, 29, 0, 0, 0, 1_000), time);
+  }
+}
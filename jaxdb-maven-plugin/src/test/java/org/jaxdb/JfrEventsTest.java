@@ -0,0 +1,120 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+
+package org.jaxdb;
+
+import static org.jaxdb.jsql.DML.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.jaxdb.jsql.RowIterator;
+import org.jaxdb.jsql.Transaction;
+import org.jaxdb.jsql.classicmodels;
+import org.jaxdb.runner.Derby;
+import org.jaxdb.runner.MySQL;
+import org.jaxdb.runner.Oracle;
+import org.jaxdb.runner.PostgreSQL;
+import org.jaxdb.runner.SQLite;
+import org.jaxdb.runner.VendorSchemaRunner;
+import org.jaxdb.runner.VendorSchemaRunner.Schema;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+@RunWith(VendorSchemaRunner.class)
+public abstract class JfrEventsTest {
+  @VendorSchemaRunner.Vendor(value=Derby.class, parallel=2)
+  @VendorSchemaRunner.Vendor(SQLite.class)
+  public static class IntegrationTest extends JfrEventsTest {
+  }
+
+  @VendorSchemaRunner.Vendor(MySQL.class)
+  @VendorSchemaRunner.Vendor(PostgreSQL.class)
+  @VendorSchemaRunner.Vendor(Oracle.class)
+  public static class RegressionTest extends JfrEventsTest {
+  }
+
+  private static Recording start(final String ... names) {
+    final Recording recording = new Recording();
+    for (final String name : names)
+      recording.enable(name).withoutThreshold();
+
+    recording.start();
+    return recording;
+  }
+
+  private static List<RecordedEvent> stop(final Recording recording) throws IOException {
+    recording.stop();
+    final Path file = Files.createTempFile("jsql", ".jfr");
+    try {
+      recording.dump(file);
+      return RecordingFile.readAllEvents(file);
+    }
+    finally {
+      recording.close();
+      Files.delete(file);
+    }
+  }
+
+  private static boolean hasEvent(final List<RecordedEvent> events, final String name, final String field, final long value) {
+    for (final RecordedEvent event : events)
+      if (name.equals(event.getEventType().getName()) && classicmodels.class.getName().equals(event.getString("schema")) && event.getLong(field) == value)
+        return true;
+
+    return false;
+  }
+
+  @Test
+  public void testSelect(@Schema(classicmodels.class) final Transaction transaction) throws IOException, SQLException {
+    final Recording recording = start("org.jaxdb.jsql.Compilation", "org.jaxdb.jsql.RowIterator");
+    final classicmodels.Office o = classicmodels.Office();
+    try (final RowIterator<classicmodels.Office> rows =
+      SELECT(o).
+      FROM(o).
+      WHERE(EQ(o.territory, "EMEA"))
+        .execute(transaction)) {
+      assertTrue(rows.nextRow());
+      assertTrue(rows.nextRow());
+      assertFalse(rows.nextRow());
+    }
+
+    final List<RecordedEvent> events = stop(recording);
+    assertTrue(hasEvent(events, "org.jaxdb.jsql.Compilation", "parameters", 1));
+    assertTrue(hasEvent(events, "org.jaxdb.jsql.RowIterator", "rows", 2));
+  }
+
+  @Test
+  public void testUpdate(@Schema(classicmodels.class) final Transaction transaction) throws IOException, SQLException {
+    final Recording recording = start("org.jaxdb.jsql.Statement");
+    final classicmodels.Office o = classicmodels.Office();
+    assertEquals(2,
+      UPDATE(o).
+      SET(o.territory, "EMEA").
+      WHERE(EQ(o.territory, "EMEA"))
+        .execute(transaction));
+
+    assertTrue(hasEvent(stop(recording), "org.jaxdb.jsql.Statement", "count", 2));
+  }
+}
@@ -0,0 +1,157 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb;
+
+import static org.jaxdb.jsql.DML.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.jaxdb.jsql.RowIterator;
+import org.jaxdb.jsql.Transaction;
+import org.jaxdb.jsql.classicmodels;
+import org.jaxdb.jsql.data;
+import org.jaxdb.runner.Derby;
+import org.jaxdb.runner.MySQL;
+import org.jaxdb.runner.Oracle;
+import org.jaxdb.runner.PostgreSQL;
+import org.jaxdb.runner.SQLite;
+import org.jaxdb.runner.VendorSchemaRunner;
+import org.jaxdb.runner.VendorSchemaRunner.Schema;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+@RunWith(VendorSchemaRunner.class)
+public abstract class PublisherTest {
+  @VendorSchemaRunner.Vendor(value=Derby.class, parallel=2)
+  @VendorSchemaRunner.Vendor(SQLite.class)
+  public static class IntegrationTest extends PublisherTest {
+  }
+
+  @VendorSchemaRunner.Vendor(MySQL.class)
+  @VendorSchemaRunner.Vendor(PostgreSQL.class)
+  @VendorSchemaRunner.Vendor(Oracle.class)
+  public static class RegressionTest extends PublisherTest {
+  }
+
+  private static class RowSubscriber implements Subscriber<data.Entity<?>[]> {
+    private final int batchSize;
+    private final int cancelAfter;
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    private final ArrayList<data.Entity<?>[]> rows = new ArrayList<>();
+    private Subscription subscription;
+    private volatile boolean completed;
+    private volatile Throwable error;
+
+    private RowSubscriber(final int batchSize, final int cancelAfter) {
+      this.batchSize = batchSize;
+      this.cancelAfter = cancelAfter;
+    }
+
+    @Override
+    public void onSubscribe(final Subscription subscription) {
+      this.subscription = subscription;
+      subscription.request(batchSize);
+    }
+
+    @Override
+    public void onNext(final data.Entity<?>[] row) {
+      rows.add(row);
+      if (rows.size() == cancelAfter) {
+        subscription.cancel();
+        terminated.countDown();
+      }
+      else if (rows.size() % batchSize == 0) {
+        subscription.request(batchSize);
+      }
+    }
+
+    @Override
+    public void onError(final Throwable t) {
+      error = t;
+      terminated.countDown();
+    }
+
+    @Override
+    public void onComplete() {
+      completed = true;
+      terminated.countDown();
+    }
+
+    private void await() throws InterruptedException {
+      assertTrue(terminated.await(10, TimeUnit.SECONDS));
+      assertNull(error);
+    }
+  }
+
+  private static int countOffices(final Transaction transaction) throws IOException, SQLException {
+    final classicmodels.Office o = classicmodels.Office();
+    try (final RowIterator<data.BIGINT> rows =
+      SELECT(COUNT(o)).
+      FROM(o)
+        .execute(transaction)) {
+      assertTrue(rows.nextRow());
+      return (int)rows.nextEntity().getAsLong();
+    }
+  }
+
+  @Test
+  public void testPublish(@Schema(classicmodels.class) final Transaction transaction) throws InterruptedException, IOException, SQLException {
+    final int count = countOffices(transaction);
+    final classicmodels.Office o = classicmodels.Office();
+    final RowSubscriber subscriber = new RowSubscriber(2, -1);
+    SELECT(o.officeCode, o.city).
+    FROM(o)
+      .executeAsPublisher(transaction)
+      .subscribe(subscriber);
+
+    subscriber.await();
+    assertTrue(subscriber.completed);
+    assertEquals(count, subscriber.rows.size());
+    for (final data.Entity<?>[] row : subscriber.rows) {
+      assertEquals(2, row.length);
+      assertNotNull(((data.INT)row[0]).get());
+    }
+  }
+
+  @Test
+  public void testCancel(@Schema(classicmodels.class) final Transaction transaction) throws ExecutionException, InterruptedException, SQLException, TimeoutException {
+    final classicmodels.Office o = classicmodels.Office();
+    final RowSubscriber subscriber = new RowSubscriber(2, 3);
+    SELECT(o).
+    FROM(o)
+      .executeAsPublisher(transaction)
+      .subscribe(subscriber);
+
+    subscriber.await();
+    assertFalse(subscriber.completed);
+    assertEquals(3, subscriber.rows.size());
+
+    // Asynchronous executions in the transaction proceed once the subscription is cancelled
+    try (final RowIterator<classicmodels.Office> rows = SELECT(o).FROM(o).executeAsync(transaction).get(10, TimeUnit.SECONDS)) {
+      assertTrue(rows.nextRow());
+    }
+  }
+}
@@ -0,0 +1,260 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+
+package org.jaxdb;
+
+import static org.jaxdb.jsql.DML.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.jaxdb.jsql.Condition;
+import org.jaxdb.jsql.Execution;
+import org.jaxdb.jsql.ExecutionListener;
+import org.jaxdb.jsql.Registry;
+import org.jaxdb.jsql.RowIterator;
+import org.jaxdb.jsql.Transaction;
+import org.jaxdb.jsql.world;
+import org.jaxdb.runner.Derby;
+import org.jaxdb.runner.MySQL;
+import org.jaxdb.runner.Oracle;
+import org.jaxdb.runner.PostgreSQL;
+import org.jaxdb.runner.SQLite;
+import org.jaxdb.runner.VendorSchemaRunner;
+import org.jaxdb.runner.VendorSchemaRunner.Schema;
+import org.jaxdb.vendor.DBVendor;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(VendorSchemaRunner.class)
+public abstract class ReferenceCacheTest {
+  @VendorSchemaRunner.Vendor(value=Derby.class, parallel=2)
+  @VendorSchemaRunner.Vendor(SQLite.class)
+  public static class IntegrationTest extends ReferenceCacheTest {
+  }
+
+  @VendorSchemaRunner.Vendor(MySQL.class)
+  @VendorSchemaRunner.Vendor(PostgreSQL.class)
+  @VendorSchemaRunner.Vendor(Oracle.class)
+  public static class RegressionTest extends ReferenceCacheTest {
+  }
+
+  private static List<String> selectCities(final Transaction transaction, final Function<world.City,Condition<?>> where) throws IOException, SQLException {
+    final world.City c = world.City();
+    final ArrayList<String> cities = new ArrayList<>();
+    try (final RowIterator<world.City> rows =
+      SELECT(c).
+      FROM(c).
+      WHERE(where.apply(c))
+        .execute(transaction)) {
+      while (rows.nextRow()) {
+        final world.City city = rows.nextEntity();
+        cities.add(city.id.get() + ":" + city.name.get() + ":" + city.population.get());
+      }
+    }
+
+    Collections.sort(cities);
+    return cities;
+  }
+
+  private static List<String> selectCountries(final Transaction transaction, final Function<world.Country,Condition<?>> where) throws IOException, SQLException {
+    final world.Country c = world.Country();
+    final ArrayList<String> countries = new ArrayList<>();
+    try (final RowIterator<world.Country> rows =
+      SELECT(c).
+      FROM(c).
+      WHERE(where.apply(c))
+        .execute(transaction)) {
+      while (rows.nextRow()) {
+        final world.Country country = rows.nextEntity();
+        countries.add(country.code.get() + ":" + country.name.get());
+      }
+    }
+
+    Collections.sort(countries);
+    return countries;
+  }
+
+  private static world.City selectCity(final Transaction transaction, final int id) throws IOException, SQLException {
+    final world.City c = world.City();
+    try (final RowIterator<world.City> rows =
+      SELECT(c).
+      FROM(c).
+      WHERE(EQ(c.id, id))
+        .execute(transaction)) {
+      assertTrue(rows.nextRow());
+      final world.City city = rows.nextEntity();
+      assertFalse(rows.nextRow());
+      return city;
+    }
+  }
+
+  private static world.Country selectCountry(final Transaction transaction, final String code) throws IOException, SQLException {
+    final world.Country c = world.Country();
+    try (final RowIterator<world.Country> rows =
+      SELECT(c).
+      FROM(c).
+      WHERE(EQ(c.code, code))
+        .execute(transaction)) {
+      assertTrue(rows.nextRow());
+      return rows.nextEntity();
+    }
+  }
+
+  private static void updatePopulation(final Transaction transaction, final int id, final long population) throws IOException, SQLException {
+    final world.City c = world.City();
+    assertEquals(1,
+      UPDATE(c).
+      SET(c.population, population).
+      WHERE(EQ(c.id, id))
+        .execute(transaction));
+
+    transaction.commit();
+  }
+
+  private static ExecutionListener addListener(final ArrayList<Execution> executions) {
+    final ExecutionListener listener = executions::add;
+    Registry.threadLocal().addExecutionListener(listener);
+    return listener;
+  }
+
+  @Test
+  public void testCity(@Schema(world.class) final Transaction transaction) throws IOException, SQLException {
+    final world.City city = selectCity(transaction, 5);
+    final boolean binaryCollation = transaction.getVendor() != DBVendor.MY_SQL && transaction.getVendor() != DBVendor.MARIA_DB;
+    final List<Function<world.City,Condition<?>>> conditions = new ArrayList<>();
+    // Primary key
+    conditions.add(c -> EQ(c.id, city.id.get()));
+    // Non-indexed BIGINT
+    conditions.add(c -> EQ(c.population, city.population.get()));
+    // Conjunction of primary key and non-indexed VARCHAR
+    conditions.add(c -> AND(EQ(c.id, city.id.get()), EQ(c.name, city.name.get())));
+    // Non-indexed VARCHAR, and with a different case
+    conditions.add(c -> EQ(c.name, city.name.get()));
+    conditions.add(c -> EQ(c.name, city.name.get().toUpperCase()));
+    // Non-indexed CHAR, with and without trailing blanks
+    conditions.add(c -> EQ(c.countryCode, city.countryCode.get()));
+    conditions.add(c -> EQ(c.countryCode, city.countryCode.get().substring(0, 2)));
+
+    final ArrayList<List<String>> expected = new ArrayList<>();
+    for (final Function<world.City,Condition<?>> condition : conditions)
+      expected.add(selectCities(transaction, condition));
+
+    Registry.threadLocal().enableReferenceCache(world.class, 1, TimeUnit.MINUTES);
+    final ArrayList<Execution> executions = new ArrayList<>();
+    final ExecutionListener listener = addListener(executions);
+    try {
+      final boolean[] inMemory = {true, true, binaryCollation, binaryCollation, binaryCollation, false, false};
+      for (int i = 0; i < conditions.size(); ++i) {
+        executions.clear();
+        assertEquals(String.valueOf(i), expected.get(i), selectCities(transaction, conditions.get(i)));
+        assertEquals(String.valueOf(i), inMemory[i] ? 0 : 1, executions.size());
+      }
+    }
+    finally {
+      assertTrue(Registry.threadLocal().removeExecutionListener(listener));
+    }
+  }
+
+  @Test
+  public void testCountry(@Schema(world.class) final Transaction transaction) throws IOException, SQLException {
+    final world.Country country = selectCountry(transaction, "NLD");
+    final boolean binaryCollation = transaction.getVendor() != DBVendor.MY_SQL && transaction.getVendor() != DBVendor.MARIA_DB;
+    final List<Function<world.Country,Condition<?>>> conditions = new ArrayList<>();
+    // Unique VARCHAR
+    conditions.add(c -> EQ(c.name, country.name.get()));
+    conditions.add(c -> EQ(c.name, country.name.get().toLowerCase()));
+    // Non-indexed ENUM
+    conditions.add(c -> EQ(c.continent, country.continent.get()));
+    // Conjunction of non-indexed ENUM and SMALLINT
+    conditions.add(c -> AND(EQ(c.continent, country.continent.get()), EQ(c.indepYear, country.indepYear.get())));
+    // Primary key of CHAR
+    conditions.add(c -> EQ(c.code, country.code.get()));
+
+    final ArrayList<List<String>> expected = new ArrayList<>();
+    for (final Function<world.Country,Condition<?>> condition : conditions)
+      expected.add(selectCountries(transaction, condition));
+
+    Registry.threadLocal().enableReferenceCache(world.class, 1, TimeUnit.MINUTES);
+    final ArrayList<Execution> executions = new ArrayList<>();
+    final ExecutionListener listener = addListener(executions);
+    try {
+      final boolean[] inMemory = {binaryCollation, binaryCollation, true, true, false};
+      for (int i = 0; i < conditions.size(); ++i) {
+        executions.clear();
+        assertEquals(String.valueOf(i), expected.get(i), selectCountries(transaction, conditions.get(i)));
+        assertEquals(String.valueOf(i), inMemory[i] ? 0 : 1, executions.size());
+      }
+    }
+    finally {
+      assertTrue(Registry.threadLocal().removeExecutionListener(listener));
+    }
+  }
+
+  @Test
+  public void testCommit(@Schema(world.class) final Transaction transaction) throws IOException, SQLException {
+    Registry.threadLocal().enableReferenceCache(world.class, 1, TimeUnit.MINUTES);
+    final long population = selectCity(transaction, 5).population.get();
+    final ArrayList<Execution> executions = new ArrayList<>();
+    final ExecutionListener listener = addListener(executions);
+    try {
+      updatePopulation(transaction, 5, population + 1);
+      executions.clear();
+
+      // The city table is reloaded after the committed UPDATE
+      assertEquals(population + 1, selectCity(transaction, 5).population.getAsLong());
+      assertEquals(1, executions.size());
+
+      executions.clear();
+      assertEquals(population + 1, selectCity(transaction, 5).population.getAsLong());
+      assertEquals(0, executions.size());
+    }
+    finally {
+      assertTrue(Registry.threadLocal().removeExecutionListener(listener));
+      updatePopulation(transaction, 5, population);
+    }
+  }
+
+  @Test
+  public void testRefresh(@Schema(world.class) final Transaction transaction) throws IOException, SQLException, InterruptedException {
+    Registry.threadLocal().enableReferenceCache(world.class, 1, TimeUnit.SECONDS);
+    final ArrayList<Execution> executions = new ArrayList<>();
+    final ExecutionListener listener = addListener(executions);
+    try {
+      selectCity(transaction, 5);
+      assertEquals(0, executions.size());
+
+      Thread.sleep(1100);
+
+      // The city table is reloaded on first access after the refresh interval
+      selectCity(transaction, 5);
+      assertEquals(1, executions.size());
+
+      selectCity(transaction, 5);
+      assertEquals(1, executions.size());
+    }
+    finally {
+      assertTrue(Registry.threadLocal().removeExecutionListener(listener));
+    }
+  }
+}
@@ -0,0 +1,163 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb;
+
+import static org.jaxdb.jsql.DML.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.jaxdb.jsql.CacheStatistics;
+import org.jaxdb.jsql.QueryConfig;
+import org.jaxdb.jsql.Registry;
+import org.jaxdb.jsql.RowIterator;
+import org.jaxdb.jsql.Transaction;
+import org.jaxdb.jsql.classicmodels;
+import org.jaxdb.jsql.data;
+import org.jaxdb.runner.Derby;
+import org.jaxdb.runner.MySQL;
+import org.jaxdb.runner.Oracle;
+import org.jaxdb.runner.PostgreSQL;
+import org.jaxdb.runner.SQLite;
+import org.jaxdb.runner.VendorSchemaRunner;
+import org.jaxdb.runner.VendorSchemaRunner.Schema;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(VendorSchemaRunner.class)
+public abstract class ResultCacheTest {
+  @VendorSchemaRunner.Vendor(value=Derby.class, parallel=2)
+  @VendorSchemaRunner.Vendor(SQLite.class)
+  public static class IntegrationTest extends ResultCacheTest {
+  }
+
+  @VendorSchemaRunner.Vendor(MySQL.class)
+  @VendorSchemaRunner.Vendor(PostgreSQL.class)
+  @VendorSchemaRunner.Vendor(Oracle.class)
+  public static class RegressionTest extends ResultCacheTest {
+  }
+
+  private static final QueryConfig config = new QueryConfig.Builder().withResultCache(1, TimeUnit.MINUTES).build();
+
+  private static long countOffices(final Transaction transaction, final String territory, final QueryConfig config) throws IOException, SQLException {
+    final classicmodels.Office o = classicmodels.Office();
+    try (final RowIterator<data.BIGINT> rows =
+      SELECT(COUNT(o)).
+      FROM(o).
+      WHERE(EQ(o.territory, territory))
+        .execute(transaction, config)) {
+      assertTrue(rows.nextRow());
+      final long count = rows.nextEntity().getAsLong();
+      assertFalse(rows.nextRow());
+      return count;
+    }
+  }
+
+  @Test
+  public void testHit(@Schema(classicmodels.class) final Transaction transaction) throws IOException, SQLException {
+    Registry.threadLocal().enableResultCache(classicmodels.class, 16);
+    final CacheStatistics statistics = Registry.threadLocal().getResultCacheStatistics(classicmodels.class);
+    assertNotNull(statistics);
+    for (int i = 0; i < 3; ++i)
+      assertEquals(2, countOffices(transaction, "EMEA", config));
+
+    assertEquals(1, statistics.getMissCount());
+    assertEquals(2, statistics.getHitCount());
+  }
+
+  @Test
+  public void testParameters(@Schema(classicmodels.class) final Transaction transaction) throws IOException, SQLException {
+    Registry.threadLocal().enableResultCache(classicmodels.class, 16);
+    final CacheStatistics statistics = Registry.threadLocal().getResultCacheStatistics(classicmodels.class);
+    assertEquals(2, countOffices(transaction, "EMEA", config));
+    assertEquals(1, countOffices(transaction, "APAC", config));
+    assertEquals(2, countOffices(transaction, "EMEA", config));
+
+    assertEquals(2, statistics.getMissCount());
+    assertEquals(1, statistics.getHitCount());
+  }
+
+  @Test
+  public void testMaxBytes(@Schema(classicmodels.class) final Transaction transaction) throws IOException, SQLException {
+    Registry.threadLocal().enableResultCache(classicmodels.class, 16);
+    final CacheStatistics statistics = Registry.threadLocal().getResultCacheStatistics(classicmodels.class);
+    final QueryConfig config = new QueryConfig.Builder().withResultCache(1, TimeUnit.MINUTES).withResultCacheMaxBytes(1).build();
+    assertEquals(2, countOffices(transaction, "EMEA", config));
+    assertEquals(2, countOffices(transaction, "EMEA", config));
+
+    assertEquals(2, statistics.getMissCount());
+    assertEquals(0, statistics.getHitCount());
+  }
+
+  @Test
+  public void testModified(@Schema(classicmodels.class) final Transaction transaction) throws IOException, SQLException {
+    Registry.threadLocal().enableResultCache(classicmodels.class, 16);
+    final CacheStatistics statistics = Registry.threadLocal().getResultCacheStatistics(classicmodels.class);
+    assertEquals(2, countOffices(transaction, "EMEA", config));
+
+    final classicmodels.Office o = classicmodels.Office();
+    UPDATE(o).
+    SET(o.territory, "EMEA").
+    WHERE(EQ(o.territory, "APAC"))
+      .execute(transaction);
+
+    assertEquals(3, countOffices(transaction, "EMEA", config));
+    assertEquals(1, statistics.getMissCount());
+    assertEquals(0, statistics.getHitCount());
+  }
+
+  @Test
+  public void testSubQuery(@Schema(classicmodels.class) final Transaction transaction) throws IOException, SQLException {
+    Registry.threadLocal().enableResultCache(classicmodels.class, 16);
+    final CacheStatistics statistics = Registry.threadLocal().getResultCacheStatistics(classicmodels.class);
+    final classicmodels.Customer c = classicmodels.Customer();
+    final classicmodels.Purchase p = classicmodels.Purchase();
+    for (int i = 0; i < 2; ++i) {
+      try (final RowIterator<data.BIGINT> rows =
+        SELECT(COUNT(c)).
+        FROM(c).
+        WHERE(EXISTS(
+          SELECT(p).
+          FROM(p).
+          WHERE(EQ(c.customerNumber, p.customerNumber))))
+            .execute(transaction, config)) {
+        assertTrue(rows.nextRow());
+        assertTrue(rows.nextEntity().getAsLong() > 0);
+      }
+
+      try (final RowIterator<data.BIGINT> rows =
+        SELECT(COUNT(c)).
+        FROM(c).
+        WHERE(IN(c.customerNumber, SELECT(p.customerNumber).FROM(p)))
+          .execute(transaction, config)) {
+        assertTrue(rows.nextRow());
+        assertTrue(rows.nextEntity().getAsLong() > 0);
+      }
+    }
+
+    // The tables of subqueries in conditions are not tracked, whereby their results are not cached
+    assertEquals(0, statistics.getRequestCount());
+  }
+
+  @Test
+  public void testDisabled(@Schema(classicmodels.class) final Transaction transaction) throws IOException, SQLException {
+    assertEquals(2, countOffices(transaction, "EMEA", config));
+    assertNull(Registry.threadLocal().getResultCacheStatistics(classicmodels.class));
+  }
+}
@@ -0,0 +1,249 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+
+package org.jaxdb;
+
+import static org.jaxdb.jsql.DML.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.ExecutionException;
+
+import org.jaxdb.jsql.Batch;
+import org.jaxdb.jsql.Registry;
+import org.jaxdb.jsql.RowIterator;
+import org.jaxdb.jsql.ShardFunction;
+import org.jaxdb.jsql.classicmodels;
+import org.jaxdb.jsql.data;
+import org.jaxdb.runner.SQLite;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ShardTest {
+  private static final String[] shards = {"shard0", "shard1"};
+
+  @BeforeClass
+  @SuppressWarnings("unused")
+  public static void beforeClass() throws IOException, SQLException {
+    new SQLite();
+    final File db = new File("target/generated-test-resources/jaxdb/sqlite.db");
+    final Registry registry = Registry.threadLocal();
+    for (final String shard : shards) {
+      final File file = new File(db.getParentFile(), shard + ".db");
+      Files.copy(db.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      registry.registerPrepared(classicmodels.class, () -> DriverManager.getConnection("jdbc:sqlite:" + file.getAbsolutePath()), shard);
+    }
+
+    registry.registerShards(classicmodels.class, "sharded", ShardFunction.HASH, shards);
+
+    // Each copy of the database retains only the offices of its shard
+    for (int officeCode = 1; officeCode <= 7; ++officeCode) {
+      final classicmodels.Office o = new classicmodels.Office();
+      o.officeCode.set(officeCode);
+      final String shard = registry.getShard(classicmodels.class, "sharded", o);
+      for (final String other : shards)
+        if (!other.equals(shard))
+          DELETE(o).execute(other);
+    }
+  }
+
+  private static classicmodels.Office selectOffice(final String dataSourceId, final int officeCode) throws IOException, SQLException {
+    final classicmodels.Office o = new classicmodels.Office();
+    o.officeCode.set(officeCode);
+    try (final RowIterator<classicmodels.Office> rows =
+      SELECT(o)
+        .execute(dataSourceId)) {
+      return rows.nextRow() ? rows.nextEntity() : null;
+    }
+  }
+
+  @Test
+  public void testRouting() throws IOException, SQLException {
+    for (int officeCode = 1; officeCode <= 7; ++officeCode) {
+      final classicmodels.Office office = selectOffice("sharded", officeCode);
+      assertNotNull(office);
+      assertEquals(officeCode, office.officeCode.getAsInt());
+
+      final String shard = Registry.threadLocal().getShard(classicmodels.class, "sharded", office);
+      assertNotNull(selectOffice(shard, officeCode));
+      assertNull(selectOffice(shard.equals(shards[0]) ? shards[1] : shards[0], officeCode));
+    }
+  }
+
+  @Test
+  public void testMergeOrder() throws IOException, SQLException {
+    final classicmodels.Office o = classicmodels.Office();
+    try (final RowIterator<classicmodels.Office> rows =
+      SELECT(o).
+      FROM(o).
+      ORDER_BY(DESC(o.officeCode))
+        .execute("sharded")) {
+      for (int officeCode = 7; officeCode >= 1; --officeCode) {
+        assertTrue(rows.nextRow());
+        assertEquals(officeCode, rows.nextEntity().officeCode.getAsInt());
+      }
+
+      assertFalse(rows.nextRow());
+    }
+  }
+
+  @Test
+  public void testMergeLimit() throws IOException, SQLException {
+    final classicmodels.Office o = classicmodels.Office();
+    try (final RowIterator<data.INT> rows =
+      SELECT(o.officeCode).
+      FROM(o).
+      ORDER_BY(o.officeCode).
+      LIMIT(3).
+      OFFSET(2)
+        .execute("sharded")) {
+      for (int officeCode = 3; officeCode <= 5; ++officeCode) {
+        assertTrue(rows.nextRow());
+        assertEquals(officeCode, rows.nextEntity().getAsInt());
+      }
+
+      assertFalse(rows.nextRow());
+    }
+  }
+
+  @Test
+  public void testMergeAsync() throws ExecutionException, InterruptedException, SQLException {
+    final classicmodels.Office o = classicmodels.Office();
+    // The shards are queried in turn from the task of the async executor
+    try (final RowIterator<data.INT> rows =
+      SELECT(o.officeCode).
+      FROM(o).
+      ORDER_BY(o.officeCode)
+        .executeAsync("sharded").get()) {
+      for (int officeCode = 1; officeCode <= 7; ++officeCode) {
+        assertTrue(rows.nextRow());
+        assertEquals(officeCode, rows.nextEntity().getAsInt());
+      }
+
+      assertFalse(rows.nextRow());
+    }
+  }
+
+  @Test
+  public void testDistinct() throws IOException, SQLException {
+    final classicmodels.Office o = classicmodels.Office();
+    try {
+      SELECT.DISTINCT(o.territory).
+      FROM(o)
+        .execute("sharded");
+      fail("Expected UnsupportedOperationException");
+    }
+    catch (final UnsupportedOperationException e) {
+    }
+  }
+
+  @Test
+  public void testGroupBy() throws IOException, SQLException {
+    final classicmodels.Office o = classicmodels.Office();
+    try {
+      SELECT(o.territory).
+      FROM(o).
+      GROUP_BY(o.territory)
+        .execute("sharded");
+      fail("Expected UnsupportedOperationException");
+    }
+    catch (final UnsupportedOperationException e) {
+    }
+  }
+
+  @Test
+  public void testAggregate() throws IOException, SQLException {
+    final classicmodels.Office o = classicmodels.Office();
+    try {
+      SELECT(COUNT(o)).
+      FROM(o)
+        .execute("sharded");
+      fail("Expected UnsupportedOperationException");
+    }
+    catch (final UnsupportedOperationException e) {
+    }
+
+    try {
+      SELECT(MAX(o.officeCode)).
+      FROM(o)
+        .execute("sharded");
+      fail("Expected UnsupportedOperationException");
+    }
+    catch (final UnsupportedOperationException e) {
+    }
+
+    // Each shard is queried directly for its aggregate
+    long total = 0;
+    for (final String shard : shards) {
+      try (final RowIterator<data.BIGINT> rows =
+        SELECT(COUNT(o)).
+        FROM(o)
+          .execute(shard)) {
+        assertTrue(rows.nextRow());
+        total += rows.nextEntity().getAsLong();
+      }
+    }
+
+    assertEquals(7, total);
+  }
+
+  @Test
+  public void testBroadcastUpdate() throws IOException, SQLException {
+    final classicmodels.Office o = classicmodels.Office();
+    assertEquals(2,
+      UPDATE(o).
+      SET(o.territory, "EMEA").
+      WHERE(EQ(o.territory, "EMEA"))
+        .execute("sharded"));
+  }
+
+  @Test
+  public void testKeyedUpdate() throws IOException, SQLException {
+    final classicmodels.Office office = selectOffice("sharded", 1);
+    office.phone.set(office.phone.getAsLong());
+    assertEquals(1,
+      UPDATE(office)
+        .execute("sharded"));
+  }
+
+  @Test
+  public void testBatch() throws IOException, SQLException {
+    try (final Batch batch = new Batch()) {
+      for (int officeCode = 1; officeCode <= 2; ++officeCode) {
+        final classicmodels.Office office = selectOffice("sharded", officeCode);
+        batch.addStatement(UPDATE(office), (e, c) -> assertEquals(1, c));
+      }
+
+      assertEquals(2, batch.execute("sharded"));
+    }
+  }
+
+  @Test
+  public void testInsertWithoutKey() throws IOException, SQLException {
+    try {
+      INSERT(new classicmodels.Office()).execute("sharded");
+      fail("Expected IllegalArgumentException");
+    }
+    catch (final IllegalArgumentException e) {
+    }
+  }
+}
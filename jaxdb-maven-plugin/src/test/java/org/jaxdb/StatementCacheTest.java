@@ -0,0 +1,95 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb;
+
+import static org.jaxdb.jsql.DML.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import org.jaxdb.jsql.CacheStatistics;
+import org.jaxdb.jsql.DML.COUNT;
+import org.jaxdb.jsql.Registry;
+import org.jaxdb.jsql.RowIterator;
+import org.jaxdb.jsql.Transaction;
+import org.jaxdb.jsql.classicmodels;
+import org.jaxdb.jsql.data;
+import org.jaxdb.runner.Derby;
+import org.jaxdb.runner.MySQL;
+import org.jaxdb.runner.Oracle;
+import org.jaxdb.runner.PostgreSQL;
+import org.jaxdb.runner.SQLite;
+import org.jaxdb.runner.VendorSchemaRunner;
+import org.jaxdb.runner.VendorSchemaRunner.Schema;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(VendorSchemaRunner.class)
+public abstract class StatementCacheTest {
+  @VendorSchemaRunner.Vendor(value=Derby.class, parallel=2)
+  @VendorSchemaRunner.Vendor(SQLite.class)
+  public static class IntegrationTest extends StatementCacheTest {
+  }
+
+  @VendorSchemaRunner.Vendor(MySQL.class)
+  @VendorSchemaRunner.Vendor(PostgreSQL.class)
+  @VendorSchemaRunner.Vendor(Oracle.class)
+  public static class RegressionTest extends StatementCacheTest {
+  }
+
+  private static long countOffices(final Transaction transaction, final boolean distinct) throws IOException, SQLException {
+    final classicmodels.Office o = classicmodels.Office();
+    try (final RowIterator<data.BIGINT> rows =
+      SELECT(distinct ? COUNT.DISTINCT(o.territory) : COUNT(o.territory)).
+      FROM(o)
+        .execute(transaction)) {
+      assertTrue(rows.nextRow());
+      return rows.nextEntity().getAsLong();
+    }
+  }
+
+  @Test
+  public void testHit(@Schema(value=classicmodels.class, statementCacheSize=2) final Transaction transaction) throws IOException, SQLException {
+    final CacheStatistics statistics = Registry.threadLocal().getStatementCacheStatistics(classicmodels.class);
+    assertNotNull(statistics);
+    for (int i = 0; i < 3; ++i)
+      assertEquals(7, countOffices(transaction, false));
+
+    assertEquals(1, statistics.getMissCount());
+    assertEquals(2, statistics.getHitCount());
+    assertEquals(0, statistics.getEvictionCount());
+  }
+
+  @Test
+  public void testEviction(@Schema(value=classicmodels.class, statementCacheSize=1) final Transaction transaction) throws IOException, SQLException {
+    final CacheStatistics statistics = Registry.threadLocal().getStatementCacheStatistics(classicmodels.class);
+    assertEquals(7, countOffices(transaction, false));
+    assertEquals(4, countOffices(transaction, true));
+    assertEquals(7, countOffices(transaction, false));
+
+    assertEquals(3, statistics.getMissCount());
+    assertEquals(0, statistics.getHitCount());
+    assertEquals(2, statistics.getEvictionCount());
+  }
+
+  @Test
+  public void testDisabled(@Schema(classicmodels.class) final Transaction transaction) throws IOException, SQLException {
+    assertEquals(7, countOffices(transaction, false));
+    assertNull(Registry.threadLocal().getStatementCacheStatistics(classicmodels.class));
+  }
+}
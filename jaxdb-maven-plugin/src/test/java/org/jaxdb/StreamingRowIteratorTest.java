@@ -0,0 +1,137 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb;
+
+import static org.jaxdb.jsql.DML.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import org.jaxdb.jsql.QueryConfig;
+import org.jaxdb.jsql.RowIterator;
+import org.jaxdb.jsql.Transaction;
+import org.jaxdb.jsql.classicmodels;
+import org.jaxdb.jsql.data;
+import org.jaxdb.runner.Derby;
+import org.jaxdb.runner.MySQL;
+import org.jaxdb.runner.Oracle;
+import org.jaxdb.runner.PostgreSQL;
+import org.jaxdb.runner.SQLite;
+import org.jaxdb.runner.VendorSchemaRunner;
+import org.jaxdb.runner.VendorSchemaRunner.Schema;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(VendorSchemaRunner.class)
+public abstract class StreamingRowIteratorTest {
+  @VendorSchemaRunner.Vendor(value=Derby.class, parallel=2)
+  @VendorSchemaRunner.Vendor(SQLite.class)
+  public static class IntegrationTest extends StreamingRowIteratorTest {
+  }
+
+  @VendorSchemaRunner.Vendor(MySQL.class)
+  @VendorSchemaRunner.Vendor(PostgreSQL.class)
+  @VendorSchemaRunner.Vendor(Oracle.class)
+  public static class RegressionTest extends StreamingRowIteratorTest {
+  }
+
+  private static long countProducts(final Transaction transaction) throws IOException, SQLException {
+    final classicmodels.Product p = classicmodels.Product();
+    try (final RowIterator<data.BIGINT> rows =
+      SELECT(COUNT(p)).
+      FROM(p)
+        .execute(transaction)) {
+      assertTrue(rows.nextRow());
+      return rows.nextEntity().getAsLong();
+    }
+  }
+
+  @Test
+  public void testStreaming(@Schema(classicmodels.class) final Transaction transaction) throws IOException, SQLException {
+    final QueryConfig config = new QueryConfig.Builder().withFetchSize(10).build();
+    assertTrue(config.isStreaming());
+
+    final classicmodels.Product p = classicmodels.Product();
+    try (final RowIterator<classicmodels.Product> rows =
+      SELECT(p).
+      FROM(p)
+        .execute(transaction, config)) {
+      assertTrue(rows.isStreaming());
+      long count = 0;
+      while (rows.nextRow()) {
+        assertNotNull(rows.nextEntity().code.get());
+        ++count;
+      }
+
+      assertEquals(countProducts(transaction), count);
+      try {
+        rows.previousRow();
+        fail("Expected UnsupportedOperationException");
+      }
+      catch (final UnsupportedOperationException e) {
+      }
+    }
+  }
+
+  @Test
+  public void testNotStreaming(@Schema(classicmodels.class) final Transaction transaction) throws IOException, SQLException {
+    final QueryConfig config = new QueryConfig.Builder().withStreaming(false).build();
+    final classicmodels.Product p = classicmodels.Product();
+    try (final RowIterator<classicmodels.Product> rows =
+      SELECT(p).
+      FROM(p).
+      ORDER_BY(p.code)
+        .execute(transaction, config)) {
+      assertFalse(rows.isStreaming());
+      assertTrue(rows.nextRow());
+      final String first = rows.nextEntity().code.get();
+      assertTrue(rows.nextRow());
+      assertTrue(rows.previousRow());
+      assertEquals(first, rows.nextEntity().code.get());
+    }
+  }
+
+  @Test
+  public void testFlyweight(@Schema(classicmodels.class) final Transaction transaction) throws IOException, SQLException {
+    final QueryConfig config = new QueryConfig.Builder().withFlyweight(true).build();
+    assertTrue(config.isStreaming());
+
+    final classicmodels.Product p = classicmodels.Product();
+    try (final RowIterator<data.Entity<?>> rows =
+      SELECT(p, p.quantityInStock).
+      FROM(p).
+      ORDER_BY(p.code)
+        .execute(transaction, config)) {
+      assertTrue(rows.isFlyweight());
+      assertTrue(rows.nextRow());
+      final classicmodels.Product product = (classicmodels.Product)rows.nextEntity();
+      final data.Entity<?> quantityInStock = rows.nextEntity();
+      String last = product.code.get();
+      long count = 1;
+      while (rows.nextRow()) {
+        assertSame(product, rows.nextEntity());
+        assertSame(quantityInStock, rows.nextEntity());
+        assertTrue(last.compareTo(product.code.get()) < 0);
+        last = product.code.get();
+        ++count;
+      }
+
+      assertEquals(countProducts(transaction), count);
+    }
+  }
+}
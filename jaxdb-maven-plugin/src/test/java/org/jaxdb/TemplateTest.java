@@ -0,0 +1,125 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb;
+
+import static org.jaxdb.jsql.DML.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import org.jaxdb.jsql.RowIterator;
+import org.jaxdb.jsql.Template;
+import org.jaxdb.jsql.Transaction;
+import org.jaxdb.jsql.classicmodels;
+import org.jaxdb.jsql.data;
+import org.jaxdb.runner.Derby;
+import org.jaxdb.runner.MySQL;
+import org.jaxdb.runner.Oracle;
+import org.jaxdb.runner.PostgreSQL;
+import org.jaxdb.runner.SQLite;
+import org.jaxdb.runner.VendorSchemaRunner;
+import org.jaxdb.runner.VendorSchemaRunner.Schema;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(VendorSchemaRunner.class)
+public abstract class TemplateTest {
+  @VendorSchemaRunner.Vendor(value=Derby.class, parallel=2)
+  @VendorSchemaRunner.Vendor(SQLite.class)
+  public static class IntegrationTest extends TemplateTest {
+  }
+
+  @VendorSchemaRunner.Vendor(MySQL.class)
+  @VendorSchemaRunner.Vendor(PostgreSQL.class)
+  @VendorSchemaRunner.Vendor(Oracle.class)
+  public static class RegressionTest extends TemplateTest {
+  }
+
+  private static String selectTerritory(final Transaction transaction, final int officeCode) throws IOException, SQLException {
+    final classicmodels.Office o = classicmodels.Office();
+    try (final RowIterator<data.CHAR> rows =
+      SELECT(o.territory).
+      FROM(o).
+      WHERE(EQ(o.officeCode, officeCode))
+        .execute(transaction)) {
+      assertTrue(rows.nextRow());
+      return rows.nextEntity().get();
+    }
+  }
+
+  @Test
+  public void testQuery(@Schema(classicmodels.class) final Transaction transaction) throws IOException, SQLException {
+    final classicmodels.Office o = classicmodels.Office();
+    final data.INT officeCode = new data.INT();
+    final Template.Query<data.CHAR> template = Template.of(
+      SELECT(o.territory).
+      FROM(o).
+      WHERE(EQ(o.officeCode, officeCode)));
+
+    final String sql = template.toString(transaction.getVendor());
+    assertEquals(1, template.getParameters(transaction.getVendor()).size());
+    for (int i = 1; i <= 7; ++i) {
+      officeCode.set(i);
+      try (final RowIterator<data.CHAR> rows = template.execute(transaction)) {
+        assertTrue(rows.nextRow());
+        assertEquals(selectTerritory(transaction, i), rows.nextEntity().get());
+        assertFalse(rows.nextRow());
+      }
+    }
+
+    assertSame(sql, template.toString(transaction.getVendor()));
+  }
+
+  @Test
+  public void testObjectQuery(@Schema(classicmodels.class) final Transaction transaction) throws IOException, SQLException {
+    final classicmodels.Office o = new classicmodels.Office();
+    o.officeCode.set(1);
+    final Template.Query<classicmodels.Office> template = Template.of(SELECT(o));
+    for (int i = 1; i <= 7; ++i) {
+      // Rebind the template by setting the primary key of the entity
+      o.officeCode.set(i);
+      try (final RowIterator<classicmodels.Office> rows = template.execute(transaction)) {
+        assertTrue(rows.nextRow());
+        final classicmodels.Office office = rows.nextEntity();
+        assertEquals(i, office.officeCode.getAsInt());
+        assertEquals(selectTerritory(transaction, i), office.territory.get());
+        assertFalse(rows.nextRow());
+      }
+    }
+  }
+
+  @Test
+  public void testModify(@Schema(classicmodels.class) final Transaction transaction) throws IOException, SQLException {
+    final classicmodels.Office o = classicmodels.Office();
+    final data.INT officeCode = new data.INT();
+    final data.CHAR territory = new data.CHAR("XX");
+    final Template.Modify template = Template.of(
+      UPDATE(o).
+      SET(o.territory, territory).
+      WHERE(EQ(o.officeCode, officeCode)));
+
+    for (int i = 1; i <= 3; ++i) {
+      officeCode.set(i);
+      territory.set("T" + i);
+      assertEquals(1, template.execute(transaction));
+    }
+
+    for (int i = 1; i <= 3; ++i)
+      assertEquals("T" + i, selectTerritory(transaction, i));
+  }
+}
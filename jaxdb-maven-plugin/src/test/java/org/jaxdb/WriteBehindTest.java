@@ -0,0 +1,141 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb;
+
+import static org.jaxdb.jsql.DML.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+
+import org.jaxdb.jsql.RowIterator;
+import org.jaxdb.jsql.Template;
+import org.jaxdb.jsql.Transaction;
+import org.jaxdb.jsql.classicmodels;
+import org.jaxdb.jsql.data;
+import org.jaxdb.runner.Derby;
+import org.jaxdb.runner.MySQL;
+import org.jaxdb.runner.Oracle;
+import org.jaxdb.runner.PostgreSQL;
+import org.jaxdb.runner.SQLite;
+import org.jaxdb.runner.VendorSchemaRunner;
+import org.jaxdb.runner.VendorSchemaRunner.Schema;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(VendorSchemaRunner.class)
+public abstract class WriteBehindTest {
+  @VendorSchemaRunner.Vendor(value=Derby.class, parallel=2)
+  @VendorSchemaRunner.Vendor(SQLite.class)
+  public static class IntegrationTest extends WriteBehindTest {
+  }
+
+  @VendorSchemaRunner.Vendor(MySQL.class)
+  @VendorSchemaRunner.Vendor(PostgreSQL.class)
+  @VendorSchemaRunner.Vendor(Oracle.class)
+  public static class RegressionTest extends WriteBehindTest {
+  }
+
+  private static String selectTerritory(final Transaction transaction, final int officeCode) throws IOException, SQLException {
+    final classicmodels.Office o = classicmodels.Office();
+    try (final RowIterator<data.CHAR> rows =
+      SELECT(o.territory).
+      FROM(o).
+      WHERE(EQ(o.officeCode, officeCode))
+        .execute(transaction)) {
+      assertTrue(rows.nextRow());
+      return rows.nextEntity().get();
+    }
+  }
+
+  @Test
+  public void testFlushBeforeSelect(@Schema(classicmodels.class) final Transaction transaction) throws IOException, SQLException {
+    final classicmodels.Office o = classicmodels.Office();
+    final data.INT officeCode = new data.INT();
+    final data.CHAR territory = new data.CHAR();
+    final Template.Modify template = Template.of(
+      UPDATE(o).
+      SET(o.territory, territory).
+      WHERE(EQ(o.officeCode, officeCode)));
+
+    transaction.setWriteBehind(100);
+    final ArrayList<Integer> counts = new ArrayList<>();
+    for (int i = 1; i <= 3; ++i) {
+      officeCode.set(i);
+      territory.set("W" + i);
+      final int count = template.execute(transaction, (e, c) -> {
+        if (e == Transaction.Event.EXECUTE)
+          counts.add(c);
+      });
+
+      if (count == Statement.SUCCESS_NO_INFO)
+        assertEquals(0, counts.size());
+      else
+        assertEquals(i, counts.size());
+    }
+
+    for (int i = 1; i <= 3; ++i)
+      assertEquals("W" + i, selectTerritory(transaction, i));
+
+    assertEquals(3, counts.size());
+    for (final Integer count : counts)
+      assertEquals(1, count.intValue());
+  }
+
+  @Test
+  public void testThreshold(@Schema(classicmodels.class) final Transaction transaction) throws IOException, SQLException {
+    final classicmodels.Office o = classicmodels.Office();
+    final data.INT officeCode = new data.INT();
+    final data.CHAR territory = new data.CHAR();
+    final Template.Modify template = Template.of(
+      UPDATE(o).
+      SET(o.territory, territory).
+      WHERE(EQ(o.officeCode, officeCode)));
+
+    transaction.setWriteBehind(2);
+    final int[] executed = new int[1];
+    for (int i = 1; i <= 5; ++i) {
+      officeCode.set(i);
+      territory.set("H" + i);
+      if (template.execute(transaction, (e, c) -> {
+        if (e == Transaction.Event.EXECUTE)
+          ++executed[0];
+      }) == Statement.SUCCESS_NO_INFO)
+        assertEquals(i - i % 2, executed[0]);
+    }
+
+    transaction.flush();
+    assertEquals(5, executed[0]);
+  }
+
+  @Test
+  public void testRollback(@Schema(classicmodels.class) final Transaction transaction) throws IOException, SQLException {
+    final String territory = selectTerritory(transaction, 1);
+    final classicmodels.Office o = classicmodels.Office();
+    transaction.setWriteBehind(100);
+    UPDATE(o).
+    SET(o.territory, "RB").
+    WHERE(EQ(o.officeCode, 1))
+      .execute(transaction);
+
+    transaction.rollback();
+    assertEquals(0, transaction.flush());
+    assertEquals(territory, selectTerritory(transaction, 1));
+  }
+}
@@ -26,6 +26,7 @@ import java.lang.annotation.Target;
 import java.lang.reflect.Method;
 import java.util.List;
 
+import org.jaxdb.jsql.Connector;
 import org.jaxdb.jsql.Registry;
 import org.jaxdb.jsql.Transaction;
 import org.junit.runners.model.FrameworkMethod;
@@ -36,6 +37,7 @@ public class VendorSchemaRunner extends VendorRunner {
   @Retention(RetentionPolicy.RUNTIME)
   public @interface Schema {
     Class<? extends org.jaxdb.jsql.Schema> value();
+    int statementCacheSize() default 0;
   }
 
   public VendorSchemaRunner(final Class<?> cls) throws InitializationError {
@@ -59,14 +61,19 @@ public class VendorSchemaRunner extends VendorRunner {
       if (annotation.annotationType() == Schema.class) {
         final Schema schema = (Schema)annotation;
         final org.jaxdb.runner.Vendor vendorInstance = org.jaxdb.runner.Vendor.getVendor(vendor.value());
-        Registry.threadLocal().registerPrepared(schema.value(), () -> {
+        final Connector connector = () -> {
           try {
             return vendorInstance.getConnection();
           }
           catch (final IOException e) {
             throw new UncheckedIOException(e);
           }
-        });
+        };
+
+        if (schema.statementCacheSize() > 0)
+          Registry.threadLocal().registerPrepared(schema.value(), connector, schema.statementCacheSize());
+        else
+          Registry.threadLocal().registerPrepared(schema.value(), connector);
 
         try (final Transaction transaction = new TestTransaction(schema.value())) {
           return frameworkMethod.invokeExplosivelySuper(target, transaction);
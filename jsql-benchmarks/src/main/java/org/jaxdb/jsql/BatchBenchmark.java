@@ -0,0 +1,95 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb.jsql;
+
+import static org.jaxdb.jsql.DML.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the execution of an {@code UPDATE} of each {@code product} row as a
+ * {@link Batch} against the execution of each {@code UPDATE} individually.
+ * The updates are rolled back when the trial ends.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchBenchmark {
+  @State(Scope.Thread)
+  public static class Products {
+    final ArrayList<classicmodels.Product> products = new ArrayList<>();
+    short quantityInStock;
+
+    @Setup(Level.Trial)
+    public void setUp(final ClassicModelsState state) throws IOException, SQLException {
+      final classicmodels.Product p = classicmodels.Product();
+      try (final RowIterator<classicmodels.Product> rows =
+        SELECT(p).
+        FROM(p)
+          .execute(state.transaction)) {
+        while (rows.nextRow())
+          products.add(rows.nextEntity());
+      }
+    }
+
+    short nextQuantityInStock() {
+      return quantityInStock = (short)(++quantityInStock % 10000);
+    }
+  }
+
+  @Benchmark
+  public int batch(final ClassicModelsState state, final Products products) throws IOException, SQLException {
+    final short quantityInStock = products.nextQuantityInStock();
+    try (final Batch batch = new Batch(products.products.size())) {
+      for (final classicmodels.Product product : products.products) {
+        product.quantityInStock.set(quantityInStock);
+        batch.addStatement(UPDATE(product));
+      }
+
+      return batch.execute(state.transaction);
+    }
+  }
+
+  @Benchmark
+  public int individual(final ClassicModelsState state, final Products products) throws IOException, SQLException {
+    final short quantityInStock = products.nextQuantityInStock();
+    int count = 0;
+    for (final classicmodels.Product product : products.products) {
+      product.quantityInStock.set(quantityInStock);
+      count += UPDATE(product).execute(state.transaction);
+    }
+
+    return count;
+  }
+}
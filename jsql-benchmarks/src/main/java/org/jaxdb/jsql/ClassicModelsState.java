@@ -0,0 +1,68 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb.jsql;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+
+import org.jaxdb.runner.Derby;
+import org.jaxdb.runner.SQLite;
+import org.jaxdb.runner.Vendor;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmark state that opens a {@link Transaction} against the prepopulated
+ * {@link classicmodels} database of the in-process vendor selected by the
+ * {@code vendor} parameter.
+ */
+@State(Scope.Thread)
+public class ClassicModelsState {
+  @Param({"derby", "sqlite"})
+  public String vendor;
+
+  Vendor runner;
+  Transaction transaction;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException, SQLException {
+    runner = "derby".equals(vendor) ? new Derby() : new SQLite();
+    final Vendor runner = this.runner;
+    Registry.global().registerPrepared(classicmodels.class, () -> {
+      try {
+        return runner.getConnection();
+      }
+      catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }, 64);
+
+    transaction = new Transaction(classicmodels.class);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException, SQLException {
+    transaction.rollback();
+    transaction.close();
+    runner.destroy();
+  }
+}
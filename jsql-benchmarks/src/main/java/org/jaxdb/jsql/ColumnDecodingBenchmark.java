@@ -0,0 +1,106 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb.jsql;
+
+import static org.jaxdb.jsql.DML.*;
+
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.jaxdb.vendor.DBVendor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the decoding of the {@code DATE} and {@code CHAR} columns of the
+ * {@code purchase} rows with the vendor resolved from the connection metadata
+ * for each cell, against decoding with the {@link Compiler} resolved once per
+ * {@link ResultSet}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColumnDecodingBenchmark {
+  @State(Scope.Thread)
+  public static class Query {
+    final classicmodels.Purchase p = classicmodels.Purchase();
+    final data.Column<?>[] columns = {p.purchaseDate, p.requiredDate, p.shippedDate, p.comments};
+    PreparedStatement statement;
+
+    @Setup(Level.Trial)
+    public void setUp(final ClassicModelsState state) throws IOException, SQLException {
+      final SelectImpl.untyped.SELECT<?> select = (SelectImpl.untyped.SELECT<?>)
+        SELECT(p.purchaseDate, p.requiredDate, p.shippedDate, p.comments).
+        FROM(p);
+
+      try (final Compilation compilation = new Compilation(select, state.transaction.getVendor(), true)) {
+        select.compile(compilation, false);
+        statement = state.transaction.getConnection().prepareStatement(compilation.toString());
+      }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+      statement.close();
+    }
+  }
+
+  @Benchmark
+  public void resolvePerCell(final Query query, final Blackhole blackhole) throws SQLException {
+    final data.Column<?>[] columns = query.columns;
+    try (final ResultSet resultSet = query.statement.executeQuery()) {
+      while (resultSet.next()) {
+        for (int i = 0, len = columns.length; i < len;) {
+          final data.Column<?> column = columns[i];
+          column.set(resultSet, ++i);
+          blackhole.consume(column.get());
+        }
+      }
+    }
+  }
+
+  @Benchmark
+  public void resolvePerResultSet(final Query query, final Blackhole blackhole) throws SQLException {
+    final data.Column<?>[] columns = query.columns;
+    try (final ResultSet resultSet = query.statement.executeQuery()) {
+      final Compiler compiler = Compiler.getCompiler(DBVendor.valueOf(resultSet.getStatement().getConnection().getMetaData()));
+      while (resultSet.next()) {
+        for (int i = 0, len = columns.length; i < len;) {
+          final data.Column<?> column = columns[i];
+          column.set(compiler, resultSet, ++i);
+          blackhole.consume(column.get());
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,107 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb.jsql;
+
+import static org.jaxdb.jsql.DML.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.jaxdb.jsql.Interval.Unit;
+import org.jaxdb.vendor.DBVendor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the construction and compilation to SQL of representative
+ * {@code SELECT} statements with joins, {@code CASE} expressions and
+ * {@link Interval} arithmetic, for the dialect selected by the {@code vendor}
+ * parameter. No database is accessed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompilationBenchmark {
+  @Param({"derby", "sqlite"})
+  public String vendor;
+
+  private DBVendor dialect;
+
+  @Setup
+  public void setUp() {
+    dialect = "derby".equals(vendor) ? DBVendor.DERBY : DBVendor.SQLITE;
+  }
+
+  private static String compile(final Executable.Query<?> query, final DBVendor vendor) throws IOException, SQLException {
+    final SelectImpl.untyped.SELECT<?> select = (SelectImpl.untyped.SELECT<?>)query;
+    try (final Compilation compilation = new Compilation(select, vendor, true)) {
+      select.compile(compilation, false);
+      return compilation.toString();
+    }
+  }
+
+  @Benchmark
+  public String compileSelect() throws IOException, SQLException {
+    final classicmodels.Purchase p = classicmodels.Purchase();
+    final classicmodels.PurchaseDetail d = classicmodels.PurchaseDetail();
+    final classicmodels.Customer c = classicmodels.Customer();
+    return compile(
+      SELECT(p, d, c.companyName).
+      FROM(p).
+      JOIN(d).ON(EQ(d.purchaseNumber, p.purchaseNumber)).
+      JOIN(c).ON(EQ(c.customerNumber, p.customerNumber)).
+      WHERE(AND(
+        EQ(p.status, classicmodels.Purchase.Status.SHIPPED),
+        GT(d.quantity, 10),
+        LIKE(c.companyName, "%Co%"))).
+      ORDER_BY(DESC(p.purchaseDate), d.purchaseLineNumber), dialect);
+  }
+
+  @Benchmark
+  public String compileCase() throws IOException, SQLException {
+    final classicmodels.PurchaseDetail d = classicmodels.PurchaseDetail();
+    return compile(
+      SELECT(
+        CASE(d.quantity).WHEN(1).THEN(d.priceEach).ELSE(MUL(d.priceEach, d.quantity)).END().AS(new data.DECIMAL(10, 2)),
+        CASE.WHEN(LT(d.quantity, 10)).THEN(d.quantity).WHEN(LT(d.quantity, 100)).THEN(10).ELSE(100).END().AS(new data.INT())).
+      FROM(d), dialect);
+  }
+
+  @Benchmark
+  public String compileInterval() throws IOException, SQLException {
+    final classicmodels.Purchase p = classicmodels.Purchase();
+    return compile(
+      SELECT(
+        ADD(p.purchaseDate, new Interval(2, Unit.WEEKS)),
+        SUB(p.requiredDate, new Interval(1, Unit.MONTHS).and(3, Unit.DAYS))).
+      FROM(p).
+      WHERE(GT(p.shippedDate, ADD(p.requiredDate, new Interval(2, Unit.DAYS)))), dialect);
+  }
+}
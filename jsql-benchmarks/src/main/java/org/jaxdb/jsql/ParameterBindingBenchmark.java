@@ -0,0 +1,94 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb.jsql;
+
+import static org.jaxdb.jsql.DML.*;
+
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the binding of the parameters of a compiled {@code SELECT} to its
+ * {@link PreparedStatement} via {@code data.Column.get(PreparedStatement,int)},
+ * for parameters of {@code INT}, {@code SMALLINT}, {@code ENUM}, {@code DATE}
+ * and {@code CHAR} columns. The statement is not executed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParameterBindingBenchmark {
+  @State(Scope.Thread)
+  public static class Query {
+    Compilation compilation;
+    List<data.Column<?>> parameters;
+    PreparedStatement statement;
+
+    @Setup(Level.Trial)
+    public void setUp(final ClassicModelsState state) throws IOException, SQLException {
+      final classicmodels.Purchase p = classicmodels.Purchase();
+      final SelectImpl.untyped.SELECT<?> select = (SelectImpl.untyped.SELECT<?>)
+        SELECT(p).
+        FROM(p).
+        WHERE(AND(
+          GT(p.purchaseNumber, 10100),
+          EQ(p.customerNumber, 363),
+          EQ(p.status, classicmodels.Purchase.Status.SHIPPED),
+          GTE(p.purchaseDate, LocalDate.of(2003, 1, 1)),
+          LIKE(p.comments, "%customer%")));
+
+      compilation = new Compilation(select, state.transaction.getVendor(), true);
+      select.compile(compilation, false);
+      parameters = compilation.getParameters();
+      statement = state.transaction.getConnection().prepareStatement(compilation.toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+      statement.close();
+      compilation.close();
+    }
+  }
+
+  @Benchmark
+  public PreparedStatement bind(final Query query) throws SQLException {
+    final PreparedStatement preparedStatement = query.statement;
+    final List<data.Column<?>> parameters = query.parameters;
+    for (int i = 0, len = parameters.size(); i < len;)
+      parameters.get(i).get(query.compilation.compiler, preparedStatement, ++i);
+
+    return preparedStatement;
+  }
+}
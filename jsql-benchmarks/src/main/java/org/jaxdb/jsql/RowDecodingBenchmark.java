@@ -0,0 +1,76 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb.jsql;
+
+import static org.jaxdb.jsql.DML.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares decoding of {@code purchase_detail} rows into new entity instances
+ * per row against decoding into reused
+ * {@linkplain QueryConfig.Builder#withFlyweight(boolean) flyweight} entity
+ * instances, in a read-only aggregation loop. Run with {@code -prof gc} to
+ * report the allocation rate per operation ({@code gc.alloc.rate.norm}) and
+ * the GC count of each mode.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowDecodingBenchmark {
+  private static final QueryConfig streaming = new QueryConfig.Builder().withStreaming(true).build();
+  private static final QueryConfig flyweight = new QueryConfig.Builder().withFlyweight(true).build();
+
+  private static BigDecimal sum(final Transaction transaction, final QueryConfig config) throws IOException, SQLException {
+    final classicmodels.PurchaseDetail p = classicmodels.PurchaseDetail();
+    BigDecimal sum = BigDecimal.ZERO;
+    try (final RowIterator<classicmodels.PurchaseDetail> rows =
+      SELECT(p).
+      FROM(p)
+        .execute(transaction, config)) {
+      while (rows.nextRow()) {
+        final classicmodels.PurchaseDetail detail = rows.nextEntity();
+        sum = sum.add(detail.priceEach.get().multiply(BigDecimal.valueOf(detail.quantity.getAsInt())));
+      }
+    }
+
+    return sum;
+  }
+
+  @Benchmark
+  public BigDecimal newInstancePerRow(final ClassicModelsState state) throws IOException, SQLException {
+    return sum(state.transaction, streaming);
+  }
+
+  @Benchmark
+  public BigDecimal flyweight(final ClassicModelsState state) throws IOException, SQLException {
+    return sum(state.transaction, flyweight);
+  }
+}
@@ -0,0 +1,94 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb.jsql;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.jaxdb.ddlx.Schemas;
+import org.jaxdb.sqlx.SQL;
+import org.jaxdb.www.ddlx_0_5.xLygluGCXAA.$Table;
+import org.jaxdb.www.ddlx_0_5.xLygluGCXAA.Schema;
+import org.jaxdb.www.sqlx_0_5.xLygluGCXAA.$Database;
+import org.jaxsb.runtime.Bindings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Measures the loading of the {@code classicmodels.sqlx} data set with
+ * {@link SQL#INSERT(Connection,$Database)}. The tables are truncated before
+ * each invocation, and are left populated with the full data set after it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SqlxLoadBenchmark {
+  @State(Scope.Thread)
+  public static class Load {
+    Connection connection;
+    List<$Table> tables;
+    $Database database;
+
+    @Setup(Level.Trial)
+    public void setUp(final ClassicModelsState state) throws IOException, SAXException, SQLException {
+      final Schema schema;
+      try (final InputStream in = ClassLoader.getSystemClassLoader().getResourceAsStream("classicmodels.ddlx")) {
+        schema = (Schema)Bindings.parse(new InputSource(in));
+      }
+
+      tables = Schemas.flatten(schema).getTable();
+      final URL sqlx = Objects.requireNonNull(ClassLoader.getSystemClassLoader().getResource("jaxdb/classicmodels.sqlx"));
+      database = ($Database)Bindings.parse(sqlx);
+      connection = state.runner.getConnection();
+    }
+
+    @Setup(Level.Invocation)
+    public void truncate() throws SQLException {
+      Schemas.truncate(connection, tables);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+      connection.close();
+    }
+  }
+
+  @Benchmark
+  public int[] insert(final Load load) throws IOException, SQLException {
+    return SQL.INSERT(load.connection, load.database);
+  }
+}
@@ -0,0 +1,109 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb.jsql;
+
+import static org.jaxdb.jsql.DML.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.jaxdb.vendor.DBVendor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares per-call compilation of a {@code SELECT} against execution of the
+ * equivalent {@link Template}, both for SQL rendering alone and for a full
+ * round trip to the database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateBenchmark {
+  @State(Scope.Thread)
+  public static class Query {
+    final classicmodels.Office o = classicmodels.Office();
+    final data.INT officeCode = new data.INT();
+    Template.Query<data.CHAR> template;
+    int next;
+
+    @Setup
+    public void setUp() {
+      template = Template.of(select(o, officeCode));
+    }
+
+    int nextOfficeCode() {
+      return next++ % 7 + 1;
+    }
+  }
+
+  private static Executable.Query<data.CHAR> select(final classicmodels.Office o, final data.INT officeCode) {
+    return
+      SELECT(o.territory).
+      FROM(o).
+      WHERE(AND(
+        EQ(o.officeCode, officeCode),
+        GT(o.latitude, -90)));
+  }
+
+  private static void consume(final RowIterator<data.CHAR> rows, final Blackhole blackhole) throws SQLException {
+    try (final RowIterator<data.CHAR> iterator = rows) {
+      while (iterator.nextRow())
+        blackhole.consume(iterator.nextEntity().get());
+    }
+  }
+
+  @Benchmark
+  public String compileEachCall(final Query query) throws IOException, SQLException {
+    query.officeCode.set(query.nextOfficeCode());
+    final SelectImpl.untyped.SELECT<?> select = (SelectImpl.untyped.SELECT<?>)select(query.o, query.officeCode);
+    try (final Compilation compilation = new Compilation(select, DBVendor.DERBY, true)) {
+      select.compile(compilation, false);
+      return compilation.toString();
+    }
+  }
+
+  @Benchmark
+  public String compileTemplate(final Query query) throws IOException, SQLException {
+    query.officeCode.set(query.nextOfficeCode());
+    return query.template.getCompilation(DBVendor.DERBY).toString();
+  }
+
+  @Benchmark
+  public void executeEachCall(final ClassicModelsState state, final Query query, final Blackhole blackhole) throws IOException, SQLException {
+    query.officeCode.set(query.nextOfficeCode());
+    consume(select(query.o, query.officeCode).execute(state.transaction), blackhole);
+  }
+
+  @Benchmark
+  public void executeTemplate(final ClassicModelsState state, final Query query, final Blackhole blackhole) throws IOException, SQLException {
+    query.officeCode.set(query.nextOfficeCode());
+    consume(query.template.execute(state.transaction), blackhole);
+  }
+}
@@ -0,0 +1,108 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb.jsql;
+
+import static org.jaxdb.jsql.DML.*;
+
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the decode throughput of {@code DATE} and {@code DATETIME} columns
+ * via the {@link Compiler} of the vendor. The in-process Derby and SQLite
+ * drivers do not support the JDBC 4.2 {@code java.time} mapping, so these
+ * benchmarks measure the {@link java.sql.Timestamp} fallback; against
+ * vendors whose {@link Compiler#supportsJavaTime()} they measure the
+ * {@code getObject} path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemporalDecodingBenchmark {
+  @State(Scope.Thread)
+  public static class Query {
+    final classicmodels.Purchase p = classicmodels.Purchase();
+    final classicmodels.Customer c = classicmodels.Customer();
+    final data.Column<?>[] dates = {p.purchaseDate, p.requiredDate, p.shippedDate};
+    final data.Column<?>[] datetimes = {c.createdOn, c.modifiedOn};
+    Compiler compiler;
+    PreparedStatement dateStatement;
+    PreparedStatement datetimeStatement;
+
+    @Setup(Level.Trial)
+    public void setUp(final ClassicModelsState state) throws IOException, SQLException {
+      compiler = Compiler.getCompiler(state.transaction.getVendor());
+      dateStatement = prepare(state.transaction, SELECT(p.purchaseDate, p.requiredDate, p.shippedDate).FROM(p));
+      datetimeStatement = prepare(state.transaction, SELECT(c.createdOn, c.modifiedOn).FROM(c));
+    }
+
+    private static PreparedStatement prepare(final Transaction transaction, final Executable.Query<?> query) throws IOException, SQLException {
+      final SelectImpl.untyped.SELECT<?> select = (SelectImpl.untyped.SELECT<?>)query;
+      try (final Compilation compilation = new Compilation(select, transaction.getVendor(), true)) {
+        select.compile(compilation, false);
+        return transaction.getConnection().prepareStatement(compilation.toString());
+      }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+      dateStatement.close();
+      datetimeStatement.close();
+    }
+  }
+
+  private static void decode(final Compiler compiler, final PreparedStatement statement, final data.Column<?>[] columns, final Blackhole blackhole) throws SQLException {
+    try (final ResultSet resultSet = statement.executeQuery()) {
+      while (resultSet.next()) {
+        for (int i = 0, len = columns.length; i < len;) {
+          final data.Column<?> column = columns[i];
+          column.set(compiler, resultSet, ++i);
+          blackhole.consume(column.get());
+        }
+      }
+    }
+  }
+
+  @Benchmark
+  public void decodeDate(final Query query, final Blackhole blackhole) throws SQLException {
+    decode(query.compiler, query.dateStatement, query.dates, blackhole);
+  }
+
+  @Benchmark
+  public void decodeDatetime(final Query query, final Blackhole blackhole) throws SQLException {
+    decode(query.compiler, query.datetimeStatement, query.datetimes, blackhole);
+  }
+}
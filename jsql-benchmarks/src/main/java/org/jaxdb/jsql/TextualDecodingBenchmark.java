@@ -0,0 +1,105 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb.jsql;
+
+import static org.jaxdb.jsql.DML.*;
+
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the decode throughput of {@code ENUM} and {@code CHAR} columns,
+ * whereby each {@code ENUM} value is resolved to its constant via the lookup
+ * of the enum type.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextualDecodingBenchmark {
+  @State(Scope.Thread)
+  public static class Query {
+    final classicmodels.Purchase p = classicmodels.Purchase();
+    final classicmodels.Customer c = classicmodels.Customer();
+    final data.Column<?>[] enums = {c.country, p.status};
+    final data.Column<?>[] chars = {c.city, c.locality, c.postalCode};
+    Compiler compiler;
+    PreparedStatement enumStatement;
+    PreparedStatement charStatement;
+
+    @Setup(Level.Trial)
+    public void setUp(final ClassicModelsState state) throws IOException, SQLException {
+      compiler = Compiler.getCompiler(state.transaction.getVendor());
+      enumStatement = prepare(state.transaction, SELECT(c.country, p.status).FROM(c, p).WHERE(EQ(c.customerNumber, p.customerNumber)));
+      charStatement = prepare(state.transaction, SELECT(c.city, c.locality, c.postalCode).FROM(c));
+    }
+
+    private static PreparedStatement prepare(final Transaction transaction, final Executable.Query<?> query) throws IOException, SQLException {
+      final SelectImpl.untyped.SELECT<?> select = (SelectImpl.untyped.SELECT<?>)query;
+      try (final Compilation compilation = new Compilation(select, transaction.getVendor(), true)) {
+        select.compile(compilation, false);
+        return transaction.getConnection().prepareStatement(compilation.toString());
+      }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+      enumStatement.close();
+      charStatement.close();
+    }
+  }
+
+  private static void decode(final Compiler compiler, final PreparedStatement statement, final data.Column<?>[] columns, final Blackhole blackhole) throws SQLException {
+    try (final ResultSet resultSet = statement.executeQuery()) {
+      while (resultSet.next()) {
+        for (int i = 0, len = columns.length; i < len;) {
+          final data.Column<?> column = columns[i];
+          column.set(compiler, resultSet, ++i);
+          blackhole.consume(column.get());
+        }
+      }
+    }
+  }
+
+  @Benchmark
+  public void decodeEnum(final Query query, final Blackhole blackhole) throws SQLException {
+    decode(query.compiler, query.enumStatement, query.enums, blackhole);
+  }
+
+  @Benchmark
+  public void decodeChar(final Query query, final Blackhole blackhole) throws SQLException {
+    decode(query.compiler, query.charStatement, query.chars, blackhole);
+  }
+}
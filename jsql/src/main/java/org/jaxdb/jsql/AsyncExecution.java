@@ -0,0 +1,209 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb.jsql;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link CompletableFuture} of the asynchronous execution of a statement.
+ * Cancellation of the future cancels the JDBC {@link Statement} that is being
+ * executed, if any.
+ *
+ * @param <T> The type of the result.
+ */
+final class AsyncExecution<T> extends CompletableFuture<T> implements Runnable {
+  private static final Logger logger = LoggerFactory.getLogger(AsyncExecution.class);
+  private static final ThreadLocal<AsyncExecution<?>> current = new ThreadLocal<>();
+
+  @FunctionalInterface
+  interface Task<T> {
+    T execute() throws IOException, SQLException;
+  }
+
+  private static final class DefaultExecutor {
+    private static final Executor instance = newInstance();
+
+    private static Executor newInstance() {
+      try {
+        // Virtual threads are available as of Java 21
+        return (Executor)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+      }
+      catch (final ReflectiveOperationException e) {
+        return Executors.newCachedThreadPool(r -> {
+          final Thread thread = new Thread(r, "jsql-async");
+          thread.setDaemon(true);
+          return thread;
+        });
+      }
+    }
+  }
+
+  private static volatile Executor asyncExecutor;
+
+  static Executor getExecutor() {
+    final Executor executor = asyncExecutor;
+    return executor != null ? executor : DefaultExecutor.instance;
+  }
+
+  static void setExecutor(final Executor executor) {
+    asyncExecutor = executor;
+  }
+
+  /**
+   * Submits the provided task for asynchronous execution. If
+   * {@code transaction} is not null, the task is executed after all tasks
+   * previously submitted for the transaction have finished. A task whose
+   * result is a {@link RowIterator} has finished once the {@link RowIterator}
+   * is closed, because its {@link java.sql.ResultSet} holds the connection of
+   * the transaction until then. The task is executed with the
+   * {@link Registry#threadLocal()} of the current thread.
+   *
+   * @param <T> The type of the result.
+   * @param transaction The {@link Transaction}, or {@code null}.
+   * @param task The task to execute.
+   * @return The {@link CompletableFuture} of the result of the task.
+   */
+  static <T> CompletableFuture<T> submit(final Transaction transaction, final Task<T> task) {
+    final AsyncExecution<T> execution = new AsyncExecution<>(transaction, task, getExecutor());
+    if (transaction == null)
+      execution.submit();
+    else
+      transaction.enqueue(execution::submit, execution.finished);
+
+    return execution;
+  }
+
+  /**
+   * @return Whether the current thread is executing a task submitted with
+   *         {@link #submit(Transaction,Task)}.
+   */
+  static boolean isAsync() {
+    return current.get() != null;
+  }
+
+  /**
+   * @param transaction The {@link Transaction}.
+   * @return Whether the current thread is executing a task submitted for the
+   *         provided {@link Transaction}.
+   */
+  static boolean isExecuting(final Transaction transaction) {
+    final AsyncExecution<?> execution = current.get();
+    return execution != null && execution.transaction == transaction;
+  }
+
+  /**
+   * Registers the provided statement as the statement being executed by the
+   * {@link AsyncExecution} of the current thread, if any. If the execution has
+   * already been cancelled, the statement is cancelled.
+   *
+   * @param statement The {@link Statement}.
+   */
+  static void register(final Statement statement) {
+    final AsyncExecution<?> execution = current.get();
+    if (execution == null)
+      return;
+
+    execution.statement = statement;
+    if (execution.isCancelled())
+      cancel(statement);
+  }
+
+  private static void cancel(final Statement statement) {
+    try {
+      statement.cancel();
+    }
+    catch (final SQLException e) {
+      logger.warn("Failed to cancel statement", e);
+    }
+  }
+
+  final CompletableFuture<Void> finished = new CompletableFuture<>();
+  private final Transaction transaction;
+  private final Task<T> task;
+  private final Executor executor;
+  // The thread-local Registry of the submitting thread, whose registrations are to be visible to the task
+  private final Registry registry = Registry.capture();
+  private volatile Statement statement;
+
+  private AsyncExecution(final Transaction transaction, final Task<T> task, final Executor executor) {
+    this.transaction = transaction;
+    this.task = task;
+    this.executor = executor;
+  }
+
+  void submit() {
+    try {
+      executor.execute(this);
+    }
+    catch (final RejectedExecutionException e) {
+      completeExceptionally(e);
+      finished.complete(null);
+    }
+  }
+
+  @Override
+  public void run() {
+    if (isDone()) {
+      finished.complete(null);
+      return;
+    }
+
+    current.set(this);
+    final Registry previous = Registry.install(registry);
+    boolean open = false;
+    try {
+      final T result = task.execute();
+      if (result instanceof RowIterator) {
+        // The connection remains in use by the ResultSet until the RowIterator is closed
+        ((RowIterator<?>)result).onClose(() -> finished.complete(null));
+        open = true;
+      }
+
+      if (!complete(result) && result instanceof AutoCloseable)
+        ((AutoCloseable)result).close();
+    }
+    catch (final Throwable t) {
+      completeExceptionally(t);
+    }
+    finally {
+      statement = null;
+      current.remove();
+      Registry.install(previous);
+      if (!open)
+        finished.complete(null);
+    }
+  }
+
+  @Override
+  public boolean cancel(final boolean mayInterruptIfRunning) {
+    final boolean cancelled = super.cancel(mayInterruptIfRunning);
+    final Statement statement = this.statement;
+    if (cancelled && statement != null)
+      cancel(statement);
+
+    return cancelled;
+  }
+}
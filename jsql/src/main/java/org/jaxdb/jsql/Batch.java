@@ -130,7 +130,7 @@ public class Batch implements Executable.Modify.Delete, Executable.Modify.Insert
     return statements == null ? 0 : statements.size();
   }
 
-  private static int aggregate(final int[] counts, final int[] allCounts, final Statement statement, final InsertImpl<?>[] generatedKeys, final int index, int total) throws SQLException {
+  private static int aggregate(final int[] counts, final int[] allCounts, final Compiler compiler, final Statement statement, final InsertImpl<?>[] generatedKeys, final int index, int total) throws SQLException {
     ResultSet resultSet = null;
     for (int i = index, leni = index + counts.length; i < leni; ++i) {
       if (generatedKeys[i] != null) {
@@ -140,7 +140,7 @@ public class Batch implements Executable.Modify.Delete, Executable.Modify.Insert
         if (resultSet.next()) {
           final data.Column<?>[] autos = generatedKeys[i].autos;
           for (int j = 0, lenj = autos.length; j < lenj;)
-            autos[j].set(resultSet, ++j);
+            autos[j].set(compiler, resultSet, ++j);
         }
       }
     }
@@ -170,12 +170,81 @@ public class Batch implements Executable.Modify.Delete, Executable.Modify.Insert
     return hasInfo ? total : Statement.SUCCESS_NO_INFO;
   }
 
+  /**
+   * Executes the statements of this batch on the shards of the provided
+   * {@link ShardSet}, in one batch per shard. Each statement is added to the
+   * batch of the shard of the row identified by the primary key of its entity,
+   * or to the batches of all shards if the statement has a condition.
+   *
+   * @param shardSet The {@link ShardSet}.
+   * @param onEvent The listener to be notified of the total update count of
+   *          the batches, or {@code null}.
+   * @return The total update count of the batches.
+   * @throws IOException If an I/O error has occurred.
+   * @throws SQLException If a SQL error has occurred.
+   */
+  private int execute(final ShardSet shardSet, final ObjIntConsumer<Transaction.Event> onEvent) throws IOException, SQLException {
+    final String[] ids = shardSet.getIds();
+    final Batch[] batches = new Batch[ids.length];
+    for (int i = 0, len = statements.size(); i < len; ++i) {
+      final Executable.Modify statement = statements.get(i);
+      final ObjIntConsumer<Transaction.Event> listener = listeners != null && listenerOffset <= i && i - listenerOffset < listeners.size() ? listeners.get(i - listenerOffset) : null;
+      final String id = shardSet.route((Command<?>)statement);
+      for (int j = 0; j < ids.length; ++j) {
+        if (id == null || id.equals(ids[j])) {
+          if (batches[j] == null)
+            batches[j] = new Batch(len);
+
+          batches[j].addStatementAndListener(statement, listener);
+        }
+      }
+    }
+
+    int total = 0;
+    boolean hasInfo = false;
+    for (int i = 0; i < ids.length; ++i) {
+      if (batches[i] != null) {
+        final int count = batches[i].execute(null, ids[i], null);
+        if (count == Statement.EXECUTE_FAILED)
+          return Statement.EXECUTE_FAILED;
+
+        if (count != Statement.SUCCESS_NO_INFO) {
+          total += count;
+          hasInfo = true;
+        }
+      }
+    }
+
+    if (!hasInfo)
+      total = Statement.SUCCESS_NO_INFO;
+
+    if (onEvent != null)
+      onEvent.accept(Transaction.Event.EXECUTE, total);
+
+    return total;
+  }
+
   @SuppressWarnings({"null"})
-  private int execute(final Transaction transaction, final String dataSourceId) throws IOException, SQLException {
+  private int execute(final Transaction transaction, final String dataSourceId, final ObjIntConsumer<Transaction.Event> onEvent) throws IOException, SQLException {
     if (statements == null)
       return 0;
 
+    if (transaction == null && statements.size() > 0) {
+      final ShardSet shardSet = Registry.getShardSet(((Command<?>)statements.get(0)).schema(), dataSourceId);
+      if (shardSet != null)
+        return execute(shardSet, onEvent);
+    }
+
+    Execution execution = null;
+    final JfrEvents.BatchEvent event = JfrEvents.ENABLED && statements.size() > 0 ? JfrEvents.BatchEvent.start() : null;
+    int groups = 0;
     try {
+      if (transaction != null)
+        transaction.flush();
+
+      execution = statements.size() == 0 ? null : Execution.start(Execution.Type.BATCH, ((Command<?>)statements.get(0)).schema(), dataSourceId);
+      final IndexAdvisor indexAdvisor = Registry.getIndexAdvisor();
+      long rowCount = 0;
       String last = null;
       Statement statement = null;
       final int noStatements = statements.size();
@@ -185,18 +254,23 @@ public class Batch implements Executable.Modify.Delete, Executable.Modify.Insert
       int index = 0;
       Class<? extends Schema> schema = null;
       Connection connection = null;
+      DBVendor vendor = null;
+      Compiler compiler = null;
       SQLException suppressed = null;
       try {
         for (int i = 0; i < noStatements; ++i) {
           final Command<?> command = (Command<?>)statements.get(i);
-          if (connection == null)
+          if (connection == null) {
             connection = transaction != null ? transaction.getConnection() : Schema.getConnection(schema = command.schema(), dataSourceId, true);
+            vendor = transaction != null ? transaction.getVendor() : Schema.getDBVendor(schema, dataSourceId, connection);
+            compiler = Compiler.getCompiler(vendor);
+            if (execution != null)
+              execution.connected();
+          }
           else if (schema != null && schema != command.schema())
             throw new IllegalArgumentException("Cannot execute batch across different schemas: " + schema.getSimpleName() + " and " + command.schema().getSimpleName());
 
-          final DBVendor vendor = DBVendor.valueOf(connection.getMetaData());
           final boolean isPrepared;
-          final Compiler compiler = Compiler.getCompiler(vendor);
           if (compiler.supportsPreparedBatch()) {
             isPrepared = Registry.isPrepared(command.schema(), dataSourceId);
           }
@@ -222,8 +296,12 @@ public class Batch implements Executable.Modify.Delete, Executable.Modify.Insert
             returnGeneratedKeys = false;
           }
 
-          try (final Compilation compilation = new Compilation(command, vendor, isPrepared)) {
-            command.compile(compilation, false);
+          try (final Compilation compilation = Compilation.compile(command, vendor, isPrepared)) {
+            if (execution != null)
+              execution.compiled(compilation);
+
+            if (indexAdvisor != null)
+              indexAdvisor.observe(command);
 
             final String sql = compilation.toString();
             if (isPrepared) {
@@ -231,9 +309,16 @@ public class Batch implements Executable.Modify.Delete, Executable.Modify.Insert
                 if (statement != null) {
                   try {
                     final int[] counts = statement.executeBatch();
+                    rowCount += sum(counts);
+                    ++groups;
+                    if (execution != null)
+                      execution.executed();
+
                     if (listeners != null) {
-                      total = aggregate(counts, allCounts, statement, insertsWithGeneratedKeys, index, total);
+                      total = aggregate(counts, allCounts, compiler, statement, insertsWithGeneratedKeys, index, total);
                       index += counts.length;
+                      if (execution != null)
+                        execution.fetched();
                     }
                   }
                   finally {
@@ -242,26 +327,37 @@ public class Batch implements Executable.Modify.Delete, Executable.Modify.Insert
                 }
 
                 statement = returnGeneratedKeys ? connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS) : connection.prepareStatement(sql);
+                AsyncExecution.register(statement);
                 last = sql;
               }
 
               final List<data.Column<?>> parameters = compilation.getParameters();
               if (parameters != null)
                 for (int j = 0, len = parameters.size(); j < len;)
-                  parameters.get(j).get((PreparedStatement)statement, ++j);
+                  parameters.get(j).get(compiler, (PreparedStatement)statement, ++j);
 
               ((PreparedStatement)statement).addBatch();
+              if (execution != null)
+                execution.prepared();
             }
             else {
               if (statement == null) {
                 statement = connection.createStatement();
+                AsyncExecution.register(statement);
               }
               else if (statement instanceof PreparedStatement) {
                 try {
                   final int[] counts = statement.executeBatch();
+                  rowCount += sum(counts);
+                  ++groups;
+                  if (execution != null)
+                    execution.executed();
+
                   if (listeners != null) {
-                    total = aggregate(counts, allCounts, statement, insertsWithGeneratedKeys, index, total);
+                    total = aggregate(counts, allCounts, compiler, statement, insertsWithGeneratedKeys, index, total);
                     index += counts.length;
+                    if (execution != null)
+                      execution.fetched();
                   }
                 }
                 finally {
@@ -269,17 +365,27 @@ public class Batch implements Executable.Modify.Delete, Executable.Modify.Insert
                 }
 
                 statement = connection.createStatement();
+                AsyncExecution.register(statement);
               }
 
               statement.addBatch(sql);
+              if (execution != null)
+                execution.prepared();
             }
           }
         }
 
         final int[] counts = statement.executeBatch();
+        rowCount += sum(counts);
+        ++groups;
+        if (execution != null)
+          execution.executed();
+
         if (listeners != null) {
-          total = aggregate(counts, allCounts, statement, insertsWithGeneratedKeys, index, total);
+          total = aggregate(counts, allCounts, compiler, statement, insertsWithGeneratedKeys, index, total);
           index += counts.length;
+          if (execution != null)
+            execution.fetched();
 
           if (transaction != null)
             transaction.addListener(p -> onEvent(p, allCounts));
@@ -287,6 +393,22 @@ public class Batch implements Executable.Modify.Delete, Executable.Modify.Insert
           onEvent(Transaction.Event.EXECUTE, allCounts);
         }
 
+        for (int i = 0; i < noStatements; ++i)
+          Executable.afterExecute((Command<?>)statements.get(i), transaction, dataSourceId);
+
+        if (onEvent != null) {
+          final int count = total;
+          onEvent.accept(Transaction.Event.EXECUTE, count);
+          if (transaction != null)
+            transaction.addListener(e -> onEvent.accept(e, count));
+        }
+
+        if (execution != null)
+          execution.finish(rowCount, null);
+
+        if (event != null)
+          event.end(((Command<?>)statements.get(0)).schema(), dataSourceId, noStatements, groups, rowCount);
+
         return total;
       }
       finally {
@@ -299,10 +421,26 @@ public class Batch implements Executable.Modify.Delete, Executable.Modify.Insert
       }
     }
     catch (final SQLException e) {
-      throw SQLExceptions.toStrongType(e);
+      final SQLException se = SQLExceptions.toStrongType(e);
+      if (execution != null)
+        execution.finish(-1, se);
+
+      if (event != null)
+        event.end(((Command<?>)statements.get(0)).schema(), dataSourceId, statements.size(), groups, -1);
+
+      throw se;
     }
   }
 
+  private static long sum(final int[] counts) {
+    long sum = 0;
+    for (final int count : counts)
+      if (count > 0)
+        sum += count;
+
+    return sum;
+  }
+
   private void onEvent(final Transaction.Event event, final int[] counts) {
     for (int i = listenerOffset; i < counts.length; ++i) {
       final ObjIntConsumer<Transaction.Event> listener = listeners.get(i - listenerOffset);
@@ -313,17 +451,22 @@ public class Batch implements Executable.Modify.Delete, Executable.Modify.Insert
 
   @Override
   public final int execute(final String dataSourceId) throws IOException, SQLException {
-    return execute(null, dataSourceId);
+    return execute(null, dataSourceId, null);
   }
 
   @Override
   public final int execute(final Transaction transaction) throws IOException, SQLException {
-    return execute(transaction, transaction != null ? transaction.getDataSourceId() : null);
+    return execute(transaction, transaction != null ? transaction.getDataSourceId() : null, null);
+  }
+
+  @Override
+  public final int execute(final Transaction transaction, final ObjIntConsumer<Transaction.Event> onEvent) throws IOException, SQLException {
+    return execute(transaction, transaction != null ? transaction.getDataSourceId() : null, onEvent);
   }
 
   @Override
   public int execute() throws IOException, SQLException {
-    return execute(null, null);
+    return execute(null, null, null);
   }
 
   @Override
@@ -0,0 +1,86 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb.jsql;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit, miss and eviction counters of a cache maintained by jSQL.
+ */
+public final class CacheStatistics {
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  CacheStatistics() {
+  }
+
+  void hit() {
+    hits.increment();
+  }
+
+  void miss() {
+    misses.increment();
+  }
+
+  void evict() {
+    evictions.increment();
+  }
+
+  /**
+   * @return The number of lookups that were answered by the cache.
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * @return The number of lookups that were not answered by the cache.
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * @return The number of entries that were evicted from the cache.
+   */
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  /**
+   * @return The total number of lookups.
+   */
+  public long getRequestCount() {
+    return getHitCount() + getMissCount();
+  }
+
+  /**
+   * @return The ratio of hits to lookups, or {@code 1.0} if there were no
+   *         lookups.
+   */
+  public double getHitRate() {
+    final long hits = getHitCount();
+    final long requests = hits + getMissCount();
+    return requests == 0 ? 1d : (double)hits / requests;
+  }
+
+  @Override
+  public String toString() {
+    return "{hits: " + getHitCount() + ", misses: " + getMissCount() + ", evictions: " + getEvictionCount() + "}";
+  }
+}
@@ -17,4 +17,34 @@
 package org.jaxdb.jsql;
 
 abstract class Command<D extends data.Entity<?>> extends Keyword<D> {
+  /**
+   * Returns the entity whose primary key identifies the single row that is
+   * accessed by this command, or {@code null} if this command accesses the
+   * rows that are selected by a condition.
+   *
+   * @return The entity whose primary key identifies the single row that is
+   *         accessed by this command, or {@code null}.
+   */
+  data.Table getPrimaryKeyEntity() {
+    return null;
+  }
+
+  /**
+   * Updates the provided {@link IdentityMap} of a {@link Transaction} to
+   * reflect the execution of this command.
+   *
+   * @param identityMap The {@link IdentityMap}.
+   */
+  void afterExecute(final IdentityMap identityMap) {
+  }
+
+  /**
+   * Records the invalidation of the {@link EntityCache},
+   * {@link ResultCache} and {@link ReferenceCache} entries of the rows that are
+   * written by this command.
+   *
+   * @param invalidation The {@link Invalidation}.
+   */
+  void invalidate(final Invalidation invalidation) {
+  }
 }
\ No newline at end of file
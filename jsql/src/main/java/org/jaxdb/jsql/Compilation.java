@@ -31,6 +31,8 @@ import java.util.function.Consumer;
 
 import org.jaxdb.jsql.SelectImpl.untyped;
 import org.jaxdb.vendor.DBVendor;
+import org.libj.lang.Throwables;
+import org.libj.sql.AuditStatement;
 
 final class Compilation implements AutoCloseable {
   static enum Token {
@@ -54,6 +56,8 @@ final class Compilation implements AutoCloseable {
   private final boolean prepared;
   private Consumer<Boolean> afterExecute;
   private boolean closed;
+  private String sql;
+  boolean hasGeneratedValues;
 
   final Keyword<?> command;
   final DBVendor vendor;
@@ -68,6 +72,34 @@ final class Compilation implements AutoCloseable {
     this(command, vendor, prepared, null);
   }
 
+  /**
+   * Returns a new {@link Compilation} of the provided command.
+   *
+   * @param command The command to compile.
+   * @param vendor The {@link DBVendor}.
+   * @param prepared Whether the SQL is to be compiled for a
+   *          {@link PreparedStatement}.
+   * @return A new {@link Compilation} of the provided command.
+   * @throws IOException If an I/O error has occurred.
+   * @throws SQLException If a SQL error has occurred.
+   */
+  static Compilation compile(final Command<?> command, final DBVendor vendor, final boolean prepared) throws IOException, SQLException {
+    final JfrEvents.CompilationEvent event = JfrEvents.ENABLED ? JfrEvents.CompilationEvent.start() : null;
+    final Compilation compilation = new Compilation(command, vendor, prepared);
+    try {
+      command.compile(compilation, false);
+    }
+    catch (final Throwable t) {
+      compilation.close();
+      throw t;
+    }
+
+    if (event != null)
+      event.end(command, compilation);
+
+    return compilation;
+  }
+
   private Compilation(final Keyword<?> command, final DBVendor vendor, final boolean prepared, final Compilation parent) {
     this.command = command;
     this.vendor = vendor;
@@ -95,8 +127,29 @@ final class Compilation implements AutoCloseable {
     return subCompilation;
   }
 
+  /**
+   * Freezes this {@link Compilation}, whereby the SQL is rendered once and the
+   * tokens are released. A frozen {@link Compilation} is owned by a
+   * {@link Template}, and is not cleared by {@link #close()}.
+   */
+  void freeze() {
+    sql = toString();
+    tokens.clear();
+    tokens.trimToSize();
+    columnTokens = null;
+    subCompilations = null;
+    aliases.clear();
+  }
+
+  boolean isFrozen() {
+    return sql != null;
+  }
+
   @Override
   public void close() {
+    if (sql != null)
+      return;
+
     closed = true;
     if (parameters != null)
       parameters.clear();
@@ -154,6 +207,9 @@ final class Compilation implements AutoCloseable {
     if (closed)
       throw new IllegalStateException("Compilation closed");
 
+    if (sql != null)
+      throw new IllegalStateException("Compilation frozen");
+
     tokens.add(seq);
     return this;
   }
@@ -242,18 +298,31 @@ final class Compilation implements AutoCloseable {
     return config.apply(connection.createStatement(config.getType().index, config.getConcurrency().index, config.getHoldability().index));
   }
 
-  ResultSet executeQuery(final Connection connection, final QueryConfig config) throws IOException, SQLException {
+  static SQLException release(final Statement statement, final StatementCache statementCache) {
+    return statementCache != null ? statementCache.release(statement) : AuditStatement.close(statement);
+  }
+
+  Statement prepareQuery(final Connection connection, final QueryConfig config, final StatementCache statementCache) throws IOException, SQLException {
+    if (!prepared)
+      return configure(connection, config);
+
     final String sql = toString();
-    if (prepared) {
-      final PreparedStatement statement = configure(connection, config, sql);
+    final PreparedStatement statement = statementCache != null ? statementCache.prepareStatement(connection, sql, config) : configure(connection, config, sql);
+    try {
       if (parameters != null)
         for (int i = 0, len = parameters.size(); i < len;)
-          parameters.get(i++).get(statement, i);
+          parameters.get(i++).get(compiler, statement, i);
 
-      return statement.executeQuery();
+      return statement;
+    }
+    catch (final IOException | SQLException e) {
+      Throwables.addSuppressed(e, release(statement, statementCache));
+      throw e;
     }
+  }
 
-    return configure(connection, config).executeQuery(sql);
+  ResultSet executeQuery(final Statement statement) throws SQLException {
+    return prepared ? ((PreparedStatement)statement).executeQuery() : statement.executeQuery(toString());
   }
 
   boolean subCompile(final Subject subject) {
@@ -291,6 +360,9 @@ final class Compilation implements AutoCloseable {
 
   @Override
   public String toString() {
+    if (sql != null)
+      return sql;
+
     final StringBuilder builder = new StringBuilder();
     for (final Object token : tokens)
       builder.append(token);
@@ -34,6 +34,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.temporal.TemporalUnit;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -512,8 +513,10 @@ abstract class Compiler extends DBVendorBase {
     if (column.generateOnInsert == null || column.generateOnInsert == GenerateOn.AUTO_GENERATED)
       return false;
 
-    if (modify)
+    if (modify) {
       column.generateOnInsert.generate(column, compilation.vendor);
+      compilation.hasGeneratedValues = true;
+    }
 
     return true;
   }
@@ -526,6 +529,7 @@ abstract class Compiler extends DBVendorBase {
     boolean shouldUpdate = column.wasSet();
     if ((!shouldUpdate || column.keyForUpdate) && column.generateOnUpdate != null) {
       column.generateOnUpdate.generate(column, compilation.vendor);
+      compilation.hasGeneratedValues = true;
       shouldUpdate = true;
     }
 
@@ -1288,7 +1292,7 @@ abstract class Compiler extends DBVendorBase {
   }
 
   String compileColumn(final data.BIGINT column) {
-    return column.isNull() ? "NULL" : Dialect.NUMBER_FORMAT.get().format(column.get());
+    return column.isNull() ? "NULL" : Dialect.NUMBER_FORMAT.get().format(column.getAsLong());
   }
 
   String compileColumn(final data.BINARY column) {
@@ -1328,7 +1332,7 @@ abstract class Compiler extends DBVendorBase {
   }
 
   String compileColumn(final data.DOUBLE column) {
-    return column.isNull() ? "NULL" : Dialect.NUMBER_FORMAT.get().format(column.get());
+    return column.isNull() ? "NULL" : Dialect.NUMBER_FORMAT.get().format(column.getAsDouble());
   }
 
   String compileColumn(final data.ENUM<?> column) {
@@ -1336,19 +1340,19 @@ abstract class Compiler extends DBVendorBase {
   }
 
   String compileColumn(final data.FLOAT column) {
-    return column.isNull() ? "NULL" : Dialect.NUMBER_FORMAT.get().format(column.get());
+    return column.isNull() ? "NULL" : Dialect.NUMBER_FORMAT.get().format(column.getAsFloat());
   }
 
   String compileColumn(final data.INT column) {
-    return column.isNull() ? "NULL" : Dialect.NUMBER_FORMAT.get().format(column.get());
+    return column.isNull() ? "NULL" : Dialect.NUMBER_FORMAT.get().format(column.getAsLong());
   }
 
   String compileColumn(final data.SMALLINT column) {
-    return column.isNull() ? "NULL" : Dialect.NUMBER_FORMAT.get().format(column.get());
+    return column.isNull() ? "NULL" : Dialect.NUMBER_FORMAT.get().format(column.getAsLong());
   }
 
   String compileColumn(final data.TINYINT column) {
-    return column.isNull() ? "NULL" : Dialect.NUMBER_FORMAT.get().format(column.get());
+    return column.isNull() ? "NULL" : Dialect.NUMBER_FORMAT.get().format(column.getAsLong());
   }
 
   String compileColumn(final data.TIME column) {
@@ -1546,10 +1550,12 @@ abstract class Compiler extends DBVendorBase {
   @SuppressWarnings("deprecation")
   void setParameter(final data.DATE column, final PreparedStatement statement, final int parameterIndex) throws SQLException {
     final LocalDate value = column.get();
-    if (value != null)
-      statement.setDate(parameterIndex, new Date(value.getYear() - 1900, value.getMonthValue() - 1, value.getDayOfMonth()));
-    else
+    if (value == null)
       statement.setNull(parameterIndex, column.sqlType());
+    else if (supportsJavaTime())
+      statement.setObject(parameterIndex, value);
+    else
+      statement.setDate(parameterIndex, new Date(value.getYear() - 1900, value.getMonthValue() - 1, value.getDayOfMonth()));
   }
 
   /**
@@ -1564,10 +1570,12 @@ abstract class Compiler extends DBVendorBase {
   @SuppressWarnings("deprecation")
   void updateColumn(final data.DATE column, final ResultSet resultSet, final int columnIndex) throws SQLException {
     final LocalDate value = column.get();
-    if (value != null)
-      resultSet.updateDate(columnIndex, new Date(value.getYear() - 1900, value.getMonthValue() - 1, value.getDayOfMonth()));
-    else
+    if (value == null)
       resultSet.updateNull(columnIndex);
+    else if (supportsJavaTime())
+      resultSet.updateObject(columnIndex, value);
+    else
+      resultSet.updateDate(columnIndex, new Date(value.getYear() - 1900, value.getMonthValue() - 1, value.getDayOfMonth()));
   }
 
   /**
@@ -1583,6 +1591,9 @@ abstract class Compiler extends DBVendorBase {
    */
   @SuppressWarnings("deprecation")
   LocalDate getParameter(final data.DATE column, final ResultSet resultSet, final int columnIndex) throws SQLException {
+    if (supportsJavaTime())
+      return resultSet.getObject(columnIndex, LocalDate.class);
+
     final Date value = resultSet.getDate(columnIndex);
     return resultSet.wasNull() || value == null ? null : LocalDate.of(value.getYear() + 1900, value.getMonth() + 1, value.getDate());
   }
@@ -1598,10 +1609,12 @@ abstract class Compiler extends DBVendorBase {
    */
   void setParameter(final data.TIME column, final PreparedStatement statement, final int parameterIndex) throws SQLException {
     final LocalTime value = column.get();
-    if (value != null)
-      statement.setTimestamp(parameterIndex, Timestamp.valueOf("1970-01-01 " + Dialect.timeToString(value)));
-    else
+    if (value == null)
       statement.setNull(parameterIndex, column.sqlType());
+    else if (supportsJavaTime())
+      statement.setObject(parameterIndex, value);
+    else
+      statement.setTimestamp(parameterIndex, Timestamp.valueOf("1970-01-01 " + Dialect.timeToString(value)));
   }
 
   /**
@@ -1615,10 +1628,12 @@ abstract class Compiler extends DBVendorBase {
    */
   void updateColumn(final data.TIME column, final ResultSet resultSet, final int columnIndex) throws SQLException {
     final LocalTime value = column.get();
-    if (value != null)
-      resultSet.updateTimestamp(columnIndex, Timestamp.valueOf("1970-01-01 " + Dialect.timeToString(value)));
-    else
+    if (value == null)
       resultSet.updateNull(columnIndex);
+    else if (supportsJavaTime())
+      resultSet.updateObject(columnIndex, value);
+    else
+      resultSet.updateTimestamp(columnIndex, Timestamp.valueOf("1970-01-01 " + Dialect.timeToString(value)));
   }
 
   /**
@@ -1633,6 +1648,9 @@ abstract class Compiler extends DBVendorBase {
    * @throws SQLException If a SQL error has occurred.
    */
   LocalTime getParameter(final data.TIME column, final ResultSet resultSet, final int columnIndex) throws SQLException {
+    if (supportsJavaTime())
+      return resultSet.getObject(columnIndex, LocalTime.class);
+
     final Timestamp value = resultSet.getTimestamp(columnIndex);
     return resultSet.wasNull() || value == null ? null : value.toLocalDateTime().toLocalTime();
   }
@@ -1648,10 +1666,12 @@ abstract class Compiler extends DBVendorBase {
    */
   void setParameter(final data.DATETIME column, final PreparedStatement statement, final int parameterIndex) throws SQLException {
     final LocalDateTime value = column.get();
-    if (value != null)
-      statement.setTimestamp(parameterIndex, dt.DATETIME.toTimestamp(value));
-    else
+    if (value == null)
       statement.setNull(parameterIndex, column.sqlType());
+    else if (supportsJavaTime())
+      statement.setObject(parameterIndex, value);
+    else
+      statement.setTimestamp(parameterIndex, dt.DATETIME.toTimestamp(value));
   }
 
   /**
@@ -1665,10 +1685,12 @@ abstract class Compiler extends DBVendorBase {
    */
   void updateColumn(final data.DATETIME column, final ResultSet resultSet, final int columnIndex) throws SQLException {
     final LocalDateTime value = column.get();
-    if (value != null)
-      resultSet.updateTimestamp(columnIndex, dt.DATETIME.toTimestamp(value));
-    else
+    if (value == null)
       resultSet.updateNull(columnIndex);
+    else if (supportsJavaTime())
+      resultSet.updateObject(columnIndex, value);
+    else
+      resultSet.updateTimestamp(columnIndex, dt.DATETIME.toTimestamp(value));
   }
 
   /**
@@ -1684,6 +1706,9 @@ abstract class Compiler extends DBVendorBase {
    */
   @SuppressWarnings("deprecation")
   LocalDateTime getParameter(final data.DATETIME column, final ResultSet resultSet, final int columnIndex) throws SQLException {
+    if (supportsJavaTime())
+      return resultSet.getObject(columnIndex, LocalDateTime.class);
+
     final Timestamp value = resultSet.getTimestamp(columnIndex);
     return resultSet.wasNull() || value == null ? null : LocalDateTime.of(value.getYear() + 1900, value.getMonth() + 1, value.getDate(), value.getHours(), value.getMinutes(), value.getSeconds(), value.getNanos());
   }
@@ -1692,6 +1717,34 @@ abstract class Compiler extends DBVendorBase {
     return true;
   }
 
+  /**
+   * Returns whether the JDBC driver of the vendor maps {@code DATE},
+   * {@code TIME} and {@code TIMESTAMP} values to and from {@link LocalDate},
+   * {@link LocalTime} and {@link LocalDateTime} via the JDBC 4.2
+   * {@code getObject}, {@code setObject} and {@code updateObject} methods. If
+   * so, temporal values are bound and read without intermediate
+   * {@link java.sql.Date} and {@link Timestamp} instances.
+   *
+   * @return Whether the JDBC driver of the vendor supports the JDBC 4.2
+   *         mapping of {@code java.time} types.
+   */
+  boolean supportsJavaTime() {
+    return false;
+  }
+
+  /**
+   * Returns whether the default collation of the vendor compares
+   * {@code VARCHAR} values by their characters, as {@link String#equals(Object)}
+   * does. Vendors whose default collation is case-insensitive, or ignores
+   * trailing blanks, return {@code false}.
+   *
+   * @return Whether the default collation of the vendor compares
+   *         {@code VARCHAR} values by their characters.
+   */
+  boolean binaryCollation() {
+    return true;
+  }
+
   boolean supportsReturnGeneratedKeysBatch() {
     return true;
   }
@@ -1707,4 +1760,101 @@ abstract class Compiler extends DBVendorBase {
   int executeUpdateReturning(final Statement statement, final String sql, final data.Column<?>[] autos) throws SQLException {
     return statement.executeUpdate(prepareSqlReturning(sql, autos), Statement.RETURN_GENERATED_KEYS);
   }
+
+  final void setParameters(final PreparedStatement statement, final List<data.Column<?>> parameters) throws SQLException {
+    if (parameters != null)
+      for (int i = 0, len = parameters.size(); i < len;)
+        parameters.get(i).get(this, statement, ++i);
+  }
+
+  String compileExplain(final String sql) {
+    return "EXPLAIN " + sql;
+  }
+
+  /**
+   * Returns the {@link QueryPlan} of the provided {@code SELECT} statement.
+   *
+   * @param connection The {@link Connection} on which to explain the
+   *          statement.
+   * @param sql The SQL of the statement.
+   * @param parameters The parameters of the statement, or {@code null}.
+   * @return The {@link QueryPlan} of the provided {@code SELECT} statement.
+   * @throws SQLException If a SQL error has occurred.
+   */
+  QueryPlan explain(final Connection connection, final String sql, final List<data.Column<?>> parameters) throws SQLException {
+    try (final PreparedStatement statement = connection.prepareStatement(compileExplain(sql))) {
+      setParameters(statement, parameters);
+      try (final ResultSet resultSet = statement.executeQuery()) {
+        final int noColumns = resultSet.getMetaData().getColumnCount();
+        final String[] labels = new String[noColumns];
+        for (int i = 0; i < noColumns; ++i)
+          labels[i] = resultSet.getMetaData().getColumnLabel(i + 1);
+
+        final ArrayList<String[]> rows = new ArrayList<>();
+        while (resultSet.next()) {
+          final String[] row = new String[noColumns];
+          for (int i = 0; i < noColumns; ++i)
+            row[i] = resultSet.getString(i + 1);
+
+          rows.add(row);
+        }
+
+        return new QueryPlan(getVendor(), renderPlan(rows), parsePlan(labels, rows));
+      }
+    }
+  }
+
+  /**
+   * Returns the root {@link QueryPlan.Node}s of the plan of the provided rows
+   * of the result of the {@link #compileExplain(String) EXPLAIN} statement.
+   * By default, each row is a root node of {@link QueryPlan.ScanType#OTHER}.
+   *
+   * @param labels The column labels of the rows.
+   * @param rows The rows.
+   * @return The root {@link QueryPlan.Node}s of the plan of the provided rows.
+   */
+  List<QueryPlan.Node> parsePlan(final String[] labels, final List<String[]> rows) {
+    final ArrayList<QueryPlan.Node> roots = new ArrayList<>(rows.size());
+    for (final String[] row : rows)
+      roots.add(new QueryPlan.Node(String.join(" | ", row), QueryPlan.ScanType.OTHER, null, null, -1));
+
+    return roots;
+  }
+
+  static String renderPlan(final List<String[]> rows) {
+    final StringBuilder builder = new StringBuilder();
+    for (final String[] row : rows) {
+      if (builder.length() > 0)
+        builder.append('\n');
+
+      for (int i = 0; i < row.length; ++i) {
+        if (i > 0)
+          builder.append(" | ");
+
+        builder.append(row[i]);
+      }
+    }
+
+    return builder.toString();
+  }
+
+  static int indexOf(final String[] labels, final String label) {
+    for (int i = 0; i < labels.length; ++i)
+      if (label.equalsIgnoreCase(labels[i]))
+        return i;
+
+    return -1;
+  }
+
+  static long parseRows(final String value) {
+    if (value == null)
+      return -1;
+
+    try {
+      return Math.round(Double.parseDouble(value));
+    }
+    catch (final NumberFormatException e) {
+      return -1;
+    }
+  }
 }
\ No newline at end of file
@@ -0,0 +1,477 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb.jsql;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.libj.lang.Throwables;
+import org.libj.sql.AuditConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A lightweight pool of {@link Connection}s, for deployments without an
+ * external connection pool. A {@link ConnectionPool} is a {@link Connector},
+ * and is registered with {@link Registry#register(Class,Connector)} or
+ * {@link Registry#registerPrepared(Class,Connector)}.
+ * <p>
+ * Idle connections are held in a lock-free deque, and are borrowed in
+ * most-recently-returned order. A connection that has been idle for longer
+ * than {@link #VALIDATION_THRESHOLD_MS} is validated with
+ * {@link Connection#isValid(int)} when borrowed. The auto-commit, read-only
+ * and transaction isolation state of a connection is tracked, whereby calls
+ * that do not change the state are not propagated to the driver, and the
+ * state is reset when the connection is returned only if it was changed.
+ * The pool is filled to its minimum size when it is built. Connections in
+ * excess of the minimum size of the pool are closed once they have been idle
+ * for longer than the idle timeout, which is checked whenever a connection is
+ * borrowed or returned.
+ */
+public final class ConnectionPool implements Connector, AutoCloseable {
+  private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
+
+  /**
+   * The time a connection may be idle before it is validated on borrow, in
+   * milliseconds.
+   */
+  public static final long VALIDATION_THRESHOLD_MS = 500;
+
+  public static class Builder {
+    private final Connector connector;
+    private int maxSize = 10;
+    private int minSize;
+    private long idleTimeout = TimeUnit.MINUTES.toNanos(10);
+    private long maxWait = TimeUnit.SECONDS.toNanos(30);
+    private int validationTimeout = 5;
+
+    /**
+     * Creates a new {@link Builder} of a {@link ConnectionPool} of the
+     * connections of the provided {@link Connector}.
+     *
+     * @param connector The {@link Connector} of the physical connections.
+     * @throws NullPointerException If {@code connector} is null.
+     */
+    public Builder(final Connector connector) {
+      this.connector = Objects.requireNonNull(connector);
+    }
+
+    public Builder withMaxSize(final int maxSize) {
+      if (maxSize <= 0)
+        throw new IllegalArgumentException("maxSize (" + maxSize + ") must be greater than 0");
+
+      this.maxSize = maxSize;
+      return this;
+    }
+
+    public Builder withMinSize(final int minSize) {
+      if (minSize < 0)
+        throw new IllegalArgumentException("minSize (" + minSize + ") must be greater than or equal to 0");
+
+      this.minSize = minSize;
+      return this;
+    }
+
+    public Builder withIdleTimeout(final long timeout, final TimeUnit unit) {
+      if (timeout <= 0)
+        throw new IllegalArgumentException("idleTimeout (" + timeout + ") must be greater than 0");
+
+      this.idleTimeout = unit.toNanos(timeout);
+      return this;
+    }
+
+    public Builder withMaxWait(final long timeout, final TimeUnit unit) {
+      if (timeout <= 0)
+        throw new IllegalArgumentException("maxWait (" + timeout + ") must be greater than 0");
+
+      this.maxWait = unit.toNanos(timeout);
+      return this;
+    }
+
+    public Builder withValidationTimeout(final int seconds) {
+      if (seconds <= 0)
+        throw new IllegalArgumentException("validationTimeout (" + seconds + ") must be greater than 0");
+
+      this.validationTimeout = seconds;
+      return this;
+    }
+
+    /**
+     * @return A new {@link ConnectionPool} of the configuration of this
+     *         builder, filled with the minimum number of connections.
+     * @throws IllegalArgumentException If the minimum size is greater than the
+     *           maximum size.
+     * @throws SQLException If a SQL error has occurred while opening the
+     *           minimum number of connections.
+     */
+    public ConnectionPool build() throws SQLException {
+      if (minSize > maxSize)
+        throw new IllegalArgumentException("minSize (" + minSize + ") must be less than or equal to maxSize (" + maxSize + ")");
+
+      final ConnectionPool pool = new ConnectionPool(connector, maxSize, minSize, idleTimeout, maxWait, validationTimeout);
+      try {
+        pool.fill();
+      }
+      catch (final SQLException | RuntimeException e) {
+        pool.close();
+        throw e;
+      }
+
+      return pool;
+    }
+  }
+
+  /**
+   * A physical connection of the pool, and its tracked state.
+   */
+  static final class Entry {
+    final Connection connection;
+    final boolean defaultAutoCommit;
+    final boolean defaultReadOnly;
+    final int defaultIsolation;
+    boolean autoCommit;
+    boolean readOnly;
+    int isolation;
+    long idleSince;
+
+    private Entry(final Connection connection) throws SQLException {
+      this.connection = connection;
+      this.autoCommit = this.defaultAutoCommit = connection.getAutoCommit();
+      this.readOnly = this.defaultReadOnly = connection.isReadOnly();
+      this.isolation = this.defaultIsolation = connection.getTransactionIsolation();
+    }
+
+    private void reset() throws SQLException {
+      if (!autoCommit)
+        connection.rollback();
+
+      if (autoCommit != defaultAutoCommit)
+        connection.setAutoCommit(autoCommit = defaultAutoCommit);
+
+      if (readOnly != defaultReadOnly)
+        connection.setReadOnly(readOnly = defaultReadOnly);
+
+      if (isolation != defaultIsolation)
+        connection.setTransactionIsolation(isolation = defaultIsolation);
+
+      connection.clearWarnings();
+    }
+
+    private void close() {
+      try {
+        connection.close();
+      }
+      catch (final SQLException e) {
+        if (logger.isDebugEnabled())
+          logger.debug("Failed to close pooled connection", e);
+      }
+    }
+  }
+
+  private final Connector connector;
+  private final int maxSize;
+  private final int minSize;
+  private final long idleTimeout;
+  private final long maxWait;
+  private final int validationTimeout;
+
+  private final ConcurrentLinkedDeque<Entry> idle = new ConcurrentLinkedDeque<>();
+  private final Semaphore permits;
+  private final AtomicInteger size = new AtomicInteger();
+  private final AtomicInteger idleSize = new AtomicInteger();
+  private volatile boolean closed;
+
+  private final LongAdder borrows = new LongAdder();
+  private final LongAdder creates = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder waitNanos = new LongAdder();
+
+  private ConnectionPool(final Connector connector, final int maxSize, final int minSize, final long idleTimeout, final long maxWait, final int validationTimeout) {
+    this.connector = connector;
+    this.maxSize = maxSize;
+    this.minSize = minSize;
+    this.idleTimeout = idleTimeout;
+    this.maxWait = maxWait;
+    this.validationTimeout = validationTimeout;
+    this.permits = new Semaphore(maxSize);
+  }
+
+  private Entry open() throws SQLException {
+    final Connection connection = connector.getConnection();
+    final Entry entry;
+    try {
+      entry = new Entry(connection);
+    }
+    catch (final SQLException e) {
+      throw Throwables.addSuppressed(e, AuditConnection.close(connection));
+    }
+
+    size.incrementAndGet();
+    creates.increment();
+    return entry;
+  }
+
+  /**
+   * Opens idle connections until this pool has its minimum number of
+   * connections.
+   *
+   * @throws SQLException If a SQL error has occurred while opening a
+   *           connection.
+   */
+  private void fill() throws SQLException {
+    while (size.get() < minSize) {
+      final Entry entry = open();
+      entry.idleSince = System.nanoTime();
+      idle.offerLast(entry);
+      idleSize.incrementAndGet();
+    }
+  }
+
+  /**
+   * Borrows a {@link Connection} from this pool, waiting for up to the maximum
+   * wait time of this pool if all connections are in use. The borrowed
+   * connection is returned to this pool when it is closed.
+   *
+   * @return A {@link Connection} borrowed from this pool.
+   * @throws SQLNonTransientConnectionException If this pool is closed.
+   * @throws SQLTransientConnectionException If no connection became available
+   *           within the maximum wait time of this pool, or if the current
+   *           thread was interrupted while waiting.
+   * @throws SQLException If a SQL error has occurred while opening a new
+   *           connection.
+   */
+  @Override
+  public Connection getConnection() throws SQLException {
+    if (closed)
+      throw new SQLNonTransientConnectionException("Connection pool is closed");
+
+    final long start = System.nanoTime();
+    final boolean acquired;
+    try {
+      acquired = permits.tryAcquire(maxWait, TimeUnit.NANOSECONDS);
+    }
+    catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLTransientConnectionException("Interrupted while waiting for a connection", e);
+    }
+
+    final long now = System.nanoTime();
+    waitNanos.add(now - start);
+    if (!acquired)
+      throw new SQLTransientConnectionException("Timed out after " + TimeUnit.NANOSECONDS.toMillis(maxWait) + "ms waiting for a connection (maxSize: " + maxSize + ")");
+
+    borrows.increment();
+    evict(now);
+    try {
+      for (Entry entry; (entry = idle.pollFirst()) != null;) {
+        idleSize.decrementAndGet();
+        if (validate(entry, now))
+          return new PooledConnection(this, entry);
+
+        discard(entry);
+      }
+
+      return new PooledConnection(this, open());
+    }
+    catch (final SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  private boolean validate(final Entry entry, final long now) {
+    if (now - entry.idleSince < TimeUnit.MILLISECONDS.toNanos(VALIDATION_THRESHOLD_MS))
+      return true;
+
+    try {
+      return entry.connection.isValid(validationTimeout);
+    }
+    catch (final SQLException e) {
+      if (logger.isDebugEnabled())
+        logger.debug("Failed to validate pooled connection", e);
+
+      return false;
+    }
+  }
+
+  /**
+   * Returns the provided {@link Entry} to this pool, resetting the state of
+   * its connection if it was changed. If the state cannot be reset, the
+   * connection is closed.
+   *
+   * @param entry The {@link Entry}.
+   */
+  void release(final Entry entry) {
+    try {
+      entry.reset();
+    }
+    catch (final SQLException e) {
+      if (logger.isDebugEnabled())
+        logger.debug("Failed to reset pooled connection", e);
+
+      abort(entry);
+      return;
+    }
+
+    if (closed) {
+      abort(entry);
+      return;
+    }
+
+    entry.idleSince = System.nanoTime();
+    idle.offerFirst(entry);
+    idleSize.incrementAndGet();
+    permits.release();
+
+    // If this pool was closed after the check above, close() may have drained the idle connections before the offer
+    if (closed) {
+      if (idle.removeFirstOccurrence(entry)) {
+        idleSize.decrementAndGet();
+        discard(entry);
+      }
+
+      return;
+    }
+
+    evict(entry.idleSince);
+  }
+
+  /**
+   * Removes the provided borrowed {@link Entry} from this pool, closing its
+   * connection.
+   *
+   * @param entry The {@link Entry}.
+   */
+  void abort(final Entry entry) {
+    discard(entry);
+    permits.release();
+  }
+
+  /**
+   * Closes the connection of the provided {@link Entry}, which is removed from
+   * this pool.
+   *
+   * @param entry The {@link Entry}.
+   */
+  private void discard(final Entry entry) {
+    size.decrementAndGet();
+    entry.close();
+  }
+
+  private void evict(final long now) {
+    for (Entry entry; size.get() > minSize && (entry = idle.peekLast()) != null && now - entry.idleSince > idleTimeout;) {
+      if (idle.removeLastOccurrence(entry)) {
+        idleSize.decrementAndGet();
+        evictions.increment();
+        discard(entry);
+      }
+    }
+  }
+
+  /**
+   * Closes the idle connections of this pool, and ceases lending connections.
+   * Connections in use are closed when they are returned.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    for (Entry entry; (entry = idle.pollFirst()) != null;) {
+      idleSize.decrementAndGet();
+      discard(entry);
+    }
+  }
+
+  /**
+   * @return The maximum number of connections of this pool.
+   */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * @return The number of open connections of this pool.
+   */
+  public int getSize() {
+    return size.get();
+  }
+
+  /**
+   * @return The number of idle connections of this pool.
+   */
+  public int getIdleCount() {
+    return idleSize.get();
+  }
+
+  /**
+   * @return The number of connections of this pool that are in use.
+   */
+  public int getActiveCount() {
+    return maxSize - permits.availablePermits();
+  }
+
+  /**
+   * @return The ratio of connections in use to the maximum number of
+   *         connections of this pool.
+   */
+  public double getUtilization() {
+    return (double)getActiveCount() / maxSize;
+  }
+
+  /**
+   * @return The number of connections that were borrowed from this pool.
+   */
+  public long getBorrowCount() {
+    return borrows.sum();
+  }
+
+  /**
+   * @return The number of physical connections that were opened by this pool.
+   */
+  public long getCreateCount() {
+    return creates.sum();
+  }
+
+  /**
+   * @return The number of idle connections that were closed by this pool after
+   *         exceeding the idle timeout.
+   */
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  /**
+   * @param unit The {@link TimeUnit} of the returned value.
+   * @return The total time spent waiting for a connection to become
+   *         available.
+   */
+  public long getWaitTime(final TimeUnit unit) {
+    return unit.convert(waitNanos.sum(), TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public String toString() {
+    return "{size: " + getSize() + ", idle: " + getIdleCount() + ", active: " + getActiveCount() + ", maxSize: " + maxSize + ", borrows: " + getBorrowCount() + ", creates: " + getCreateCount() + ", evictions: " + getEvictionCount() + ", waitTime: " + getWaitTime(TimeUnit.MILLISECONDS) + "ms}";
+  }
+}
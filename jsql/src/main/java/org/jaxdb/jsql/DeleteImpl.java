@@ -25,7 +25,7 @@ import org.jaxdb.jsql.data.Table;
 
 final class DeleteImpl extends Command<data.Column<?>> implements _DELETE {
   private data.Table table;
-  private Condition<?> where;
+  Condition<?> where;
 
   DeleteImpl(final data.Table table) {
     this.table = table;
@@ -56,6 +56,27 @@ final class DeleteImpl extends Command<data.Column<?>> implements _DELETE {
       compiler.compileDelete(table, compilation);
   }
 
+  @Override
+  data.Table getPrimaryKeyEntity() {
+    return where == null ? table : null;
+  }
+
+  @Override
+  void afterExecute(final IdentityMap identityMap) {
+    if (where == null)
+      identityMap.remove(table);
+    else
+      identityMap.evict(table.getClass());
+  }
+
+  @Override
+  void invalidate(final Invalidation invalidation) {
+    if (where == null)
+      invalidation.remove(table);
+    else
+      invalidation.evict(table.getClass());
+  }
+
   @Override
   public void close() {
     table = null;
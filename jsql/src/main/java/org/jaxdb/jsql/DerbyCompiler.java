@@ -21,6 +21,8 @@ import static org.jaxdb.jsql.Compilation.Token.*;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLSyntaxErrorException;
 import java.sql.Statement;
@@ -35,6 +37,8 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.jaxdb.jsql.SelectImpl.untyped;
 import org.jaxdb.vendor.DBVendor;
@@ -42,6 +46,9 @@ import org.libj.math.SafeMath;
 import org.libj.sql.DateTimes;
 
 final class DerbyCompiler extends Compiler {
+  private static final Pattern planResultSetPattern = Pattern.compile("[A-Z][A-Za-z -]* ResultSet\\b");
+  private static final Pattern planScanPattern = Pattern.compile("(Table|Index|Hash|Distinct) Scan ResultSet for (\\S+?)(?: using (?:index|constraint) (\\S+))?(?: |$)");
+
   public static final class Function {
     public static Double power(final Double a, final Double b) {
       return a == null || b == null ? null : StrictMath.pow(a, b);
@@ -373,4 +380,109 @@ final class DerbyCompiler extends Compiler {
 
     compilation.append(')');
   }
-}
\ No newline at end of file
+
+  /**
+   * Derby reports the plan of a statement in its runtime statistics, whereby
+   * the statement is executed. Outside of a transaction, its rows are read
+   * without locks.
+   */
+  @Override
+  QueryPlan explain(final Connection connection, final String sql, final List<data.Column<?>> parameters) throws SQLException {
+    final boolean autoCommit = connection.getAutoCommit();
+    final int isolation = connection.getTransactionIsolation();
+    if (autoCommit)
+      connection.setTransactionIsolation(Connection.TRANSACTION_READ_UNCOMMITTED);
+
+    final String statistics;
+    try (final Statement statement = connection.createStatement()) {
+      statement.execute("CALL SYSCS_UTIL.SYSCS_SET_RUNTIMESTATISTICS(1)");
+      try {
+        try (final PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+          setParameters(preparedStatement, parameters);
+          try (final ResultSet resultSet = preparedStatement.executeQuery()) {
+            while (resultSet.next());
+          }
+        }
+
+        try (final ResultSet resultSet = statement.executeQuery("VALUES SYSCS_UTIL.SYSCS_GET_RUNTIMESTATISTICS()")) {
+          statistics = resultSet.next() ? resultSet.getString(1) : "";
+        }
+      }
+      finally {
+        statement.execute("CALL SYSCS_UTIL.SYSCS_SET_RUNTIMESTATISTICS(0)");
+      }
+    }
+    finally {
+      if (autoCommit)
+        connection.setTransactionIsolation(isolation);
+    }
+
+    return new QueryPlan(getVendor(), statistics, parsePlan(statistics));
+  }
+
+  /**
+   * Returns the root {@link QueryPlan.Node}s of the provided runtime
+   * statistics, in which each result set of the plan is introduced by a line
+   * naming the result set, and is nested by tab indentation.
+   */
+  private static List<QueryPlan.Node> parsePlan(final String statistics) {
+    final ArrayList<QueryPlan.Node> roots = new ArrayList<>(1);
+    final ArrayList<QueryPlan.Node> nodes = new ArrayList<>();
+    final ArrayList<Integer> depths = new ArrayList<>();
+    String operation = null;
+    long estimatedRows = -1;
+    int depth = 0;
+    boolean inPlan = false;
+    for (final String line : statistics.split("\\r?\\n")) {
+      if (!inPlan) {
+        inPlan = line.startsWith("Statement Execution Plan Text");
+        continue;
+      }
+
+      final String trimmed = line.trim();
+      if (operation != null && trimmed.startsWith("optimizer estimated row count:")) {
+        estimatedRows = parseRows(trimmed.substring(trimmed.indexOf(':') + 1).trim());
+      }
+      else if (planResultSetPattern.matcher(trimmed).lookingAt()) {
+        if (operation != null)
+          addPlanNode(roots, nodes, depths, parsePlanNode(operation, estimatedRows), depth);
+
+        operation = trimmed.endsWith(":") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+        estimatedRows = -1;
+        depth = 0;
+        while (depth < line.length() && line.charAt(depth) == '\t')
+          ++depth;
+      }
+    }
+
+    if (operation != null)
+      addPlanNode(roots, nodes, depths, parsePlanNode(operation, estimatedRows), depth);
+
+    return roots;
+  }
+
+  private static void addPlanNode(final List<QueryPlan.Node> roots, final List<QueryPlan.Node> nodes, final List<Integer> depths, final QueryPlan.Node node, final int depth) {
+    while (depths.size() > 0 && depths.get(depths.size() - 1) >= depth) {
+      depths.remove(depths.size() - 1);
+      nodes.remove(nodes.size() - 1);
+    }
+
+    if (nodes.size() > 0)
+      nodes.get(nodes.size() - 1).add(node);
+    else
+      roots.add(node);
+
+    nodes.add(node);
+    depths.add(depth);
+  }
+
+  private static QueryPlan.Node parsePlanNode(final String operation, final long estimatedRows) {
+    final Matcher matcher = planScanPattern.matcher(operation);
+    if (!matcher.lookingAt())
+      return new QueryPlan.Node(operation, QueryPlan.ScanType.OTHER, null, null, estimatedRows);
+
+    final String index = matcher.group(3);
+    final QueryPlan.ScanType scanType = "Table".equals(matcher.group(1)) || index == null ? QueryPlan.ScanType.TABLE_SCAN : QueryPlan.ScanType.INDEX_SCAN;
+    return new QueryPlan.Node(operation, scanType, matcher.group(2), index, estimatedRows);
+  }
+}
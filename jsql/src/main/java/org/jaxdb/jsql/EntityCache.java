@@ -0,0 +1,230 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb.jsql;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of the entities of a registered data source,
+ * shared by all threads, and keyed by the class of the entity and the values of
+ * its primary key columns. Only entities of tables declared with
+ * {@code jsql:cache="true"} are cached. The cache holds copies of the entities
+ * read from the database, and returns copies of the cached entities, whereby
+ * cached entities are never exposed to the application.
+ * <p>
+ * Reads do not lock: entries are held in a {@link ConcurrentHashMap}, and a
+ * read only marks its entry as referenced. When the cache is full, an entry is
+ * evicted by the CLOCK algorithm, an approximation of least-recently-used
+ * eviction that gives each referenced entry a second chance. Writes and
+ * invalidations are serialized on the cache's monitor.
+ * <p>
+ * Entries are invalidated when {@code INSERT}, {@code UPDATE} and
+ * {@code DELETE} statements of their tables are executed in auto-commit mode,
+ * or when the {@link Transaction} in which they are executed is committed. An
+ * entity read from the database is not cached if an invalidation has occurred
+ * since the start of the query that read it.
+ */
+final class EntityCache {
+  private static final class Key {
+    private final Class<?> type;
+    private final Object key;
+    private final int hashCode;
+
+    private Key(final Class<?> type, final Object key) {
+      this.type = type;
+      this.key = key;
+      this.hashCode = 31 * type.hashCode() + key.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (obj == this)
+        return true;
+
+      if (!(obj instanceof Key))
+        return false;
+
+      final Key that = (Key)obj;
+      return type == that.type && hashCode == that.hashCode && key.equals(that.key);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  private static final class Entry {
+    private final Key key;
+    private final data.Table table;
+    // A new entry is given a second chance, whereby it is not evicted by the put that inserted it
+    private volatile boolean referenced = true;
+
+    private Entry(final Key key, final data.Table table) {
+      this.key = key;
+      this.table = table;
+    }
+  }
+
+  /**
+   * Returns a copy of the provided {@link data.Table} that is marked as having
+   * been read from the database, or {@code null} if the table has a large
+   * object column, whose value cannot be copied.
+   *
+   * @param table The {@link data.Table} to copy.
+   * @return A copy of the provided {@link data.Table}, or {@code null}.
+   */
+  @SuppressWarnings("unchecked")
+  static data.Table copy(final data.Table table) {
+    final data.Table copy = table.newInstance();
+    final data.Column<?>[] columns = table._column$;
+    for (int i = 0; i < columns.length; ++i) {
+      final data.Column<?> column = columns[i];
+      if (column instanceof data.LargeObject)
+        return null;
+
+      ((data.Column<Object>)copy._column$[i]).setValue(column.get());
+    }
+
+    return copy;
+  }
+
+  private final int maxSize;
+  private final CacheStatistics statistics = new CacheStatistics();
+  private final ConcurrentHashMap<Key,Entry> entries = new ConcurrentHashMap<>();
+  // The entries in order of the hand of the clock, including those that have since been removed from, or replaced in, {@link #entries}
+  private final ArrayDeque<Entry> clock = new ArrayDeque<>();
+  private volatile long generation;
+
+  EntityCache(final int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  CacheStatistics getStatistics() {
+    return statistics;
+  }
+
+  /**
+   * @return The number of invalidations of this cache, which is to be provided
+   *         to {@link #put(data.Table,long)} for the entities read by a query
+   *         that is started thereafter.
+   */
+  long generation() {
+    return generation;
+  }
+
+  /**
+   * Returns a copy of the cached entity of the row identified by the primary
+   * key of the provided {@link data.Table}.
+   *
+   * @param table The {@link data.Table} with set primary key columns.
+   * @return A copy of the cached entity of the row identified by the primary
+   *         key of the provided {@link data.Table}, or {@code null} if the row
+   *         is not cached.
+   */
+  data.Table get(final data.Table table) {
+    final Object key = IdentityMap.key(table);
+    if (key == null)
+      return null;
+
+    final Entry entry = entries.get(new Key(table.getClass(), key));
+    if (entry == null) {
+      statistics.miss();
+      return null;
+    }
+
+    entry.referenced = true;
+    statistics.hit();
+    return copy(entry.table);
+  }
+
+  /**
+   * Evicts the cached entities of the provided classes and keys.
+   *
+   * @param types The classes of {@link data.Table} whose cached entities are
+   *          to be evicted.
+   * @param keys The keys of the cached entities to be evicted, by class of
+   *          {@link data.Table}.
+   */
+  synchronized void invalidate(final Set<Class<?>> types, final Map<Class<?>,HashSet<Object>> keys) {
+    ++generation;
+    if (types.size() > 0)
+      entries.keySet().removeIf(k -> types.contains(k.type));
+
+    for (final Map.Entry<Class<?>,HashSet<Object>> entry : keys.entrySet())
+      for (final Object key : entry.getValue())
+        entries.remove(new Key(entry.getKey(), key));
+  }
+
+  /**
+   * Caches a copy of the provided {@link data.Table} read from the database,
+   * unless this cache has been invalidated since the query that read the
+   * table was started.
+   *
+   * @param table The {@link data.Table} read from the database.
+   * @param generation The {@linkplain #generation() generation} of this cache
+   *          at the start of the query that read the table.
+   */
+  void put(final data.Table table, final long generation) {
+    final Object key = IdentityMap.key(table);
+    if (key == null)
+      return;
+
+    final data.Table copy = copy(table);
+    if (copy == null)
+      return;
+
+    final Entry entry = new Entry(new Key(table.getClass(), key), copy);
+    synchronized (this) {
+      if (generation != this.generation)
+        return;
+
+      final Entry previous = entries.put(entry.key, entry);
+      clock.addLast(entry);
+      if (previous == null && entries.size() > maxSize)
+        evict();
+      else if (clock.size() > 2 * maxSize)
+        clock.removeIf(e -> entries.get(e.key) != e);
+    }
+  }
+
+  /**
+   * Advances the hand of the clock until an entry that has not been
+   * referenced since the last pass is found, and evicts that entry. Referenced
+   * entries are given a second chance, and stale entries are discarded.
+   */
+  private void evict() {
+    for (Entry entry; (entry = clock.pollFirst()) != null;) {
+      if (entries.get(entry.key) != entry)
+        continue;
+
+      if (entry.referenced) {
+        entry.referenced = false;
+        clock.addLast(entry);
+        continue;
+      }
+
+      entries.remove(entry.key);
+      statistics.evict();
+      return;
+    }
+  }
+}
@@ -22,64 +22,166 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.ObjIntConsumer;
 
 import org.jaxdb.vendor.DBVendor;
 import org.libj.lang.Throwables;
 import org.libj.sql.AuditConnection;
-import org.libj.sql.AuditStatement;
 import org.libj.sql.exception.SQLExceptions;
+import org.reactivestreams.Publisher;
 
 public final class Executable {
+  /**
+   * Sets the {@link Executor} on which the {@code executeAsync(...)} methods
+   * of statements execute. If {@code executor} is null, the default executor
+   * is used, which creates a new virtual thread per execution if virtual
+   * threads are available, and otherwise uses a cached pool of daemon
+   * threads.
+   *
+   * @param executor The {@link Executor}, or {@code null} to use the default
+   *          executor.
+   */
+  public static void setAsyncExecutor(final Executor executor) {
+    AsyncExecution.setExecutor(executor);
+  }
+
+  /**
+   * Returns the {@link Executor} on which the {@code executeAsync(...)}
+   * methods of statements execute.
+   *
+   * @return The {@link Executor} on which the {@code executeAsync(...)}
+   *         methods of statements execute.
+   */
+  public static Executor getAsyncExecutor() {
+    return AsyncExecution.getExecutor();
+  }
+
+  /**
+   * Updates the {@link IdentityMap} of the provided {@link Transaction}, pins
+   * the reads of the current thread to the primary data source if replicas are
+   * registered, and invalidates the caches of the data source, to reflect the
+   * execution of the provided command. If {@code transaction} is not null, the
+   * caches are invalidated, and the reads of the committing thread are pinned,
+   * when the transaction is committed.
+   *
+   * @param command The executed command.
+   * @param transaction The {@link Transaction}, or {@code null}.
+   * @param dataSourceId The data source id.
+   */
+  static void afterExecute(final org.jaxdb.jsql.Command<?> command, final Transaction transaction, final String dataSourceId) {
+    final IdentityMap identityMap = transaction != null ? transaction.getIdentityMap() : null;
+    if (identityMap != null)
+      command.afterExecute(identityMap);
+
+    final Registry.Registration registration = Registry.getRegistration(command.schema(), dataSourceId);
+    final ReplicaSet replicas = registration != null ? registration.replicas : null;
+    if (replicas != null) {
+      if (transaction != null)
+        transaction.pinOnCommit(replicas);
+      else
+        replicas.pin();
+    }
+
+    if (registration == null || registration.entityCache == null && registration.resultCache == null && registration.referenceCache == null)
+      return;
+
+    if (transaction != null) {
+      command.invalidate(transaction.getInvalidation(registration));
+    }
+    else {
+      final Invalidation invalidation = new Invalidation(registration);
+      command.invalidate(invalidation);
+      invalidation.run();
+    }
+  }
+
   @SuppressWarnings("resource")
-  private static <D extends data.Entity<?>>int execute(final org.jaxdb.jsql.Command<D> command, final Transaction transaction, final String dataSourceId) throws IOException, SQLException {
+  static <D extends data.Entity<?>>int execute(final org.jaxdb.jsql.Command<D> command, final Template template, final Transaction transaction, final String dataSourceId, final ObjIntConsumer<Transaction.Event> onEvent) throws IOException, SQLException {
     Compilation compilation = null;
     Connection connection = null;
     java.sql.Statement statement = null;
+    StatementCache statementCache = null;
     SQLException suppressed = null;
+    if (transaction == null) {
+      final ShardSet shardSet = Registry.getShardSet(command.schema(), dataSourceId);
+      if (shardSet != null)
+        return shardSet.execute(command, template, onEvent);
+    }
+
     final data.Column<?>[] autos = command instanceof InsertImpl && ((InsertImpl<?>)command).autos.length > 0 ? ((InsertImpl<?>)command).autos : null;
+    final Execution execution = Execution.start(Execution.typeOf(command), command.schema(), dataSourceId);
+    final JfrEvents.StatementEvent event = JfrEvents.ENABLED ? JfrEvents.StatementEvent.start() : null;
+    final SlowQueryLog slowQueryLog = Registry.getSlowQueryLog();
+    final long start = slowQueryLog == null ? 0 : System.nanoTime();
     try {
       connection = transaction != null ? transaction.getConnection() : Schema.getConnection(command.schema(), dataSourceId, true);
-      compilation = new Compilation(command, DBVendor.valueOf(connection.getMetaData()), Registry.isPrepared(command.schema(), dataSourceId));
-      command.compile(compilation, false);
+      if (transaction != null)
+        statementCache = transaction.getStatementCache();
+
+      final DBVendor vendor = transaction != null ? transaction.getVendor() : Schema.getDBVendor(command.schema(), dataSourceId, connection);
+      if (execution != null)
+        execution.connected();
+
+      if (template != null) {
+        compilation = template.getCompilation(vendor);
+      }
+      else {
+        compilation = Compilation.compile(command, vendor, Registry.isPrepared(command.schema(), dataSourceId));
+      }
+
+      if (execution != null)
+        execution.compiled(compilation);
+
+      final IndexAdvisor indexAdvisor = Registry.getIndexAdvisor();
+      if (indexAdvisor != null)
+        indexAdvisor.observe(command);
+
+      final WriteBehind writeBehind = transaction != null ? transaction.getWriteBehind() : null;
+      if (writeBehind != null) {
+        final Compiler compiler = compilation.compiler;
+        if (compilation.isPrepared() && compiler.supportsPreparedBatch() && (autos == null || compiler.supportsReturnGeneratedKeysBatch())) {
+          writeBehind.add(connection, compilation, autos, onEvent);
+          afterExecute(command, transaction, dataSourceId);
+          if (execution != null) {
+            // The statement is executed with the write-behind batch, whose execution is not reported
+            execution.prepared();
+            execution.finish(-1, null);
+          }
+
+          if (event != null)
+            event.end(command, dataSourceId, compilation, true, -1);
+
+          return java.sql.Statement.SUCCESS_NO_INFO;
+        }
+
+        writeBehind.flush();
+      }
+
 //      final type.Column<?>[] returning = getReturning();
       try {
         final int count;
         final ResultSet resultSet;
         if (compilation.isPrepared()) {
-          // FIXME: Implement batching.
-          // if (batching) {
-          // final IntArrayList results = new IntArrayList(statements.size());
-          // PreparedStatement jdbcStatement = null;
-          // String last = null;
-          // for (int i = 0, len = statements.size(); i < len; ++i) {
-          // final Statement statement = statements.get(i);
-          // if (!statement.sql.equals(last)) {
-          // if (jdbcStatement != null)
-          // results.addAll(jdbcStatement.executeBatch());
-          //
-          // jdbcStatement = connection.prepareStatement(statement.sql);
-          // last = statement.sql;
-          // }
-          //
-          // for (int j = 0, len = statement.parameters.size(); j < len; ++j)
-          // statement.parameters.get(j).get(jdbcStatement, j + 1);
-          //
-          // jdbcStatement.addBatch();
-          // }
-          //
-          // if (jdbcStatement != null)
-          // results.addAll(jdbcStatement.executeBatch());
-          //
-          // return results.toArray();
-          // }
-
           final String sql = compilation.toString();
-          final PreparedStatement preparedStatement = autos == null ? connection.prepareStatement(sql) : compilation.compiler.prepareStatementReturning(connection, sql, autos);
+          final PreparedStatement preparedStatement;
+          if (autos != null)
+            preparedStatement = compilation.compiler.prepareStatementReturning(connection, sql, autos);
+          else if (statementCache != null)
+            preparedStatement = statementCache.prepareStatement(connection, sql, null);
+          else
+            preparedStatement = connection.prepareStatement(sql);
+
           statement = preparedStatement;
+          AsyncExecution.register(statement);
           final List<data.Column<?>> parameters = compilation.getParameters();
           if (parameters != null)
             for (int i = 0, len = parameters.size(); i < len;)
-              parameters.get(i).get(preparedStatement, ++i);
+              parameters.get(i).get(compilation.compiler, preparedStatement, ++i);
+
+          if (execution != null)
+            execution.prepared();
 
           try {
             count = preparedStatement.executeUpdate();
@@ -89,7 +191,7 @@ public final class Executable {
             // FIXME: Why am I doing this a second time here in the catch block?
             if (parameters != null)
               for (int i = 0, len = parameters.size(); i < len;)
-                parameters.get(i).get(preparedStatement, ++i);
+                parameters.get(i).get(compilation.compiler, preparedStatement, ++i);
 
             if (e instanceof SQLException)
               throw SQLExceptions.toStrongType((SQLException)e);
@@ -112,7 +214,11 @@ public final class Executable {
 
           // final Statement batch = statements.get(i);
           statement = connection.createStatement();
+          AsyncExecution.register(statement);
           final String sql = compilation.toString();
+          if (execution != null)
+            execution.prepared();
+
           if (autos == null) {
             count = statement.executeUpdate(sql);
             resultSet = null;
@@ -126,33 +232,62 @@ public final class Executable {
           // return results;
         }
 
+        if (execution != null)
+          execution.executed();
+
+        if (slowQueryLog != null)
+          slowQueryLog.onExecute(command, dataSourceId, compilation, start);
+
         compilation.afterExecute(true);
         if (resultSet != null) {
           while (resultSet.next()) {
             for (int i = 0, len = autos.length; i < len;) {
-              autos[i].set(resultSet, ++i);
+              autos[i].set(compilation.compiler, resultSet, ++i);
             }
           }
+
+          if (execution != null)
+            execution.fetched();
+        }
+
+        afterExecute(command, transaction, dataSourceId);
+        if (execution != null)
+          execution.finish(count, null);
+
+        if (event != null)
+          event.end(command, dataSourceId, compilation, false, count);
+
+        if (onEvent != null) {
+          onEvent.accept(Transaction.Event.EXECUTE, count);
+          if (transaction != null)
+            transaction.addListener(e -> onEvent.accept(e, count));
         }
 
         return count;
       }
       finally {
         if (statement != null)
-          suppressed = Throwables.addSuppressed(suppressed, AuditStatement.close(statement));
+          suppressed = Throwables.addSuppressed(suppressed, Compilation.release(statement, statementCache));
 
         if (transaction == null)
           suppressed = Throwables.addSuppressed(suppressed, AuditConnection.close(connection));
       }
     }
     catch (final SQLException e) {
+      if (event != null)
+        event.end(command, dataSourceId, compilation, false, -1);
+
       if (compilation != null) {
         compilation.afterExecute(false);
         compilation.close();
       }
 
       Throwables.addSuppressed(e, suppressed);
-      throw SQLExceptions.toStrongType(e);
+      final SQLException se = SQLExceptions.toStrongType(e);
+      if (execution != null)
+        execution.finish(-1, se);
+
+      throw se;
     }
   }
 
@@ -164,19 +299,181 @@ public final class Executable {
     RowIterator<D> execute(String dataSourceId, QueryConfig config) throws IOException, SQLException;
     RowIterator<D> execute(Transaction transaction, QueryConfig config) throws IOException, SQLException;
     RowIterator<D> execute(QueryConfig config) throws IOException, SQLException;
+
+    /**
+     * Executes this statement asynchronously on the
+     * {@linkplain Executable#getAsyncExecutor() async executor}. Cancellation
+     * of the returned future cancels the JDBC statement that is being
+     * executed.
+     *
+     * @param dataSourceId The data source id.
+     * @return A {@link CompletableFuture} of the {@link RowIterator} of the
+     *         results.
+     */
+    default CompletableFuture<RowIterator<D>> executeAsync(final String dataSourceId) {
+      return AsyncExecution.submit(null, () -> execute(dataSourceId));
+    }
+
+    /**
+     * Executes this statement asynchronously on the
+     * {@linkplain Executable#getAsyncExecutor() async executor}. Asynchronous
+     * executions in the same {@link Transaction} are executed one after
+     * another, in the order in which they were submitted. The next execution
+     * starts only once the returned {@link RowIterator} has been closed.
+     * Cancellation of the returned future cancels the JDBC statement that is
+     * being executed.
+     *
+     * @param transaction The {@link Transaction}.
+     * @return A {@link CompletableFuture} of the {@link RowIterator} of the
+     *         results.
+     */
+    default CompletableFuture<RowIterator<D>> executeAsync(final Transaction transaction) {
+      return AsyncExecution.submit(transaction, () -> execute(transaction));
+    }
+
+    default CompletableFuture<RowIterator<D>> executeAsync() {
+      return AsyncExecution.submit(null, () -> execute());
+    }
+
+    default CompletableFuture<RowIterator<D>> executeAsync(final String dataSourceId, final QueryConfig config) {
+      return AsyncExecution.submit(null, () -> execute(dataSourceId, config));
+    }
+
+    default CompletableFuture<RowIterator<D>> executeAsync(final Transaction transaction, final QueryConfig config) {
+      return AsyncExecution.submit(transaction, () -> execute(transaction, config));
+    }
+
+    default CompletableFuture<RowIterator<D>> executeAsync(final QueryConfig config) {
+      return AsyncExecution.submit(null, () -> execute(config));
+    }
+
+    /**
+     * Returns a {@link Publisher} of the rows of this statement. The statement
+     * is executed for each subscriber on the
+     * {@linkplain Executable#getAsyncExecutor() async executor} once the
+     * subscriber first requests rows, and each row is read from the
+     * {@link java.sql.ResultSet} only when it is requested. The statement and
+     * connection are closed upon completion, error or cancellation of the
+     * subscription.
+     *
+     * @param dataSourceId The data source id.
+     * @return A {@link Publisher} of the rows of this statement.
+     */
+    default Publisher<D[]> executeAsPublisher(final String dataSourceId) {
+      return new RowPublisher<>(this, null, dataSourceId, null);
+    }
+
+    /**
+     * Returns a {@link Publisher} of the rows of this statement. The statement
+     * is executed for each subscriber on the
+     * {@linkplain Executable#getAsyncExecutor() async executor} once the
+     * subscriber first requests rows, and each row is read from the
+     * {@link java.sql.ResultSet} only when it is requested. A subscription
+     * starts after all asynchronous executions previously submitted for the
+     * {@link Transaction} have finished, and subsequent asynchronous
+     * executions start after the subscription has terminated.
+     *
+     * @param transaction The {@link Transaction}.
+     * @return A {@link Publisher} of the rows of this statement.
+     */
+    default Publisher<D[]> executeAsPublisher(final Transaction transaction) {
+      return new RowPublisher<>(this, transaction, transaction != null ? transaction.getDataSourceId() : null, null);
+    }
+
+    default Publisher<D[]> executeAsPublisher() {
+      return new RowPublisher<>(this, null, null, null);
+    }
+
+    default Publisher<D[]> executeAsPublisher(final String dataSourceId, final QueryConfig config) {
+      return new RowPublisher<>(this, null, dataSourceId, config);
+    }
+
+    default Publisher<D[]> executeAsPublisher(final Transaction transaction, final QueryConfig config) {
+      return new RowPublisher<>(this, transaction, transaction != null ? transaction.getDataSourceId() : null, config);
+    }
+
+    default Publisher<D[]> executeAsPublisher(final QueryConfig config) {
+      return new RowPublisher<>(this, null, null, config);
+    }
   }
 
   public interface Modify extends AutoCloseable {
     default int execute(final String dataSourceId) throws IOException, SQLException {
-      return Executable.execute((org.jaxdb.jsql.Command<?>)this, null, dataSourceId);
+      return Executable.execute((org.jaxdb.jsql.Command<?>)this, null, null, dataSourceId, null);
     }
 
     default int execute(final Transaction transaction) throws IOException, SQLException {
-      return Executable.execute((org.jaxdb.jsql.Command<?>)this, transaction, transaction == null ? null : transaction.getDataSourceId());
+      return Executable.execute((org.jaxdb.jsql.Command<?>)this, null, transaction, transaction == null ? null : transaction.getDataSourceId(), null);
+    }
+
+    /**
+     * Executes this statement in the provided {@link Transaction}, and notifies
+     * the provided listener of the update count of this statement upon its
+     * execution, and upon the commit or rollback of the transaction.
+     * <p>
+     * If {@linkplain Transaction#setWriteBehind(int) write-behind} is enabled
+     * for the transaction, this statement may be deferred, in which case this
+     * method returns {@link java.sql.Statement#SUCCESS_NO_INFO}, and the
+     * listener is notified when the pending batch is executed.
+     *
+     * @param transaction The {@link Transaction}.
+     * @param onEvent The listener to be notified of the update count of this
+     *          statement.
+     * @return The update count of this statement, or
+     *         {@link java.sql.Statement#SUCCESS_NO_INFO} if it was deferred.
+     * @throws IOException If an I/O error has occurred.
+     * @throws SQLException If a SQL error has occurred.
+     */
+    default int execute(final Transaction transaction, final ObjIntConsumer<Transaction.Event> onEvent) throws IOException, SQLException {
+      return Executable.execute((org.jaxdb.jsql.Command<?>)this, null, transaction, transaction == null ? null : transaction.getDataSourceId(), onEvent);
     }
 
     default int execute() throws IOException, SQLException {
-      return Executable.execute((org.jaxdb.jsql.Command<?>)this, null, null);
+      return Executable.execute((org.jaxdb.jsql.Command<?>)this, null, null, null, null);
+    }
+
+    /**
+     * Executes this statement asynchronously on the
+     * {@linkplain Executable#getAsyncExecutor() async executor}. Cancellation
+     * of the returned future cancels the JDBC statement that is being
+     * executed.
+     * <p>
+     * If read replicas are registered for the data source, the reads of the
+     * thread of the async executor that executes this statement, and not those
+     * of the calling thread, are pinned to the primary data source after the
+     * statement is executed. To read its own asynchronous writes from the
+     * primary data source, the calling thread is to execute them in a
+     * {@link Transaction}, whose commit pins the reads of the committing
+     * thread.
+     *
+     * @param dataSourceId The data source id.
+     * @return A {@link CompletableFuture} of the update count.
+     * @see Registry#registerReplicas(Class,String,Registry.Routing,long,java.util.concurrent.TimeUnit,Connector...)
+     */
+    default CompletableFuture<Integer> executeAsync(final String dataSourceId) {
+      return AsyncExecution.submit(null, () -> execute(dataSourceId));
+    }
+
+    /**
+     * Executes this statement asynchronously on the
+     * {@linkplain Executable#getAsyncExecutor() async executor}. Asynchronous
+     * executions in the same {@link Transaction} are executed one after
+     * another, in the order in which they were submitted. Cancellation of the
+     * returned future cancels the JDBC statement that is being executed.
+     *
+     * @param transaction The {@link Transaction}.
+     * @return A {@link CompletableFuture} of the update count.
+     */
+    default CompletableFuture<Integer> executeAsync(final Transaction transaction) {
+      return AsyncExecution.submit(transaction, () -> execute(transaction));
+    }
+
+    default CompletableFuture<Integer> executeAsync(final Transaction transaction, final ObjIntConsumer<Transaction.Event> onEvent) {
+      return AsyncExecution.submit(transaction, () -> execute(transaction, onEvent));
+    }
+
+    default CompletableFuture<Integer> executeAsync() {
+      return AsyncExecution.submit(null, () -> execute());
     }
 
     @Override
@@ -0,0 +1,275 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+
+package org.jaxdb.jsql;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The record of the execution of a statement on a database, which is provided
+ * to the {@link ExecutionListener}s of the {@link Registry}. The timings of
+ * the phases of the execution are in nanoseconds, and are {@code 0} for the
+ * phases that were not reached.
+ */
+public final class Execution {
+  private static final Logger logger = LoggerFactory.getLogger(Execution.class);
+
+  /**
+   * The type of an executed statement.
+   */
+  public enum Type {
+    SELECT,
+    INSERT,
+    UPDATE,
+    DELETE,
+    BATCH
+  }
+
+  /**
+   * Returns a new {@link Execution} of a statement of the provided type, or
+   * {@code null} if no {@link ExecutionListener} is registered.
+   *
+   * @param type The {@link Type} of the statement.
+   * @param schema The schema class.
+   * @param dataSourceId The data source id.
+   * @return A new {@link Execution}, or {@code null} if no
+   *         {@link ExecutionListener} is registered.
+   */
+  static Execution start(final Type type, final Class<? extends Schema> schema, final String dataSourceId) {
+    final ExecutionListener[] listeners = Registry.getExecutionListeners();
+    return listeners == null ? null : new Execution(listeners, type, schema, dataSourceId);
+  }
+
+  /**
+   * @param command The {@code INSERT}, {@code UPDATE} or {@code DELETE}
+   *          command.
+   * @return The {@link Type} of the provided command.
+   */
+  static Type typeOf(final Command<?> command) {
+    return command instanceof InsertImpl ? Type.INSERT : command instanceof UpdateImpl ? Type.UPDATE : Type.DELETE;
+  }
+
+  private final ExecutionListener[] listeners;
+  private final Type type;
+  private final Class<? extends Schema> schema;
+  private final String dataSourceId;
+  private String sql;
+  private int parameterCount;
+  private long compileNanos;
+  private long connectNanos;
+  private long prepareNanos;
+  private long executeNanos;
+  private long fetchNanos;
+  private long rowCount = -1;
+  private Throwable exception;
+  private long mark = System.nanoTime();
+
+  private Execution(final ExecutionListener[] listeners, final Type type, final Class<? extends Schema> schema, final String dataSourceId) {
+    this.listeners = listeners;
+    this.type = type;
+    this.schema = schema;
+    this.dataSourceId = dataSourceId;
+  }
+
+  private long lap() {
+    final long time = System.nanoTime();
+    final long elapsed = time - mark;
+    mark = time;
+    return elapsed;
+  }
+
+  /**
+   * Marks the start of a phase of this execution.
+   */
+  void mark() {
+    mark = System.nanoTime();
+  }
+
+  /**
+   * Adds the time since the last mark to the connect phase.
+   */
+  void connected() {
+    connectNanos += lap();
+  }
+
+  /**
+   * Adds the time since the last mark to the prepare phase.
+   */
+  void prepared() {
+    prepareNanos += lap();
+  }
+
+  /**
+   * Adds the time since the last mark to the execute phase.
+   */
+  void executed() {
+    executeNanos += lap();
+  }
+
+  /**
+   * Adds the time since the last mark to the fetch phase.
+   */
+  void fetched() {
+    fetchNanos += lap();
+  }
+
+  /**
+   * Adds the time since the last mark to the compile phase, and adds the SQL
+   * and the parameters of the provided {@link Compilation} to this execution.
+   *
+   * @param compilation The {@link Compilation}.
+   */
+  void compiled(final Compilation compilation) {
+    compileNanos += lap();
+    final String sql = compilation.toString();
+    this.sql = this.sql == null ? sql : this.sql + ";\n" + sql;
+    final List<data.Column<?>> parameters = compilation.getParameters();
+    if (parameters != null)
+      parameterCount += parameters.size();
+  }
+
+  /**
+   * Notifies the {@link ExecutionListener}s of the finished execution.
+   *
+   * @param rowCount The number of rows fetched or affected, or {@code -1} if
+   *          unknown.
+   * @param exception The exception with which the execution failed, or
+   *          {@code null}.
+   */
+  void finish(final long rowCount, final Throwable exception) {
+    this.rowCount = rowCount;
+    this.exception = exception;
+    for (final ExecutionListener listener : listeners) {
+      try {
+        listener.onExecution(this);
+      }
+      catch (final RuntimeException e) {
+        logger.warn("ExecutionListener " + listener + " failed", e);
+      }
+    }
+  }
+
+  /**
+   * @return The {@link Type} of the executed statement.
+   */
+  public Type getType() {
+    return type;
+  }
+
+  /**
+   * @return The schema class of the executed statement.
+   */
+  public Class<? extends Schema> getSchema() {
+    return schema;
+  }
+
+  /**
+   * @return The id of the data source on which the statement was executed.
+   */
+  public String getDataSourceId() {
+    return dataSourceId;
+  }
+
+  /**
+   * @return The SQL of the executed statement, or the SQL of the statements
+   *         of a {@link Batch} separated by {@code ";\n"}, or {@code null} if
+   *         the execution failed before the statement was compiled.
+   */
+  public String getSql() {
+    return sql;
+  }
+
+  /**
+   * @return The number of parameters bound to the executed statement, or to
+   *         the statements of a {@link Batch}.
+   */
+  public int getParameterCount() {
+    return parameterCount;
+  }
+
+  /**
+   * @return The time spent compiling the statement to SQL, in nanoseconds.
+   */
+  public long getCompileNanos() {
+    return compileNanos;
+  }
+
+  /**
+   * @return The time spent acquiring the {@link java.sql.Connection}, in
+   *         nanoseconds.
+   */
+  public long getConnectNanos() {
+    return connectNanos;
+  }
+
+  /**
+   * @return The time spent preparing the {@link java.sql.Statement} and
+   *         binding its parameters, in nanoseconds.
+   */
+  public long getPrepareNanos() {
+    return prepareNanos;
+  }
+
+  /**
+   * @return The time spent executing the statement on the database, in
+   *         nanoseconds.
+   */
+  public long getExecuteNanos() {
+    return executeNanos;
+  }
+
+  /**
+   * @return The time spent fetching rows from the {@link java.sql.ResultSet}
+   *         of a query, or the generated keys of an {@code INSERT}, in
+   *         nanoseconds.
+   */
+  public long getFetchNanos() {
+    return fetchNanos;
+  }
+
+  /**
+   * @return The total time of all phases of the execution, in nanoseconds.
+   */
+  public long getTotalNanos() {
+    return compileNanos + connectNanos + prepareNanos + executeNanos + fetchNanos;
+  }
+
+  /**
+   * @return The number of rows fetched by a query, or the number of rows
+   *         affected by an {@code INSERT}, {@code UPDATE}, {@code DELETE} or
+   *         {@link Batch}, or {@code -1} if unknown.
+   */
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * @return The exception with which the execution failed, or {@code null} if
+   *         the execution succeeded.
+   */
+  public Throwable getException() {
+    return exception;
+  }
+
+  @Override
+  public String toString() {
+    return type + " " + (schema == null ? "null" : schema.getSimpleName()) + "[" + dataSourceId + "] rows=" + rowCount + " compile=" + compileNanos + "ns connect=" + connectNanos + "ns prepare=" + prepareNanos + "ns execute=" + executeNanos + "ns fetch=" + fetchNanos + "ns: " + sql;
+  }
+}
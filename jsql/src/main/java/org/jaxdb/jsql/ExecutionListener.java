@@ -0,0 +1,38 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+
+package org.jaxdb.jsql;
+
+/**
+ * A listener that is notified of each execution of a statement on a
+ * database, with the SQL of the statement and the time spent in each phase of
+ * its execution.
+ *
+ * @see Registry#addExecutionListener(ExecutionListener)
+ */
+@FunctionalInterface
+public interface ExecutionListener {
+  /**
+   * Called when the execution of a statement has finished. For a
+   * {@code SELECT} statement, this is when its {@link RowIterator} is closed.
+   * This method is called on the thread that finished the execution, and
+   * therefore must not block.
+   *
+   * @param execution The {@link Execution}.
+   */
+  void onExecution(Execution execution);
+}
@@ -0,0 +1,172 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb.jsql;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+/**
+ * First-level cache of the entities of a {@link Transaction}, keyed by the
+ * class of the entity and the values of its primary key columns, whereby each
+ * row read in the transaction is represented by one {@link data.Table}
+ * instance.
+ */
+final class IdentityMap {
+  /**
+   * Returns the key of the provided {@link data.Table} in the map of its
+   * class, or {@code null} if the table has no primary key, or if the table
+   * was not read from the database and any of its primary key columns is not
+   * set.
+   *
+   * @param table The {@link data.Table}.
+   * @return The key of the provided {@link data.Table}, or {@code null}.
+   */
+  static Object key(final data.Table table) {
+    final data.Column<?>[] primary = table._primary$;
+    if (primary == null || primary.length == 0)
+      return null;
+
+    final boolean wasSelected = table.wasSelected();
+    if (primary.length == 1)
+      return wasSelected || primary[0].wasSet() ? primary[0].get() : null;
+
+    final Object[] values = new Object[primary.length];
+    for (int i = 0; i < primary.length; ++i) {
+      if (!wasSelected && !primary[i].wasSet())
+        return null;
+
+      values[i] = primary[i].get();
+    }
+
+    return Arrays.asList(values);
+  }
+
+  private final IdentityHashMap<Class<?>,HashMap<Object,data.Table>> tables = new IdentityHashMap<>();
+
+  /**
+   * Returns the cached instance of the row identified by the primary key of
+   * the provided {@link data.Table}.
+   *
+   * @param table The {@link data.Table} with set primary key columns.
+   * @return The cached instance of the row identified by the primary key of
+   *         the provided {@link data.Table}, or {@code null} if the row is not
+   *         cached.
+   */
+  data.Table get(final data.Table table) {
+    final HashMap<Object,data.Table> entities = tables.get(table.getClass());
+    if (entities == null)
+      return null;
+
+    final Object key = key(table);
+    return key == null ? null : entities.get(key);
+  }
+
+  /**
+   * Returns the cached instance of the row of the provided {@link data.Table}
+   * read from the database, caching the provided table if the row is not yet
+   * cached.
+   *
+   * @param table The {@link data.Table} read from the database.
+   * @return The cached instance of the row of the provided {@link data.Table}.
+   */
+  data.Table putIfAbsent(final data.Table table) {
+    final Object key = key(table);
+    if (key == null)
+      return table;
+
+    final HashMap<Object,data.Table> entities = tables.computeIfAbsent(table.getClass(), k -> new HashMap<>());
+    final data.Table cached = entities.putIfAbsent(key, table);
+    return cached != null ? cached : table;
+  }
+
+  /**
+   * Returns whether the values of all columns of the provided
+   * {@link data.Table} are known, being either read from the database, or
+   * set.
+   *
+   * @param table The {@link data.Table}.
+   * @return Whether the values of all columns of the provided
+   *         {@link data.Table} are known.
+   */
+  private static boolean isComplete(final data.Table table) {
+    if (table.wasSelected())
+      return true;
+
+    for (final data.Column<?> column : table._column$)
+      if (!column.wasSet())
+        return false;
+
+    return true;
+  }
+
+  /**
+   * Caches the provided {@link data.Table} as the instance of its row,
+   * replacing the instance that was previously cached, if any. If the table
+   * has columns whose values are not known, such as the columns not set in an
+   * {@code UPDATE}, or the columns left to their defaults in an
+   * {@code INSERT}, the instance that was previously cached is evicted
+   * instead. If the primary key of the table is not set, all cached instances
+   * of its class are evicted.
+   *
+   * @param table The {@link data.Table} written to the database.
+   */
+  void put(final data.Table table) {
+    if (!isComplete(table)) {
+      remove(table);
+      return;
+    }
+
+    final Object key = key(table);
+    if (key == null)
+      evict(table.getClass());
+    else
+      tables.computeIfAbsent(table.getClass(), k -> new HashMap<>()).put(key, table);
+  }
+
+  /**
+   * Evicts the cached instance of the row of the provided {@link data.Table}.
+   * If the primary key of the table is not set, all cached instances of its
+   * class are evicted.
+   *
+   * @param table The {@link data.Table} deleted from the database.
+   */
+  void remove(final data.Table table) {
+    final Object key = key(table);
+    if (key == null) {
+      evict(table.getClass());
+    }
+    else {
+      final HashMap<Object,data.Table> entities = tables.get(table.getClass());
+      if (entities != null)
+        entities.remove(key);
+    }
+  }
+
+  /**
+   * Evicts all cached instances of the provided class.
+   *
+   * @param type The class of {@link data.Table}.
+   */
+  void evict(final Class<? extends data.Table> type) {
+    tables.remove(type);
+  }
+
+  void clear() {
+    tables.clear();
+  }
+}
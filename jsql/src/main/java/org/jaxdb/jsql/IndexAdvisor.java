@@ -0,0 +1,411 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+
+package org.jaxdb.jsql;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jaxdb.ddlx.Schemas;
+import org.jaxdb.www.ddlx_0_5.xLygluGCXAA.$Column;
+import org.jaxdb.www.ddlx_0_5.xLygluGCXAA.$Columns;
+import org.jaxdb.www.ddlx_0_5.xLygluGCXAA.$Indexes;
+import org.jaxdb.www.ddlx_0_5.xLygluGCXAA.$Named;
+import org.jaxdb.www.ddlx_0_5.xLygluGCXAA.$Table;
+import org.jaxdb.www.ddlx_0_5.xLygluGCXAA.Schema;
+
+/**
+ * An advisor of indexes, which is set on a {@link Registry} with
+ * {@link Registry#setIndexAdvisor(IndexAdvisor)}. The advisor observes the
+ * columns of the {@code WHERE} and {@code JOIN ... ON} conditions, and of the
+ * {@code ORDER BY} and {@code GROUP BY} clauses of the {@code SELECT},
+ * {@code UPDATE} and {@code DELETE} statements that are executed, and
+ * {@linkplain #report(Schema) reports} them against the indexes, primary keys
+ * and unique constraints declared in the DDLx schema:
+ * <ul>
+ * <li>An observed column that is not the leading column of an index, primary
+ * key or unique constraint of its table is reported as a
+ * {@linkplain Recommendation.Kind#MISSING missing} index, together with the
+ * DDLx {@code <index>} element that declares it.</li>
+ * <li>A declared index of an observed table whose leading column has not been
+ * observed is reported as {@linkplain Recommendation.Kind#UNUSED unused}.</li>
+ * </ul>
+ * Only bare columns are observed, because a predicate of an expression of a
+ * column, such as {@code LOWER(c) = ?}, cannot be answered with an index of
+ * the column. The observation of a statement does not access the database.
+ */
+public final class IndexAdvisor {
+  /**
+   * The clause of a statement in which a column is observed.
+   */
+  public enum Clause {
+    WHERE,
+    JOIN,
+    ORDER_BY,
+    GROUP_BY
+  }
+
+  private static final Clause[] clauses = Clause.values();
+
+  /**
+   * A recommendation of an {@link IndexAdvisor}.
+   */
+  public static final class Recommendation {
+    /**
+     * The kind of a {@link Recommendation}.
+     */
+    public enum Kind {
+      /** An index of an observed column is not declared. */
+      MISSING,
+      /** A declared index is not used by the observed statements. */
+      UNUSED
+    }
+
+    private final Kind kind;
+    private final String table;
+    private final List<String> columns;
+    private final long[] counts;
+    private final long count;
+
+    private Recommendation(final Kind kind, final String table, final List<String> columns, final long[] counts, final long count) {
+      this.kind = kind;
+      this.table = table;
+      this.columns = columns;
+      this.counts = counts;
+      this.count = count;
+    }
+
+    /**
+     * @return The {@link Kind} of this recommendation.
+     */
+    public Kind getKind() {
+      return kind;
+    }
+
+    /**
+     * @return The name of the table of the index.
+     */
+    public String getTable() {
+      return table;
+    }
+
+    /**
+     * @return The names of the columns of the index.
+     */
+    public List<String> getColumns() {
+      return columns;
+    }
+
+    /**
+     * Returns the number of statements in which the column of a
+     * {@linkplain Kind#MISSING missing} index has been observed in the
+     * provided clause, or {@code 0} if this recommendation is of an
+     * {@linkplain Kind#UNUSED unused} index.
+     *
+     * @param clause The {@link Clause}.
+     * @return The number of statements in which the column of a missing index
+     *         has been observed in the provided clause.
+     * @throws NullPointerException If {@code clause} is null.
+     */
+    public long getCount(final Clause clause) {
+      return counts == null ? 0 : counts[clause.ordinal()];
+    }
+
+    /**
+     * Returns the number of statements in which the column of a
+     * {@linkplain Kind#MISSING missing} index has been observed, or the number
+     * of statements of the table of an {@linkplain Kind#UNUSED unused} index.
+     * Recommendations of each kind are ranked by this number.
+     *
+     * @return The number of statements of this recommendation.
+     */
+    public long getCount() {
+      return count;
+    }
+
+    /**
+     * @return The DDLx {@code <index>} element that declares the
+     *         {@linkplain Kind#MISSING missing} index, to be added to the
+     *         {@code <indexes>} of the table, or {@code null} if this
+     *         recommendation is of an {@linkplain Kind#UNUSED unused} index.
+     */
+    public String getSnippet() {
+      if (kind != Kind.MISSING)
+        return null;
+
+      final StringBuilder builder = new StringBuilder("<index>");
+      for (final String column : columns)
+        builder.append("\n  <column name=\"").append(column).append("\"/>");
+
+      return builder.append("\n</index>").toString();
+    }
+
+    @Override
+    public String toString() {
+      final StringBuilder builder = new StringBuilder();
+      builder.append(kind == Kind.MISSING ? "Missing" : "Unused").append(" index on ").append(table).append('(');
+      for (int i = 0, len = columns.size(); i < len; ++i) {
+        if (i > 0)
+          builder.append(", ");
+
+        builder.append(columns.get(i));
+      }
+
+      builder.append(')');
+      if (kind == Kind.UNUSED)
+        return builder.append(": ").append(count).append(" statements of the table").toString();
+
+      builder.append(": ").append(count).append(" statements (");
+      boolean first = true;
+      for (final Clause clause : clauses) {
+        if (counts[clause.ordinal()] > 0) {
+          if (first)
+            first = false;
+          else
+            builder.append(", ");
+
+          builder.append(clause).append(": ").append(counts[clause.ordinal()]);
+        }
+      }
+
+      return builder.append(")\n").append(getSnippet()).toString();
+    }
+  }
+
+  private static final class Observations {
+    private final LongAdder statements = new LongAdder();
+    private final ConcurrentHashMap<String,AtomicLongArray> columns = new ConcurrentHashMap<>();
+  }
+
+  private final ConcurrentHashMap<String,Observations> tables = new ConcurrentHashMap<>();
+
+  /**
+   * Observes the columns of the provided command, if it is a {@code SELECT},
+   * {@code UPDATE} or {@code DELETE} statement. A column is counted once per
+   * clause of a statement, regardless of the number of its occurrences.
+   *
+   * @param command The {@link Command}.
+   */
+  void observe(final Command<?> command) {
+    final HashMap<String,HashMap<String,Integer>> observed = new HashMap<>();
+    if (command instanceof SelectImpl.untyped.SELECT) {
+      observe((SelectImpl.untyped.SELECT<?>)command, observed);
+    }
+    else if (command instanceof UpdateImpl) {
+      table(command.table(), observed);
+      observe(((UpdateImpl)command).where, Clause.WHERE, observed);
+    }
+    else if (command instanceof DeleteImpl) {
+      table(command.table(), observed);
+      observe(((DeleteImpl)command).where, Clause.WHERE, observed);
+    }
+    else {
+      return;
+    }
+
+    for (final Map.Entry<String,HashMap<String,Integer>> entry : observed.entrySet()) {
+      final Observations observations = tables.computeIfAbsent(entry.getKey(), k -> new Observations());
+      observations.statements.increment();
+      for (final Map.Entry<String,Integer> column : entry.getValue().entrySet()) {
+        final AtomicLongArray counts = observations.columns.computeIfAbsent(column.getKey(), k -> new AtomicLongArray(clauses.length));
+        for (int i = 0, mask = column.getValue(); i < clauses.length; ++i)
+          if ((mask & 1 << i) != 0)
+            counts.incrementAndGet(i);
+      }
+    }
+  }
+
+  private static void observe(final SelectImpl.untyped.SELECT<?> select, final HashMap<String,HashMap<String,Integer>> observed) {
+    final data.Table[] from = select.from();
+    if (from != null)
+      for (final data.Table table : from)
+        table(table, observed);
+
+    for (final type.Entity<?> entity : select.entities)
+      if (entity instanceof SelectImpl.untyped.SELECT)
+        observe((SelectImpl.untyped.SELECT<?>)entity, observed);
+
+    if (select.joins != null) {
+      for (int i = 1, len = select.joins.size(); i < len; i += 2) {
+        final Object join = select.joins.get(i);
+        if (join instanceof data.Table)
+          table((data.Table)join, observed);
+        else
+          observe((SelectImpl.untyped.SELECT<?>)join, observed);
+      }
+    }
+
+    if (select.on != null)
+      for (final Condition<?> on : select.on)
+        observe(on, Clause.JOIN, observed);
+
+    observe(select.where(), Clause.WHERE, observed);
+    if (select.groupBy != null)
+      for (final type.Entity<?> entity : select.groupBy)
+        observe(entity, Clause.GROUP_BY, observed);
+
+    if (select.orderBy != null)
+      for (final data.Column<?> column : select.orderBy)
+        observe(column, Clause.ORDER_BY, observed);
+
+    if (select.unions != null)
+      for (int i = 1, len = select.unions.size(); i < len; i += 2)
+        observe((SelectImpl.untyped.SELECT<?>)select.unions.get(i), observed);
+  }
+
+  private static void observe(final Object subject, final Clause clause, final HashMap<String,HashMap<String,Integer>> observed) {
+    if (subject instanceof BooleanTerm) {
+      final BooleanTerm term = (BooleanTerm)subject;
+      observe(term.a, clause, observed);
+      observe(term.b, clause, observed);
+      for (final Condition<?> condition : term.conditions)
+        observe(condition, clause, observed);
+    }
+    else if (subject instanceof ComparisonPredicate) {
+      final ComparisonPredicate<?> predicate = (ComparisonPredicate<?>)subject;
+      observe(predicate.a, clause, observed);
+      observe(predicate.b, clause, observed);
+    }
+    else if (subject instanceof ExistsPredicate) {
+      observe(((ExistsPredicate)subject).subQuery, clause, observed);
+    }
+    else if (subject instanceof Predicate) {
+      observe(((Predicate)subject).column, clause, observed);
+      if (subject instanceof InPredicate)
+        for (final Subject value : ((InPredicate)subject).values)
+          observe(value, clause, observed);
+    }
+    else if (subject instanceof QuantifiedComparisonPredicate) {
+      observe(((QuantifiedComparisonPredicate<?>)subject).subQuery, clause, observed);
+    }
+    else if (subject instanceof SelectImpl.untyped.SELECT) {
+      observe((SelectImpl.untyped.SELECT<?>)subject, observed);
+    }
+    else if (subject instanceof data.Column) {
+      final data.Column<?> column = (data.Column<?>)subject;
+      if (column.table != null && (column.wrapper() == null || column.wrapper() instanceof OrderingSpec))
+        table(column.table, observed).merge(column.name, 1 << clause.ordinal(), (a, b) -> a | b);
+    }
+  }
+
+  private static HashMap<String,Integer> table(final data.Table table, final HashMap<String,HashMap<String,Integer>> observed) {
+    return observed.computeIfAbsent(table.name(), k -> new HashMap<>());
+  }
+
+  /**
+   * Returns the recommendations of the statements that have been observed
+   * since the creation of this advisor, or since it was last
+   * {@linkplain #reset() reset}, against the provided DDLx schema. The
+   * recommendations of {@linkplain Recommendation.Kind#MISSING missing}
+   * indexes precede those of {@linkplain Recommendation.Kind#UNUSED unused}
+   * indexes, and the recommendations of each kind are ranked by descending
+   * {@linkplain Recommendation#getCount() count}. Tables that are not declared
+   * in the schema are skipped.
+   *
+   * @param schema The DDLx {@link Schema}.
+   * @return The recommendations of the observed statements.
+   * @throws NullPointerException If {@code schema} is null.
+   */
+  public List<Recommendation> report(final Schema schema) {
+    final ArrayList<Recommendation> missing = new ArrayList<>();
+    final ArrayList<Recommendation> unused = new ArrayList<>();
+    for (final $Table table : Schemas.flatten(schema).getTable()) {
+      final String tableName = table.getName$().text();
+      final Observations observations = tables.get(tableName);
+      if (observations == null)
+        continue;
+
+      final HashSet<String> leading = new HashSet<>();
+      final ArrayList<List<String>> indexes = new ArrayList<>();
+      if (table.getConstraints() != null) {
+        if (table.getConstraints().getPrimaryKey() != null)
+          leading.add(table.getConstraints().getPrimaryKey().getColumn(0).getName$().text());
+
+        if (table.getConstraints().getUnique() != null)
+          for (final $Columns unique : table.getConstraints().getUnique())
+            leading.add(unique.getColumn(0).getName$().text());
+      }
+
+      if (table.getIndexes() != null && table.getIndexes().getIndex() != null) {
+        for (final $Indexes.Index index : table.getIndexes().getIndex()) {
+          final ArrayList<String> columns = new ArrayList<>(index.getColumn().size());
+          for (final $Named column : index.getColumn())
+            columns.add(column.getName$().text());
+
+          leading.add(columns.get(0));
+          indexes.add(Collections.unmodifiableList(columns));
+        }
+      }
+
+      if (table.getColumn() != null) {
+        for (final $Column column : table.getColumn()) {
+          if (column.getIndex() != null) {
+            leading.add(column.getName$().text());
+            indexes.add(Collections.singletonList(column.getName$().text()));
+          }
+        }
+      }
+
+      for (final Map.Entry<String,AtomicLongArray> entry : observations.columns.entrySet()) {
+        if (leading.contains(entry.getKey()))
+          continue;
+
+        final long[] counts = new long[clauses.length];
+        long count = 0;
+        for (int i = 0; i < counts.length; ++i)
+          count += counts[i] = entry.getValue().get(i);
+
+        missing.add(new Recommendation(Recommendation.Kind.MISSING, tableName, Collections.singletonList(entry.getKey()), counts, count));
+      }
+
+      final long statements = observations.statements.sum();
+      for (final List<String> index : indexes)
+        if (!observations.columns.containsKey(index.get(0)))
+          unused.add(new Recommendation(Recommendation.Kind.UNUSED, tableName, index, null, statements));
+    }
+
+    sort(missing);
+    sort(unused);
+    missing.addAll(unused);
+    return missing;
+  }
+
+  private static void sort(final ArrayList<Recommendation> recommendations) {
+    recommendations.sort((a, b) -> {
+      final int c = Long.compare(b.count, a.count);
+      if (c != 0)
+        return c;
+
+      final int t = a.table.compareTo(b.table);
+      return t != 0 ? t : String.join(",", a.columns).compareTo(String.join(",", b.columns));
+    });
+  }
+
+  /**
+   * Discards the observations of this advisor.
+   */
+  public void reset() {
+    tables.clear();
+  }
+}
@@ -131,6 +131,27 @@ final class InsertImpl<D extends data.Entity<?>> extends Command<D> implements _
       compiler.compileInsert(columns, false, compilation);
   }
 
+  @Override
+  data.Table getPrimaryKeyEntity() {
+    return select == null ? table() : null;
+  }
+
+  @Override
+  void afterExecute(final IdentityMap identityMap) {
+    if (columns == null && select == null)
+      identityMap.put(table);
+    else if (onConflict != null && doUpdate)
+      identityMap.evict(table().getClass());
+  }
+
+  @Override
+  void invalidate(final Invalidation invalidation) {
+    if (columns == null && select == null)
+      invalidation.remove(table);
+    else if (onConflict != null && doUpdate)
+      invalidation.evict(table().getClass());
+  }
+
   @Override
   public void close() {
     table = null;
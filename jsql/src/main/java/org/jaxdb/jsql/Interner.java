@@ -0,0 +1,84 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb.jsql;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A bounded dictionary of the values of a low-cardinality {@code CHAR}
+ * column, whereby equal values read from different rows share one
+ * {@link String} instance. Once the dictionary holds {@link #MAX_SIZE}
+ * values, further values are returned as-is.
+ */
+final class Interner {
+  static final int MAX_SIZE = 1024;
+
+  private static final ConcurrentHashMap<Class<?>,ConcurrentHashMap<String,Interner>> interners = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the {@link Interner} shared by the columns of the specified name
+   * of all instances of the specified table class.
+   *
+   * @param table The class of the table.
+   * @param name The name of the column.
+   * @return The {@link Interner} of the specified column.
+   */
+  static Interner of(final Class<?> table, final String name) {
+    ConcurrentHashMap<String,Interner> columns = interners.get(table);
+    if (columns == null) {
+      final ConcurrentHashMap<String,Interner> existing = interners.putIfAbsent(table, columns = new ConcurrentHashMap<>());
+      if (existing != null)
+        columns = existing;
+    }
+
+    Interner interner = columns.get(name);
+    if (interner == null) {
+      final Interner existing = columns.putIfAbsent(name, interner = new Interner());
+      if (existing != null)
+        interner = existing;
+    }
+
+    return interner;
+  }
+
+  private final ConcurrentHashMap<String,String> values = new ConcurrentHashMap<>();
+
+  private Interner() {
+  }
+
+  /**
+   * Returns the canonical instance of the provided value, or the value itself
+   * if this dictionary is full.
+   *
+   * @param value The value.
+   * @return The canonical instance of the provided value.
+   */
+  String intern(final String value) {
+    if (value == null)
+      return null;
+
+    final String interned = values.get(value);
+    if (interned != null)
+      return interned;
+
+    if (values.size() >= MAX_SIZE)
+      return value;
+
+    final String existing = values.putIfAbsent(value, value);
+    return existing != null ? existing : value;
+  }
+}
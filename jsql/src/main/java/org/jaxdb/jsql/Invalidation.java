@@ -0,0 +1,103 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb.jsql;
+
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+
+/**
+ * The invalidations of the {@link EntityCache}, {@link ResultCache} and
+ * {@link ReferenceCache} of a registered data source that are caused by the
+ * execution of {@code INSERT}, {@code UPDATE} and {@code DELETE} statements.
+ * The invalidations of the statements executed in a {@link Transaction} are
+ * applied when the transaction is committed, and are discarded when it is
+ * rolled back.
+ */
+final class Invalidation {
+  private final Registry.Registration registration;
+  private final HashSet<Class<?>> tables = new HashSet<>();
+  private final HashSet<Class<?>> types = new HashSet<>();
+  private final IdentityHashMap<Class<?>,HashSet<Object>> keys = new IdentityHashMap<>();
+
+  Invalidation(final Registry.Registration registration) {
+    this.registration = registration;
+  }
+
+  /**
+   * Records the modification of the row of the provided {@link data.Table}. If
+   * the primary key of the table is not set, all cached entities of its class
+   * are invalidated.
+   *
+   * @param table The {@link data.Table}.
+   */
+  void remove(final data.Table table) {
+    final Class<? extends data.Table> type = table.getClass();
+    tables.add(type);
+    if (!table.cacheable())
+      return;
+
+    final Object key = IdentityMap.key(table);
+    if (key == null)
+      evict(type);
+    else if (!types.contains(type))
+      keys.computeIfAbsent(type, k -> new HashSet<>()).add(key);
+  }
+
+  /**
+   * Records the modification of any row of the table of the provided class.
+   *
+   * @param type The class of {@link data.Table}.
+   */
+  void evict(final Class<? extends data.Table> type) {
+    tables.add(type);
+    if (types.add(type))
+      keys.remove(type);
+  }
+
+  /**
+   * @param type The class of {@link data.Table}.
+   * @return Whether the statements of this invalidation have modified the
+   *         table of the provided class.
+   */
+  boolean touches(final Class<? extends data.Table> type) {
+    return tables.contains(type);
+  }
+
+  /**
+   * Applies this invalidation to the caches of the data source.
+   */
+  void run() {
+    if (tables.size() == 0)
+      return;
+
+    final EntityCache entityCache = registration.entityCache;
+    if (entityCache != null && (types.size() > 0 || keys.size() > 0))
+      entityCache.invalidate(types, keys);
+
+    final ResultCache resultCache = registration.resultCache;
+    if (resultCache != null)
+      resultCache.invalidate(tables);
+
+    final ReferenceCache referenceCache = registration.referenceCache;
+    if (referenceCache != null)
+      referenceCache.invalidate(tables);
+
+    tables.clear();
+    types.clear();
+    keys.clear();
+  }
+}
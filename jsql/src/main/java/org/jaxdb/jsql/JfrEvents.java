@@ -0,0 +1,277 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+
+package org.jaxdb.jsql;
+
+import java.util.List;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The Java Flight Recorder events of jSQL. The events are emitted only if
+ * {@link #ENABLED}, which is {@code true} if the {@code jdk.jfr} module is
+ * available in the runtime, so that the event classes are not loaded
+ * otherwise. When no recording is in progress, an event costs no more than
+ * its allocation.
+ */
+final class JfrEvents {
+  static final boolean ENABLED = isAvailable();
+
+  private static boolean isAvailable() {
+    try {
+      Class.forName("jdk.jfr.Event", false, JfrEvents.class.getClassLoader());
+      return true;
+    }
+    catch (final ClassNotFoundException | LinkageError e) {
+      return false;
+    }
+  }
+
+  private static String nameOf(final Class<? extends Schema> schema) {
+    return schema == null ? null : schema.getName();
+  }
+
+  private static String typeOf(final Command<?> command) {
+    return command instanceof SelectImpl.untyped.SELECT ? "SELECT" : command instanceof InsertImpl ? "INSERT" : command instanceof UpdateImpl ? "UPDATE" : command instanceof DeleteImpl ? "DELETE" : command.getClass().getSimpleName();
+  }
+
+  @Name("org.jaxdb.jsql.Compilation")
+  @Label("jSQL Compilation")
+  @Description("Compilation of a jSQL command to SQL")
+  @Category({"JAX-DB", "jSQL"})
+  @StackTrace(false)
+  static final class CompilationEvent extends Event {
+    static CompilationEvent start() {
+      final CompilationEvent event = new CompilationEvent();
+      event.begin();
+      return event;
+    }
+
+    @Label("Schema")
+    String schema;
+
+    @Label("Command")
+    String command;
+
+    @Label("Vendor")
+    String vendor;
+
+    @Label("SQL")
+    String sql;
+
+    @Label("Prepared")
+    boolean prepared;
+
+    @Label("Parameters")
+    int parameters;
+
+    void end(final Command<?> command, final Compilation compilation) {
+      end();
+      if (!shouldCommit())
+        return;
+
+      final List<data.Column<?>> parameters = compilation.getParameters();
+      this.schema = nameOf(command.schema());
+      this.command = typeOf(command);
+      this.vendor = compilation.vendor.toString();
+      this.sql = compilation.toString();
+      this.prepared = compilation.isPrepared();
+      this.parameters = parameters == null ? 0 : parameters.size();
+      commit();
+    }
+  }
+
+  @Name("org.jaxdb.jsql.Statement")
+  @Label("jSQL Statement")
+  @Description("Execution of an INSERT, UPDATE or DELETE statement")
+  @Category({"JAX-DB", "jSQL"})
+  static final class StatementEvent extends Event {
+    static StatementEvent start() {
+      final StatementEvent event = new StatementEvent();
+      event.begin();
+      return event;
+    }
+
+    @Label("Schema")
+    String schema;
+
+    @Label("Data Source Id")
+    String dataSourceId;
+
+    @Label("Command")
+    String command;
+
+    @Label("SQL")
+    String sql;
+
+    @Label("Deferred")
+    @Description("Whether the statement was deferred to the write-behind batch of the transaction")
+    boolean deferred;
+
+    @Label("Update Count")
+    @Description("The update count of the statement, or -1 if the statement failed or was deferred")
+    int count;
+
+    void end(final Command<?> command, final String dataSourceId, final Compilation compilation, final boolean deferred, final int count) {
+      end();
+      if (!shouldCommit())
+        return;
+
+      this.schema = nameOf(command.schema());
+      this.dataSourceId = dataSourceId;
+      this.command = typeOf(command);
+      this.sql = compilation == null ? null : compilation.toString();
+      this.deferred = deferred;
+      this.count = count;
+      commit();
+    }
+  }
+
+  @Name("org.jaxdb.jsql.RowIterator")
+  @Label("jSQL Row Iterator")
+  @Description("Lifetime of the RowIterator of a SELECT statement, from open to close")
+  @Category({"JAX-DB", "jSQL"})
+  static final class RowIteratorEvent extends Event {
+    /**
+     * Returns a new {@link RowIteratorEvent} that has begun. The SQL of the
+     * provided {@link Compilation} is captured only if the event is enabled,
+     * because the {@link Compilation} is closed before the iterator.
+     *
+     * @param compilation The {@link Compilation} of the {@code SELECT}.
+     * @return A new {@link RowIteratorEvent} that has begun.
+     */
+    static RowIteratorEvent start(final Compilation compilation) {
+      final RowIteratorEvent event = new RowIteratorEvent();
+      if (event.isEnabled())
+        event.sql = compilation.toString();
+
+      event.begin();
+      return event;
+    }
+
+    @Label("Schema")
+    String schema;
+
+    @Label("Data Source Id")
+    String dataSourceId;
+
+    @Label("SQL")
+    String sql;
+
+    @Label("Rows")
+    @Description("The number of rows decoded")
+    long rows;
+
+    void end(final Class<? extends Schema> schema, final String dataSourceId, final long rows) {
+      end();
+      if (!shouldCommit())
+        return;
+
+      this.schema = nameOf(schema);
+      this.dataSourceId = dataSourceId;
+      this.rows = rows;
+      commit();
+    }
+  }
+
+  @Name("org.jaxdb.jsql.Batch")
+  @Label("jSQL Batch")
+  @Description("Execution of a batch of INSERT, UPDATE or DELETE statements")
+  @Category({"JAX-DB", "jSQL"})
+  static final class BatchEvent extends Event {
+    static BatchEvent start() {
+      final BatchEvent event = new BatchEvent();
+      event.begin();
+      return event;
+    }
+
+    @Label("Schema")
+    String schema;
+
+    @Label("Data Source Id")
+    String dataSourceId;
+
+    @Label("Statements")
+    int statements;
+
+    @Label("Groups")
+    @Description("The number of JDBC batches that were flushed")
+    int groups;
+
+    @Label("Update Count")
+    @Description("The total update count of the batch, or -1 if the batch failed or the update count is unknown")
+    long count;
+
+    void end(final Class<? extends Schema> schema, final String dataSourceId, final int statements, final int groups, final long count) {
+      end();
+      if (!shouldCommit())
+        return;
+
+      this.schema = nameOf(schema);
+      this.dataSourceId = dataSourceId;
+      this.statements = statements;
+      this.groups = groups;
+      this.count = count;
+      commit();
+    }
+  }
+
+  @Name("org.jaxdb.jsql.Transaction")
+  @Label("jSQL Transaction")
+  @Description("Lifetime of a Transaction, from its first statement to its commit or rollback")
+  @Category({"JAX-DB", "jSQL"})
+  static final class TransactionEvent extends Event {
+    static TransactionEvent start() {
+      final TransactionEvent event = new TransactionEvent();
+      event.begin();
+      return event;
+    }
+
+    @Label("Schema")
+    String schema;
+
+    @Label("Data Source Id")
+    String dataSourceId;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Listeners")
+    @Description("The number of listeners notified of the outcome")
+    int listeners;
+
+    void end(final Class<? extends Schema> schema, final String dataSourceId, final String outcome, final int listeners) {
+      end();
+      if (!shouldCommit())
+        return;
+
+      this.schema = nameOf(schema);
+      this.dataSourceId = dataSourceId;
+      this.outcome = outcome;
+      this.listeners = listeners;
+      commit();
+    }
+  }
+
+  private JfrEvents() {
+  }
+}
@@ -24,6 +24,8 @@ import java.sql.SQLException;
 import java.sql.Time;
 import java.time.LocalTime;
 import java.time.temporal.TemporalUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.jaxdb.vendor.DBVendor;
@@ -170,6 +172,16 @@ class MySQLCompiler extends Compiler {
     return value.toString().charAt(0) == '-' ? Temporals.subtract(LocalTime.MIDNIGHT, value) : value;
   }
 
+  @Override
+  boolean supportsJavaTime() {
+    return true;
+  }
+
+  @Override
+  boolean binaryCollation() {
+    return false;
+  }
+
   @Override
   void compileFor(final SelectImpl.untyped.SELECT<?> select, final Compilation compilation) {
     // FIXME: It seems MySQL 8+? supports this?
@@ -232,4 +244,33 @@ class MySQLCompiler extends Compiler {
       }
     }
   }
-}
\ No newline at end of file
+
+  @Override
+  List<QueryPlan.Node> parsePlan(final String[] labels, final List<String[]> rows) {
+    final int type = indexOf(labels, "type");
+    if (type == -1)
+      return super.parsePlan(labels, rows);
+
+    final int table = indexOf(labels, "table");
+    final int key = indexOf(labels, "key");
+    final int estimate = indexOf(labels, "rows");
+    final int extra = indexOf(labels, "Extra");
+    final ArrayList<QueryPlan.Node> roots = new ArrayList<>(rows.size());
+    for (final String[] row : rows) {
+      final String index = key == -1 ? null : row[key];
+      final QueryPlan.ScanType scanType;
+      if ("ALL".equals(row[type]))
+        scanType = QueryPlan.ScanType.TABLE_SCAN;
+      else if (index == null)
+        scanType = QueryPlan.ScanType.OTHER;
+      else if (extra != -1 && row[extra] != null && Arrays.asList(row[extra].split("; ")).contains("Using index"))
+        scanType = QueryPlan.ScanType.COVERING_INDEX_SCAN;
+      else
+        scanType = QueryPlan.ScanType.INDEX_SCAN;
+
+      roots.add(new QueryPlan.Node(String.join(" | ", row), scanType, table == -1 ? null : row[table], index, estimate == -1 ? -1 : parseRows(row[estimate])));
+    }
+
+    return roots;
+  }
+}
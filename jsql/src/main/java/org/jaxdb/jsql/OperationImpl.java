@@ -113,6 +113,12 @@ public final class OperationImpl {
       if (!(this.a instanceof Evaluable) || !(this.b instanceof Evaluable))
         return null;
 
+      if (o instanceof function.Arithmetic && this.a instanceof data.Column && this.b instanceof data.Column) {
+        final Number value = ((function.Arithmetic)o).evaluatePrimitive((data.Column<?>)this.a, (data.Column<?>)this.b);
+        if (value != null)
+          return value;
+      }
+
       final Number a = (Number)((Evaluable)this.a).evaluate(visited);
       if (a == null)
         return null;
@@ -29,6 +29,7 @@ import java.sql.Statement;
 import java.time.LocalTime;
 import java.time.temporal.TemporalUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -419,4 +420,81 @@ final class OracleCompiler extends Compiler {
   int executeUpdateReturning(final Statement statement, final String sql, final data.Column<?>[] autos) throws SQLException {
     return statement.executeUpdate(sql, getNames(autos));
   }
-}
\ No newline at end of file
+
+  @Override
+  QueryPlan explain(final Connection connection, final String sql, final List<data.Column<?>> parameters) throws SQLException {
+    final String statementId = "jsql" + Long.toHexString(System.nanoTime());
+    try (final PreparedStatement statement = connection.prepareStatement("EXPLAIN PLAN SET STATEMENT_ID = '" + statementId + "' FOR " + sql)) {
+      setParameters(statement, parameters);
+      statement.execute();
+    }
+
+    final ArrayList<String[]> rows = new ArrayList<>();
+    final ArrayList<QueryPlan.Node> roots = new ArrayList<>(1);
+    final HashMap<String,QueryPlan.Node> nodes = new HashMap<>();
+    final HashMap<String,String> tables = new HashMap<>();
+    try (final PreparedStatement statement = connection.prepareStatement("SELECT ID, PARENT_ID, DEPTH, OPERATION, OPTIONS, OBJECT_NAME, CARDINALITY FROM PLAN_TABLE WHERE STATEMENT_ID = ? ORDER BY ID")) {
+      statement.setString(1, statementId);
+      try (final ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          final String id = resultSet.getString(1);
+          final String parentId = resultSet.getString(2);
+          final int depth = resultSet.getInt(3);
+          final String operation = resultSet.getString(4);
+          final String options = resultSet.getString(5);
+          final String objectName = resultSet.getString(6);
+          final long cardinality = resultSet.getLong(7);
+          final long estimatedRows = resultSet.wasNull() ? -1 : cardinality;
+
+          final QueryPlan.ScanType scanType;
+          final String table;
+          final String index;
+          if ("TABLE ACCESS".equals(operation)) {
+            scanType = "FULL".equals(options) ? QueryPlan.ScanType.TABLE_SCAN : QueryPlan.ScanType.OTHER;
+            table = objectName;
+            index = null;
+            tables.put(id, objectName);
+          }
+          else if ("INDEX".equals(operation)) {
+            // An index whose rows are not accessed by its parent covers the query
+            table = tables.get(parentId);
+            scanType = table != null ? QueryPlan.ScanType.INDEX_SCAN : QueryPlan.ScanType.COVERING_INDEX_SCAN;
+            index = objectName;
+          }
+          else {
+            scanType = QueryPlan.ScanType.OTHER;
+            table = null;
+            index = null;
+          }
+
+          final StringBuilder description = new StringBuilder(operation);
+          if (options != null)
+            description.append(' ').append(options);
+
+          if (objectName != null)
+            description.append(' ').append(objectName);
+
+          final QueryPlan.Node node = new QueryPlan.Node(description.toString(), scanType, table, index, estimatedRows);
+          final QueryPlan.Node parent = parentId == null ? null : nodes.get(parentId);
+          if (parent != null)
+            parent.add(node);
+          else
+            roots.add(node);
+
+          nodes.put(id, node);
+          final char[] indent = new char[depth * 2];
+          Arrays.fill(indent, ' ');
+          rows.add(new String[] {new String(indent) + description});
+        }
+      }
+    }
+    finally {
+      try (final PreparedStatement statement = connection.prepareStatement("DELETE FROM PLAN_TABLE WHERE STATEMENT_ID = ?")) {
+        statement.setString(1, statementId);
+        statement.executeUpdate();
+      }
+    }
+
+    return new QueryPlan(getVendor(), renderPlan(rows), roots);
+  }
+}
@@ -0,0 +1,378 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb.jsql;
+
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.NClob;
+import java.sql.PreparedStatement;
+import java.sql.SQLClientInfoException;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Struct;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+
+/**
+ * A {@link Connection} borrowed from a {@link ConnectionPool}, which is
+ * returned to the pool when closed. The auto-commit, read-only and transaction
+ * isolation state of the physical connection is tracked, whereby calls that do
+ * not change the state are not propagated to the driver.
+ */
+final class PooledConnection implements Connection {
+  private final ConnectionPool pool;
+  private volatile ConnectionPool.Entry entry;
+
+  PooledConnection(final ConnectionPool pool, final ConnectionPool.Entry entry) {
+    this.pool = pool;
+    this.entry = entry;
+  }
+
+  private ConnectionPool.Entry entry() throws SQLException {
+    final ConnectionPool.Entry entry = this.entry;
+    if (entry == null)
+      throw new SQLNonTransientConnectionException("Connection is closed");
+
+    return entry;
+  }
+
+  private Connection connection() throws SQLException {
+    return entry().connection;
+  }
+
+  @Override
+  public void close() {
+    final ConnectionPool.Entry entry = this.entry;
+    if (entry == null)
+      return;
+
+    this.entry = null;
+    pool.release(entry);
+  }
+
+  @Override
+  public boolean isClosed() throws SQLException {
+    final ConnectionPool.Entry entry = this.entry;
+    return entry == null || entry.connection.isClosed();
+  }
+
+  @Override
+  public void abort(final Executor executor) throws SQLException {
+    final ConnectionPool.Entry entry = this.entry;
+    if (entry == null)
+      return;
+
+    this.entry = null;
+    try {
+      entry.connection.abort(executor);
+    }
+    finally {
+      pool.abort(entry);
+    }
+  }
+
+  @Override
+  public boolean isValid(final int timeout) throws SQLException {
+    final ConnectionPool.Entry entry = this.entry;
+    return entry != null && entry.connection.isValid(timeout);
+  }
+
+  @Override
+  public void setAutoCommit(final boolean autoCommit) throws SQLException {
+    final ConnectionPool.Entry entry = entry();
+    if (entry.autoCommit != autoCommit) {
+      entry.connection.setAutoCommit(autoCommit);
+      entry.autoCommit = autoCommit;
+    }
+  }
+
+  @Override
+  public boolean getAutoCommit() throws SQLException {
+    return entry().autoCommit;
+  }
+
+  @Override
+  public void setReadOnly(final boolean readOnly) throws SQLException {
+    final ConnectionPool.Entry entry = entry();
+    if (entry.readOnly != readOnly) {
+      entry.connection.setReadOnly(readOnly);
+      entry.readOnly = readOnly;
+    }
+  }
+
+  @Override
+  public boolean isReadOnly() throws SQLException {
+    return entry().readOnly;
+  }
+
+  @Override
+  public void setTransactionIsolation(final int level) throws SQLException {
+    final ConnectionPool.Entry entry = entry();
+    if (entry.isolation != level) {
+      entry.connection.setTransactionIsolation(level);
+      entry.isolation = level;
+    }
+  }
+
+  @Override
+  public int getTransactionIsolation() throws SQLException {
+    return entry().isolation;
+  }
+
+  @Override
+  public Statement createStatement() throws SQLException {
+    return connection().createStatement();
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(final String sql) throws SQLException {
+    return connection().prepareStatement(sql);
+  }
+
+  @Override
+  public CallableStatement prepareCall(final String sql) throws SQLException {
+    return connection().prepareCall(sql);
+  }
+
+  @Override
+  public String nativeSQL(final String sql) throws SQLException {
+    return connection().nativeSQL(sql);
+  }
+
+  @Override
+  public void commit() throws SQLException {
+    connection().commit();
+  }
+
+  @Override
+  public void rollback() throws SQLException {
+    connection().rollback();
+  }
+
+  @Override
+  public DatabaseMetaData getMetaData() throws SQLException {
+    return connection().getMetaData();
+  }
+
+  @Override
+  public void setCatalog(final String catalog) throws SQLException {
+    connection().setCatalog(catalog);
+  }
+
+  @Override
+  public String getCatalog() throws SQLException {
+    return connection().getCatalog();
+  }
+
+  @Override
+  public SQLWarning getWarnings() throws SQLException {
+    return connection().getWarnings();
+  }
+
+  @Override
+  public void clearWarnings() throws SQLException {
+    connection().clearWarnings();
+  }
+
+  @Override
+  public Statement createStatement(final int resultSetType, final int resultSetConcurrency) throws SQLException {
+    return connection().createStatement(resultSetType, resultSetConcurrency);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(final String sql, final int resultSetType, final int resultSetConcurrency) throws SQLException {
+    return connection().prepareStatement(sql, resultSetType, resultSetConcurrency);
+  }
+
+  @Override
+  public CallableStatement prepareCall(final String sql, final int resultSetType, final int resultSetConcurrency) throws SQLException {
+    return connection().prepareCall(sql, resultSetType, resultSetConcurrency);
+  }
+
+  @Override
+  public Map<String,Class<?>> getTypeMap() throws SQLException {
+    return connection().getTypeMap();
+  }
+
+  @Override
+  public void setTypeMap(final Map<String,Class<?>> map) throws SQLException {
+    connection().setTypeMap(map);
+  }
+
+  @Override
+  public void setHoldability(final int holdability) throws SQLException {
+    connection().setHoldability(holdability);
+  }
+
+  @Override
+  public int getHoldability() throws SQLException {
+    return connection().getHoldability();
+  }
+
+  @Override
+  public Savepoint setSavepoint() throws SQLException {
+    return connection().setSavepoint();
+  }
+
+  @Override
+  public Savepoint setSavepoint(final String name) throws SQLException {
+    return connection().setSavepoint(name);
+  }
+
+  @Override
+  public void rollback(final Savepoint savepoint) throws SQLException {
+    connection().rollback(savepoint);
+  }
+
+  @Override
+  public void releaseSavepoint(final Savepoint savepoint) throws SQLException {
+    connection().releaseSavepoint(savepoint);
+  }
+
+  @Override
+  public Statement createStatement(final int resultSetType, final int resultSetConcurrency, final int resultSetHoldability) throws SQLException {
+    return connection().createStatement(resultSetType, resultSetConcurrency, resultSetHoldability);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(final String sql, final int resultSetType, final int resultSetConcurrency, final int resultSetHoldability) throws SQLException {
+    return connection().prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+  }
+
+  @Override
+  public CallableStatement prepareCall(final String sql, final int resultSetType, final int resultSetConcurrency, final int resultSetHoldability) throws SQLException {
+    return connection().prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(final String sql, final int autoGeneratedKeys) throws SQLException {
+    return connection().prepareStatement(sql, autoGeneratedKeys);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(final String sql, final int[] columnIndexes) throws SQLException {
+    return connection().prepareStatement(sql, columnIndexes);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(final String sql, final String[] columnNames) throws SQLException {
+    return connection().prepareStatement(sql, columnNames);
+  }
+
+  @Override
+  public Clob createClob() throws SQLException {
+    return connection().createClob();
+  }
+
+  @Override
+  public Blob createBlob() throws SQLException {
+    return connection().createBlob();
+  }
+
+  @Override
+  public NClob createNClob() throws SQLException {
+    return connection().createNClob();
+  }
+
+  @Override
+  public SQLXML createSQLXML() throws SQLException {
+    return connection().createSQLXML();
+  }
+
+  @Override
+  public void setClientInfo(final String name, final String value) throws SQLClientInfoException {
+    final ConnectionPool.Entry entry = this.entry;
+    if (entry == null)
+      throw new SQLClientInfoException("Connection is closed", null);
+
+    entry.connection.setClientInfo(name, value);
+  }
+
+  @Override
+  public void setClientInfo(final Properties properties) throws SQLClientInfoException {
+    final ConnectionPool.Entry entry = this.entry;
+    if (entry == null)
+      throw new SQLClientInfoException("Connection is closed", null);
+
+    entry.connection.setClientInfo(properties);
+  }
+
+  @Override
+  public String getClientInfo(final String name) throws SQLException {
+    return connection().getClientInfo(name);
+  }
+
+  @Override
+  public Properties getClientInfo() throws SQLException {
+    return connection().getClientInfo();
+  }
+
+  @Override
+  public Array createArrayOf(final String typeName, final Object[] elements) throws SQLException {
+    return connection().createArrayOf(typeName, elements);
+  }
+
+  @Override
+  public Struct createStruct(final String typeName, final Object[] attributes) throws SQLException {
+    return connection().createStruct(typeName, attributes);
+  }
+
+  @Override
+  public void setSchema(final String schema) throws SQLException {
+    connection().setSchema(schema);
+  }
+
+  @Override
+  public String getSchema() throws SQLException {
+    return connection().getSchema();
+  }
+
+  @Override
+  public void setNetworkTimeout(final Executor executor, final int milliseconds) throws SQLException {
+    connection().setNetworkTimeout(executor, milliseconds);
+  }
+
+  @Override
+  public int getNetworkTimeout() throws SQLException {
+    return connection().getNetworkTimeout();
+  }
+
+  @Override
+  public <T>T unwrap(final Class<T> iface) throws SQLException {
+    return iface.isInstance(this) ? iface.cast(this) : connection().unwrap(iface);
+  }
+
+  @Override
+  public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+    return iface.isInstance(this) || connection().isWrapperFor(iface);
+  }
+
+  @Override
+  public String toString() {
+    final ConnectionPool.Entry entry = this.entry;
+    return entry == null ? "PooledConnection[closed]" : "PooledConnection[" + entry.connection + "]";
+  }
+}
@@ -30,7 +30,10 @@ import java.sql.Time;
 import java.sql.Types;
 import java.time.LocalTime;
 import java.time.temporal.TemporalUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.jaxdb.jsql.data.Column;
 import org.jaxdb.vendor.DBVendor;
@@ -39,6 +42,8 @@ import org.libj.io.Readers;
 import org.libj.io.Streams;
 
 final class PostgreSQLCompiler extends Compiler {
+  private static final Pattern planPattern = Pattern.compile("(\\s*)(?:->\\s+)?([A-Za-z][A-Za-z ]*?)(?: using (\\S+))?(?: on (\\S+)(?: \\S+)?)?\\s+\\(cost=\\S+ rows=(\\d+)");
+
   PostgreSQLCompiler() {
     super(DBVendor.POSTGRE_SQL);
   }
@@ -355,6 +360,11 @@ final class PostgreSQLCompiler extends Compiler {
       resultSet.updateNull(columnIndex);
   }
 
+  @Override
+  boolean supportsJavaTime() {
+    return true;
+  }
+
   @Override
   boolean aliasInForUpdate() {
     return false;
@@ -425,4 +435,53 @@ final class PostgreSQLCompiler extends Compiler {
   String prepareSqlReturning(final String sql, final Column<?>[] autos) {
     return super.prepareSqlReturning(sql + " RETURNING " + getNames(autos), autos);
   }
-}
\ No newline at end of file
+
+  @Override
+  List<QueryPlan.Node> parsePlan(final String[] labels, final List<String[]> rows) {
+    final ArrayList<QueryPlan.Node> roots = new ArrayList<>(1);
+    final ArrayList<QueryPlan.Node> nodes = new ArrayList<>();
+    final ArrayList<Integer> depths = new ArrayList<>();
+    for (final String[] row : rows) {
+      final String line = row[0];
+      final Matcher matcher = planPattern.matcher(line);
+      if (!matcher.lookingAt())
+        continue;
+
+      final String operation = matcher.group(2);
+      final QueryPlan.ScanType scanType;
+      final String table;
+      final String index;
+      if (operation.endsWith("Bitmap Index Scan")) {
+        scanType = QueryPlan.ScanType.INDEX_SCAN;
+        table = null;
+        index = unquote(matcher.group(4));
+      }
+      else {
+        scanType = operation.endsWith("Seq Scan") ? QueryPlan.ScanType.TABLE_SCAN : operation.startsWith("Index Only Scan") ? QueryPlan.ScanType.COVERING_INDEX_SCAN : operation.startsWith("Index Scan") ? QueryPlan.ScanType.INDEX_SCAN : QueryPlan.ScanType.OTHER;
+        table = unquote(matcher.group(4));
+        index = unquote(matcher.group(3));
+      }
+
+      final QueryPlan.Node node = new QueryPlan.Node(line.trim(), scanType, table, index, parseRows(matcher.group(5)));
+      final int depth = matcher.group(1).length();
+      while (depths.size() > 0 && depths.get(depths.size() - 1) >= depth) {
+        depths.remove(depths.size() - 1);
+        nodes.remove(nodes.size() - 1);
+      }
+
+      if (nodes.size() > 0)
+        nodes.get(nodes.size() - 1).add(node);
+      else
+        roots.add(node);
+
+      nodes.add(node);
+      depths.add(depth);
+    }
+
+    return roots;
+  }
+
+  private static String unquote(final String name) {
+    return name != null && name.length() > 1 && name.charAt(0) == '"' ? name.substring(1, name.length() - 1) : name;
+  }
+}
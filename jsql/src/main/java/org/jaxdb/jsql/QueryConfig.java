@@ -20,6 +20,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 import org.jaxdb.jsql.RowIterator.Concurrency;
 import org.jaxdb.jsql.RowIterator.Holdability;
@@ -36,6 +37,10 @@ public class QueryConfig {
     private Boolean poolable;
     private int queryTimeout = -1;
     private int fetchSize = -1;
+    private Boolean streaming;
+    private boolean flyweight;
+    private long resultCacheTtl = -1;
+    private long resultCacheMaxBytes = -1;
 
     private RowIterator.Type type = Type.FORWARD_ONLY;
     private RowIterator.Concurrency concurrency = Concurrency.READ_ONLY;
@@ -101,6 +106,78 @@ public class QueryConfig {
       return this;
     }
 
+    /**
+     * Specifies whether the {@link RowIterator} retains only the current row,
+     * whereby memory use is independent of the size of the result set. A
+     * streaming {@link RowIterator} does not support
+     * {@link RowIterator#previousRow()}, and de-duplicates entities only among
+     * the most recently read rows. If not specified, a {@link QueryConfig} of
+     * {@link Type#FORWARD_ONLY} is streaming.
+     *
+     * @param streaming Whether the {@link RowIterator} is streaming.
+     * @return {@code this} builder.
+     */
+    public Builder withStreaming(final boolean streaming) {
+      this.streaming = streaming;
+      return this;
+    }
+
+    /**
+     * Specifies whether the {@link RowIterator} reuses one set of entity
+     * instances for all rows, overwriting their values on each
+     * {@link RowIterator#nextRow()}. A flyweight {@link RowIterator} is
+     * {@linkplain #withStreaming(boolean) streaming}, and does not
+     * de-duplicate entities. Entities returned by a flyweight
+     * {@link RowIterator} are valid only until the next call to
+     * {@link RowIterator#nextRow()}, and must be copied if they are to be
+     * retained.
+     *
+     * @param flyweight Whether the {@link RowIterator} reuses entity
+     *          instances.
+     * @return {@code this} builder.
+     */
+    public Builder withFlyweight(final boolean flyweight) {
+      this.flyweight = flyweight;
+      return this;
+    }
+
+    /**
+     * Specifies that the result of the query is to be read from, and written
+     * to, the result cache of the data source, if
+     * {@linkplain Registry#enableResultCache(Class,String,int) enabled}. A
+     * cached result is returned for no longer than the provided time-to-live,
+     * and is invalidated when an {@code INSERT}, {@code UPDATE} or
+     * {@code DELETE} statement of a table of the {@code FROM} or {@code JOIN}
+     * clauses of the query is committed.
+     *
+     * @param ttl The time-to-live of the cached result.
+     * @param unit The {@link TimeUnit} of {@code ttl}.
+     * @return {@code this} builder.
+     */
+    public Builder withResultCache(final long ttl, final TimeUnit unit) {
+      if (ttl <= 0)
+        throw new IllegalArgumentException("ttl (" + ttl + ") must be greater than 0");
+
+      this.resultCacheTtl = unit.toNanos(ttl);
+      return this;
+    }
+
+    /**
+     * Specifies the maximum estimated size of a result to be written to the
+     * result cache. A result that exceeds the provided size is not cached.
+     *
+     * @param max The maximum estimated size of a cached result, in bytes.
+     * @return {@code this} builder.
+     * @see #withResultCache(long,TimeUnit)
+     */
+    public Builder withResultCacheMaxBytes(final long max) {
+      if (max <= 0)
+        throw new IllegalArgumentException("resultCacheMaxBytes (" + max + ") must be greater than 0");
+
+      this.resultCacheMaxBytes = max;
+      return this;
+    }
+
     public Builder withType(final RowIterator.Type type) {
       this.type = Objects.requireNonNull(type);
       return this;
@@ -117,7 +194,7 @@ public class QueryConfig {
     }
 
     public QueryConfig build() {
-      return new QueryConfig(cursorName, escapeProcessing, fetchDirection, fetchSize, largeMaxRows, maxFieldSize, maxRows, poolable, queryTimeout, type, concurrency, holdability);
+      return new QueryConfig(cursorName, escapeProcessing, fetchDirection, fetchSize, largeMaxRows, maxFieldSize, maxRows, poolable, queryTimeout, streaming, flyweight, resultCacheTtl, resultCacheMaxBytes, type, concurrency, holdability);
     }
   }
 
@@ -142,12 +219,16 @@ public class QueryConfig {
   private int maxRows = -1;
   private Boolean poolable;
   private int queryTimeout = -1;
+  private Boolean streaming;
+  private boolean flyweight;
+  private long resultCacheTtl = -1;
+  private long resultCacheMaxBytes = -1;
 
   private RowIterator.Type type;
   private RowIterator.Concurrency concurrency;
   private RowIterator.Holdability holdability;
 
-  private QueryConfig(final String cursorName, final Boolean escapeProcessing, final FetchDirection fetchDirection, final int fetchSize, final long largeMaxRows, final int maxFieldSize, final int maxRows, final Boolean poolable, final int queryTimeout, final RowIterator.Type type, final RowIterator.Concurrency concurrency, final RowIterator.Holdability holdability) {
+  private QueryConfig(final String cursorName, final Boolean escapeProcessing, final FetchDirection fetchDirection, final int fetchSize, final long largeMaxRows, final int maxFieldSize, final int maxRows, final Boolean poolable, final int queryTimeout, final Boolean streaming, final boolean flyweight, final long resultCacheTtl, final long resultCacheMaxBytes, final RowIterator.Type type, final RowIterator.Concurrency concurrency, final RowIterator.Holdability holdability) {
     this.cursorName = cursorName;
     this.escapeProcessing = escapeProcessing;
     this.fetchDirection = fetchDirection;
@@ -157,6 +238,10 @@ public class QueryConfig {
     this.maxRows = maxRows;
     this.poolable = poolable;
     this.queryTimeout = queryTimeout;
+    this.streaming = streaming;
+    this.flyweight = flyweight;
+    this.resultCacheTtl = resultCacheTtl;
+    this.resultCacheMaxBytes = resultCacheMaxBytes;
     this.type = type;
     this.concurrency = concurrency;
     this.holdability = holdability;
@@ -198,6 +283,47 @@ public class QueryConfig {
     return this.queryTimeout;
   }
 
+  public Boolean getStreaming() {
+    return this.streaming;
+  }
+
+  /**
+   * @return Whether a {@link RowIterator} of this {@link QueryConfig} retains
+   *         only the current row.
+   * @see Builder#withStreaming(boolean)
+   */
+  public boolean isStreaming() {
+    return flyweight || (streaming != null ? streaming : type == Type.FORWARD_ONLY);
+  }
+
+  /**
+   * @return Whether a {@link RowIterator} of this {@link QueryConfig} reuses
+   *         one set of entity instances for all rows.
+   * @see Builder#withFlyweight(boolean)
+   */
+  public boolean isFlyweight() {
+    return flyweight;
+  }
+
+  /**
+   * @return The time-to-live of a cached result of a query of this
+   *         {@link QueryConfig}, in nanoseconds, or {@code -1} if the result is
+   *         not to be cached.
+   * @see Builder#withResultCache(long,TimeUnit)
+   */
+  public long getResultCacheTtl() {
+    return resultCacheTtl;
+  }
+
+  /**
+   * @return The maximum estimated size of a cached result of a query of this
+   *         {@link QueryConfig}, in bytes, or {@code -1} if not limited.
+   * @see Builder#withResultCacheMaxBytes(long)
+   */
+  public long getResultCacheMaxBytes() {
+    return resultCacheMaxBytes;
+  }
+
   public Type getType() {
     return this.type;
   }
@@ -240,4 +366,38 @@ public class QueryConfig {
 
     return statement;
   }
-}
\ No newline at end of file
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (obj == this)
+      return true;
+
+    if (!(obj instanceof QueryConfig))
+      return false;
+
+    final QueryConfig that = (QueryConfig)obj;
+    return fetchSize == that.fetchSize && largeMaxRows == that.largeMaxRows && maxFieldSize == that.maxFieldSize && maxRows == that.maxRows && queryTimeout == that.queryTimeout && Objects.equals(streaming, that.streaming) && flyweight == that.flyweight && resultCacheTtl == that.resultCacheTtl && resultCacheMaxBytes == that.resultCacheMaxBytes && fetchDirection == that.fetchDirection && type == that.type && concurrency == that.concurrency && holdability == that.holdability && Objects.equals(cursorName, that.cursorName) && Objects.equals(escapeProcessing, that.escapeProcessing) && Objects.equals(poolable, that.poolable);
+  }
+
+  @Override
+  public int hashCode() {
+    int hashCode = 1;
+    hashCode = 31 * hashCode + Objects.hashCode(cursorName);
+    hashCode = 31 * hashCode + Objects.hashCode(escapeProcessing);
+    hashCode = 31 * hashCode + Objects.hashCode(fetchDirection);
+    hashCode = 31 * hashCode + fetchSize;
+    hashCode = 31 * hashCode + Long.hashCode(largeMaxRows);
+    hashCode = 31 * hashCode + maxFieldSize;
+    hashCode = 31 * hashCode + maxRows;
+    hashCode = 31 * hashCode + Objects.hashCode(poolable);
+    hashCode = 31 * hashCode + queryTimeout;
+    hashCode = 31 * hashCode + Objects.hashCode(streaming);
+    hashCode = 31 * hashCode + Boolean.hashCode(flyweight);
+    hashCode = 31 * hashCode + Long.hashCode(resultCacheTtl);
+    hashCode = 31 * hashCode + Long.hashCode(resultCacheMaxBytes);
+    hashCode = 31 * hashCode + Objects.hashCode(type);
+    hashCode = 31 * hashCode + Objects.hashCode(concurrency);
+    hashCode = 31 * hashCode + Objects.hashCode(holdability);
+    return hashCode;
+  }
+}
@@ -0,0 +1,199 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+
+package org.jaxdb.jsql;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.jaxdb.vendor.DBVendor;
+
+/**
+ * The plan of a {@code SELECT} statement as reported by the vendor, which is
+ * returned by {@link Select.untyped.SELECT#explain(String)}. The plan is
+ * normalized to a tree of {@link Node}s, each of which exposes the type of
+ * scan, the table and index it accesses, and the number of rows estimated by
+ * the optimizer, to the extent that the vendor reports them. Names of tables
+ * and indexes are as reported by the vendor, and may be aliases.
+ */
+public final class QueryPlan {
+  /**
+   * The type of access of a {@link Node} to a table.
+   */
+  public enum ScanType {
+    /** A scan of all rows of a table. */
+    TABLE_SCAN,
+    /** A scan or lookup of an index, with access to the rows of the table. */
+    INDEX_SCAN,
+    /** A scan or lookup of an index without access to the table. */
+    COVERING_INDEX_SCAN,
+    /** An operation other than an access to a table. */
+    OTHER
+  }
+
+  /**
+   * An operation of a {@link QueryPlan}.
+   */
+  public static final class Node {
+    private final String operation;
+    private final ScanType scanType;
+    private final String table;
+    private final String index;
+    private final long estimatedRows;
+    private final ArrayList<Node> children = new ArrayList<>(2);
+
+    Node(final String operation, final ScanType scanType, final String table, final String index, final long estimatedRows) {
+      this.operation = operation;
+      this.scanType = scanType;
+      this.table = table;
+      this.index = index;
+      this.estimatedRows = estimatedRows;
+    }
+
+    void add(final Node child) {
+      children.add(child);
+    }
+
+    /**
+     * @return The description of the operation of this node, as reported by
+     *         the vendor.
+     */
+    public String getOperation() {
+      return operation;
+    }
+
+    /**
+     * @return The {@link ScanType} of this node.
+     */
+    public ScanType getScanType() {
+      return scanType;
+    }
+
+    /**
+     * @return The name of the table accessed by this node, or {@code null}
+     *         if not reported.
+     */
+    public String getTable() {
+      return table;
+    }
+
+    /**
+     * @return The name of the index used by this node, or {@code null} if no
+     *         index is used, or the index is not reported.
+     */
+    public String getIndex() {
+      return index;
+    }
+
+    /**
+     * @return The number of rows estimated by the optimizer, or {@code -1} if
+     *         not reported.
+     */
+    public long getEstimatedRows() {
+      return estimatedRows;
+    }
+
+    /**
+     * @return The child nodes of this node.
+     */
+    public List<Node> getChildren() {
+      return Collections.unmodifiableList(children);
+    }
+
+    private void addTo(final List<Node> nodes) {
+      nodes.add(this);
+      for (int i = 0, len = children.size(); i < len; ++i)
+        children.get(i).addTo(nodes);
+    }
+
+    @Override
+    public String toString() {
+      return operation;
+    }
+  }
+
+  private final DBVendor vendor;
+  private final String text;
+  private final List<Node> roots;
+
+  QueryPlan(final DBVendor vendor, final String text, final List<Node> roots) {
+    this.vendor = vendor;
+    this.text = text;
+    this.roots = Collections.unmodifiableList(roots);
+  }
+
+  /**
+   * @return The {@link DBVendor} that reported this plan.
+   */
+  public DBVendor getVendor() {
+    return vendor;
+  }
+
+  /**
+   * @return The root nodes of this plan.
+   */
+  public List<Node> getRoots() {
+    return roots;
+  }
+
+  /**
+   * @return The nodes of this plan in depth-first order.
+   */
+  public List<Node> getNodes() {
+    final ArrayList<Node> nodes = new ArrayList<>();
+    for (int i = 0, len = roots.size(); i < len; ++i)
+      roots.get(i).addTo(nodes);
+
+    return nodes;
+  }
+
+  /**
+   * @return The nodes of this plan that access a table, in depth-first
+   *         order.
+   */
+  public List<Node> getScans() {
+    final List<Node> nodes = getNodes();
+    nodes.removeIf(n -> n.scanType == ScanType.OTHER);
+    return nodes;
+  }
+
+  /**
+   * Returns the first node of this plan that accesses the table with the
+   * provided name, compared case-insensitively, or {@code null} if no such
+   * node exists.
+   *
+   * @param table The name of the table.
+   * @return The first node of this plan that accesses the table with the
+   *         provided name, or {@code null} if no such node exists.
+   */
+  public Node getScan(final String table) {
+    for (final Node node : getScans())
+      if (table.equalsIgnoreCase(node.table))
+        return node;
+
+    return null;
+  }
+
+  /**
+   * @return The plan as reported by the vendor.
+   */
+  @Override
+  public String toString() {
+    return text;
+  }
+}
@@ -0,0 +1,431 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb.jsql;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.jaxdb.vendor.DBVendor;
+
+/**
+ * In-memory cache of the reference tables of a registered data source, which
+ * are the tables declared with {@code jsql:preload="true"}. All rows of each
+ * reference table are loaded when the cache is enabled, and are indexed by
+ * their primary key and single-column unique constraints. {@code SELECT}
+ * statements of a single reference table whose condition is a conjunction of
+ * equality predicates between its columns and constant values are answered
+ * from memory, with copies of the cached rows, if the equality of the values
+ * of each column is evaluated in memory exactly as by the database: exact
+ * numeric, {@code BOOLEAN} and {@code ENUM} columns, and {@code VARCHAR}
+ * columns of vendors whose default collation is binary. All other statements,
+ * including those of {@code CHAR} columns, whose values are padded with
+ * blanks, and of temporal and approximate numeric columns, are executed
+ * against the database.
+ * <p>
+ * The rows of a reference table are reloaded on first access after the
+ * refresh interval of the cache has elapsed, or after an {@code INSERT},
+ * {@code UPDATE} or {@code DELETE} statement of the table has been executed in
+ * auto-commit mode, or committed in a {@link Transaction}.
+ */
+final class ReferenceCache {
+  private static final data.Table[] EMPTY = {};
+
+  private static final class Constraint {
+    private final int index;
+    private final Object value;
+
+    private Constraint(final int index, final Object value) {
+      this.index = index;
+      this.value = value;
+    }
+  }
+
+  private static final class Snapshot {
+    private final data.Table[] rows;
+    private final HashMap<Object,data.Table> primary;
+    private final HashMap<Object,data.Table>[] unique;
+    private final long expiry;
+
+    private Snapshot(final data.Table[] rows, final HashMap<Object,data.Table> primary, final HashMap<Object,data.Table>[] unique, final long expiry) {
+      this.rows = rows;
+      this.primary = primary;
+      this.unique = unique;
+      this.expiry = expiry;
+    }
+  }
+
+  private final class Entry {
+    private final data.Table prototype;
+    private final int[] primaryIndexes;
+    private volatile Snapshot snapshot;
+    private long generation;
+    private boolean loading;
+
+    private Entry(final data.Table prototype) {
+      this.prototype = prototype;
+      final data.Column<?>[] primary = prototype._primary$;
+      final int[] primaryIndexes = new int[primary.length];
+      for (int i = 0; i < primary.length; ++i)
+        if ((primaryIndexes[i] = indexOf(prototype, primary[i])) == -1)
+          throw new IllegalStateException("Primary key column " + primary[i].name + " is not a column of " + prototype.name());
+
+      this.primaryIndexes = primaryIndexes;
+    }
+
+    /**
+     * Returns the current {@link Snapshot} of this table, loading it if it is
+     * absent or expired.
+     *
+     * @param dataSourceId The data source id.
+     * @return The current {@link Snapshot} of this table, or {@code null} if
+     *         this table is being loaded by the current thread.
+     * @throws IOException If an I/O error has occurred.
+     * @throws SQLException If a SQL error has occurred.
+     */
+    private Snapshot get(final String dataSourceId) throws IOException, SQLException {
+      final Snapshot snapshot = this.snapshot;
+      if (snapshot != null && snapshot.expiry - System.nanoTime() > 0)
+        return snapshot;
+
+      synchronized (this) {
+        if (loading)
+          return null;
+
+        final Snapshot current = this.snapshot;
+        if (current != null && current != snapshot)
+          return current;
+
+        loading = true;
+        try {
+          final long generation = this.generation;
+          final Snapshot loaded = load(dataSourceId);
+          if (generation == this.generation)
+            this.snapshot = loaded;
+
+          return loaded;
+        }
+        finally {
+          loading = false;
+        }
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Snapshot load(final String dataSourceId) throws IOException, SQLException {
+      final ArrayList<data.Table> rows = new ArrayList<>();
+      try (final RowIterator<data.Table> iterator = ((SelectImpl.untyped.SELECT<data.Table>)DML.SELECT(prototype.newInstance())).execute(null, null, dataSourceId, null)) {
+        while (iterator.nextRow())
+          rows.add(iterator.nextEntity());
+      }
+
+      final data.Column<?>[] columns = prototype._column$;
+      final HashMap<Object,data.Table> primary = primaryIndexes.length > 0 ? new HashMap<>() : null;
+      final HashMap<Object,data.Table>[] unique = new HashMap[columns.length];
+      for (int i = 0; i < columns.length; ++i)
+        if (columns[i].unique && !columns[i].primary)
+          unique[i] = new HashMap<>();
+
+      for (int i = 0, len = rows.size(); i < len; ++i) {
+        final data.Table row = rows.get(i);
+        if (primary != null) {
+          final Object[] values = new Object[primaryIndexes.length];
+          for (int j = 0; j < values.length; ++j)
+            values[j] = normalize(row._column$[primaryIndexes[j]].get());
+
+          primary.put(values.length == 1 ? values[0] : Arrays.asList(values), row);
+        }
+
+        for (int j = 0; j < columns.length; ++j) {
+          final Object value;
+          if (unique[j] != null && (value = row._column$[j].get()) != null)
+            unique[j].put(normalize(value), row);
+        }
+      }
+
+      return new Snapshot(rows.toArray(new data.Table[rows.size()]), primary, unique, System.nanoTime() + refresh);
+    }
+
+    private synchronized void invalidate() {
+      ++generation;
+      snapshot = null;
+    }
+  }
+
+  /**
+   * Returns the value with which the provided value of a column is compared
+   * and indexed, whereby exact numbers of different types and scales, and
+   * character sequences of different types, are equal if their values are
+   * equal.
+   *
+   * @param value The value of a column.
+   * @return The value with which the provided value of a column is compared
+   *         and indexed.
+   */
+  private static Object normalize(final Object value) {
+    if (value instanceof BigDecimal)
+      return ((BigDecimal)value).stripTrailingZeros();
+
+    if (value instanceof BigInteger)
+      return new BigDecimal((BigInteger)value).stripTrailingZeros();
+
+    if (value instanceof Number)
+      return BigDecimal.valueOf(((Number)value).longValue()).stripTrailingZeros();
+
+    if (value instanceof CharSequence)
+      return value.toString();
+
+    return value;
+  }
+
+  /**
+   * Returns whether the equality of the values of the provided column and the
+   * provided constant is evaluated by {@link #normalize(Object)} and
+   * {@link Object#equals(Object)} exactly as by the database.
+   *
+   * @param column The column.
+   * @param value The constant value.
+   * @param compiler The {@link Compiler} of the vendor.
+   * @return Whether the equality of the values of the provided column and the
+   *         provided constant can be evaluated in memory.
+   */
+  private static boolean isExact(final data.Column<?> column, final Object value, final Compiler compiler) {
+    if (column instanceof data.ExactNumeric)
+      return value instanceof Byte || value instanceof Short || value instanceof Integer || value instanceof Long || value instanceof BigInteger || value instanceof BigDecimal;
+
+    if (column instanceof data.BOOLEAN)
+      return value instanceof Boolean;
+
+    if (column instanceof data.ENUM)
+      return value instanceof Enum;
+
+    if (column instanceof data.CHAR)
+      return ((data.CHAR)column).varying() && compiler.binaryCollation() && value instanceof CharSequence;
+
+    return false;
+  }
+
+  private static int indexOf(final data.Table table, final Object column) {
+    final data.Column<?>[] columns = table._column$;
+    for (int i = 0; i < columns.length; ++i)
+      if (columns[i] == column)
+        return i;
+
+    return -1;
+  }
+
+  /**
+   * Adds the {@link Constraint}s of the provided condition to the provided
+   * list, if the condition is a conjunction of equality predicates between the
+   * columns of the provided {@link data.Table} and constant values.
+   *
+   * @param table The {@link data.Table}.
+   * @param condition The condition.
+   * @param constraints The list of {@link Constraint}s.
+   * @param compiler The {@link Compiler} of the vendor.
+   * @return Whether the provided condition can be evaluated in memory.
+   */
+  private static boolean constrain(final data.Table table, final Condition<?> condition, final ArrayList<Constraint> constraints, final Compiler compiler) {
+    if (condition instanceof BooleanTerm) {
+      final BooleanTerm term = (BooleanTerm)condition;
+      if (!term.and || !constrain(table, term.a, constraints, compiler) || !constrain(table, term.b, constraints, compiler))
+        return false;
+
+      for (final Condition<?> c : term.conditions)
+        if (!constrain(table, c, constraints, compiler))
+          return false;
+
+      return true;
+    }
+
+    if (!(condition instanceof ComparisonPredicate))
+      return false;
+
+    final ComparisonPredicate<?> predicate = (ComparisonPredicate<?>)condition;
+    if (predicate.operator != function.Logical.EQ)
+      return false;
+
+    final int index;
+    final Subject value;
+    if ((index = indexOf(table, predicate.a)) != -1)
+      value = predicate.b;
+    else if ((index = indexOf(table, predicate.b)) != -1)
+      value = predicate.a;
+    else
+      return false;
+
+    if (!(value instanceof data.Column) || ((data.Column<?>)value).table != null)
+      return false;
+
+    final Object evaluated = ((Evaluable)value).evaluate(new HashSet<>());
+    if (evaluated == null || !isExact(table._column$[index], evaluated, compiler))
+      return false;
+
+    constraints.add(new Constraint(index, normalize(evaluated)));
+    return true;
+  }
+
+  private final Registry.Registration registration;
+  private final long refresh;
+  private final IdentityHashMap<Class<?>,Entry> entries = new IdentityHashMap<>();
+
+  /**
+   * Creates a new {@link ReferenceCache} of the provided reference tables.
+   *
+   * @param registration The {@link Registry.Registration} of the data source.
+   * @param tables The prototypes of the reference tables.
+   * @param refresh The refresh interval of the cache, in nanoseconds.
+   */
+  ReferenceCache(final Registry.Registration registration, final List<data.Table> tables, final long refresh) {
+    this.registration = registration;
+    this.refresh = refresh;
+    for (final data.Table table : tables)
+      entries.put(table.getClass(), new Entry(table));
+  }
+
+  /**
+   * Loads the rows of all reference tables of this cache.
+   *
+   * @param dataSourceId The data source id.
+   * @throws IOException If an I/O error has occurred.
+   * @throws SQLException If a SQL error has occurred.
+   */
+  void load(final String dataSourceId) throws IOException, SQLException {
+    for (final Entry entry : entries.values())
+      entry.get(dataSourceId);
+  }
+
+  /**
+   * Returns copies of the rows of the provided reference table that satisfy the
+   * provided condition, or {@code null} if the provided table is not a
+   * reference table of this cache, or if the condition cannot be evaluated in
+   * memory exactly as by the database.
+   *
+   * @param table The {@link data.Table} of the {@code SELECT} statement.
+   * @param condition The condition of the {@code SELECT} statement, or
+   *          {@code null}.
+   * @param dataSourceId The data source id.
+   * @return Copies of the rows of the provided reference table that satisfy
+   *         the provided condition, or {@code null}.
+   * @throws IOException If an I/O error has occurred.
+   * @throws SQLException If a SQL error has occurred.
+   */
+  List<data.Entity<?>[]> select(final data.Table table, final Condition<?> condition, final String dataSourceId) throws IOException, SQLException {
+    final Entry entry = entries.get(table.getClass());
+    if (entry == null)
+      return null;
+
+    // The vendor is resolved by the load of the reference tables when this cache is enabled
+    final DBVendor vendor = registration.getVendor();
+    if (vendor == null)
+      return null;
+
+    final ArrayList<Constraint> constraints = new ArrayList<>();
+    if (condition != null && !constrain(table, condition, constraints, Compiler.getCompiler(vendor)))
+      return null;
+
+    final Snapshot snapshot = entry.get(dataSourceId);
+    if (snapshot == null)
+      return null;
+
+    final data.Table[] indexed = constraints.size() > 0 ? lookup(entry, snapshot, constraints) : null;
+    final data.Table[] candidates = indexed != null ? indexed : snapshot.rows;
+    final ArrayList<data.Entity<?>[]> rows = new ArrayList<>();
+    for (final data.Table candidate : candidates) {
+      if (matches(candidate, constraints)) {
+        final data.Table copy = EntityCache.copy(candidate);
+        if (copy == null)
+          return null;
+
+        rows.add(new data.Entity<?>[] {copy});
+      }
+    }
+
+    return rows;
+  }
+
+  /**
+   * Returns the rows of the provided {@link Snapshot} that are identified by
+   * the provided {@link Constraint}s via its primary key or unique indexes.
+   *
+   * @param entry The {@link Entry} of the table.
+   * @param snapshot The {@link Snapshot} of the table.
+   * @param constraints The list of {@link Constraint}s.
+   * @return The rows of the provided {@link Snapshot} that are identified by
+   *         the provided {@link Constraint}s, or {@code null} if the
+   *         constraints do not cover an index.
+   */
+  private static data.Table[] lookup(final Entry entry, final Snapshot snapshot, final ArrayList<Constraint> constraints) {
+    final int[] primaryIndexes = entry.primaryIndexes;
+    final Object[] values = snapshot.primary != null ? new Object[primaryIndexes.length] : null;
+    int found = 0;
+    for (int i = 0, len = constraints.size(); i < len; ++i) {
+      final Constraint constraint = constraints.get(i);
+      final HashMap<Object,data.Table> unique = snapshot.unique[constraint.index];
+      if (unique != null)
+        return toArray(unique.get(constraint.value));
+
+      if (values != null) {
+        for (int j = 0; j < primaryIndexes.length; ++j) {
+          if (primaryIndexes[j] == constraint.index && values[j] == null) {
+            values[j] = constraint.value;
+            ++found;
+          }
+        }
+      }
+    }
+
+    return values != null && found == values.length ? toArray(snapshot.primary.get(values.length == 1 ? values[0] : Arrays.asList(values))) : null;
+  }
+
+  private static data.Table[] toArray(final data.Table row) {
+    return row == null ? EMPTY : new data.Table[] {row};
+  }
+
+  private static boolean matches(final data.Table row, final ArrayList<Constraint> constraints) {
+    for (int i = 0, len = constraints.size(); i < len; ++i) {
+      final Constraint constraint = constraints.get(i);
+      final Object value = row._column$[constraint.index].get();
+      if (value == null || !constraint.value.equals(normalize(value)))
+        return false;
+    }
+
+    return true;
+  }
+
+  /**
+   * Invalidates the cached rows of the reference tables of the provided
+   * classes, which are reloaded on next access.
+   *
+   * @param tables The classes of {@link data.Table} that have been modified.
+   */
+  void invalidate(final Set<Class<?>> tables) {
+    for (final Class<?> table : tables) {
+      final Entry entry = entries.get(table);
+      if (entry != null)
+        entry.invalidate();
+    }
+  }
+}
@@ -16,8 +16,18 @@
 
 package org.jaxdb.jsql;
 
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
 import javax.sql.DataSource;
 
+import org.jaxdb.vendor.DBVendor;
 import org.libj.lang.ObjectUtil;
 import org.libj.sql.AuditConnection;
 import org.libj.util.ConcurrentNullHashMap;
@@ -27,6 +37,18 @@ import org.slf4j.LoggerFactory;
 public final class Registry {
   private static final Logger logger = LoggerFactory.getLogger(Registry.class);
 
+  /**
+   * The routing of reads across the read replicas of a data source.
+   *
+   * @see Registry#registerReplicas(Class,String,Routing,long,TimeUnit,Connector...)
+   */
+  public enum Routing {
+    /** Reads are routed to each replica in turn. */
+    ROUND_ROBIN,
+    /** Reads are routed to the replica with the fewest open connections. */
+    LEAST_LOADED
+  }
+
   private static Connector makeConnector(final DataSource dataSource) {
     if (dataSource == null)
       throw new IllegalArgumentException("dataSource == null");
@@ -34,101 +56,762 @@ public final class Registry {
     return () -> new AuditConnection(dataSource.getConnection());
   }
 
-  private class Registration {
-    private final Connector connector;
-    private final boolean isPrepared;
+  static final class Registration {
+    final Connector connector;
+    final boolean isPrepared;
+    final int statementCacheSize;
+    final CacheStatistics statementCacheStatistics;
 
-    private Registration(final Connector connector, final boolean isPrepared) {
+    private Registration(final Connector connector, final boolean isPrepared, final int statementCacheSize) {
       this.connector = connector;
       this.isPrepared = isPrepared;
+      this.statementCacheSize = statementCacheSize;
+      this.statementCacheStatistics = statementCacheSize > 0 ? new CacheStatistics() : null;
+    }
+
+    private volatile DBVendor vendor;
+    volatile EntityCache entityCache;
+    volatile ResultCache resultCache;
+    volatile ReferenceCache referenceCache;
+    volatile ReplicaSet replicas;
+
+    boolean hasVendor() {
+      return vendor != null;
+    }
+
+    /**
+     * @return The {@link DBVendor} of the data source of this registration, or
+     *         {@code null} if it has not yet been resolved by
+     *         {@link #getVendor(Connection)}.
+     */
+    DBVendor getVendor() {
+      return vendor;
+    }
+
+    StatementCache newStatementCache() {
+      return statementCacheSize > 0 ? new StatementCache(statementCacheSize, statementCacheStatistics) : null;
+    }
+
+    /**
+     * Returns the {@link DBVendor} of the data source of this registration. On
+     * first invocation, the vendor is resolved from the metadata of the
+     * provided {@link Connection}, and the {@link Compiler} is given the
+     * opportunity to initialize the database.
+     *
+     * @param connection A {@link Connection} to the data source of this
+     *          registration.
+     * @return The {@link DBVendor} of the data source of this registration.
+     * @throws SQLException If a SQL error has occurred.
+     */
+    DBVendor getVendor(final Connection connection) throws SQLException {
+      DBVendor vendor = this.vendor;
+      if (vendor != null)
+        return vendor;
+
+      synchronized (this) {
+        if ((vendor = this.vendor) != null)
+          return vendor;
+
+        vendor = DBVendor.valueOf(connection.getMetaData());
+        final Compiler compiler = Compiler.getCompiler(vendor);
+        compiler.onConnect(connection);
+        compiler.onRegister(connection);
+        if (!connection.getAutoCommit())
+          connection.commit();
+
+        return this.vendor = vendor;
+      }
     }
   }
 
   private final ConcurrentNullHashMap<Class<? extends Schema>,ConcurrentNullHashMap<String,Registration>> registrations = new ConcurrentNullHashMap<>();
+  private final ConcurrentNullHashMap<Class<? extends Schema>,ConcurrentNullHashMap<String,ShardSet>> shardSets = new ConcurrentNullHashMap<>();
+  private volatile ExecutionListener[] executionListeners;
+  private volatile SlowQueryLog slowQueryLog;
+  private volatile IndexAdvisor indexAdvisor;
 
   private static Registry getRegistry() {
     return global != null ? global : threadLocal != null ? threadLocal.get() : null;
   }
 
-  static Connector getConnector(final Class<? extends Schema> schema, final String id) {
+  private Registration registration(final Class<? extends Schema> schema, final String id) {
+    final ConcurrentNullHashMap<String,Registration> registrations = this.registrations.get(schema);
+    return registrations == null ? null : registrations.get(id);
+  }
+
+  static Registration getRegistration(final Class<? extends Schema> schema, final String id) {
     final Registry registry = getRegistry();
-    if (registry == null)
-      return null;
+    return registry == null ? null : registry.registration(schema, id);
+  }
 
-    final ConcurrentNullHashMap<String,Registration> registrations = registry.registrations.get(schema);
-    if (registrations == null)
-      return null;
+  private ShardSet shardSet(final Class<? extends Schema> schema, final String id) {
+    final ConcurrentNullHashMap<String,ShardSet> shardSets = this.shardSets.get(schema);
+    return shardSets == null ? null : shardSets.get(id);
+  }
+
+  static ShardSet getShardSet(final Class<? extends Schema> schema, final String id) {
+    final Registry registry = getRegistry();
+    return registry == null ? null : registry.shardSet(schema, id);
+  }
+
+  static ExecutionListener[] getExecutionListeners() {
+    final Registry registry = getRegistry();
+    return registry == null ? null : registry.executionListeners;
+  }
+
+  static SlowQueryLog getSlowQueryLog() {
+    final Registry registry = getRegistry();
+    return registry == null ? null : registry.slowQueryLog;
+  }
+
+  static IndexAdvisor getIndexAdvisor() {
+    final Registry registry = getRegistry();
+    return registry == null ? null : registry.indexAdvisor;
+  }
 
-    final Registration registration = registrations.get(id);
+  static Connector getConnector(final Class<? extends Schema> schema, final String id) {
+    final Registration registration = getRegistration(schema, id);
     return registration == null ? null : registration.connector;
   }
 
   static boolean isPrepared(final Class<? extends Schema> schema, final String id) {
-    final Registry registry = getRegistry();
-    if (registry == null)
-      return false;
+    final Registration registration = getRegistration(schema, id);
+    return registration != null && registration.isPrepared;
+  }
 
-    final ConcurrentNullHashMap<String,Registration> registrations = registry.registrations.get(schema);
-    if (registrations == null)
+  static EntityCache getEntityCache(final Class<? extends Schema> schema, final String id) {
+    final Registration registration = getRegistration(schema, id);
+    return registration == null ? null : registration.entityCache;
+  }
+
+  static ResultCache getResultCache(final Class<? extends Schema> schema, final String id) {
+    final Registration registration = getRegistration(schema, id);
+    return registration == null ? null : registration.resultCache;
+  }
+
+  static ReferenceCache getReferenceCache(final Class<? extends Schema> schema, final String id) {
+    final Registration registration = getRegistration(schema, id);
+    return registration == null ? null : registration.referenceCache;
+  }
+
+  /**
+   * Returns the {@link CacheStatistics} of the {@link PreparedStatement} cache
+   * of the data source registered for the provided schema and id, or
+   * {@code null} if no such data source is registered, or if it was registered
+   * without a statement cache.
+   *
+   * @param schema The schema class.
+   * @param id The data source id.
+   * @return The {@link CacheStatistics} of the {@link PreparedStatement} cache
+   *         of the registered data source.
+   */
+  public CacheStatistics getStatementCacheStatistics(final Class<? extends Schema> schema, final String id) {
+    final Registration registration = registration(schema, id);
+    return registration == null ? null : registration.statementCacheStatistics;
+  }
+
+  /**
+   * Returns the {@link CacheStatistics} of the {@link PreparedStatement} cache
+   * of the default data source registered for the provided schema, or
+   * {@code null} if no such data source is registered, or if it was registered
+   * without a statement cache.
+   *
+   * @param schema The schema class.
+   * @return The {@link CacheStatistics} of the {@link PreparedStatement} cache
+   *         of the registered data source.
+   */
+  public CacheStatistics getStatementCacheStatistics(final Class<? extends Schema> schema) {
+    return getStatementCacheStatistics(schema, null);
+  }
+
+  /**
+   * Enables the entity cache of the data source registered for the provided
+   * schema and id, whereby the entities of tables declared with
+   * {@code jsql:cache="true"} that are read from the data source are shared by
+   * all threads, up to {@code maxSize} entities, evicting the least recently
+   * used entity when full. A {@code SELECT} of a single entity whose set
+   * columns are exactly its primary key columns is answered from the entity
+   * cache without accessing the database. Cached entities are invalidated
+   * when {@code INSERT}, {@code UPDATE} and {@code DELETE} statements of their
+   * tables are executed in auto-commit mode, or when the {@link Transaction}
+   * in which they are executed is committed.
+   *
+   * @param schema The schema class.
+   * @param id The data source id.
+   * @param maxSize The maximum number of cached entities.
+   * @throws IllegalArgumentException If {@code maxSize} is not greater than 0.
+   * @throws IllegalStateException If no data source is registered for the
+   *           provided schema and id.
+   */
+  public void enableEntityCache(final Class<? extends Schema> schema, final String id, final int maxSize) {
+    if (maxSize <= 0)
+      throw new IllegalArgumentException("maxSize (" + maxSize + ") must be greater than 0");
+
+    final Registration registration = registration(schema, id);
+    if (registration == null)
+      throw new IllegalStateException("No data source is registered for " + (schema == null ? "null" : schema.getName()) + " with id \"" + id + "\"");
+
+    registration.entityCache = new EntityCache(maxSize);
+  }
+
+  /**
+   * Enables the entity cache of the default data source registered for the
+   * provided schema.
+   *
+   * @param schema The schema class.
+   * @param maxSize The maximum number of cached entities.
+   * @throws IllegalArgumentException If {@code maxSize} is not greater than 0.
+   * @throws IllegalStateException If no default data source is registered for
+   *           the provided schema.
+   * @see #enableEntityCache(Class,String,int)
+   */
+  public void enableEntityCache(final Class<? extends Schema> schema, final int maxSize) {
+    enableEntityCache(schema, null, maxSize);
+  }
+
+  /**
+   * Returns the {@link CacheStatistics} of the entity cache of the data source
+   * registered for the provided schema and id, or {@code null} if no such data
+   * source is registered, or if its entity cache is not enabled.
+   *
+   * @param schema The schema class.
+   * @param id The data source id.
+   * @return The {@link CacheStatistics} of the entity cache of the registered
+   *         data source.
+   */
+  public CacheStatistics getEntityCacheStatistics(final Class<? extends Schema> schema, final String id) {
+    final Registration registration = registration(schema, id);
+    final EntityCache entityCache = registration == null ? null : registration.entityCache;
+    return entityCache == null ? null : entityCache.getStatistics();
+  }
+
+  /**
+   * Returns the {@link CacheStatistics} of the entity cache of the default data
+   * source registered for the provided schema, or {@code null} if no such data
+   * source is registered, or if its entity cache is not enabled.
+   *
+   * @param schema The schema class.
+   * @return The {@link CacheStatistics} of the entity cache of the registered
+   *         data source.
+   */
+  public CacheStatistics getEntityCacheStatistics(final Class<? extends Schema> schema) {
+    return getEntityCacheStatistics(schema, null);
+  }
+
+  /**
+   * Enables the result cache of the data source registered for the provided
+   * schema and id, whereby the results of {@code SELECT} statements executed
+   * with a {@link QueryConfig} that specifies a
+   * {@linkplain QueryConfig.Builder#withResultCache(long,java.util.concurrent.TimeUnit)
+   * time-to-live} are shared by all threads, up to {@code maxSize} results,
+   * evicting the least recently used result when full. Cached results are keyed
+   * by the compiled SQL and the values of the bound parameters of their
+   * statements, and are invalidated when {@code INSERT}, {@code UPDATE} and
+   * {@code DELETE} statements of the tables of their {@code FROM} and
+   * {@code JOIN} clauses are executed in auto-commit mode, or when the
+   * {@link Transaction} in which they are executed is committed.
+   *
+   * @param schema The schema class.
+   * @param id The data source id.
+   * @param maxSize The maximum number of cached results.
+   * @throws IllegalArgumentException If {@code maxSize} is not greater than 0.
+   * @throws IllegalStateException If no data source is registered for the
+   *           provided schema and id.
+   */
+  public void enableResultCache(final Class<? extends Schema> schema, final String id, final int maxSize) {
+    if (maxSize <= 0)
+      throw new IllegalArgumentException("maxSize (" + maxSize + ") must be greater than 0");
+
+    final Registration registration = registration(schema, id);
+    if (registration == null)
+      throw new IllegalStateException("No data source is registered for " + (schema == null ? "null" : schema.getName()) + " with id \"" + id + "\"");
+
+    registration.resultCache = new ResultCache(maxSize);
+  }
+
+  /**
+   * Enables the result cache of the default data source registered for the
+   * provided schema.
+   *
+   * @param schema The schema class.
+   * @param maxSize The maximum number of cached results.
+   * @throws IllegalArgumentException If {@code maxSize} is not greater than 0.
+   * @throws IllegalStateException If no default data source is registered for
+   *           the provided schema.
+   * @see #enableResultCache(Class,String,int)
+   */
+  public void enableResultCache(final Class<? extends Schema> schema, final int maxSize) {
+    enableResultCache(schema, null, maxSize);
+  }
+
+  /**
+   * Returns the {@link CacheStatistics} of the result cache of the data source
+   * registered for the provided schema and id, or {@code null} if no such data
+   * source is registered, or if its result cache is not enabled.
+   *
+   * @param schema The schema class.
+   * @param id The data source id.
+   * @return The {@link CacheStatistics} of the result cache of the registered
+   *         data source.
+   */
+  public CacheStatistics getResultCacheStatistics(final Class<? extends Schema> schema, final String id) {
+    final Registration registration = registration(schema, id);
+    final ResultCache resultCache = registration == null ? null : registration.resultCache;
+    return resultCache == null ? null : resultCache.getStatistics();
+  }
+
+  /**
+   * Returns the {@link CacheStatistics} of the result cache of the default data
+   * source registered for the provided schema, or {@code null} if no such data
+   * source is registered, or if its result cache is not enabled.
+   *
+   * @param schema The schema class.
+   * @return The {@link CacheStatistics} of the result cache of the registered
+   *         data source.
+   */
+  public CacheStatistics getResultCacheStatistics(final Class<? extends Schema> schema) {
+    return getResultCacheStatistics(schema, null);
+  }
+
+  /**
+   * Enables the reference cache of the data source registered for the
+   * provided schema and id, whereby all rows of the tables of the schema
+   * declared with {@code jsql:preload="true"} are loaded into memory by this
+   * method, and are indexed by their primary key and single-column unique
+   * constraints. A {@code SELECT} of a single reference table whose condition
+   * is a conjunction of equality predicates between its columns and constant
+   * values is answered from memory without accessing the database. The rows
+   * of a reference table are reloaded on first access after the provided
+   * refresh interval has elapsed, or after an {@code INSERT}, {@code UPDATE}
+   * or {@code DELETE} statement of the table has been executed in auto-commit
+   * mode, or committed in a {@link Transaction}.
+   *
+   * @param schema The schema class.
+   * @param id The data source id.
+   * @param refresh The refresh interval of the reference tables.
+   * @param unit The {@link TimeUnit} of {@code refresh}.
+   * @throws IllegalArgumentException If {@code refresh} is not greater than 0.
+   * @throws IllegalStateException If no data source is registered for the
+   *           provided schema and id.
+   * @throws IOException If an I/O error has occurred.
+   * @throws SQLException If a SQL error has occurred.
+   */
+  public void enableReferenceCache(final Class<? extends Schema> schema, final String id, final long refresh, final TimeUnit unit) throws IOException, SQLException {
+    if (refresh <= 0)
+      throw new IllegalArgumentException("refresh (" + refresh + ") must be greater than 0");
+
+    final Registration registration = registration(schema, id);
+    if (registration == null)
+      throw new IllegalStateException("No data source is registered for " + (schema == null ? "null" : schema.getName()) + " with id \"" + id + "\"");
+
+    final ArrayList<data.Table> tables = new ArrayList<>();
+    for (final Class<?> type : schema.getDeclaredClasses()) {
+      if (!data.Table.class.isAssignableFrom(type) || Modifier.isAbstract(type.getModifiers()))
+        continue;
+
+      final data.Table table;
+      try {
+        table = (data.Table)type.getDeclaredConstructor().newInstance();
+      }
+      catch (final ReflectiveOperationException e) {
+        throw new IllegalStateException("Unable to instantiate " + type.getName(), e);
+      }
+
+      if (table.preloaded())
+        tables.add(table);
+    }
+
+    final ReferenceCache referenceCache = new ReferenceCache(registration, tables, unit.toNanos(refresh));
+    referenceCache.load(id);
+    registration.referenceCache = referenceCache;
+  }
+
+  /**
+   * Enables the reference cache of the default data source registered for the
+   * provided schema.
+   *
+   * @param schema The schema class.
+   * @param refresh The refresh interval of the reference tables.
+   * @param unit The {@link TimeUnit} of {@code refresh}.
+   * @throws IllegalArgumentException If {@code refresh} is not greater than 0.
+   * @throws IllegalStateException If no default data source is registered for
+   *           the provided schema.
+   * @throws IOException If an I/O error has occurred.
+   * @throws SQLException If a SQL error has occurred.
+   * @see #enableReferenceCache(Class,String,long,TimeUnit)
+   */
+  public void enableReferenceCache(final Class<? extends Schema> schema, final long refresh, final TimeUnit unit) throws IOException, SQLException {
+    enableReferenceCache(schema, null, refresh, unit);
+  }
+
+  /**
+   * Adds the provided {@link ExecutionListener}, which is notified of each
+   * execution of a {@code SELECT}, {@code INSERT}, {@code UPDATE} or
+   * {@code DELETE} statement, or of a {@link Batch}, on the data sources of
+   * this registry. Statements that are answered from a cache without
+   * accessing the database are not reported.
+   *
+   * @param listener The {@link ExecutionListener}.
+   * @throws IllegalArgumentException If {@code listener} is null.
+   */
+  public synchronized void addExecutionListener(final ExecutionListener listener) {
+    if (listener == null)
+      throw new IllegalArgumentException("listener == null");
+
+    final ExecutionListener[] listeners = this.executionListeners;
+    if (listeners == null) {
+      this.executionListeners = new ExecutionListener[] {listener};
+    }
+    else {
+      final ExecutionListener[] copy = Arrays.copyOf(listeners, listeners.length + 1);
+      copy[listeners.length] = listener;
+      this.executionListeners = copy;
+    }
+  }
+
+  /**
+   * Removes the provided {@link ExecutionListener}.
+   *
+   * @param listener The {@link ExecutionListener}.
+   * @return {@code true} if the listener was removed, otherwise
+   *         {@code false}.
+   */
+  public synchronized boolean removeExecutionListener(final ExecutionListener listener) {
+    final ExecutionListener[] listeners = this.executionListeners;
+    if (listeners == null)
       return false;
 
-    final Registration registration = registrations.get(id);
-    return registration != null && registration.isPrepared;
+    for (int i = 0; i < listeners.length; ++i) {
+      if (listeners[i] == listener) {
+        if (listeners.length == 1) {
+          this.executionListeners = null;
+        }
+        else {
+          final ExecutionListener[] copy = new ExecutionListener[listeners.length - 1];
+          System.arraycopy(listeners, 0, copy, 0, i);
+          System.arraycopy(listeners, i + 1, copy, i, copy.length - i);
+          this.executionListeners = copy;
+        }
+
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Sets the {@link SlowQueryLog} of the statements that are executed on the
+   * data sources of this registry.
+   *
+   * @param slowQueryLog The {@link SlowQueryLog}, or {@code null} to disable
+   *          the detection of slow statements.
+   */
+  public void setSlowQueryLog(final SlowQueryLog slowQueryLog) {
+    this.slowQueryLog = slowQueryLog;
   }
 
-  private void register(final Class<? extends Schema> schema, final Connector connector, final boolean prepared, final String id) {
+  /**
+   * Sets the {@link IndexAdvisor} of the statements that are executed on the
+   * data sources of this registry.
+   *
+   * @param indexAdvisor The {@link IndexAdvisor}, or {@code null} to disable
+   *          the observation of statements.
+   */
+  public void setIndexAdvisor(final IndexAdvisor indexAdvisor) {
+    this.indexAdvisor = indexAdvisor;
+  }
+
+  /**
+   * Registers the provided read replicas of the data source registered for
+   * the provided schema and id. The {@code SELECT} statements that are
+   * executed outside of a {@link Transaction}, or in a
+   * {@linkplain Transaction#setReadOnly(boolean) read-only}
+   * {@link Transaction}, are routed to the replicas according to the provided
+   * {@link Routing}. All other statements are executed against the primary
+   * data source. After a thread has executed an {@code INSERT},
+   * {@code UPDATE} or {@code DELETE} statement, its reads are routed to the
+   * primary data source for the provided pin-after-write time, whereby the
+   * thread reads its own writes despite replication lag. The writes of a
+   * {@link Transaction} pin the reads of the thread that commits it, from the
+   * time of the commit. The pin is held per thread, whereby an auto-commit
+   * write executed with {@code executeAsync} pins the thread of the async
+   * executor, and not the thread that submitted it.
+   *
+   * @param schema The schema class.
+   * @param id The data source id.
+   * @param routing The {@link Routing} of reads to the replicas.
+   * @param pinAfterWrite The time for which the reads of a thread are routed
+   *          to the primary data source after the thread has executed a write,
+   *          or {@code 0} to not pin reads.
+   * @param unit The {@link TimeUnit} of {@code pinAfterWrite}.
+   * @param replicas The {@link Connector}s of the read replicas.
+   * @throws IllegalArgumentException If {@code routing} or {@code replicas} is
+   *           null or empty, or if {@code pinAfterWrite} is negative.
+   * @throws IllegalStateException If no data source is registered for the
+   *           provided schema and id.
+   */
+  public void registerReplicas(final Class<? extends Schema> schema, final String id, final Routing routing, final long pinAfterWrite, final TimeUnit unit, final Connector ... replicas) {
+    if (routing == null)
+      throw new IllegalArgumentException("routing == null");
+
+    if (replicas == null || replicas.length == 0)
+      throw new IllegalArgumentException("replicas must not be empty");
+
+    if (pinAfterWrite < 0)
+      throw new IllegalArgumentException("pinAfterWrite (" + pinAfterWrite + ") must be greater than or equal to 0");
+
+    for (final Connector replica : replicas)
+      if (replica == null)
+        throw new IllegalArgumentException("replica == null");
+
+    final Registration registration = registration(schema, id);
+    if (registration == null)
+      throw new IllegalStateException("No data source is registered for " + (schema == null ? "null" : schema.getName()) + " with id \"" + id + "\"");
+
+    registration.replicas = new ReplicaSet(replicas.clone(), routing, unit.toNanos(pinAfterWrite));
+  }
+
+  /**
+   * Registers the provided read replicas of the default data source registered
+   * for the provided schema.
+   *
+   * @param schema The schema class.
+   * @param routing The {@link Routing} of reads to the replicas.
+   * @param pinAfterWrite The time for which the reads of a thread are routed
+   *          to the primary data source after the thread has executed a write,
+   *          or {@code 0} to not pin reads.
+   * @param unit The {@link TimeUnit} of {@code pinAfterWrite}.
+   * @param replicas The {@link Connector}s of the read replicas.
+   * @throws IllegalArgumentException If {@code routing} or {@code replicas} is
+   *           null or empty, or if {@code pinAfterWrite} is negative.
+   * @throws IllegalStateException If no default data source is registered for
+   *           the provided schema.
+   * @see #registerReplicas(Class,String,Routing,long,TimeUnit,Connector...)
+   */
+  public void registerReplicas(final Class<? extends Schema> schema, final Routing routing, final long pinAfterWrite, final TimeUnit unit, final Connector ... replicas) {
+    registerReplicas(schema, null, routing, pinAfterWrite, unit, replicas);
+  }
+
+  /**
+   * Registers a sharded data source with the provided id, whose rows are
+   * stored in the registered data sources with the provided shard ids. The
+   * {@code INSERT}, {@code UPDATE} and {@code DELETE} statements of an entity,
+   * and the {@code SELECT} statements of an entity whose set columns are
+   * exactly its primary key columns, that are executed with the id of the
+   * sharded data source are routed to the shard to which the primary key of
+   * the entity is mapped by the provided {@link ShardFunction}. All other
+   * {@code UPDATE} and {@code DELETE} statements are executed on all shards,
+   * and all other {@code SELECT} statements are executed on all shards
+   * concurrently, whereby the rows of the shards are merged in the order of
+   * the {@code ORDER BY} clause of the statement, and the {@code LIMIT} and
+   * {@code OFFSET} clauses of the statement are applied to the merged rows.
+   * <p>
+   * A {@link Transaction} is bound to a single data source, and therefore is
+   * to be opened with the id of a shard, which is provided by
+   * {@link #getShard(Class,String,data.Table)}.
+   *
+   * @param schema The schema class.
+   * @param id The id of the sharded data source.
+   * @param function The {@link ShardFunction} that maps a primary key to the
+   *          index of a shard in {@code shardIds}.
+   * @param shardIds The ids of the registered data sources of the shards.
+   * @throws IllegalArgumentException If {@code function} is null, if
+   *           {@code shardIds} is null or empty, or if a data source is
+   *           registered for the provided schema and id.
+   * @throws IllegalStateException If no data source is registered for the
+   *           provided schema and a shard id.
+   */
+  public void registerShards(final Class<? extends Schema> schema, final String id, final ShardFunction function, final String ... shardIds) {
+    if (function == null)
+      throw new IllegalArgumentException("function == null");
+
+    if (shardIds == null || shardIds.length == 0)
+      throw new IllegalArgumentException("shardIds must not be empty");
+
+    if (registration(schema, id) != null)
+      throw new IllegalArgumentException("A data source is registered for " + (schema == null ? "null" : schema.getName()) + " with id \"" + id + "\"");
+
+    for (final String shardId : shardIds)
+      if (registration(schema, shardId) == null)
+        throw new IllegalStateException("No data source is registered for " + (schema == null ? "null" : schema.getName()) + " with id \"" + shardId + "\"");
+
     if (logger.isDebugEnabled())
-      logger.debug("register(" + (schema == null ? "null" : schema.getName()) + "," + ObjectUtil.simpleIdentityString(connector) + "," + prepared + ",\"" + id + "\")");
+      logger.debug("registerShards(" + (schema == null ? "null" : schema.getName()) + ",\"" + id + "\"," + ObjectUtil.simpleIdentityString(function) + "," + Arrays.toString(shardIds) + ")");
+
+    ConcurrentNullHashMap<String,ShardSet> shardSets = this.shardSets.get(schema);
+    if (shardSets == null)
+      this.shardSets.put(schema, shardSets = new ConcurrentNullHashMap<>(2));
+
+    shardSets.put(id, new ShardSet(function, shardIds.clone()));
+  }
+
+  /**
+   * Returns the id of the shard of the sharded data source with the provided
+   * id, in which the row identified by the primary key of the provided
+   * {@link data.Table} is stored.
+   *
+   * @param schema The schema class.
+   * @param id The id of the sharded data source.
+   * @param table The {@link data.Table} whose primary key columns are set.
+   * @return The id of the shard in which the row identified by the primary key
+   *         of the provided {@link data.Table} is stored.
+   * @throws IllegalArgumentException If the primary key of the provided
+   *           {@link data.Table} is not set.
+   * @throws IllegalStateException If no sharded data source is registered for
+   *           the provided schema and id.
+   * @see #registerShards(Class,String,ShardFunction,String...)
+   */
+  public String getShard(final Class<? extends Schema> schema, final String id, final data.Table table) {
+    final ShardSet shardSet = shardSet(schema, id);
+    if (shardSet == null)
+      throw new IllegalStateException("No sharded data source is registered for " + (schema == null ? "null" : schema.getName()) + " with id \"" + id + "\"");
+
+    final String shard = shardSet.route(table);
+    if (shard == null)
+      throw new IllegalArgumentException("The primary key of " + table.name() + " is not set");
+
+    return shard;
+  }
+
+  private void register(final Class<? extends Schema> schema, final Connector connector, final boolean prepared, final int statementCacheSize, final String id) {
+    if (logger.isDebugEnabled())
+      logger.debug("register(" + (schema == null ? "null" : schema.getName()) + "," + ObjectUtil.simpleIdentityString(connector) + "," + prepared + "," + statementCacheSize + ",\"" + id + "\")");
 
     ConcurrentNullHashMap<String,Registration> registrations = this.registrations.get(schema);
     if (registrations == null)
       this.registrations.put(schema, registrations = new ConcurrentNullHashMap<>(2));
 
-    registrations.put(id, new Registration(connector, prepared));
+    registrations.put(id, new Registration(connector, prepared, statementCacheSize));
+  }
+
+  private static int assertStatementCacheSize(final int statementCacheSize) {
+    if (statementCacheSize <= 0)
+      throw new IllegalArgumentException("statementCacheSize (" + statementCacheSize + ") must be greater than 0");
+
+    return statementCacheSize;
   }
 
   public void register(final Class<? extends Schema> schema, final Connector connector) {
     if (connector == null)
       throw new IllegalArgumentException("connector == null");
 
-    register(schema, connector, false, null);
+    register(schema, connector, false, 0, null);
   }
 
   public void register(final Class<? extends Schema> schema, final Connector connector, final String id) {
     if (connector == null)
       throw new IllegalArgumentException("connector == null");
 
-    register(schema, connector, false, id);
+    register(schema, connector, false, 0, id);
   }
 
   public void register(final Class<? extends Schema> schema, final DataSource dataSource) {
-    register(schema, makeConnector(dataSource), false, null);
+    register(schema, makeConnector(dataSource), false, 0, null);
   }
 
   public void register(final Class<? extends Schema> schema, final DataSource dataSource, final String id) {
-    register(schema, makeConnector(dataSource), false, id);
+    register(schema, makeConnector(dataSource), false, 0, id);
   }
 
   public void registerPrepared(final Class<? extends Schema> schema, final Connector connector) {
     if (connector == null)
       throw new IllegalArgumentException("connector == null");
 
-    register(schema, connector, true, null);
+    register(schema, connector, true, 0, null);
   }
 
   public void registerPrepared(final Class<? extends Schema> schema, final Connector connector, final String id) {
     if (connector == null)
       throw new IllegalArgumentException("connector == null");
 
-    register(schema, connector, true, id);
+    register(schema, connector, true, 0, id);
   }
 
   public void registerPrepared(final Class<? extends Schema> schema, final DataSource dataSource) {
-    register(schema, makeConnector(dataSource), true, null);
+    register(schema, makeConnector(dataSource), true, 0, null);
   }
 
   public void registerPrepared(final Class<? extends Schema> schema, final DataSource dataSource, final String id) {
-    register(schema, makeConnector(dataSource), true, id);
+    register(schema, makeConnector(dataSource), true, 0, id);
+  }
+
+  /**
+   * Registers the provided {@link Connector} for prepared statement execution
+   * of the given schema, whereby each transaction's {@link Connection} caches up
+   * to {@code statementCacheSize} {@link PreparedStatement}s, evicting the
+   * least recently used statement when full.
+   *
+   * @param schema The schema class.
+   * @param connector The {@link Connector}.
+   * @param statementCacheSize The maximum number of {@link PreparedStatement}s
+   *          cached per {@link Connection}.
+   * @throws IllegalArgumentException If {@code connector} is null, or if
+   *           {@code statementCacheSize} is not greater than 0.
+   */
+  public void registerPrepared(final Class<? extends Schema> schema, final Connector connector, final int statementCacheSize) {
+    if (connector == null)
+      throw new IllegalArgumentException("connector == null");
+
+    register(schema, connector, true, assertStatementCacheSize(statementCacheSize), null);
+  }
+
+  /**
+   * Registers the provided {@link Connector} for prepared statement execution
+   * of the given schema and data source id, whereby each transaction's
+   * {@link Connection} caches up to {@code statementCacheSize}
+   * {@link PreparedStatement}s, evicting the least recently used statement when
+   * full.
+   *
+   * @param schema The schema class.
+   * @param connector The {@link Connector}.
+   * @param id The data source id.
+   * @param statementCacheSize The maximum number of {@link PreparedStatement}s
+   *          cached per {@link Connection}.
+   * @throws IllegalArgumentException If {@code connector} is null, or if
+   *           {@code statementCacheSize} is not greater than 0.
+   */
+  public void registerPrepared(final Class<? extends Schema> schema, final Connector connector, final String id, final int statementCacheSize) {
+    if (connector == null)
+      throw new IllegalArgumentException("connector == null");
+
+    register(schema, connector, true, assertStatementCacheSize(statementCacheSize), id);
+  }
+
+  /**
+   * Registers the provided {@link DataSource} for prepared statement execution
+   * of the given schema, whereby each transaction's {@link Connection} caches up
+   * to {@code statementCacheSize} {@link PreparedStatement}s, evicting the
+   * least recently used statement when full.
+   *
+   * @param schema The schema class.
+   * @param dataSource The {@link DataSource}.
+   * @param statementCacheSize The maximum number of {@link PreparedStatement}s
+   *          cached per {@link Connection}.
+   * @throws IllegalArgumentException If {@code dataSource} is null, or if
+   *           {@code statementCacheSize} is not greater than 0.
+   */
+  public void registerPrepared(final Class<? extends Schema> schema, final DataSource dataSource, final int statementCacheSize) {
+    register(schema, makeConnector(dataSource), true, assertStatementCacheSize(statementCacheSize), null);
+  }
+
+  /**
+   * Registers the provided {@link DataSource} for prepared statement execution
+   * of the given schema and data source id, whereby each transaction's
+   * {@link Connection} caches up to {@code statementCacheSize}
+   * {@link PreparedStatement}s, evicting the least recently used statement when
+   * full.
+   *
+   * @param schema The schema class.
+   * @param dataSource The {@link DataSource}.
+   * @param id The data source id.
+   * @param statementCacheSize The maximum number of {@link PreparedStatement}s
+   *          cached per {@link Connection}.
+   * @throws IllegalArgumentException If {@code dataSource} is null, or if
+   *           {@code statementCacheSize} is not greater than 0.
+   */
+  public void registerPrepared(final Class<? extends Schema> schema, final DataSource dataSource, final String id, final int statementCacheSize) {
+    register(schema, makeConnector(dataSource), true, assertStatementCacheSize(statementCacheSize), id);
   }
 
   private static volatile ThreadLocal<Registry> threadLocal;
@@ -153,6 +836,39 @@ public final class Registry {
     }
   }
 
+  /**
+   * Returns the thread-local {@link Registry} of the current thread, which is
+   * to be {@linkplain #install(Registry) installed} on the thread that
+   * executes a task on behalf of the current thread.
+   *
+   * @return The thread-local {@link Registry} of the current thread, or
+   *         {@code null} if {@link #threadLocal()} has not been used.
+   */
+  static Registry capture() {
+    final ThreadLocal<Registry> threadLocal = Registry.threadLocal;
+    return threadLocal == null ? null : threadLocal.get();
+  }
+
+  /**
+   * Sets the provided {@link Registry} as the thread-local {@link Registry} of
+   * the current thread.
+   *
+   * @param registry The {@link Registry} returned by {@link #capture()}, or
+   *          {@code null}.
+   * @return The previous thread-local {@link Registry} of the current thread,
+   *         which is to be restored with this method once the task has
+   *         finished, or {@code null} if {@code registry} is null.
+   */
+  static Registry install(final Registry registry) {
+    final ThreadLocal<Registry> threadLocal = Registry.threadLocal;
+    if (registry == null || threadLocal == null)
+      return null;
+
+    final Registry previous = threadLocal.get();
+    threadLocal.set(registry);
+    return previous;
+  }
+
   public static Registry global() {
     if (global != null)
       return global;
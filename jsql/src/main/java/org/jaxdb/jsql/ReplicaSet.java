@@ -0,0 +1,188 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb.jsql;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.jaxdb.vendor.DBVendor;
+
+/**
+ * The read replicas of a registered data source, to which the {@code SELECT}
+ * statements that are executed outside of a {@link Transaction}, or in a
+ * {@linkplain Transaction#setReadOnly(boolean) read-only} {@link Transaction},
+ * are routed.
+ */
+final class ReplicaSet {
+  private final Connector[] replicas;
+  private final Registry.Routing routing;
+  private final long pinAfterWrite;
+  private final AtomicInteger next = new AtomicInteger();
+  private final AtomicInteger[] loads;
+  // Whether the Compiler has been initialized with a connection to each replica, being 0 or 1
+  private final AtomicIntegerArray initialized;
+  private final ThreadLocal<long[]> pinnedUntil = ThreadLocal.withInitial(() -> new long[1]);
+
+  /**
+   * Creates a new {@link ReplicaSet}.
+   *
+   * @param replicas The {@link Connector}s of the read replicas.
+   * @param routing The {@link Registry.Routing} of reads to the replicas.
+   * @param pinAfterWrite The time for which the reads of a thread are routed
+   *          to the primary data source after the thread has executed a write,
+   *          in nanoseconds, or {@code 0} to not pin reads.
+   */
+  ReplicaSet(final Connector[] replicas, final Registry.Routing routing, final long pinAfterWrite) {
+    this.replicas = replicas;
+    this.routing = routing;
+    this.pinAfterWrite = pinAfterWrite;
+    this.loads = new AtomicInteger[replicas.length];
+    this.initialized = new AtomicIntegerArray(replicas.length);
+    for (int i = 0; i < replicas.length; ++i)
+      loads[i] = new AtomicInteger();
+  }
+
+  /**
+   * Pins the reads of the current thread to the primary data source for the
+   * pin-after-write time of this {@link ReplicaSet}. The pin is held by the
+   * current thread, whereby a write executed on the async executor pins the
+   * reads of the executor thread, not of the thread that submitted it.
+   */
+  void pin() {
+    if (pinAfterWrite > 0)
+      pinnedUntil.get()[0] = System.nanoTime() + pinAfterWrite;
+  }
+
+  /**
+   * @return Whether the reads of the current thread are pinned to the primary
+   *         data source.
+   */
+  boolean isPinned() {
+    final long until = pinnedUntil.get()[0];
+    return until != 0 && until - System.nanoTime() > 0;
+  }
+
+  /**
+   * Returns a {@link Connection} to the read replica selected by the
+   * {@link Registry.Routing} of this {@link ReplicaSet}.
+   *
+   * @return A {@link Connection} to a read replica.
+   * @throws SQLException If a SQL error has occurred.
+   */
+  Connection getConnection() throws SQLException {
+    if (routing == Registry.Routing.ROUND_ROBIN)
+      return connect((next.getAndIncrement() & Integer.MAX_VALUE) % replicas.length);
+
+    int index = 0;
+    for (int i = 1, min = loads[0].get(); i < loads.length; ++i) {
+      final int load = loads[i].get();
+      if (load < min) {
+        min = load;
+        index = i;
+      }
+    }
+
+    final AtomicInteger load = loads[index];
+    load.incrementAndGet();
+    final Connection connection;
+    try {
+      connection = connect(index);
+    }
+    catch (final SQLException | RuntimeException e) {
+      load.decrementAndGet();
+      throw e;
+    }
+
+    final boolean[] closed = {false};
+    return (Connection)Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+      if ("close".equals(method.getName()) || "abort".equals(method.getName())) {
+        synchronized (closed) {
+          if (!closed[0]) {
+            closed[0] = true;
+            load.decrementAndGet();
+          }
+        }
+      }
+
+      try {
+        return method.invoke(connection, args);
+      }
+      catch (final InvocationTargetException e) {
+        throw e.getCause();
+      }
+    });
+  }
+
+  /**
+   * Returns a {@link Connection} to the read replica at the provided index.
+   * The {@link Compiler} of the vendor of the replica is initialized with the
+   * first {@link Connection} to the replica, as it is for the primary data
+   * source by {@link Registry.Registration#getVendor(Connection)}.
+   *
+   * @param index The index of the read replica.
+   * @return A {@link Connection} to the read replica at the provided index.
+   * @throws SQLException If a SQL error has occurred.
+   */
+  private Connection connect(final int index) throws SQLException {
+    final Connection connection = replicas[index].getConnection();
+    if (initialized.get(index) != 0)
+      return connection;
+
+    synchronized (initialized) {
+      if (initialized.get(index) != 0)
+        return connection;
+
+      try {
+        final Compiler compiler = Compiler.getCompiler(DBVendor.valueOf(connection.getMetaData()));
+        compiler.onConnect(connection);
+        compiler.onRegister(connection);
+        if (!connection.getAutoCommit())
+          connection.commit();
+      }
+      catch (final SQLException | RuntimeException e) {
+        try {
+          connection.close();
+        }
+        catch (final SQLException e1) {
+          e.addSuppressed(e1);
+        }
+
+        throw e;
+      }
+
+      initialized.set(index, 1);
+      return connection;
+    }
+  }
+
+  /**
+   * @return The number of open {@link Connection}s to each read replica, if
+   *         the {@link Registry.Routing} of this {@link ReplicaSet} is
+   *         {@link Registry.Routing#LEAST_LOADED}.
+   */
+  int[] getLoads() {
+    final int[] loads = new int[this.loads.length];
+    for (int i = 0; i < loads.length; ++i)
+      loads[i] = this.loads[i].get();
+
+    return loads;
+  }
+}
@@ -0,0 +1,272 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb.jsql;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Least-recently-used cache of the results of {@code SELECT} statements of a
+ * registered data source, shared by all threads, and keyed by the compiled SQL
+ * and the values of the bound parameters of the statement. Only the results of
+ * statements executed with a {@link QueryConfig} that specifies a
+ * {@linkplain QueryConfig.Builder#withResultCache(long,java.util.concurrent.TimeUnit)
+ * time-to-live} are cached. The cache holds copies of the rows read from the
+ * database, and returns copies of the cached rows, whereby cached rows are
+ * never exposed to the application.
+ * <p>
+ * Each entry depends on the tables of the {@code FROM} and {@code JOIN}
+ * clauses of its statement, and of the statements of its {@code UNION}
+ * clauses. Entries are invalidated when {@code INSERT}, {@code UPDATE} and
+ * {@code DELETE} statements of the tables on which they depend are executed in
+ * auto-commit mode, or when the {@link Transaction} in which they are executed
+ * is committed. A result read from the database is not cached if an
+ * invalidation has occurred since the start of the query that read it.
+ */
+final class ResultCache {
+  static final class Key {
+    private final String sql;
+    private final Object[] parameters;
+    private final QueryConfig config;
+    private final int hashCode;
+
+    private Key(final String sql, final Object[] parameters, final QueryConfig config) {
+      this.sql = sql;
+      this.parameters = parameters;
+      this.config = config;
+      this.hashCode = 31 * (31 * sql.hashCode() + Arrays.deepHashCode(parameters)) + config.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (obj == this)
+        return true;
+
+      if (!(obj instanceof Key))
+        return false;
+
+      final Key that = (Key)obj;
+      return hashCode == that.hashCode && sql.equals(that.sql) && Arrays.deepEquals(parameters, that.parameters) && config.equals(that.config);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  private static final class Entry {
+    private final List<data.Entity<?>[]> rows;
+    private final Set<Class<? extends data.Table>> tables;
+    private final long expiry;
+
+    private Entry(final List<data.Entity<?>[]> rows, final Set<Class<? extends data.Table>> tables, final long expiry) {
+      this.rows = rows;
+      this.tables = tables;
+      this.expiry = expiry;
+    }
+  }
+
+  /**
+   * Returns the {@link Key} of the provided compiled statement, or
+   * {@code null} if a bound parameter is a large object, whose value cannot be
+   * compared.
+   *
+   * @param compilation The {@link Compilation} of the statement.
+   * @param config The {@link QueryConfig} of the statement.
+   * @return The {@link Key} of the provided compiled statement, or
+   *         {@code null}.
+   */
+  static Key key(final Compilation compilation, final QueryConfig config) {
+    final List<data.Column<?>> parameters = compilation.getParameters();
+    final int size = parameters == null ? 0 : parameters.size();
+    final Object[] values = new Object[size];
+    for (int i = 0; i < size; ++i) {
+      final data.Column<?> parameter = parameters.get(i);
+      if (parameter instanceof data.LargeObject)
+        return null;
+
+      values[i] = parameter.get();
+    }
+
+    return new Key(compilation.toString(), values, config);
+  }
+
+  /**
+   * Returns a copy of the provided row that is detached from the
+   * {@link Compilation} that produced it, or {@code null} if the row has a
+   * large object column, whose value cannot be copied.
+   *
+   * @param row The row to copy.
+   * @return A copy of the provided row, or {@code null}.
+   */
+  @SuppressWarnings("unchecked")
+  static data.Entity<?>[] copy(final data.Entity<?>[] row) {
+    final data.Entity<?>[] copy = new data.Entity<?>[row.length];
+    for (int i = 0; i < row.length; ++i) {
+      final data.Entity<?> entity = row[i];
+      if (entity instanceof data.Table) {
+        if ((copy[i] = EntityCache.copy((data.Table)entity)) == null)
+          return null;
+      }
+      else if (entity instanceof data.LargeObject) {
+        return null;
+      }
+      else {
+        final data.Column<Object> column = ((data.Column<Object>)entity).clone();
+        column.setValue(((data.Column<?>)entity).get());
+        copy[i] = column;
+      }
+    }
+
+    return copy;
+  }
+
+  /**
+   * Returns an estimate of the number of bytes retained by the provided row.
+   *
+   * @param row The row.
+   * @return An estimate of the number of bytes retained by the provided row.
+   */
+  static long sizeOf(final data.Entity<?>[] row) {
+    long size = 16 + 8 * row.length;
+    for (final data.Entity<?> entity : row) {
+      if (entity instanceof data.Table) {
+        for (final data.Column<?> column : ((data.Table)entity)._column$)
+          size += sizeOf(column);
+      }
+      else {
+        size += sizeOf((data.Column<?>)entity);
+      }
+    }
+
+    return size;
+  }
+
+  private static long sizeOf(final data.Column<?> column) {
+    final Object value = column.get();
+    if (value instanceof String)
+      return 64 + 2 * ((String)value).length();
+
+    if (value instanceof byte[])
+      return 64 + ((byte[])value).length;
+
+    return 48;
+  }
+
+  private final int maxSize;
+  private final CacheStatistics statistics = new CacheStatistics();
+  private final LinkedHashMap<Key,Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long generation;
+
+  ResultCache(final int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  CacheStatistics getStatistics() {
+    return statistics;
+  }
+
+  /**
+   * @return The number of invalidations of this cache, which is to be provided
+   *         to {@link #put(Key,List,Set,long,long)} for the result of a query
+   *         that is started thereafter.
+   */
+  synchronized long generation() {
+    return generation;
+  }
+
+  /**
+   * Returns copies of the cached rows of the provided {@link Key}.
+   *
+   * @param key The {@link Key} of the statement.
+   * @return Copies of the cached rows of the provided {@link Key}, or
+   *         {@code null} if the result is not cached, or has expired.
+   */
+  List<data.Entity<?>[]> get(final Key key) {
+    final Entry entry;
+    synchronized (this) {
+      entry = entries.get(key);
+      if (entry != null && entry.expiry - System.nanoTime() <= 0) {
+        entries.remove(key);
+        statistics.evict();
+        statistics.miss();
+        return null;
+      }
+    }
+
+    if (entry == null) {
+      statistics.miss();
+      return null;
+    }
+
+    statistics.hit();
+    final List<data.Entity<?>[]> rows = entry.rows;
+    final ArrayList<data.Entity<?>[]> copies = new ArrayList<>(rows.size());
+    for (int i = 0, len = rows.size(); i < len; ++i)
+      copies.add(copy(rows.get(i)));
+
+    return copies;
+  }
+
+  /**
+   * Evicts the cached results that depend on any of the provided classes.
+   *
+   * @param tables The classes of {@link data.Table} that have been modified.
+   */
+  synchronized void invalidate(final Set<Class<?>> tables) {
+    ++generation;
+    final Iterator<Entry> iterator = entries.values().iterator();
+    while (iterator.hasNext()) {
+      for (final Class<? extends data.Table> table : iterator.next().tables) {
+        if (tables.contains(table)) {
+          iterator.remove();
+          break;
+        }
+      }
+    }
+  }
+
+  /**
+   * Caches the provided detached rows of a statement, unless this cache has
+   * been invalidated since the query that read the rows was started.
+   *
+   * @param key The {@link Key} of the statement.
+   * @param rows The detached rows read from the database.
+   * @param tables The classes of {@link data.Table} on which the result
+   *          depends.
+   * @param ttl The time-to-live of the result, in nanoseconds.
+   * @param generation The {@linkplain #generation() generation} of this cache
+   *          at the start of the query that read the rows.
+   */
+  synchronized void put(final Key key, final List<data.Entity<?>[]> rows, final Set<Class<? extends data.Table>> tables, final long ttl, final long generation) {
+    if (generation != this.generation)
+      return;
+
+    entries.put(key, new Entry(rows, tables, System.nanoTime() + ttl));
+    if (entries.size() > maxSize) {
+      final Iterator<Entry> iterator = entries.values().iterator();
+      iterator.next();
+      iterator.remove();
+      statistics.evict();
+    }
+  }
+}
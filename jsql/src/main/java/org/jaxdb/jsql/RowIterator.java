@@ -20,6 +20,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 
+import org.jaxdb.vendor.DBVendor;
 import org.libj.sql.exception.SQLExceptions;
 
 public abstract class RowIterator<D extends data.Entity<?>> implements AutoCloseable {
@@ -70,6 +71,8 @@ public abstract class RowIterator<D extends data.Entity<?>> implements AutoClose
   final ResultSet resultSet;
   private final Type type;
   private final Concurrency concurrency;
+  final boolean streaming;
+  final boolean flyweight;
 
   final ArrayList<D[]> rows = new ArrayList<>();
 
@@ -79,23 +82,72 @@ public abstract class RowIterator<D extends data.Entity<?>> implements AutoClose
 
   private D[] entities;
   private int entityIndex = -1;
+  private Compiler compiler;
+  private Runnable onClose;
 
   public RowIterator(final ResultSet resultSet, final QueryConfig config) {
     this.resultSet = resultSet;
     if (config != null) {
       this.type = config.getType();
       this.concurrency = config.getConcurrency();
+      this.streaming = config.isStreaming();
+      this.flyweight = config.isFlyweight();
     }
     else {
       this.type = Type.FORWARD_ONLY;
       this.concurrency = Concurrency.READ_ONLY;
+      this.streaming = false;
+      this.flyweight = false;
     }
   }
 
+  RowIterator(final ResultSet resultSet, final QueryConfig config, final Compiler compiler) {
+    this(resultSet, config);
+    this.compiler = compiler;
+  }
+
   public RowIterator(final ResultSet resultSet) {
     this.resultSet = resultSet;
     this.type = Type.FORWARD_ONLY;
     this.concurrency = Concurrency.READ_ONLY;
+    this.streaming = false;
+    this.flyweight = false;
+  }
+
+  /**
+   * @return The {@link Compiler} of the vendor of the connection of the
+   *         {@link ResultSet}, which is resolved once per {@link RowIterator}.
+   * @throws SQLException If a SQL error has occurred.
+   */
+  Compiler getCompiler() throws SQLException {
+    return compiler != null ? compiler : (compiler = Compiler.getCompiler(DBVendor.valueOf(resultSet.getStatement().getConnection().getMetaData())));
+  }
+
+  /**
+   * Sets the action to be run once this {@link RowIterator} is closed, or runs
+   * it immediately if this {@link RowIterator} is not backed by a
+   * {@link ResultSet}.
+   *
+   * @param onClose The action to be run once this {@link RowIterator} is
+   *          closed.
+   */
+  final void onClose(final Runnable onClose) {
+    if (resultSet == null)
+      onClose.run();
+    else
+      this.onClose = onClose;
+  }
+
+  /**
+   * Runs the action set with {@link #onClose(Runnable)}, if any. To be called
+   * by {@link #close()} once the {@link ResultSet} has been closed.
+   */
+  final void closed() {
+    final Runnable onClose = this.onClose;
+    if (onClose != null) {
+      this.onClose = null;
+      onClose.run();
+    }
   }
 
   public Type getType() {
@@ -110,7 +162,34 @@ public abstract class RowIterator<D extends data.Entity<?>> implements AutoClose
     return Holdability.fromInt(resultSet.getHoldability());
   }
 
+  /**
+   * @return Whether this {@link RowIterator} retains only the current row.
+   * @see QueryConfig.Builder#withStreaming(boolean)
+   */
+  public boolean isStreaming() {
+    return this.streaming;
+  }
+
+  /**
+   * @return Whether this {@link RowIterator} reuses one set of entity
+   *         instances for all rows.
+   * @see QueryConfig.Builder#withFlyweight(boolean)
+   */
+  public boolean isFlyweight() {
+    return this.flyweight;
+  }
+
+  /**
+   * Moves to the previous row.
+   *
+   * @return {@code true} if the previous row exists, otherwise {@code false}.
+   * @throws UnsupportedOperationException If this {@link RowIterator} is
+   *           {@linkplain #isStreaming() streaming}.
+   */
   public boolean previousRow() {
+    if (streaming)
+      throw new UnsupportedOperationException("previousRow() is not supported by a streaming RowIterator");
+
     if (rowIndex <= 0)
       return false;
 
@@ -138,6 +217,20 @@ public abstract class RowIterator<D extends data.Entity<?>> implements AutoClose
     }
   }
 
+  void addRow(final D[] row) {
+    if (streaming) {
+      rows.clear();
+      rowIndex = -1;
+    }
+
+    rows.add(row);
+    ++rowIndex;
+  }
+
+  D[] currentRow() {
+    return rows.get(rowIndex);
+  }
+
   void resetEntities() {
     entities = rows.get(rowIndex);
     entityIndex = -1;
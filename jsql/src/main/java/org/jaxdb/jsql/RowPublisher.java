@@ -0,0 +1,215 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb.jsql;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * A {@link Publisher} of the rows of a {@code SELECT} statement. The statement
+ * is executed for each subscriber once the subscriber first requests rows,
+ * and rows are read from the {@link java.sql.ResultSet} only as they are
+ * requested. Unless a fetch size is specified in the {@link QueryConfig}, the
+ * fetch size of the {@link java.sql.ResultSet} follows the outstanding demand
+ * of the subscriber, up to {@link #MAX_FETCH_SIZE}. The statement is executed
+ * on the {@linkplain Executable#getAsyncExecutor() async executor}, with the
+ * {@link Registry#threadLocal()} of the subscribing thread.
+ *
+ * @param <D> The type of the result entities.
+ */
+final class RowPublisher<D extends data.Entity<?>> implements Publisher<D[]> {
+  static final int MAX_FETCH_SIZE = 1024;
+
+  private static int fetchSize(final long demand) {
+    return (int)Math.min(demand, MAX_FETCH_SIZE);
+  }
+
+  private final class RowSubscription implements Subscription, Runnable {
+    private final Subscriber<? super D[]> subscriber;
+    private final Executor executor;
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final CompletableFuture<Void> finished = new CompletableFuture<>();
+    // The thread-local Registry of the subscribing thread, whose registrations are to be visible to the query
+    private final Registry registry = Registry.capture();
+    private volatile boolean started;
+    private volatile boolean cancelled;
+    private volatile Throwable invalid;
+    private RowIterator<D> rows;
+    private int fetchSize;
+    private boolean done;
+
+    private RowSubscription(final Subscriber<? super D[]> subscriber, final Executor executor) {
+      this.subscriber = subscriber;
+      this.executor = executor;
+    }
+
+    private void start() {
+      started = true;
+      schedule();
+    }
+
+    @Override
+    public void request(final long n) {
+      if (n <= 0)
+        invalid = new IllegalArgumentException("n (" + n + ") must be greater than 0");
+      else
+        demand.accumulateAndGet(n, (a, b) -> a + b < 0 ? Long.MAX_VALUE : a + b);
+
+      schedule();
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      schedule();
+    }
+
+    private void schedule() {
+      if (!started || wip.getAndIncrement() != 0)
+        return;
+
+      try {
+        executor.execute(this);
+      }
+      catch (final RejectedExecutionException e) {
+        invalid = e;
+        run();
+      }
+    }
+
+    @Override
+    public void run() {
+      final Registry previous = Registry.install(registry);
+      try {
+        int missed = 1;
+        do {
+          drain();
+          missed = wip.addAndGet(-missed);
+        }
+        while (missed != 0);
+      }
+      finally {
+        Registry.install(previous);
+      }
+    }
+
+    private void drain() {
+      if (done)
+        return;
+
+      try {
+        if (cancelled) {
+          terminate(null, false);
+          return;
+        }
+
+        if (invalid != null) {
+          terminate(invalid, true);
+          return;
+        }
+
+        for (long n; (n = demand.get()) > 0;) {
+          if (rows == null) {
+            final QueryConfig config = RowPublisher.this.config != null ? RowPublisher.this.config : new QueryConfig.Builder().withFetchSize(fetchSize = fetchSize(n)).build();
+            rows = transaction != null ? query.execute(transaction, config) : query.execute(dataSourceId, config);
+          }
+          else if ((config == null || config.getFetchSize() == -1) && fetchSize != fetchSize(n) && rows.resultSet != null) {
+            rows.resultSet.setFetchSize(fetchSize = fetchSize(n));
+          }
+
+          long emitted = 0;
+          for (; emitted < n; ++emitted) {
+            if (cancelled) {
+              terminate(null, false);
+              return;
+            }
+
+            if (!rows.nextRow()) {
+              terminate(null, true);
+              return;
+            }
+
+            subscriber.onNext(rows.currentRow());
+          }
+
+          if (n != Long.MAX_VALUE)
+            demand.addAndGet(-emitted);
+        }
+      }
+      catch (final Throwable t) {
+        terminate(t, !cancelled);
+      }
+    }
+
+    private void terminate(Throwable t, final boolean signal) {
+      done = true;
+      if (rows != null) {
+        try {
+          rows.close();
+        }
+        catch (final Throwable e) {
+          if (t == null)
+            t = e;
+          else
+            t.addSuppressed(e);
+        }
+
+        rows = null;
+      }
+
+      finished.complete(null);
+      if (!signal)
+        return;
+
+      if (t != null)
+        subscriber.onError(t);
+      else
+        subscriber.onComplete();
+    }
+  }
+
+  private final Executable.Query<D> query;
+  private final Transaction transaction;
+  private final String dataSourceId;
+  private final QueryConfig config;
+
+  RowPublisher(final Executable.Query<D> query, final Transaction transaction, final String dataSourceId, final QueryConfig config) {
+    this.query = query;
+    this.transaction = transaction;
+    this.dataSourceId = dataSourceId;
+    this.config = config;
+  }
+
+  @Override
+  public void subscribe(final Subscriber<? super D[]> subscriber) {
+    final RowSubscription subscription = new RowSubscription(Objects.requireNonNull(subscriber), AsyncExecution.getExecutor());
+    subscriber.onSubscribe(subscription);
+    if (transaction != null)
+      transaction.enqueue(subscription::start, subscription.finished);
+    else
+      subscription.start();
+  }
+}
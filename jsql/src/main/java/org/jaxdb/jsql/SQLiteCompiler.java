@@ -29,7 +29,10 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.temporal.TemporalUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.jaxdb.vendor.DBVendor;
@@ -38,6 +41,8 @@ import org.libj.io.Readers;
 import org.libj.io.Streams;
 
 final class SQLiteCompiler extends Compiler {
+  private static final Pattern planScanPattern = Pattern.compile("(SCAN|SEARCH)(?: TABLE)? (?!CONSTANT ROW|SUBQUERY )(\\S+)(?: AS \\S+)?( USING (?:AUTOMATIC )?(COVERING )?(?:INDEX(?: ([^\\s(]+))?|((?:INTEGER )?PRIMARY KEY)))?");
+  private static final Pattern planRowsPattern = Pattern.compile("~(\\d+) rows");
   private static final Pattern dateTimePattern = Pattern.compile("\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}(\\.\\d{1,7})?");
 
   SQLiteCompiler() {
@@ -367,4 +372,53 @@ final class SQLiteCompiler extends Compiler {
   boolean supportsReturnGeneratedKeysBatch() {
     return false;
   }
-}
\ No newline at end of file
+
+  @Override
+  String compileExplain(final String sql) {
+    return "EXPLAIN QUERY PLAN " + sql;
+  }
+
+  @Override
+  List<QueryPlan.Node> parsePlan(final String[] labels, final List<String[]> rows) {
+    final int detail = indexOf(labels, "detail");
+    if (detail == -1)
+      return super.parsePlan(labels, rows);
+
+    final int id = indexOf(labels, "id");
+    final int parent = indexOf(labels, "parent");
+    final ArrayList<QueryPlan.Node> roots = new ArrayList<>();
+    final HashMap<String,QueryPlan.Node> nodes = new HashMap<>();
+    for (final String[] row : rows) {
+      final QueryPlan.Node node = parsePlanNode(row[detail]);
+      final QueryPlan.Node parentNode = parent == -1 ? null : nodes.get(row[parent]);
+      if (parentNode != null)
+        parentNode.add(node);
+      else
+        roots.add(node);
+
+      if (id != -1)
+        nodes.put(row[id], node);
+    }
+
+    return roots;
+  }
+
+  private static QueryPlan.Node parsePlanNode(final String detail) {
+    final Matcher estimate = planRowsPattern.matcher(detail);
+    final long estimatedRows = estimate.find() ? Long.parseLong(estimate.group(1)) : -1;
+    final Matcher matcher = planScanPattern.matcher(detail);
+    if (!matcher.lookingAt())
+      return new QueryPlan.Node(detail, QueryPlan.ScanType.OTHER, null, null, estimatedRows);
+
+    final String index = matcher.group(5) != null ? matcher.group(5) : matcher.group(6);
+    final QueryPlan.ScanType scanType;
+    if (matcher.group(4) != null)
+      scanType = QueryPlan.ScanType.COVERING_INDEX_SCAN;
+    else if (matcher.group(3) != null)
+      scanType = QueryPlan.ScanType.INDEX_SCAN;
+    else
+      scanType = "SCAN".equals(matcher.group(1)) ? QueryPlan.ScanType.TABLE_SCAN : QueryPlan.ScanType.OTHER;
+
+    return new QueryPlan.Node(detail, scanType, matcher.group(2), index, estimatedRows);
+  }
+}
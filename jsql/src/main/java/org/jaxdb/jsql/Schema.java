@@ -17,44 +17,58 @@
 package org.jaxdb.jsql;
 
 import java.sql.Connection;
-import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
-import java.util.concurrent.ConcurrentHashMap;
 
 import org.jaxdb.vendor.DBVendor;
 import org.libj.sql.exception.SQLExceptions;
 import org.libj.sql.exception.SQLInvalidSchemaNameException;
-import org.libj.util.ConcurrentHashSet;
 
 public abstract class Schema {
-  private static final ConcurrentHashMap<String,ConcurrentHashSet<Class<? extends Schema>>> initialized = new ConcurrentHashMap<>();
+  static Registry.Registration getRegistration(final Class<? extends Schema> schema, final String dataSourceId) throws SQLException {
+    final Registry.Registration registration = Registry.getRegistration(schema, dataSourceId);
+    if (registration == null)
+      throw new SQLInvalidSchemaNameException("No " + Connector.class.getName() + " registered for " + (schema == null ? null : schema.getName()) + ", id: " + dataSourceId);
+
+    return registration;
+  }
 
   static Connection getConnection(final Class<? extends Schema> schema, final String dataSourceId, final boolean autoCommit) throws SQLException {
-    final Connector connector = Registry.getConnector(schema, dataSourceId);
-    if (connector == null)
-      throw new SQLInvalidSchemaNameException("No " + Connector.class.getName() + " registered for " + (schema == null ? null : schema.getName()) + ", id: " + dataSourceId);
+    return getConnection(getRegistration(schema, dataSourceId), autoCommit);
+  }
+
+  /**
+   * Returns a {@link Connection} for the execution of reads, which is to a
+   * read replica of the registered data source, if replicas are registered
+   * and the reads of the current thread are not pinned to the primary data
+   * source, otherwise to the primary data source.
+   *
+   * @param schema The schema class.
+   * @param dataSourceId The data source id.
+   * @param autoCommit The auto-commit mode of the {@link Connection}.
+   * @return A {@link Connection} for the execution of reads.
+   * @throws SQLException If a SQL error has occurred.
+   */
+  static Connection getReadConnection(final Class<? extends Schema> schema, final String dataSourceId, final boolean autoCommit) throws SQLException {
+    final Registry.Registration registration = getRegistration(schema, dataSourceId);
+    final ReplicaSet replicas = registration.replicas;
+    // The vendor is resolved from the primary, so that the Compiler initializes the primary
+    if (replicas == null || !registration.hasVendor() || replicas.isPinned())
+      return getConnection(registration, autoCommit);
 
     try {
-      final Connection connection = connector.getConnection();
-      final String url = connection.getMetaData().getURL();
-      ConcurrentHashSet<Class<? extends Schema>> schemas = initialized.get(url);
-      final DatabaseMetaData metaData = connection.getMetaData();
-      if (schemas == null) {
-        initialized.put(url, schemas = new ConcurrentHashSet<>());
-        schemas.add(schema);
-        final Compiler compiler = Compiler.getCompiler(DBVendor.valueOf(metaData));
-        compiler.onConnect(connection);
-        compiler.onRegister(connection);
-        if (!connection.getAutoCommit())
-          connection.commit();
-      }
-      else if (schemas.add(schema)) {
-        final Compiler compiler = Compiler.getCompiler(DBVendor.valueOf(metaData));
-        compiler.onRegister(connection);
-        if (!connection.getAutoCommit())
-          connection.commit();
-      }
+      final Connection connection = replicas.getConnection();
+      connection.setAutoCommit(autoCommit);
+      return connection;
+    }
+    catch (final SQLException e) {
+      throw SQLExceptions.toStrongType(e);
+    }
+  }
 
+  static Connection getConnection(final Registry.Registration registration, final boolean autoCommit) throws SQLException {
+    try {
+      final Connection connection = registration.connector.getConnection();
+      registration.getVendor(connection);
       connection.setAutoCommit(autoCommit);
       return connection;
     }
@@ -62,4 +76,13 @@ public abstract class Schema {
       throw SQLExceptions.toStrongType(e);
     }
   }
-}
\ No newline at end of file
+
+  static DBVendor getDBVendor(final Class<? extends Schema> schema, final String dataSourceId, final Connection connection) throws SQLException {
+    try {
+      return getRegistration(schema, dataSourceId).getVendor(connection);
+    }
+    catch (final SQLException e) {
+      throw SQLExceptions.toStrongType(e);
+    }
+  }
+}
@@ -17,6 +17,8 @@
 package org.jaxdb.jsql;
 
 import java.io.Closeable;
+import java.io.IOException;
+import java.sql.SQLException;
 
 public interface Select {
   interface untyped {
@@ -25,6 +27,21 @@ public interface Select {
 
     interface SELECT<D extends data.Entity<?>> extends Executable.Query<D>, _UNION<D> {
       D AS(D as);
+
+      /**
+       * Returns the {@link QueryPlan} of this statement on the data source
+       * registered for the provided id, as reported by the vendor. For Derby,
+       * the plan is obtained from the runtime statistics of the statement,
+       * whereby the statement is executed.
+       *
+       * @param dataSourceId The data source id.
+       * @return The {@link QueryPlan} of this statement.
+       * @throws IOException If an I/O error has occurred.
+       * @throws SQLException If a SQL error has occurred.
+       */
+      QueryPlan explain(String dataSourceId) throws IOException, SQLException;
+      QueryPlan explain(Transaction transaction) throws IOException, SQLException;
+      QueryPlan explain() throws IOException, SQLException;
     }
 
     interface _FROM<D extends data.Entity<?>> {
@@ -24,6 +24,8 @@ import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Predicate;
@@ -31,7 +33,6 @@ import java.util.function.Predicate;
 import org.jaxdb.vendor.DBVendor;
 import org.libj.lang.Throwables;
 import org.libj.sql.AuditConnection;
-import org.libj.sql.AuditStatement;
 import org.libj.sql.ResultSets;
 import org.libj.sql.exception.SQLExceptions;
 
@@ -127,6 +128,9 @@ final class SelectImpl {
         }
       }
 
+      // Maximum number of distinct entities a streaming RowIterator remembers for de-duplication
+      private static final int STREAMING_CACHE_SIZE = 1024;
+
       private boolean tableMutex;
       private data.Table table;
 
@@ -157,6 +161,7 @@ final class SelectImpl {
       private boolean isObjectQuery;
       private boolean whereMutex;
       private Condition<?> where;
+      private ArrayList<data.Column<?>> objectParameters;
 
       SELECT(final boolean distinct, final type.Entity<?>[] entities) {
         if (entities.length < 1)
@@ -360,25 +365,394 @@ final class SelectImpl {
         return Arrays.stream(entities).filter(entitiesWithOwnerPredicate).toArray(type.Entity<?>[]::new);
       }
 
+      private Compilation newCompilation(final Template template, final DBVendor vendor, final String dataSourceId) throws IOException, SQLException {
+        bindObjectParameters();
+        if (template != null)
+          return template.getCompilation(vendor);
+
+        return Compilation.compile(this, vendor, Registry.isPrepared(schema(), dataSourceId));
+      }
+
+      /**
+       * Returns the entity of this statement if this statement is an object
+       * query of a single table whose set columns are exactly its primary key
+       * columns, otherwise {@code null}.
+       *
+       * @return The entity of this statement if this statement is a primary
+       *         key lookup, otherwise {@code null}.
+       */
+      @Override
+      data.Table getPrimaryKeyEntity() {
+        if (entities.length != 1 || !(entities[0] instanceof data.Table) || from() == null || !isObjectQuery)
+          return null;
+
+        if (joins != null || groupBy != null || having != null || unions != null || orderBy != null || limit != -1 || offset != -1 || forLockStrength != null)
+          return null;
+
+        final data.Table table = (data.Table)entities[0];
+        if (table._primary$.length == 0)
+          return null;
+
+        for (final data.Column<?> column : table._column$)
+          if (column.wasSet() != column.primary)
+            return null;
+
+        return table;
+      }
+
+      /**
+       * Returns the entity of this statement if this statement selects all
+       * columns of a single table declared with {@code jsql:preload="true"},
+       * without clauses other than {@code WHERE}, otherwise {@code null}.
+       *
+       * @return The entity of this statement if this statement can be answered
+       *         by the {@link ReferenceCache}, otherwise {@code null}.
+       */
+      private data.Table getPreloadedEntity() {
+        if (entities.length != 1 || !(entities[0] instanceof data.Table) || distinct)
+          return null;
+
+        final data.Table table = (data.Table)entities[0];
+        if (!table.preloaded())
+          return null;
+
+        final data.Table[] from = from();
+        if (from == null || from.length != 1 || from[0] != table)
+          return null;
+
+        if (joins != null || groupBy != null || having != null || unions != null || orderBy != null || limit != -1 || offset != -1 || forLockStrength != null)
+          return null;
+
+        return table;
+      }
+
+      /**
+       * Returns a {@link RowIterator} of the rows of this statement read from
+       * the {@link ReferenceCache} of the data source, or {@code null} if this
+       * statement cannot be answered by the {@link ReferenceCache}.
+       *
+       * @param transaction The {@link Transaction}, or {@code null}.
+       * @param dataSourceId The data source id.
+       * @param identityMap The {@link IdentityMap}, or {@code null}.
+       * @param config The {@link QueryConfig}, or {@code null}.
+       * @return A {@link RowIterator} of the rows of this statement read from
+       *         the {@link ReferenceCache}, or {@code null}.
+       * @throws IOException If an I/O error has occurred.
+       * @throws SQLException If a SQL error has occurred.
+       */
+      private RowIterator<D> preloaded(final Transaction transaction, final String dataSourceId, final IdentityMap identityMap, final QueryConfig config) throws IOException, SQLException {
+        final data.Table table = getPreloadedEntity();
+        if (table == null)
+          return null;
+
+        final ReferenceCache referenceCache = Registry.getReferenceCache(schema(), dataSourceId);
+        if (referenceCache == null)
+          return null;
+
+        final Invalidation invalidation = transaction != null ? transaction.getInvalidation() : null;
+        if (invalidation != null && invalidation.touches(table.getClass()))
+          return null;
+
+        final List<data.Entity<?>[]> rows = referenceCache.select(table, where(), dataSourceId);
+        return rows == null ? null : cached(rows, identityMap, config);
+      }
+
+      /**
+       * @param entityCache The {@link EntityCache}, or {@code null}.
+       * @param transaction The {@link Transaction}, or {@code null}.
+       * @param table The {@link data.Table}.
+       * @return Whether the entities of the provided {@link data.Table} are to be
+       *         read from, and written to, the provided {@link EntityCache}.
+       */
+      private static boolean isCached(final EntityCache entityCache, final Transaction transaction, final data.Table table) {
+        if (entityCache == null || !table.cacheable())
+          return false;
+
+        final Invalidation invalidation = transaction != null ? transaction.getInvalidation() : null;
+        return invalidation == null || !invalidation.touches(table.getClass());
+      }
+
+      @SuppressWarnings("unchecked")
+      private RowIterator<D> lookup(final IdentityMap identityMap, final EntityCache entityCache, final Transaction transaction, final QueryConfig config) {
+        final data.Table entity = getPrimaryKeyEntity();
+        if (entity == null)
+          return null;
+
+        data.Table cached = identityMap != null ? identityMap.get(entity) : null;
+        if (cached == null && isCached(entityCache, transaction, entity) && (cached = entityCache.get(entity)) != null && identityMap != null)
+          cached = identityMap.putIfAbsent(cached);
+
+        if (cached == null)
+          return null;
+
+        final RowIterator<D> iterator = new RowIterator<D>(null, config) {
+          @Override
+          public void close() {
+            rows.clear();
+          }
+        };
+
+        iterator.rows.add((D[])new data.Entity<?>[] {cached});
+        return iterator;
+      }
+
+      /**
+       * @param subject A condition, or an operand of a condition.
+       * @return Whether the provided condition contains a subquery.
+       */
+      private static boolean hasSubQuery(final Object subject) {
+        if (subject instanceof BooleanTerm) {
+          final BooleanTerm term = (BooleanTerm)subject;
+          if (hasSubQuery(term.a) || hasSubQuery(term.b))
+            return true;
+
+          for (final Condition<?> condition : term.conditions)
+            if (hasSubQuery(condition))
+              return true;
+
+          return false;
+        }
+
+        if (subject instanceof ComparisonPredicate) {
+          final ComparisonPredicate<?> predicate = (ComparisonPredicate<?>)subject;
+          return hasSubQuery(predicate.a) || hasSubQuery(predicate.b);
+        }
+
+        if (subject instanceof InPredicate) {
+          for (final Subject value : ((InPredicate)subject).values)
+            if (hasSubQuery(value))
+              return true;
+
+          return false;
+        }
+
+        return subject instanceof ExistsPredicate || subject instanceof QuantifiedComparisonPredicate || subject instanceof SelectImpl.untyped.SELECT;
+      }
+
+      /**
+       * Adds the classes of the tables of the {@code FROM} and {@code JOIN}
+       * clauses of this statement, and of the statements of its
+       * {@code UNION} clauses, to the provided set. The tables of subqueries
+       * in the {@code WHERE}, {@code HAVING} and {@code ON} conditions, and of
+       * derived tables in the {@code FROM} clause, are not tracked, whereby
+       * such statements are not cached.
+       *
+       * @param dependencies The set of classes of {@link data.Table}.
+       * @return Whether all tables on which the result of this statement
+       *         depends have been added to the provided set.
+       */
+      private boolean getDependencies(final HashSet<Class<? extends data.Table>> dependencies) {
+        if (hasSubQuery(where()) || hasSubQuery(having))
+          return false;
+
+        if (on != null)
+          for (final Condition<?> condition : on)
+            if (hasSubQuery(condition))
+              return false;
+
+        final data.Table[] from = from();
+        if (from != null) {
+          for (final data.Table table : from) {
+            if (table.wrapper() != null)
+              return false;
+
+            dependencies.add(table.getClass());
+          }
+        }
+
+        for (final type.Entity<?> entity : entities)
+          if (entity instanceof SelectImpl.untyped.SELECT && !((SelectImpl.untyped.SELECT<?>)entity).getDependencies(dependencies))
+            return false;
+
+        if (joins != null) {
+          for (int i = 1, len = joins.size(); i < len; i += 2) {
+            final Object join = joins.get(i);
+            if (join instanceof data.Table)
+              dependencies.add(((data.Table)join).getClass());
+            else if (!((SelectImpl.untyped.SELECT<?>)join).getDependencies(dependencies))
+              return false;
+          }
+        }
+
+        if (unions != null)
+          for (int i = 1, len = unions.size(); i < len; i += 2)
+            if (!((SelectImpl.untyped.SELECT<?>)unions.get(i)).getDependencies(dependencies))
+              return false;
+
+        return true;
+      }
+
+      /**
+       * Returns the classes of the tables on which the result of this
+       * statement depends, or {@code null} if the result is not to be read
+       * from, or written to, the {@link ResultCache}, because not all of the
+       * tables are tracked, or because the provided {@link Transaction} has
+       * modified any of the tables.
+       *
+       * @param transaction The {@link Transaction}, or {@code null}.
+       * @return The classes of the tables on which the result of this
+       *         statement depends, or {@code null}.
+       */
+      private HashSet<Class<? extends data.Table>> getDependencies(final Transaction transaction) {
+        final HashSet<Class<? extends data.Table>> dependencies = new HashSet<>();
+        if (!getDependencies(dependencies))
+          return null;
+
+        final Invalidation invalidation = transaction != null ? transaction.getInvalidation() : null;
+        if (invalidation != null)
+          for (final Class<? extends data.Table> dependency : dependencies)
+            if (invalidation.touches(dependency))
+              return null;
+
+        return dependencies;
+      }
+
+      @SuppressWarnings("unchecked")
+      private static <D extends data.Entity<?>>RowIterator<D> cached(final List<data.Entity<?>[]> rows, final IdentityMap identityMap, final QueryConfig config) {
+        final RowIterator<D> iterator = new RowIterator<D>(null, config) {
+          @Override
+          public void close() {
+            this.rows.clear();
+          }
+        };
+
+        for (int i = 0, len = rows.size(); i < len; ++i) {
+          final data.Entity<?>[] row = rows.get(i);
+          if (identityMap != null)
+            for (int j = 0; j < row.length; ++j)
+              if (row[j] instanceof data.Table)
+                row[j] = identityMap.putIfAbsent((data.Table)row[j]);
+
+          iterator.rows.add((D[])row);
+        }
+
+        return iterator;
+      }
+
       @SuppressWarnings("unchecked")
-      private RowIterator<D> execute(final Transaction transaction, final String dataSourceId, final QueryConfig config) throws IOException, SQLException {
+      RowIterator<D> execute(final Template template, final Transaction transaction, final String dataSourceId, final QueryConfig config) throws IOException, SQLException {
+        if (transaction == null) {
+          final ShardSet shardSet = Registry.getShardSet(schema(), dataSourceId);
+          if (shardSet != null) {
+            final data.Table entity = getPrimaryKeyEntity();
+            final String shard = entity != null ? shardSet.route(entity) : null;
+            if (shard != null)
+              return execute(template, null, shard, config);
+
+            // Resolve the lazily initialized clauses before this statement is compiled concurrently for each shard
+            table();
+            where();
+            return shardSet.select(this, template, config);
+          }
+        }
+
+        final IdentityMap identityMap = transaction != null && (config == null || !config.isFlyweight()) ? transaction.getIdentityMap() : null;
+        if (template == null) {
+          final RowIterator<D> rows = preloaded(transaction, dataSourceId, identityMap, config);
+          if (rows != null)
+            return rows;
+        }
+
+        final EntityCache entityCache = Registry.getEntityCache(schema(), dataSourceId);
+        if (template == null && (identityMap != null || entityCache != null)) {
+          final RowIterator<D> rows = lookup(identityMap, entityCache, transaction, config);
+          if (rows != null)
+            return rows;
+        }
+
+        final long generation = entityCache != null ? entityCache.generation() : 0;
+        final ResultCache resultCache = template == null && config != null && config.getResultCacheTtl() != -1 ? Registry.getResultCache(schema(), dataSourceId) : null;
+        final HashSet<Class<? extends data.Table>> dependencies = resultCache != null ? getDependencies(transaction) : null;
+        final long resultGeneration = dependencies != null ? resultCache.generation() : 0;
+
+        // The result is looked up before a connection is acquired, by a compilation for the vendor resolved by a previous execution. If
+        // the vendor has not yet been resolved, no statement has been executed on the data source, and its ResultCache is empty.
+        Compilation precompiled = null;
+        ResultCache.Key precompiledKey = null;
+        if (dependencies != null) {
+          final Registry.Registration registration = Registry.getRegistration(schema(), dataSourceId);
+          final DBVendor vendor = registration != null ? registration.getVendor() : null;
+          if (vendor != null) {
+            precompiled = newCompilation(null, vendor, dataSourceId);
+            if ((precompiledKey = ResultCache.key(precompiled, config)) != null) {
+              final List<data.Entity<?>[]> cached = resultCache.get(precompiledKey);
+              if (cached != null) {
+                precompiled.close();
+                return cached(cached, identityMap, config);
+              }
+            }
+          }
+        }
+
         Connection connection = null;
         Statement statement = null;
+        StatementCache statementCache = null;
+        Execution execution = null;
         try {
-          final Connection finalConnection = connection = transaction != null ? transaction.getConnection() : Schema.getConnection(schema(), dataSourceId, true);
-          try (final Compilation compilation = new Compilation(this, DBVendor.valueOf(connection.getMetaData()), Registry.isPrepared(schema(), dataSourceId))) {
-            compile(compilation, false);
-
+          if (transaction != null)
+            transaction.flush();
+
+          execution = Execution.start(Execution.Type.SELECT, schema(), dataSourceId);
+          final SlowQueryLog slowQueryLog = Registry.getSlowQueryLog();
+          final long start = slowQueryLog == null ? 0 : System.nanoTime();
+          final Connection finalConnection = connection = transaction != null ? transaction.getConnection() : Schema.getReadConnection(schema(), dataSourceId, true);
+          final StatementCache finalStatementCache = statementCache = transaction != null ? transaction.getStatementCache() : null;
+          final DBVendor vendor = transaction != null ? transaction.getVendor() : Schema.getDBVendor(schema(), dataSourceId, connection);
+          if (execution != null)
+            execution.connected();
+
+          try (final Compilation compilation = precompiled != null ? precompiled : newCompilation(template, vendor, dataSourceId)) {
+            if (execution != null)
+              execution.compiled(compilation);
+
+            final ResultCache.Key resultKey = precompiled != null ? precompiledKey : dependencies != null ? ResultCache.key(compilation, config) : null;
             final Object[][] protoSubjectIndexes = SelectImpl.compile(entities, 0, 0);
 
             final int columnOffset = compilation.skipFirstColumn() ? 2 : 1;
-            final ResultSet resultSet = compilation.executeQuery(connection, config);
-            final Statement finalStatement = statement = resultSet.getStatement();
+            final Statement finalStatement = statement = compilation.prepareQuery(connection, config, statementCache);
+            AsyncExecution.register(statement);
+            if (execution != null)
+              execution.prepared();
+
+            final ResultSet resultSet = compilation.executeQuery(statement);
+            if (execution != null)
+              execution.executed();
+
+            if (slowQueryLog != null)
+              slowQueryLog.onExecute(this, dataSourceId, compilation, start);
+
+            final IndexAdvisor indexAdvisor = Registry.getIndexAdvisor();
+            if (indexAdvisor != null)
+              indexAdvisor.observe(this);
+
+            final Execution finalExecution = execution;
             final int noColumns = resultSet.getMetaData().getColumnCount() + 1 - columnOffset;
-            return new RowIterator<D>(resultSet, config) {
+            final Subject[] protoSubjects = new Subject[protoSubjectIndexes.length];
+            final int[] protoIndexes = new int[protoSubjectIndexes.length];
+            for (int i = 0; i < protoSubjectIndexes.length; ++i) {
+              protoSubjects[i] = (Subject)protoSubjectIndexes[i][0];
+              protoIndexes[i] = (Integer)protoSubjectIndexes[i][1];
+            }
+
+            final Compiler compiler = compilation.compiler;
+            return new RowIterator<D>(resultSet, config, compiler) {
               private final HashMap<Class<? extends data.Table>,data.Table> prototypes = new HashMap<>();
-              private final HashMap<data.Table,data.Table> cache = new HashMap<>();
+              private final Map<data.Table,data.Table> cache = streaming ? new LinkedHashMap<data.Table,data.Table>(16, 0.75f, true) {
+                private static final long serialVersionUID = -3426040813727398585L;
+
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<data.Table,data.Table> eldest) {
+                  return size() > STREAMING_CACHE_SIZE;
+                }
+              } : new HashMap<>();
               private data.Table currentTable;
+              private final data.Entity<?>[] flyweightEntities = flyweight ? new data.Entity<?>[entities.length] : null;
+              private final data.Entity<?>[] flyweightRow = flyweight ? new data.Entity<?>[entities.length] : null;
+              private ArrayList<data.Entity<?>[]> results = resultKey != null ? new ArrayList<>() : null;
+              private long resultBytes;
+              private Execution execution = finalExecution;
+              private JfrEvents.RowIteratorEvent event = JfrEvents.ENABLED ? JfrEvents.RowIteratorEvent.start(compilation) : null;
+              private long rowCount;
 
               @Override
               @SuppressWarnings("null")
@@ -389,134 +763,253 @@ final class SelectImpl {
                 if (endReached)
                   return false;
 
+                if (execution != null)
+                  execution.mark();
+
                 final Subject[] row;
                 int index = 0;
                 data.Table table;
                 try {
                   if (endReached = !resultSet.next()) {
                     suppressed = Throwables.addSuppressed(suppressed, ResultSets.close(resultSet));
+                    if (results != null) {
+                      resultCache.put(resultKey, results, dependencies, config.getResultCacheTtl(), resultGeneration);
+                      results = null;
+                    }
+
+                    if (execution != null)
+                      execution.fetched();
+
                     return false;
                   }
 
-                  row = new data.Entity[entities.length];
+                  row = flyweight ? flyweightRow : new data.Entity[entities.length];
                   table = null;
                   for (int i = 0; i < noColumns; ++i) {
-                    final Object[] protoSubjectIndex = protoSubjectIndexes[i];
-                    final Subject protoSubject = (Subject)protoSubjectIndex[0];
-                    final Integer protoIndex = (Integer)protoSubjectIndex[1];
+                    final Subject protoSubject = protoSubjects[i];
+                    final int protoIndex = protoIndexes[i];
                     final data.Column<?> column;
                     if (currentTable != null && (currentTable != protoSubject.table() || protoIndex == -1)) {
-                      final data.Table cached = cache.get(table);
-                      if (cached != null) {
-                        row[index++] = cached;
+                      if (flyweight) {
+                        row[index++] = table;
                       }
                       else {
-                        row[index++] = table;
-                        cache.put(table, table);
-                        prototypes.put(table.getClass(), table.newInstance());
+                        final data.Table cached = cache.get(table);
+                        if (cached != null) {
+                          row[index++] = cached;
+                        }
+                        else {
+                          row[index++] = table;
+                          cache.put(table, table);
+                          prototypes.put(table.getClass(), table.newInstance());
+                        }
                       }
                     }
 
                     if (protoIndex != -1) {
                       currentTable = protoSubject.table();
-                      table = prototypes.get(currentTable.getClass());
-                      if (table == null)
-                        prototypes.put(currentTable.getClass(), table = currentTable.newInstance());
+                      if (flyweight) {
+                        table = (data.Table)flyweightEntities[index];
+                        if (table == null)
+                          flyweightEntities[index] = table = currentTable.newInstance();
+                      }
+                      else {
+                        table = prototypes.get(currentTable.getClass());
+                        if (table == null)
+                          prototypes.put(currentTable.getClass(), table = currentTable.newInstance());
+                      }
 
                       column = table._column$[protoIndex];
                     }
                     else {
                       table = null;
                       currentTable = null;
-                      if (protoSubject instanceof data.Column) {
-                        final data.Column<?> col = (data.Column<?>)protoSubject;
-                        column = col.mutable ? col : col.clone();
+                      if (flyweight && flyweightEntities[index] != null) {
+                        column = (data.Column<?>)flyweightEntities[index];
                       }
                       else {
-                        column = protoSubject.column().clone();
+                        if (protoSubject instanceof data.Column) {
+                          final data.Column<?> col = (data.Column<?>)protoSubject;
+                          column = col.mutable ? col : col.clone();
+                        }
+                        else {
+                          column = protoSubject.column().clone();
+                        }
+
+                        if (flyweight)
+                          flyweightEntities[index] = column;
                       }
 
                       row[index++] = column;
                     }
 
-                    column.set(resultSet, i + columnOffset);
+                    column.set(compiler, resultSet, i + columnOffset);
                   }
                 }
                 catch (SQLException e) {
-                  e = Throwables.addSuppressed(e, suppressed);
+                  e = SQLExceptions.toStrongType(Throwables.addSuppressed(e, suppressed));
                   suppressed = null;
-                  throw SQLExceptions.toStrongType(e);
+                  if (execution != null) {
+                    execution.finish(rowCount, e);
+                    execution = null;
+                  }
+
+                  throw e;
                 }
 
                 if (table != null) {
-                  final data.Table cached = cache.get(table);
+                  final data.Table cached = flyweight ? null : cache.get(table);
                   row[index++] = cached != null ? cached : table;
                 }
 
-                rows.add((D[])row);
-                ++rowIndex;
+                if (results != null) {
+                  final data.Entity<?>[] copy = ResultCache.copy((data.Entity<?>[])row);
+                  final long maxBytes = config.getResultCacheMaxBytes();
+                  if (copy == null || maxBytes != -1 && (resultBytes += ResultCache.sizeOf(copy)) > maxBytes)
+                    results = null;
+                  else
+                    results.add(copy);
+                }
+
+                if (entityCache != null)
+                  for (int i = 0; i < index; ++i)
+                    if (row[i] instanceof data.Table && isCached(entityCache, transaction, (data.Table)row[i]))
+                      entityCache.put((data.Table)row[i], generation);
+
+                if (identityMap != null)
+                  for (int i = 0; i < index; ++i)
+                    if (row[i] instanceof data.Table)
+                      row[i] = identityMap.putIfAbsent((data.Table)row[i]);
+
+                addRow((D[])row);
                 resetEntities();
                 prototypes.clear();
                 currentTable = null;
+                ++rowCount;
+                if (execution != null)
+                  execution.fetched();
+
                 return true;
               }
 
               @Override
               public void close() throws SQLException {
                 SQLException e = Throwables.addSuppressed(suppressed, ResultSets.close(resultSet));
-                e = Throwables.addSuppressed(e, AuditStatement.close(finalStatement));
+                e = Throwables.addSuppressed(e, Compilation.release(finalStatement, finalStatementCache));
                 if (transaction == null)
                   e = Throwables.addSuppressed(e, AuditConnection.close(finalConnection));
 
                 prototypes.clear();
                 cache.clear();
                 currentTable = null;
+                results = null;
                 rows.clear();
                 if (e != null)
-                  throw SQLExceptions.toStrongType(e);
+                  e = SQLExceptions.toStrongType(e);
+
+                if (execution != null) {
+                  execution.finish(rowCount, e);
+                  execution = null;
+                }
+
+                if (event != null) {
+                  event.end(schema(), dataSourceId, rowCount);
+                  event = null;
+                }
+
+                closed();
+                if (e != null)
+                  throw e;
               }
             };
           }
         }
         catch (SQLException e) {
           if (statement != null)
-            e = Throwables.addSuppressed(e, AuditStatement.close(statement));
+            e = Throwables.addSuppressed(e, Compilation.release(statement, statementCache));
 
           if (transaction == null && connection != null)
             e = Throwables.addSuppressed(e, AuditConnection.close(connection));
 
-          throw SQLExceptions.toStrongType(e);
+          e = SQLExceptions.toStrongType(e);
+          if (execution != null)
+            execution.finish(-1, e);
+
+          throw e;
         }
       }
 
       @Override
       public final RowIterator<D> execute(final String dataSourceId) throws IOException, SQLException {
-        return execute(null, dataSourceId, null);
+        return execute(null, null, dataSourceId, null);
       }
 
       @Override
       public final RowIterator<D> execute(final Transaction transaction) throws IOException, SQLException {
-        return execute(transaction, transaction != null ? transaction.getDataSourceId() : null, null);
+        return execute(null, transaction, transaction != null ? transaction.getDataSourceId() : null, null);
       }
 
       @Override
       public RowIterator<D> execute() throws IOException, SQLException {
-        return execute(null, null, null);
+        return execute(null, null, null, null);
       }
 
       @Override
       public final RowIterator<D> execute(final String dataSourceId, final QueryConfig config) throws IOException, SQLException {
-        return execute(null, dataSourceId, config);
+        return execute(null, null, dataSourceId, config);
       }
 
       @Override
       public final RowIterator<D> execute(final Transaction transaction, final QueryConfig config) throws IOException, SQLException {
-        return execute(transaction, transaction != null ? transaction.getDataSourceId() : null, config);
+        return execute(null, transaction, transaction != null ? transaction.getDataSourceId() : null, config);
       }
 
       @Override
       public RowIterator<D> execute(final QueryConfig config) throws IOException, SQLException {
-        return execute(null, null, config);
+        return execute(null, null, null, config);
+      }
+
+      @Override
+      public final QueryPlan explain(final String dataSourceId) throws IOException, SQLException {
+        return explain(null, dataSourceId);
+      }
+
+      @Override
+      public final QueryPlan explain(final Transaction transaction) throws IOException, SQLException {
+        return explain(transaction, transaction != null ? transaction.getDataSourceId() : null);
+      }
+
+      @Override
+      public final QueryPlan explain() throws IOException, SQLException {
+        return explain(null, null);
+      }
+
+      private QueryPlan explain(final Transaction transaction, final String dataSourceId) throws IOException, SQLException {
+        Connection connection = null;
+        try {
+          connection = transaction != null ? transaction.getConnection() : Schema.getConnection(schema(), dataSourceId, true);
+          final DBVendor vendor = transaction != null ? transaction.getVendor() : Schema.getDBVendor(schema(), dataSourceId, connection);
+          final QueryPlan plan;
+          try (final Compilation compilation = Compilation.compile(this, vendor, true)) {
+            plan = compilation.compiler.explain(connection, compilation.toString(), compilation.getParameters());
+          }
+
+          if (transaction == null) {
+            final Connection finalConnection = connection;
+            connection = null;
+            final SQLException e = AuditConnection.close(finalConnection);
+            if (e != null)
+              throw e;
+          }
+
+          return plan;
+        }
+        catch (SQLException e) {
+          if (transaction == null && connection != null)
+            e = Throwables.addSuppressed(e, AuditConnection.close(connection));
+
+          throw SQLExceptions.toStrongType(e);
+        }
       }
 
       @Override
@@ -617,11 +1110,38 @@ final class SelectImpl {
         final data.Column<?> column = columns[index];
         final Condition<?>[] cinditions = createConditions(columns, index + 1, column.wasSet() ? depth + 1 : depth);
         if (column.wasSet())
-          cinditions[depth] = DML.EQ(column, column.get());
+          cinditions[depth] = new ComparisonPredicate<Object>(function.Logical.EQ, column, objectParameter(column));
 
         return cinditions;
       }
 
+      /**
+       * Returns a table-less column of the current value of the provided column
+       * of an entity of this object query, to be bound as the parameter of its
+       * condition. The condition of an object query is created once, so the
+       * parameter is rebound to the value of the column on each compilation
+       * with {@link #bindObjectParameters()}.
+       *
+       * @param column The column of an entity of this object query.
+       * @return A table-less column of the current value of the provided column.
+       */
+      private data.Column<?> objectParameter(final data.Column<?> column) {
+        final data.Column<?> parameter = data.Column.wrap(column.get());
+        if (objectParameters == null)
+          objectParameters = new ArrayList<>();
+
+        objectParameters.add(column);
+        objectParameters.add(parameter);
+        return parameter;
+      }
+
+      @SuppressWarnings("unchecked")
+      private void bindObjectParameters() {
+        if (objectParameters != null)
+          for (int i = 0, len = objectParameters.size(); i < len; i += 2)
+            ((data.Column<Object>)objectParameters.get(i + 1)).setValue(objectParameters.get(i).get());
+      }
+
       @Override
       void compile(final Compilation compilation, final boolean isExpression) throws IOException, SQLException {
         final Compiler compiler = compilation.compiler;
@@ -0,0 +1,80 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+
+package org.jaxdb.jsql;
+
+import java.util.Arrays;
+
+/**
+ * A function that maps the primary key of a row to the index of the shard in
+ * which the row is stored.
+ *
+ * @see Registry#registerShards(Class,String,ShardFunction,String...)
+ */
+@FunctionalInterface
+public interface ShardFunction {
+  /**
+   * A {@link ShardFunction} that maps a primary key to a shard by the hash
+   * code of its values.
+   */
+  ShardFunction HASH = (key, shards) -> Math.floorMod(Arrays.hashCode(key), shards);
+
+  /**
+   * Returns a {@link ShardFunction} that maps a primary key to a shard by the
+   * range of the value of its first column. The row with key {@code k} is
+   * stored in the shard at the index of the first bound that is greater than
+   * {@code k}, or in the last shard if no bound is greater than {@code k}.
+   *
+   * @param <T> The type of the bounds.
+   * @param bounds The exclusive upper bounds of the shards, in ascending
+   *          order, of which there is one less than there are shards.
+   * @return A {@link ShardFunction} that maps a primary key to a shard by the
+   *         range of the value of its first column.
+   * @throws IllegalArgumentException If {@code bounds} is null or empty.
+   */
+  @SafeVarargs
+  @SuppressWarnings("unchecked")
+  static <T extends Comparable<? super T>>ShardFunction range(final T ... bounds) {
+    if (bounds == null || bounds.length == 0)
+      throw new IllegalArgumentException("bounds must not be empty");
+
+    final T[] copy = bounds.clone();
+    return (key, shards) -> {
+      if (copy.length != shards - 1)
+        throw new IllegalStateException("Expected " + (shards - 1) + " bounds for " + shards + " shards, but got " + copy.length);
+
+      final T value = (T)key[0];
+      for (int i = 0; i < copy.length; ++i)
+        if (value.compareTo(copy[i]) < 0)
+          return i;
+
+      return copy.length;
+    };
+  }
+
+  /**
+   * Returns the index of the shard in which the row with the provided primary
+   * key is stored.
+   *
+   * @param key The values of the primary key columns of the row.
+   * @param shards The number of shards.
+   * @return The index of the shard in which the row with the provided primary
+   *         key is stored, which is greater than or equal to {@code 0} and less
+   *         than {@code shards}.
+   */
+  int shard(Object[] key, int shards);
+}
@@ -0,0 +1,492 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+
+package org.jaxdb.jsql;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.ObjIntConsumer;
+
+import org.libj.lang.Throwables;
+import org.libj.sql.exception.SQLExceptions;
+
+/**
+ * The shards of a sharded data source, each of which is a registered data
+ * source that stores the rows whose primary keys are mapped to it by a
+ * {@link ShardFunction}.
+ */
+final class ShardSet {
+  /**
+   * A {@link RowIterator} of the rows of a {@code SELECT} statement that is
+   * executed on all shards, which merges the rows of the shards in the order
+   * of the {@code ORDER BY} clause of the statement, and applies the
+   * {@code LIMIT} and {@code OFFSET} clauses of the statement to the merged
+   * rows.
+   *
+   * @param <D> The type of the result entities.
+   */
+  private static final class MergedRowIterator<D extends data.Entity<?>> extends RowIterator<D> {
+    private final RowIterator<D>[] shards;
+    private final Comparator<D[]> order;
+    private final boolean[] heads;
+    private int remaining;
+    private int skip;
+    private int current;
+    private int last = -1;
+
+    private MergedRowIterator(final RowIterator<D>[] shards, final Comparator<D[]> order, final int limit, final int offset, final QueryConfig config) {
+      super(null, config);
+      this.shards = shards;
+      this.order = order;
+      this.heads = order == null ? null : new boolean[shards.length];
+      this.remaining = limit;
+      this.skip = offset == -1 ? 0 : offset;
+    }
+
+    /**
+     * Returns the next row of the shards, which is the next row of the current
+     * shard if the rows are not ordered, otherwise the least of the current
+     * rows of the shards.
+     *
+     * @return The next row of the shards, or {@code null} if the rows of all
+     *         shards have been read.
+     * @throws SQLException If a SQL error has occurred.
+     */
+    private D[] next() throws SQLException {
+      if (order == null) {
+        for (; current < shards.length; ++current)
+          if (shards[current].nextRow())
+            return shards[current].currentRow();
+
+        return null;
+      }
+
+      if (last == -1) {
+        for (int i = 0; i < shards.length; ++i)
+          heads[i] = shards[i].nextRow();
+      }
+      else {
+        // The row of the last shard is read only now, as flyweight iterators reuse the array of the row
+        heads[last] = shards[last].nextRow();
+      }
+
+      int min = -1;
+      for (int i = 0; i < shards.length; ++i)
+        if (heads[i] && (min == -1 || order.compare(shards[i].currentRow(), shards[min].currentRow()) < 0))
+          min = i;
+
+      if (min == -1)
+        return null;
+
+      last = min;
+      return shards[min].currentRow();
+    }
+
+    @Override
+    public boolean nextRow() throws SQLException {
+      if (super.nextRow())
+        return true;
+
+      if (endReached)
+        return false;
+
+      D[] row = remaining != 0 ? next() : null;
+      for (; row != null && skip > 0; --skip)
+        row = next();
+
+      if (endReached = row == null)
+        return false;
+
+      if (remaining > 0)
+        --remaining;
+
+      addRow(row);
+      resetEntities();
+      return true;
+    }
+
+    @Override
+    public void close() throws SQLException {
+      SQLException e = null;
+      for (final RowIterator<D> shard : shards) {
+        try {
+          shard.close();
+        }
+        catch (final SQLException se) {
+          e = Throwables.addSuppressed(e, se);
+        }
+      }
+
+      rows.clear();
+      if (e != null)
+        throw SQLExceptions.toStrongType(e);
+    }
+  }
+
+  /**
+   * Returns the values of the primary key columns of the provided
+   * {@link data.Table}, or {@code null} if the table has no primary key, or if
+   * the table was not read from the database and any of its primary key
+   * columns is not set.
+   *
+   * @param table The {@link data.Table}.
+   * @return The values of the primary key columns of the provided
+   *         {@link data.Table}, or {@code null}.
+   */
+  private static Object[] key(final data.Table table) {
+    final data.Column<?>[] primary = table._primary$;
+    if (primary == null || primary.length == 0)
+      return null;
+
+    final boolean wasSelected = table.wasSelected();
+    final Object[] key = new Object[primary.length];
+    for (int i = 0; i < primary.length; ++i) {
+      if (!wasSelected && !primary[i].wasSet())
+        return null;
+
+      key[i] = primary[i].get();
+    }
+
+    return key;
+  }
+
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private static int compare(final Object a, final Object b) {
+    // Nulls are ordered after all values in ascending order, as by default in most databases
+    if (a == null)
+      return b == null ? 0 : 1;
+
+    return b == null ? -1 : ((Comparable)a).compareTo(b);
+  }
+
+  /**
+   * Returns the {@link Comparator} of the rows of the provided {@code SELECT}
+   * statement in the order of its {@code ORDER BY} clause, or {@code null} if
+   * the statement has no {@code ORDER BY} clause.
+   *
+   * @param <D> The type of the result entities.
+   * @param select The {@code SELECT} statement.
+   * @return The {@link Comparator} of the rows of the provided {@code SELECT}
+   *         statement, or {@code null}.
+   * @throws UnsupportedOperationException If a column of the {@code ORDER BY}
+   *           clause is not selected by the statement, or is not selected as
+   *           a column of a selected table.
+   */
+  private static <D extends data.Entity<?>>Comparator<D[]> comparator(final SelectImpl.untyped.SELECT<D> select) {
+    if (select.orderByIndexes != null)
+      throw new UnsupportedOperationException("ORDER BY column numbers are not supported across shards");
+
+    if (select.orderBy == null)
+      return null;
+
+    Comparator<D[]> comparator = null;
+    for (data.Column<?> column : select.orderBy) {
+      boolean ascending = true;
+      final Evaluable wrapper = column.wrapper();
+      if (wrapper instanceof OrderingSpec) {
+        ascending = ((OrderingSpec)wrapper).ascending;
+        column = ((OrderingSpec)wrapper).column;
+      }
+
+      Comparator<D[]> next = null;
+      final type.Entity<?>[] entities = select.entities;
+      for (int i = 0; i < entities.length && next == null; ++i) {
+        final int index = i;
+        if (entities[i] == column) {
+          next = (a, b) -> compare(((data.Column<?>)a[index]).get(), ((data.Column<?>)b[index]).get());
+        }
+        else if (entities[i] == column.table) {
+          final data.Column<?>[] columns = column.table._column$;
+          for (int j = 0; j < columns.length; ++j) {
+            if (columns[j] == column) {
+              final int offset = j;
+              next = (a, b) -> compare(((data.Table)a[index])._column$[offset].get(), ((data.Table)b[index])._column$[offset].get());
+              break;
+            }
+          }
+        }
+      }
+
+      if (next == null)
+        throw new UnsupportedOperationException("ORDER BY column " + column.name + " must be selected to merge the results of shards");
+
+      if (!ascending)
+        next = next.reversed();
+
+      comparator = comparator == null ? next : comparator.thenComparing(next);
+    }
+
+    return comparator;
+  }
+
+  /**
+   * Returns whether the provided entity is, or has an operand that is, an
+   * aggregate function.
+   *
+   * @param entity The entity.
+   * @return Whether the provided entity is, or has an operand that is, an
+   *         aggregate function.
+   */
+  private static boolean isAggregate(final Object entity) {
+    if (entity instanceof ExpressionImpl.Count || entity instanceof ExpressionImpl.Set)
+      return true;
+
+    if (entity instanceof data.Column)
+      return isAggregate(((data.Column<?>)entity).wrapper());
+
+    if (entity instanceof expression.Expression1)
+      return isAggregate(((expression.Expression1<?,?,?,?>)entity).a);
+
+    if (entity instanceof OperationImpl.Operation2) {
+      final OperationImpl.Operation2<?,?,?,?> operation = (OperationImpl.Operation2<?,?,?,?>)entity;
+      return isAggregate(operation.a) || isAggregate(operation.b);
+    }
+
+    return false;
+  }
+
+  /**
+   * Checks that the rows of the provided {@code SELECT} statement returned by
+   * each shard can be merged into the rows of the statement across all
+   * shards.
+   *
+   * @param select The {@code SELECT} statement.
+   * @throws UnsupportedOperationException If the statement is
+   *           {@code DISTINCT}, or has a {@code GROUP BY} or {@code HAVING}
+   *           clause, or selects an aggregate function.
+   */
+  private static void checkMergeable(final SelectImpl.untyped.SELECT<?> select) {
+    if (select.distinct)
+      throw new UnsupportedOperationException("SELECT DISTINCT is not supported across shards");
+
+    if (select.groupBy != null || select.having != null)
+      throw new UnsupportedOperationException("GROUP BY and HAVING are not supported across shards");
+
+    for (final type.Entity<?> entity : select.entities)
+      if (isAggregate(entity))
+        throw new UnsupportedOperationException("Aggregate functions are not supported across shards");
+  }
+
+  private final ShardFunction function;
+  private final String[] ids;
+
+  /**
+   * Creates a new {@link ShardSet}.
+   *
+   * @param function The {@link ShardFunction} that maps a primary key to the
+   *          index of a shard.
+   * @param ids The data source ids of the shards.
+   */
+  ShardSet(final ShardFunction function, final String[] ids) {
+    this.function = function;
+    this.ids = ids;
+  }
+
+  /**
+   * @return The data source ids of the shards.
+   */
+  String[] getIds() {
+    return ids;
+  }
+
+  /**
+   * Returns the data source id of the shard in which the row identified by the
+   * primary key of the provided {@link data.Table} is stored, or {@code null}
+   * if the primary key of the table is not set.
+   *
+   * @param table The {@link data.Table}.
+   * @return The data source id of the shard in which the row identified by the
+   *         primary key of the provided {@link data.Table} is stored, or
+   *         {@code null}.
+   * @throws IllegalStateException If the {@link ShardFunction} returns an index
+   *           out of the range of the shards.
+   */
+  String route(final data.Table table) {
+    final Object[] key = key(table);
+    if (key == null)
+      return null;
+
+    final int index = function.shard(key, ids.length);
+    if (index < 0 || ids.length <= index)
+      throw new IllegalStateException("ShardFunction returned index (" + index + ") out of range of " + ids.length + " shards");
+
+    return ids[index];
+  }
+
+  /**
+   * Returns the data source id of the shard to which the provided command is
+   * to be routed, or {@code null} if the command is to be executed on all
+   * shards.
+   *
+   * @param command The {@code INSERT}, {@code UPDATE} or {@code DELETE}
+   *          command.
+   * @return The data source id of the shard to which the provided command is
+   *         to be routed, or {@code null}.
+   * @throws IllegalArgumentException If the command is an {@code INSERT}
+   *           whose primary key is not set.
+   */
+  String route(final Command<?> command) {
+    final data.Table entity = command.getPrimaryKeyEntity();
+    final String id = entity == null ? null : route(entity);
+    if (id == null && command instanceof InsertImpl)
+      throw new IllegalArgumentException("INSERT into " + command.table().name() + " must set the primary key to be routed to a shard");
+
+    return id;
+  }
+
+  /**
+   * Executes the provided command on the shard of the row identified by the
+   * primary key of its entity, or on all shards if the command has a
+   * condition.
+   *
+   * @param command The {@code INSERT}, {@code UPDATE} or {@code DELETE}
+   *          command.
+   * @param template The {@link Template}, or {@code null}.
+   * @param onEvent The listener to be notified of the update count of each
+   *          execution of the command, or {@code null}.
+   * @return The total update count of the executions of the command.
+   * @throws IOException If an I/O error has occurred.
+   * @throws SQLException If a SQL error has occurred.
+   */
+  <D extends data.Entity<?>>int execute(final Command<D> command, final Template template, final ObjIntConsumer<Transaction.Event> onEvent) throws IOException, SQLException {
+    final String id = route(command);
+    if (id != null)
+      return Executable.execute(command, template, null, id, onEvent);
+
+    int total = 0;
+    boolean hasInfo = false;
+    for (final String shard : ids) {
+      final int count = Executable.execute(command, template, null, shard, onEvent);
+      if (count != Statement.SUCCESS_NO_INFO) {
+        total += count;
+        hasInfo = true;
+      }
+    }
+
+    return hasInfo ? total : Statement.SUCCESS_NO_INFO;
+  }
+
+  /**
+   * Executes the provided {@code SELECT} statement on all shards concurrently
+   * on the {@linkplain Executable#getAsyncExecutor() async executor}, and
+   * returns a {@link RowIterator} of the merged rows of the shards. The
+   * rows are merged in the order of the {@code ORDER BY} clause of the
+   * statement, or in the order of the shards if the statement has no
+   * {@code ORDER BY} clause. The {@code LIMIT} and {@code OFFSET} clauses of
+   * the statement are applied to the merged rows. All other clauses are
+   * applied by each shard. Statements whose rows of each shard cannot be
+   * merged, being {@code DISTINCT}, grouped, or aggregate, are not supported.
+   * <p>
+   * If this method is called from a task of the async executor, the shards
+   * are queried in turn on the current thread, because a bounded executor
+   * may otherwise deadlock with all of its threads waiting on tasks that it
+   * cannot run. Statements executed on other executors that share the
+   * threads of the async executor are subject to the same deadlock.
+   *
+   * @param <D> The type of the result entities.
+   * @param select The {@code SELECT} statement.
+   * @param template The {@link Template}, or {@code null}.
+   * @param config The {@link QueryConfig}, or {@code null}.
+   * @return A {@link RowIterator} of the merged rows of the shards.
+   * @throws IOException If an I/O error has occurred.
+   * @throws SQLException If a SQL error has occurred.
+   * @throws UnsupportedOperationException If the statement is
+   *           {@code DISTINCT}, grouped, or aggregate, or if its
+   *           {@code ORDER BY} clause cannot be applied to the merged rows.
+   */
+  @SuppressWarnings("unchecked")
+  <D extends data.Entity<?>>RowIterator<D> select(final SelectImpl.untyped.SELECT<D> select, final Template template, final QueryConfig config) throws IOException, SQLException {
+    checkMergeable(select);
+    final Comparator<D[]> order = comparator(select);
+    final int limit = select.limit;
+    final int offset = select.offset;
+    final RowIterator<D>[] shards = new RowIterator[ids.length];
+    Throwable exception = null;
+    // Each shard is to return the rows up to the end of the LIMIT of the merged rows
+    if (offset > 0) {
+      select.offset = -1;
+      if (limit != -1)
+        select.limit = limit + offset < 0 ? Integer.MAX_VALUE : limit + offset;
+    }
+
+    try {
+      if (AsyncExecution.isAsync()) {
+        // Waiting on the async executor from a task of the async executor may deadlock, if the executor is bounded, whereby the shards are queried in turn
+        for (int i = 0; i < ids.length; ++i) {
+          try {
+            shards[i] = select.execute(template, null, ids[i], config);
+          }
+          catch (final Throwable t) {
+            exception = Throwables.addSuppressed(exception, t);
+          }
+        }
+      }
+      else {
+        final CompletableFuture<RowIterator<D>>[] futures = new CompletableFuture[ids.length];
+        for (int i = 0; i < ids.length; ++i) {
+          final String id = ids[i];
+          futures[i] = AsyncExecution.submit(null, () -> select.execute(template, null, id, config));
+        }
+
+        for (int i = 0; i < futures.length; ++i) {
+          try {
+            shards[i] = futures[i].join();
+          }
+          catch (final CompletionException e) {
+            exception = Throwables.addSuppressed(exception, e.getCause() != null ? e.getCause() : e);
+          }
+        }
+      }
+    }
+    finally {
+      select.limit = limit;
+      select.offset = offset;
+    }
+
+    if (exception == null)
+      return new MergedRowIterator<>(shards, order, limit, offset, config);
+
+    for (final RowIterator<D> shard : shards) {
+      if (shard != null) {
+        try {
+          shard.close();
+        }
+        catch (final SQLException e) {
+          exception.addSuppressed(e);
+        }
+      }
+    }
+
+    if (exception instanceof SQLException)
+      throw SQLExceptions.toStrongType((SQLException)exception);
+
+    if (exception instanceof IOException)
+      throw (IOException)exception;
+
+    if (exception instanceof RuntimeException)
+      throw (RuntimeException)exception;
+
+    if (exception instanceof Error)
+      throw (Error)exception;
+
+    throw new SQLException(exception);
+  }
+}
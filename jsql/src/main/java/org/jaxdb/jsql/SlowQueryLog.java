@@ -0,0 +1,292 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+
+package org.jaxdb.jsql;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A detector of slow statements, which is set on a {@link Registry} with
+ * {@link Registry#setSlowQueryLog(SlowQueryLog)}. A {@code SELECT},
+ * {@code INSERT}, {@code UPDATE} or {@code DELETE} statement is slow if the
+ * time from the start of its execution until the database has returned its
+ * {@link java.sql.ResultSet} or update count is at or above the threshold.
+ * Slow statements are logged at {@code WARN} level with the compiled SQL, the
+ * bound parameters, and the calling stack frame outside of
+ * {@code org.jaxdb.jsql}. If enabled, the plan of a slow {@code SELECT} is
+ * explained on a separate connection to the data source, and is logged
+ * along. The plan is explained asynchronously, whereby the report of a slow
+ * {@code SELECT} is logged once the plan has been explained, after the
+ * statement has returned to the caller.
+ * <p>
+ * Reports are rate-limited, whereby slow statements in excess of the rate
+ * are counted but not reported, so that the log cannot itself become a
+ * hotspot.
+ */
+public final class SlowQueryLog {
+  private static final Logger logger = LoggerFactory.getLogger(SlowQueryLog.class);
+  private static final int MAX_PARAMETER_LENGTH = 64;
+
+  public static class Builder {
+    private final long threshold;
+    private boolean explain;
+    private int maxReportsPerSecond = 10;
+
+    /**
+     * Creates a new {@link Builder} of a {@link SlowQueryLog} of statements
+     * whose latency is at or above the provided threshold.
+     *
+     * @param threshold The latency threshold.
+     * @param unit The {@link TimeUnit} of {@code threshold}.
+     * @throws IllegalArgumentException If {@code threshold} is negative.
+     * @throws NullPointerException If {@code unit} is null.
+     */
+    public Builder(final long threshold, final TimeUnit unit) {
+      if (threshold < 0)
+        throw new IllegalArgumentException("threshold (" + threshold + ") must be greater than or equal to 0");
+
+      this.threshold = unit.toNanos(threshold);
+    }
+
+    /**
+     * Specifies whether the plan of a slow {@code SELECT} statement is to be
+     * explained and logged. The plan is explained on the executor of
+     * asynchronous statements, on a separate connection to the data source.
+     * For Derby, the statement is executed again to obtain its runtime
+     * statistics. The plan of a statement with a large object parameter is
+     * not explained.
+     *
+     * @param explain Whether the plan of a slow {@code SELECT} statement is to
+     *          be explained and logged.
+     * @return {@code this} builder.
+     */
+    public Builder withExplain(final boolean explain) {
+      this.explain = explain;
+      return this;
+    }
+
+    public Builder withMaxReportsPerSecond(final int max) {
+      if (max <= 0)
+        throw new IllegalArgumentException("maxReportsPerSecond (" + max + ") must be greater than 0");
+
+      this.maxReportsPerSecond = max;
+      return this;
+    }
+
+    /**
+     * @return A new {@link SlowQueryLog} of the configuration of this builder.
+     */
+    public SlowQueryLog build() {
+      return new SlowQueryLog(threshold, explain, TimeUnit.SECONDS.toNanos(1) / maxReportsPerSecond);
+    }
+  }
+
+  private final long threshold;
+  private final boolean explain;
+  private final long interval;
+  private final AtomicLong next;
+  private final AtomicLong suppressed = new AtomicLong();
+
+  private SlowQueryLog(final long threshold, final boolean explain, final long interval) {
+    this.threshold = threshold;
+    this.explain = explain;
+    this.interval = interval;
+    this.next = new AtomicLong(System.nanoTime());
+  }
+
+  /**
+   * @return The latency threshold, in nanoseconds.
+   */
+  public long getThreshold() {
+    return threshold;
+  }
+
+  /**
+   * @return Whether the plan of a slow {@code SELECT} statement is explained
+   *         and logged.
+   */
+  public boolean isExplain() {
+    return explain;
+  }
+
+  /**
+   * @return The number of slow statements that have not been reported due to
+   *         the rate limit since the previous report.
+   */
+  public long getSuppressedCount() {
+    return suppressed.get();
+  }
+
+  /**
+   * Returns whether a slow statement may be reported now, or counts it as
+   * suppressed otherwise.
+   *
+   * @return Whether a slow statement may be reported now.
+   */
+  boolean acquire() {
+    final long now = System.nanoTime();
+    final long next = this.next.get();
+    if (now - next >= 0 && this.next.compareAndSet(next, now + interval))
+      return true;
+
+    suppressed.incrementAndGet();
+    return false;
+  }
+
+  /**
+   * Logs the provided statement if its latency is at or above the threshold
+   * of this log, and the rate limit permits. This method is to be called
+   * while the parameters of the {@link Compilation} are bound.
+   *
+   * @param command The command of the statement.
+   * @param dataSourceId The data source id.
+   * @param compilation The {@link Compilation} of the statement.
+   * @param start The {@link System#nanoTime()} at the start of the execution.
+   */
+  void onExecute(final Command<?> command, final String dataSourceId, final Compilation compilation, final long start) {
+    final long nanos = System.nanoTime() - start;
+    if (nanos < threshold || !logger.isWarnEnabled() || !acquire())
+      return;
+
+    final Class<? extends Schema> schema = command.schema();
+    final String sql = compilation.toString();
+    final List<data.Column<?>> parameters = compilation.getParameters();
+    final StringBuilder builder = new StringBuilder("Slow statement (");
+    builder.append(TimeUnit.NANOSECONDS.toMillis(nanos)).append(" ms) on ").append(schema == null ? null : schema.getName());
+    if (dataSourceId != null)
+      builder.append(" \"").append(dataSourceId).append('"');
+
+    final StackTraceElement caller = getCaller();
+    if (caller != null)
+      builder.append(" at ").append(caller);
+
+    builder.append(":\n  ").append(sql);
+    if (parameters != null && parameters.size() > 0) {
+      builder.append("\n  parameters:");
+      for (int i = 0, len = parameters.size(); i < len;)
+        append(builder.append(" [").append(++i).append("] "), parameters.get(i - 1).get());
+    }
+
+    final long suppressed = this.suppressed.getAndSet(0);
+    if (suppressed > 0)
+      builder.append("\n  (").append(suppressed).append(" slow statements not reported since the previous report)");
+
+    final List<data.Column<?>> snapshot;
+    if (!explain || !(command instanceof SelectImpl.untyped.SELECT) || (snapshot = snapshot(parameters)) == null) {
+      logger.warn(builder.toString());
+      return;
+    }
+
+    // The registration is resolved on the calling thread, because a thread-local registration is not visible to the executor
+    final Registry.Registration registration;
+    try {
+      registration = Schema.getRegistration(schema, dataSourceId);
+    }
+    catch (final SQLException e) {
+      logger.warn(builder.append("\n  plan: unavailable: ").append(e.getMessage()).toString());
+      return;
+    }
+
+    // The plan is explained after the caller is released, whereby the caller is not blocked by the wait for a second connection, nor by the re-execution of the statement on Derby
+    final Compiler compiler = compilation.compiler;
+    try {
+      AsyncExecution.getExecutor().execute(() -> {
+        builder.append("\n  plan:\n");
+        try (final Connection connection = Schema.getConnection(registration, true)) {
+          builder.append(compiler.explain(connection, sql, snapshot));
+        }
+        catch (final Exception e) {
+          builder.append("unavailable: ").append(e.getMessage());
+        }
+
+        logger.warn(builder.toString());
+      });
+    }
+    catch (final RejectedExecutionException e) {
+      logger.warn(builder.append("\n  plan: unavailable: ").append(e.getMessage()).toString());
+    }
+  }
+
+  /**
+   * Returns copies of the provided parameters, which retain their values
+   * after the parameters are rebound or changed by the application.
+   *
+   * @param parameters The parameters of a statement, or {@code null}.
+   * @return Copies of the provided parameters, or {@code null} if a parameter
+   *         is a large object, whose value cannot be copied.
+   */
+  @SuppressWarnings("unchecked")
+  static List<data.Column<?>> snapshot(final List<data.Column<?>> parameters) {
+    if (parameters == null)
+      return Collections.emptyList();
+
+    final ArrayList<data.Column<?>> snapshot = new ArrayList<>(parameters.size());
+    for (final data.Column<?> parameter : parameters) {
+      if (parameter instanceof data.LargeObject)
+        return null;
+
+      final data.Column<Object> copy = (data.Column<Object>)parameter.clone();
+      copy.setValue(parameter.get());
+      snapshot.add(copy);
+    }
+
+    return snapshot;
+  }
+
+  private static void append(final StringBuilder builder, final Object value) {
+    if (value == null) {
+      builder.append("NULL");
+      return;
+    }
+
+    final String string = value.toString();
+    final boolean quote = value instanceof CharSequence || value instanceof Character;
+    if (quote)
+      builder.append('\'');
+
+    if (string.length() > MAX_PARAMETER_LENGTH)
+      builder.append(string, 0, MAX_PARAMETER_LENGTH).append("...");
+    else
+      builder.append(string);
+
+    if (quote)
+      builder.append('\'');
+  }
+
+  /**
+   * @return The first frame of the stack of the current thread that is
+   *         outside of {@code org.jaxdb.jsql}, or {@code null} if there is no
+   *         such frame.
+   */
+  static StackTraceElement getCaller() {
+    for (final StackTraceElement frame : new Throwable().getStackTrace())
+      if (!frame.getClassName().startsWith("org.jaxdb.jsql."))
+        return frame;
+
+    return null;
+  }
+}
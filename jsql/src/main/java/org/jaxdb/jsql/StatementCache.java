@@ -0,0 +1,156 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb.jsql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+
+import org.libj.lang.Throwables;
+import org.libj.sql.AuditStatement;
+
+/**
+ * Least-recently-used cache of {@link PreparedStatement}s of a single
+ * {@link Connection}, keyed by SQL and {@link QueryConfig}. A statement is
+ * checked out of the cache for the duration of its execution, and is returned
+ * to the cache with {@link #release(Statement)}.
+ */
+final class StatementCache {
+  private static final class Key {
+    private final String sql;
+    private final QueryConfig config;
+    private final int hashCode;
+
+    private Key(final String sql, final QueryConfig config) {
+      this.sql = sql;
+      this.config = config;
+      this.hashCode = 31 * sql.hashCode() + Objects.hashCode(config);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (obj == this)
+        return true;
+
+      if (!(obj instanceof Key))
+        return false;
+
+      final Key that = (Key)obj;
+      return hashCode == that.hashCode && sql.equals(that.sql) && Objects.equals(config, that.config);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  private final int maxSize;
+  private final CacheStatistics statistics;
+  private final LinkedHashMap<Key,PreparedStatement> idle = new LinkedHashMap<>(16, 0.75f, true);
+  private final IdentityHashMap<Statement,Key> checkedOut = new IdentityHashMap<>();
+  private boolean closed;
+
+  StatementCache(final int maxSize, final CacheStatistics statistics) {
+    this.maxSize = maxSize;
+    this.statistics = statistics;
+  }
+
+  synchronized PreparedStatement prepareStatement(final Connection connection, final String sql, final QueryConfig config) throws SQLException {
+    if (closed)
+      return Compilation.configure(connection, config, sql);
+
+    final Key key = new Key(sql, config);
+    PreparedStatement statement = idle.remove(key);
+    if (statement != null && !statement.isClosed()) {
+      statistics.hit();
+    }
+    else {
+      statistics.miss();
+      statement = Compilation.configure(connection, config, sql);
+    }
+
+    checkedOut.put(statement, key);
+    return statement;
+  }
+
+  /**
+   * Returns the provided statement to the cache, or closes it if it was not
+   * checked out of this cache.
+   *
+   * @param statement The statement to release.
+   * @return The {@link SQLException} encountered while resetting or closing
+   *         statements, or {@code null} if no exception was encountered.
+   */
+  synchronized SQLException release(final Statement statement) {
+    final Key key = checkedOut.remove(statement);
+    if (key == null || closed)
+      return AuditStatement.close(statement);
+
+    final PreparedStatement preparedStatement = (PreparedStatement)statement;
+    try {
+      preparedStatement.clearParameters();
+    }
+    catch (final SQLException e) {
+      return Throwables.addSuppressed(e, AuditStatement.close(statement));
+    }
+
+    SQLException e = null;
+    final PreparedStatement displaced = idle.put(key, preparedStatement);
+    if (displaced != null && displaced != preparedStatement)
+      e = AuditStatement.close(displaced);
+
+    if (idle.size() > maxSize) {
+      final Iterator<PreparedStatement> iterator = idle.values().iterator();
+      final PreparedStatement eldest = iterator.next();
+      iterator.remove();
+      statistics.evict();
+      e = Throwables.addSuppressed(e, AuditStatement.close(eldest));
+    }
+
+    return e;
+  }
+
+  /**
+   * Closes all statements held by this cache, including statements that are
+   * checked out.
+   *
+   * @return The {@link SQLException} encountered while closing statements, or
+   *         {@code null} if no exception was encountered.
+   */
+  synchronized SQLException close() {
+    if (closed)
+      return null;
+
+    closed = true;
+    SQLException e = null;
+    for (final PreparedStatement statement : idle.values())
+      e = Throwables.addSuppressed(e, AuditStatement.close(statement));
+
+    for (final Statement statement : checkedOut.keySet())
+      e = Throwables.addSuppressed(e, AuditStatement.close(statement));
+
+    idle.clear();
+    checkedOut.clear();
+    return e;
+  }
+}
@@ -0,0 +1,224 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb.jsql;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.ObjIntConsumer;
+
+import org.jaxdb.vendor.DBVendor;
+
+/**
+ * A statement that is compiled once per {@link DBVendor}, and executed many
+ * times with the current values of its parameters.
+ * <p>
+ * On first execution against a vendor, the statement is compiled to a
+ * prepared SQL string and an ordered list of parameter columns, which are
+ * retained for subsequent executions. Every execution binds the values the
+ * parameter columns hold at that time, so a hot path can rebind a template by
+ * setting new values on the columns (entity columns, or table-less columns
+ * such as {@code new data.INT()} used as operands) and executing again,
+ * without re-walking the expression tree.
+ * <p>
+ * The shape of the SQL is fixed at first compilation: conditions that compile
+ * differently depending on the state of a column (such as
+ * {@code IS NULL} for null values, or the set of columns that
+ * {@link data.Column#wasSet() were set} in an entity-based statement) are not
+ * re-evaluated. Statements that generate column values at compile time (see
+ * {@link GenerateOn}) are compiled anew on every execution.
+ */
+public abstract class Template {
+  /**
+   * Returns a {@link Template} of the provided {@code SELECT} statement.
+   *
+   * @param <D> The type of the result entities.
+   * @param select The {@code SELECT} statement.
+   * @return A {@link Template} of the provided {@code SELECT} statement.
+   * @throws IllegalArgumentException If {@code select} is not a jSQL
+   *           {@code SELECT} statement.
+   */
+  @SuppressWarnings("unchecked")
+  public static <D extends data.Entity<?>>Template.Query<D> of(final Executable.Query<D> select) {
+    if (!(select instanceof SelectImpl.untyped.SELECT))
+      throw new IllegalArgumentException("select must be a SELECT statement: " + select);
+
+    return new Query<>((SelectImpl.untyped.SELECT<D>)select);
+  }
+
+  /**
+   * Returns a {@link Template} of the provided {@code INSERT}, {@code UPDATE}
+   * or {@code DELETE} statement.
+   *
+   * @param modify The {@code INSERT}, {@code UPDATE} or {@code DELETE}
+   *          statement.
+   * @return A {@link Template} of the provided statement.
+   * @throws IllegalArgumentException If {@code modify} is not a jSQL
+   *           {@code INSERT}, {@code UPDATE} or {@code DELETE} statement.
+   */
+  public static Template.Modify of(final Executable.Modify modify) {
+    if (!(modify instanceof Command))
+      throw new IllegalArgumentException("modify must be an INSERT, UPDATE or DELETE statement: " + modify);
+
+    return new Modify((Command<?>)modify);
+  }
+
+  public static final class Query<D extends data.Entity<?>> extends Template implements Executable.Query<D> {
+    private final SelectImpl.untyped.SELECT<D> select;
+
+    private Query(final SelectImpl.untyped.SELECT<D> select) {
+      super(select);
+      this.select = select;
+    }
+
+    @Override
+    public RowIterator<D> execute(final String dataSourceId) throws IOException, SQLException {
+      return select.execute(this, null, dataSourceId, null);
+    }
+
+    @Override
+    public RowIterator<D> execute(final Transaction transaction) throws IOException, SQLException {
+      return select.execute(this, transaction, transaction != null ? transaction.getDataSourceId() : null, null);
+    }
+
+    @Override
+    public RowIterator<D> execute() throws IOException, SQLException {
+      return select.execute(this, null, null, null);
+    }
+
+    @Override
+    public RowIterator<D> execute(final String dataSourceId, final QueryConfig config) throws IOException, SQLException {
+      return select.execute(this, null, dataSourceId, config);
+    }
+
+    @Override
+    public RowIterator<D> execute(final Transaction transaction, final QueryConfig config) throws IOException, SQLException {
+      return select.execute(this, transaction, transaction != null ? transaction.getDataSourceId() : null, config);
+    }
+
+    @Override
+    public RowIterator<D> execute(final QueryConfig config) throws IOException, SQLException {
+      return select.execute(this, null, null, config);
+    }
+  }
+
+  public static final class Modify extends Template {
+    private Modify(final Command<?> command) {
+      super(command);
+    }
+
+    public int execute(final String dataSourceId) throws IOException, SQLException {
+      return Executable.execute(command, this, null, dataSourceId, null);
+    }
+
+    public int execute(final Transaction transaction) throws IOException, SQLException {
+      return Executable.execute(command, this, transaction, transaction == null ? null : transaction.getDataSourceId(), null);
+    }
+
+    public int execute(final Transaction transaction, final ObjIntConsumer<Transaction.Event> onEvent) throws IOException, SQLException {
+      return Executable.execute(command, this, transaction, transaction == null ? null : transaction.getDataSourceId(), onEvent);
+    }
+
+    public int execute() throws IOException, SQLException {
+      return Executable.execute(command, this, null, null, null);
+    }
+
+    public CompletableFuture<Integer> executeAsync(final String dataSourceId) {
+      return AsyncExecution.submit(null, () -> execute(dataSourceId));
+    }
+
+    public CompletableFuture<Integer> executeAsync(final Transaction transaction) {
+      return AsyncExecution.submit(transaction, () -> execute(transaction));
+    }
+
+    public CompletableFuture<Integer> executeAsync(final Transaction transaction, final ObjIntConsumer<Transaction.Event> onEvent) {
+      return AsyncExecution.submit(transaction, () -> execute(transaction, onEvent));
+    }
+
+    public CompletableFuture<Integer> executeAsync() {
+      return AsyncExecution.submit(null, () -> execute());
+    }
+  }
+
+  final Command<?> command;
+  private final AtomicReferenceArray<Compilation> compilations = new AtomicReferenceArray<>(DBVendor.values().length);
+
+  private Template(final Command<?> command) {
+    this.command = command;
+  }
+
+  /**
+   * Returns the compiled {@link Compilation} of this template for the provided
+   * {@link DBVendor}, compiling and freezing it on first access.
+   *
+   * @param vendor The {@link DBVendor}.
+   * @return The compiled {@link Compilation} of this template for the provided
+   *         {@link DBVendor}.
+   * @throws IOException If an I/O error has occurred.
+   * @throws SQLException If a SQL error has occurred.
+   */
+  Compilation getCompilation(final DBVendor vendor) throws IOException, SQLException {
+    final int index = vendor.ordinal();
+    Compilation compilation = compilations.get(index);
+    if (compilation != null)
+      return compilation;
+
+    synchronized (compilations) {
+      compilation = compilations.get(index);
+      if (compilation != null)
+        return compilation;
+
+      compilation = Compilation.compile(command, vendor, true);
+      if (compilation.hasGeneratedValues)
+        return compilation;
+
+      compilation.freeze();
+      compilations.set(index, compilation);
+      return compilation;
+    }
+  }
+
+  /**
+   * Returns the parameter columns of this template for the provided
+   * {@link DBVendor}, in the order in which they are bound.
+   *
+   * @param vendor The {@link DBVendor}.
+   * @return The parameter columns of this template for the provided
+   *         {@link DBVendor}.
+   * @throws IOException If an I/O error has occurred.
+   * @throws SQLException If a SQL error has occurred.
+   */
+  public List<data.Column<?>> getParameters(final DBVendor vendor) throws IOException, SQLException {
+    final List<data.Column<?>> parameters = getCompilation(vendor).getParameters();
+    return parameters == null ? Collections.emptyList() : Collections.unmodifiableList(parameters);
+  }
+
+  /**
+   * Returns the SQL of this template for the provided {@link DBVendor}.
+   *
+   * @param vendor The {@link DBVendor}.
+   * @return The SQL of this template for the provided {@link DBVendor}.
+   * @throws IOException If an I/O error has occurred.
+   * @throws SQLException If a SQL error has occurred.
+   */
+  public String toString(final DBVendor vendor) throws IOException, SQLException {
+    return getCompilation(vendor).toString();
+  }
+}
@@ -20,9 +20,11 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 import org.jaxdb.vendor.DBVendor;
+import org.libj.lang.Throwables;
 import org.libj.sql.exception.SQLExceptions;
 
 public class Transaction implements AutoCloseable {
@@ -36,9 +38,17 @@ public class Transaction implements AutoCloseable {
   private final String dataSourceId;
   private DBVendor vendor;
   private boolean closed;
+  private boolean readOnly;
 
   private Connection connection;
+  private StatementCache statementCache;
+  private WriteBehind writeBehind;
+  private IdentityMap identityMap;
+  private Invalidation invalidation;
+  private ReplicaSet pinOnCommit;
+  private CompletableFuture<Void> lastExecution;
   private ArrayList<Consumer<Event>> listeners;
+  private JfrEvents.TransactionEvent jfrEvent;
 
   public Transaction(final Class<? extends Schema> schema, final String dataSourceId) {
     this.schema = schema;
@@ -49,22 +59,220 @@ public class Transaction implements AutoCloseable {
     this(schema, null);
   }
 
-  public DBVendor getVendor() throws SQLException {
-    return vendor == null ? vendor = DBVendor.valueOf(getConnection().getMetaData()) : vendor;
+  public synchronized DBVendor getVendor() throws SQLException {
+    return vendor == null ? vendor = Schema.getDBVendor(schema, dataSourceId, getConnection()) : vendor;
   }
 
-  public Connection getConnection() throws SQLException {
+  public synchronized Connection getConnection() throws SQLException {
+    if (JfrEvents.ENABLED && jfrEvent == null)
+      jfrEvent = JfrEvents.TransactionEvent.start();
+
     if (connection != null)
       return connection;
 
     try {
-      return this.connection = Objects.requireNonNull(Schema.getConnection(schema, dataSourceId, false));
+      if (readOnly) {
+        this.connection = Objects.requireNonNull(Schema.getReadConnection(schema, dataSourceId, false));
+        this.connection.setReadOnly(true);
+      }
+      else {
+        this.connection = Objects.requireNonNull(Schema.getConnection(schema, dataSourceId, false));
+      }
+
+      final Registry.Registration registration = Registry.getRegistration(schema, dataSourceId);
+      if (registration != null)
+        this.statementCache = registration.newStatementCache();
+
+      return this.connection;
     }
     catch (final SQLException e) {
       throw SQLExceptions.toStrongType(e);
     }
   }
 
+  /**
+   * Specifies whether this transaction is read-only. The {@link Connection} of
+   * a read-only transaction is {@linkplain Connection#setReadOnly(boolean) set
+   * read-only}, and is to a read replica of the data source if replicas are
+   * {@linkplain Registry#registerReplicas(Class,String,Registry.Routing,long,java.util.concurrent.TimeUnit,Connector...)
+   * registered}.
+   *
+   * @param readOnly Whether this transaction is read-only.
+   * @return {@code this} transaction.
+   * @throws IllegalStateException If the {@link Connection} of this
+   *           transaction has already been acquired.
+   */
+  public synchronized Transaction setReadOnly(final boolean readOnly) {
+    if (connection != null)
+      throw new IllegalStateException("Connection has already been acquired");
+
+    this.readOnly = readOnly;
+    return this;
+  }
+
+  synchronized StatementCache getStatementCache() {
+    return statementCache;
+  }
+
+  /**
+   * Starts an asynchronous execution after all asynchronous executions
+   * previously enqueued for this transaction have finished.
+   *
+   * @param start The {@link Runnable} that starts the execution.
+   * @param finished The {@link CompletableFuture} that is completed when the
+   *          execution has finished.
+   */
+  void enqueue(final Runnable start, final CompletableFuture<Void> finished) {
+    final CompletableFuture<Void> previous;
+    synchronized (this) {
+      previous = lastExecution;
+      lastExecution = finished;
+    }
+
+    if (previous == null)
+      start.run();
+    else
+      previous.whenComplete((v, t) -> start.run());
+  }
+
+  synchronized WriteBehind getWriteBehind() {
+    return writeBehind;
+  }
+
+  /**
+   * Sets the write-behind threshold of this transaction. When write-behind is
+   * enabled, prepared {@code INSERT}, {@code UPDATE} and {@code DELETE}
+   * statements executed in this transaction are not sent to the database
+   * immediately, but are added to a JDBC batch of consecutive statements with
+   * identical SQL. The batch is executed when it reaches the threshold, when a
+   * statement with different SQL is executed, before a {@code SELECT} or
+   * {@link Batch} is executed, and before this transaction is committed.
+   * Deferred statements are discarded when this transaction is rolled back or
+   * closed.
+   * <p>
+   * The {@code execute(...)} methods of deferred statements return
+   * {@link java.sql.Statement#SUCCESS_NO_INFO}. The update count of a deferred
+   * statement is provided to the listener passed to
+   * {@link Executable.Modify#execute(Transaction,java.util.function.ObjIntConsumer)} when the
+   * batch is executed.
+   * <p>
+   * Statements are executed immediately if the vendor does not support
+   * prepared batch execution, or does not support the return of generated keys
+   * during batch execution and the statement returns generated keys.
+   *
+   * @param threshold The number of statements at which a batch is executed, or
+   *          {@code 0} to disable write-behind.
+   * @return {@code this} transaction.
+   * @throws IllegalArgumentException If {@code threshold} is negative.
+   * @throws SQLException If a SQL error has occurred while executing the
+   *           pending batch.
+   */
+  public synchronized Transaction setWriteBehind(final int threshold) throws SQLException {
+    if (threshold < 0)
+      throw new IllegalArgumentException("threshold (" + threshold + ") must be greater than or equal to 0");
+
+    flush();
+    this.writeBehind = threshold == 0 ? null : new WriteBehind(this, threshold);
+    return this;
+  }
+
+  /**
+   * Executes the statements that are pending in the write-behind batch of this
+   * transaction.
+   *
+   * @return The total update count of the executed statements, or
+   *         {@link java.sql.Statement#SUCCESS_NO_INFO} if the update count of
+   *         no executed statement is known.
+   * @throws SQLException If a SQL error has occurred.
+   */
+  public synchronized int flush() throws SQLException {
+    return writeBehind == null ? 0 : writeBehind.flush();
+  }
+
+  synchronized IdentityMap getIdentityMap() {
+    return identityMap;
+  }
+
+  /**
+   * Specifies whether this transaction has an identity map. When the identity
+   * map is enabled, each row of a table that is read in this transaction is
+   * represented by one {@link data.Table} instance, which is returned for all
+   * subsequent queries that select the row. An object query of a single
+   * table whose set columns are exactly its primary key columns, such as
+   * {@code SELECT(customer)} with only {@code customer.customerNumber} set, is
+   * answered from the identity map without accessing the database if the row
+   * has been read in this transaction.
+   * <p>
+   * Entities that are inserted, updated or deleted in this transaction replace
+   * or evict their instances in the identity map. {@code UPDATE} and
+   * {@code DELETE} statements with a {@code WHERE} condition evict all
+   * instances of the table. The identity map is cleared when this transaction
+   * is rolled back.
+   *
+   * @param enabled Whether this transaction has an identity map.
+   * @return {@code this} transaction.
+   */
+  public synchronized Transaction setIdentityMap(final boolean enabled) {
+    if (!enabled)
+      this.identityMap = null;
+    else if (this.identityMap == null)
+      this.identityMap = new IdentityMap();
+
+    return this;
+  }
+
+  synchronized Invalidation getInvalidation() {
+    return invalidation;
+  }
+
+  /**
+   * Returns the {@link Invalidation} of the statements executed in this
+   * transaction, which is applied to the caches of the provided
+   * {@link Registry.Registration} when this transaction is committed, and is
+   * discarded when this transaction is rolled back.
+   *
+   * @param registration The {@link Registry.Registration} of the data source
+   *          of this transaction.
+   * @return The {@link Invalidation} of the statements executed in this
+   *         transaction.
+   */
+  synchronized Invalidation getInvalidation(final Registry.Registration registration) {
+    if (invalidation != null)
+      return invalidation;
+
+    final Invalidation invalidation = this.invalidation = new Invalidation(registration);
+    addListener(e -> {
+      if (e == Event.COMMIT)
+        invalidation.run();
+
+      this.invalidation = null;
+    });
+
+    return invalidation;
+  }
+
+  /**
+   * Pins the reads of the thread that commits this transaction to the primary
+   * data source of the provided {@link ReplicaSet} when this transaction is
+   * committed, whereby the pin-after-write time starts when the writes of this
+   * transaction become visible.
+   *
+   * @param replicas The {@link ReplicaSet} of the data source of this
+   *          transaction.
+   */
+  synchronized void pinOnCommit(final ReplicaSet replicas) {
+    if (pinOnCommit == replicas)
+      return;
+
+    pinOnCommit = replicas;
+    addListener(e -> {
+      if (e == Event.COMMIT)
+        replicas.pin();
+
+      pinOnCommit = null;
+    });
+  }
+
   public Class<? extends Schema> getSchemaClass() {
     return this.schema;
   }
@@ -74,6 +282,7 @@ public class Transaction implements AutoCloseable {
   }
 
   private void notifyListeners(final Event event) {
+    endJfrEvent(event.name());
     if (this.listeners != null) {
       for (final Consumer<Event> listener : this.listeners)
         listener.accept(event);
@@ -82,7 +291,14 @@ public class Transaction implements AutoCloseable {
     }
   }
 
-  protected void addListener(final Consumer<Event> listener) {
+  private void endJfrEvent(final String outcome) {
+    if (jfrEvent != null) {
+      jfrEvent.end(schema, dataSourceId, outcome, listeners == null ? 0 : listeners.size());
+      jfrEvent = null;
+    }
+  }
+
+  protected synchronized void addListener(final Consumer<Event> listener) {
     Objects.requireNonNull(listener);
     if (this.listeners == null)
       this.listeners = new ArrayList<>();
@@ -90,63 +306,139 @@ public class Transaction implements AutoCloseable {
     this.listeners.add(listener);
   }
 
-  public boolean commit() throws SQLException {
-    if (connection == null)
-      return false;
+  /**
+   * Waits for the asynchronous executions enqueued for this transaction to
+   * finish, unless called from one of them. An execution whose result is a
+   * {@link RowIterator} has finished once the {@link RowIterator} is closed.
+   */
+  private void awaitExecutions() {
+    if (AsyncExecution.isExecuting(this))
+      return;
 
-    try {
-      connection.commit();
-      notifyListeners(Event.COMMIT);
-      return true;
+    final CompletableFuture<Void> lastExecution;
+    synchronized (this) {
+      lastExecution = this.lastExecution;
     }
-    catch (final SQLException e) {
-      throw SQLExceptions.toStrongType(e);
+
+    if (lastExecution != null)
+      lastExecution.join();
+  }
+
+  /**
+   * Commits this transaction, after the asynchronous executions enqueued for
+   * this transaction have finished. The {@link RowIterator}s of asynchronous
+   * queries of this transaction are therefore to be closed before this
+   * method is called.
+   *
+   * @return {@code true} if this transaction has a {@link Connection} that
+   *         was committed, otherwise {@code false}.
+   * @throws SQLException If a SQL error has occurred.
+   */
+  public boolean commit() throws SQLException {
+    awaitExecutions();
+    synchronized (this) {
+      if (connection == null)
+        return false;
+
+      try {
+        flush();
+        connection.commit();
+        notifyListeners(Event.COMMIT);
+        return true;
+      }
+      catch (final SQLException e) {
+        throw SQLExceptions.toStrongType(e);
+      }
     }
   }
 
+  /**
+   * Rolls back this transaction, after the asynchronous executions enqueued
+   * for this transaction have finished.
+   *
+   * @return {@code true} if this transaction has a {@link Connection} that
+   *         was rolled back, otherwise {@code false}.
+   * @throws SQLException If a SQL error has occurred.
+   */
   public boolean rollback() throws SQLException {
-    if (connection == null)
-      return false;
+    awaitExecutions();
+    synchronized (this) {
+      if (connection == null)
+        return false;
 
-    try {
-      connection.rollback();
-      notifyListeners(Event.ROLLBACK);
-      return true;
-    }
-    catch (final SQLException e) {
-      throw SQLExceptions.toStrongType(e);
+      try {
+        final SQLException e = writeBehind == null ? null : writeBehind.discard();
+        if (identityMap != null)
+          identityMap.clear();
+
+        connection.rollback();
+        notifyListeners(Event.ROLLBACK);
+        if (e != null)
+          throw e;
+
+        return true;
+      }
+      catch (final SQLException e) {
+        throw SQLExceptions.toStrongType(e);
+      }
     }
   }
 
   public boolean rollback(final Throwable t) {
-    if (connection == null)
-      return false;
+    awaitExecutions();
+    synchronized (this) {
+      if (connection == null)
+        return false;
 
-    try {
-      connection.rollback();
-      notifyListeners(Event.ROLLBACK);
-      return true;
-    }
-    catch (final SQLException e) {
-      t.addSuppressed(e);
-      return false;
+      if (writeBehind != null) {
+        final SQLException e = writeBehind.discard();
+        if (e != null)
+          t.addSuppressed(e);
+      }
+
+      if (identityMap != null)
+        identityMap.clear();
+
+      try {
+        connection.rollback();
+        notifyListeners(Event.ROLLBACK);
+        return true;
+      }
+      catch (final SQLException e) {
+        t.addSuppressed(e);
+        return false;
+      }
     }
   }
 
   @Override
   public void close() throws SQLException {
-    if (closed)
-      return;
+    awaitExecutions();
+    synchronized (this) {
+      if (closed)
+        return;
 
-    closed = true;
-    if (connection == null)
-      return;
+      closed = true;
+      identityMap = null;
+      invalidation = null;
+      pinOnCommit = null;
+      endJfrEvent("CLOSE");
+      if (connection == null)
+        return;
 
-    try {
-      connection.close();
-    }
-    catch (final SQLException e) {
-      throw SQLExceptions.toStrongType(e);
+      SQLException e = writeBehind == null ? null : writeBehind.discard();
+      if (statementCache != null)
+        e = Throwables.addSuppressed(e, statementCache.close());
+
+      try {
+        connection.close();
+      }
+      catch (final SQLException e1) {
+        e = Throwables.addSuppressed(e1, e);
+      }
+
+      if (e != null)
+        throw SQLExceptions.toStrongType(e);
     }
   }
-}
\ No newline at end of file
+}
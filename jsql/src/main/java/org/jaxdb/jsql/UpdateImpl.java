@@ -28,7 +28,7 @@ import org.jaxdb.jsql.data.Table;
 final class UpdateImpl extends Command<data.Column<?>> implements SET {
   private data.Table table;
   private List<Subject> sets;
-  private Condition<?> where;
+  Condition<?> where;
 
   UpdateImpl(final data.Table table) {
     this.table = table;
@@ -100,6 +100,27 @@ final class UpdateImpl extends Command<data.Column<?>> implements SET {
       compiler.compileUpdate(table, compilation);
   }
 
+  @Override
+  data.Table getPrimaryKeyEntity() {
+    return sets == null ? table : null;
+  }
+
+  @Override
+  void afterExecute(final IdentityMap identityMap) {
+    if (sets == null)
+      identityMap.put(table);
+    else
+      identityMap.evict(table.getClass());
+  }
+
+  @Override
+  void invalidate(final Invalidation invalidation) {
+    if (sets == null)
+      invalidation.remove(table);
+    else
+      invalidation.evict(table.getClass());
+  }
+
   @Override
   public void close() {
     table = null;
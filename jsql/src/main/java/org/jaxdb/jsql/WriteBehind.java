@@ -0,0 +1,196 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb.jsql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+import org.libj.lang.Throwables;
+import org.libj.sql.exception.SQLExceptions;
+
+/**
+ * Write-behind buffer of the {@code INSERT}, {@code UPDATE} and
+ * {@code DELETE} statements of a {@link Transaction}. Consecutive statements
+ * with identical SQL are added to the batch of a single
+ * {@link PreparedStatement}, which is executed when a statement with
+ * different SQL is deferred, when the batch reaches the threshold, or when
+ * the buffer is {@link #flush() flushed}.
+ */
+final class WriteBehind {
+  private static final class Entry {
+    private final Compilation compilation;
+    private final data.Column<?>[] autos;
+    private final ObjIntConsumer<Transaction.Event> onEvent;
+
+    private Entry(final Compilation compilation, final data.Column<?>[] autos, final ObjIntConsumer<Transaction.Event> onEvent) {
+      this.compilation = compilation;
+      this.autos = autos;
+      this.onEvent = onEvent;
+    }
+  }
+
+  private final Transaction transaction;
+  private final int threshold;
+  private final ArrayList<Entry> entries;
+  private PreparedStatement statement;
+  private String sql;
+  private boolean returning;
+
+  WriteBehind(final Transaction transaction, final int threshold) {
+    this.transaction = transaction;
+    this.threshold = threshold;
+    this.entries = new ArrayList<>(Math.min(threshold, 64));
+  }
+
+  /**
+   * Binds the parameters of the provided {@link Compilation} and adds them to
+   * the pending batch, executing the pending batch beforehand if its SQL
+   * differs from that of the compilation.
+   *
+   * @param connection The {@link Connection} of the transaction.
+   * @param compilation The {@link Compilation} of the statement to defer.
+   * @param autos The auto-generated columns to be set from the generated keys,
+   *          or {@code null} if the statement does not return generated keys.
+   * @param onEvent The listener to be notified of the update count of the
+   *          statement, or {@code null}.
+   * @throws SQLException If a SQL error has occurred.
+   */
+  void add(final Connection connection, final Compilation compilation, final data.Column<?>[] autos, final ObjIntConsumer<Transaction.Event> onEvent) throws SQLException {
+    final String sql = compilation.toString();
+    if (statement != null && (returning != (autos != null) || !sql.equals(this.sql)))
+      flush();
+
+    if (statement == null) {
+      final StatementCache statementCache = transaction.getStatementCache();
+      if (autos != null)
+        statement = compilation.compiler.prepareStatementReturning(connection, sql, autos);
+      else if (statementCache != null)
+        statement = statementCache.prepareStatement(connection, sql, null);
+      else
+        statement = connection.prepareStatement(sql);
+
+      this.sql = sql;
+      this.returning = autos != null;
+    }
+
+    final List<data.Column<?>> parameters = compilation.getParameters();
+    if (parameters != null)
+      for (int i = 0, len = parameters.size(); i < len;)
+        parameters.get(i).get(compilation.compiler, statement, ++i);
+
+    statement.addBatch();
+    entries.add(new Entry(compilation, autos, onEvent));
+    if (entries.size() >= threshold)
+      flush();
+  }
+
+  /**
+   * Executes the pending batch, sets the generated keys of deferred
+   * {@code INSERT} statements, and notifies the listeners of the deferred
+   * statements of their update counts.
+   *
+   * @return The total update count of the pending batch, or
+   *         {@link Statement#SUCCESS_NO_INFO} if the update count of no
+   *         statement in the batch is known.
+   * @throws SQLException If a SQL error has occurred.
+   */
+  int flush() throws SQLException {
+    if (statement == null)
+      return 0;
+
+    final int[] counts;
+    try {
+      AsyncExecution.register(statement);
+      counts = statement.executeBatch();
+      if (returning) {
+        try (final ResultSet resultSet = statement.getGeneratedKeys()) {
+          for (int i = 0, len = entries.size(); i < len && resultSet.next(); ++i) {
+            final Entry entry = entries.get(i);
+            final data.Column<?>[] autos = entry.autos;
+            for (int j = 0, lenj = autos.length; j < lenj;)
+              autos[j].set(entry.compilation.compiler, resultSet, ++j);
+          }
+        }
+      }
+    }
+    catch (final SQLException e) {
+      throw SQLExceptions.toStrongType(Throwables.addSuppressed(e, discard()));
+    }
+
+    int total = 0;
+    boolean hasInfo = false;
+    for (int i = 0, len = entries.size(); i < len; ++i) {
+      final Entry entry = entries.get(i);
+      final int count = i < counts.length ? counts[i] : Statement.SUCCESS_NO_INFO;
+      if (count != Statement.SUCCESS_NO_INFO) {
+        total += count;
+        hasInfo = true;
+      }
+
+      entry.compilation.afterExecute(true);
+      final ObjIntConsumer<Transaction.Event> onEvent = entry.onEvent;
+      if (onEvent != null) {
+        onEvent.accept(Transaction.Event.EXECUTE, count);
+        transaction.addListener(e -> onEvent.accept(e, count));
+      }
+    }
+
+    entries.clear();
+    final SQLException e = release();
+    if (e != null)
+      throw SQLExceptions.toStrongType(e);
+
+    return hasInfo ? total : Statement.SUCCESS_NO_INFO;
+  }
+
+  /**
+   * Discards the pending batch without executing it.
+   *
+   * @return The {@link SQLException} encountered while closing the pending
+   *         statement, or {@code null} if no exception was encountered.
+   */
+  SQLException discard() {
+    for (int i = 0, len = entries.size(); i < len; ++i)
+      entries.get(i).compilation.afterExecute(false);
+
+    entries.clear();
+    if (statement == null)
+      return null;
+
+    try {
+      statement.clearBatch();
+    }
+    catch (final SQLException e) {
+      return Throwables.addSuppressed(e, release());
+    }
+
+    return release();
+  }
+
+  private SQLException release() {
+    final PreparedStatement statement = this.statement;
+    this.statement = null;
+    this.sql = null;
+    return Compilation.release(statement, returning ? null : transaction.getStatementCache());
+  }
+}
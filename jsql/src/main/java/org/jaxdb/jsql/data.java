@@ -36,6 +36,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.Objects;
 import java.util.Set;
@@ -829,20 +830,35 @@ public final class data {
 
     @Override
     void get(final PreparedStatement statement, final int parameterIndex) throws IOException, SQLException {
+      get(Compiler.getCompiler(DBVendor.valueOf(statement.getConnection().getMetaData())), statement, parameterIndex);
+    }
+
+    @Override
+    void get(final Compiler compiler, final PreparedStatement statement, final int parameterIndex) throws IOException, SQLException {
       assertMutable();
-      Compiler.getCompiler(DBVendor.valueOf(statement.getConnection().getMetaData())).setParameter(this, statement, parameterIndex);
+      compiler.setParameter(this, statement, parameterIndex);
     }
 
     @Override
     final void update(final ResultSet resultSet, final int columnIndex) throws SQLException {
-      Compiler.getCompiler(DBVendor.valueOf(resultSet.getStatement().getConnection().getMetaData())).updateColumn(this, resultSet, columnIndex);
+      update(Compiler.getCompiler(DBVendor.valueOf(resultSet.getStatement().getConnection().getMetaData())), resultSet, columnIndex);
+    }
+
+    @Override
+    final void update(final Compiler compiler, final ResultSet resultSet, final int columnIndex) throws SQLException {
+      compiler.updateColumn(this, resultSet, columnIndex);
     }
 
     @Override
     final void set(final ResultSet resultSet, final int columnIndex) throws SQLException {
+      set(Compiler.getCompiler(DBVendor.valueOf(resultSet.getStatement().getConnection().getMetaData())), resultSet, columnIndex);
+    }
+
+    @Override
+    final void set(final Compiler compiler, final ResultSet resultSet, final int columnIndex) throws SQLException {
       assertMutable();
       this.columnIndex = columnIndex;
-      this.value = Compiler.getCompiler(DBVendor.valueOf(resultSet.getStatement().getConnection().getMetaData())).getParameter(this, resultSet, columnIndex);
+      this.value = compiler.getParameter(this, resultSet, columnIndex);
     }
 
     @Override
@@ -1118,27 +1134,36 @@ public final class data {
     private static final Class<String> type = String.class;
 
     private final boolean varying;
+    private final Interner interner;
 
     CHAR(final Table owner, final boolean mutable, final String name, final boolean unique, final boolean primary, final boolean nullable, final String _default, final GenerateOn<? super String> generateOnInsert, final GenerateOn<? super String> generateOnUpdate, final boolean keyForUpdate, final long length, final boolean varying) {
+      this(owner, mutable, name, unique, primary, nullable, _default, generateOnInsert, generateOnUpdate, keyForUpdate, length, varying, false);
+    }
+
+    CHAR(final Table owner, final boolean mutable, final String name, final boolean unique, final boolean primary, final boolean nullable, final String _default, final GenerateOn<? super String> generateOnInsert, final GenerateOn<? super String> generateOnUpdate, final boolean keyForUpdate, final long length, final boolean varying, final boolean intern) {
       super(owner, mutable, name, unique, primary, nullable, _default, generateOnInsert, generateOnUpdate, keyForUpdate, length);
       this.varying = varying;
+      this.interner = intern ? Interner.of(owner.getClass(), name) : null;
       checkLength(length);
     }
 
     CHAR(final CHAR copy) {
       super(copy, copy.length(), true);
       this.varying = copy.varying;
+      this.interner = copy.interner;
     }
 
     public CHAR(final long length, final boolean varying) {
       super((short)length, true);
       this.varying = varying;
+      this.interner = null;
       checkLength(length);
     }
 
     public CHAR(final Long length, final boolean varying) {
       super(Numbers.cast(length, Short.class), true);
       this.varying = varying;
+      this.interner = null;
       checkLength(length);
     }
 
@@ -1162,6 +1187,7 @@ public final class data {
     private CHAR(final boolean mutable) {
       super(null, mutable);
       this.varying = true;
+      this.interner = null;
     }
 
     public final CHAR set(final type.CHAR value) {
@@ -1209,19 +1235,35 @@ public final class data {
 
     @Override
     final void get(final PreparedStatement statement, final int parameterIndex) throws SQLException {
-      Compiler.getCompiler(DBVendor.valueOf(statement.getConnection().getMetaData())).setParameter(this, statement, parameterIndex);
+      get(Compiler.getCompiler(DBVendor.valueOf(statement.getConnection().getMetaData())), statement, parameterIndex);
+    }
+
+    @Override
+    final void get(final Compiler compiler, final PreparedStatement statement, final int parameterIndex) throws SQLException {
+      compiler.setParameter(this, statement, parameterIndex);
     }
 
     @Override
     final void update(final ResultSet resultSet, final int columnIndex) throws SQLException {
-      Compiler.getCompiler(DBVendor.valueOf(resultSet.getStatement().getConnection().getMetaData())).updateColumn(this, resultSet, columnIndex);
+      update(Compiler.getCompiler(DBVendor.valueOf(resultSet.getStatement().getConnection().getMetaData())), resultSet, columnIndex);
+    }
+
+    @Override
+    final void update(final Compiler compiler, final ResultSet resultSet, final int columnIndex) throws SQLException {
+      compiler.updateColumn(this, resultSet, columnIndex);
     }
 
     @Override
     final void set(final ResultSet resultSet, final int columnIndex) throws SQLException {
+      set(Compiler.getCompiler(DBVendor.valueOf(resultSet.getStatement().getConnection().getMetaData())), resultSet, columnIndex);
+    }
+
+    @Override
+    final void set(final Compiler compiler, final ResultSet resultSet, final int columnIndex) throws SQLException {
       assertMutable();
       this.columnIndex = columnIndex;
-      this.value = Compiler.getCompiler(DBVendor.valueOf(resultSet.getStatement().getConnection().getMetaData())).getParameter(this, resultSet, columnIndex);
+      final String value = compiler.getParameter(this, resultSet, columnIndex);
+      this.value = interner != null ? interner.intern(value) : value;
     }
 
     @Override
@@ -1328,20 +1370,35 @@ public final class data {
 
     @Override
     void get(final PreparedStatement statement, final int parameterIndex) throws IOException, SQLException {
+      get(Compiler.getCompiler(DBVendor.valueOf(statement.getConnection().getMetaData())), statement, parameterIndex);
+    }
+
+    @Override
+    void get(final Compiler compiler, final PreparedStatement statement, final int parameterIndex) throws IOException, SQLException {
       assertMutable();
-      Compiler.getCompiler(DBVendor.valueOf(statement.getConnection().getMetaData())).setParameter(this, statement, parameterIndex);
+      compiler.setParameter(this, statement, parameterIndex);
     }
 
     @Override
     final void update(final ResultSet resultSet, final int columnIndex) throws SQLException {
-      Compiler.getCompiler(DBVendor.valueOf(resultSet.getStatement().getConnection().getMetaData())).updateColumn(this, resultSet, columnIndex);
+      update(Compiler.getCompiler(DBVendor.valueOf(resultSet.getStatement().getConnection().getMetaData())), resultSet, columnIndex);
+    }
+
+    @Override
+    final void update(final Compiler compiler, final ResultSet resultSet, final int columnIndex) throws SQLException {
+      compiler.updateColumn(this, resultSet, columnIndex);
     }
 
     @Override
     final void set(final ResultSet resultSet, final int columnIndex) throws SQLException {
+      set(Compiler.getCompiler(DBVendor.valueOf(resultSet.getStatement().getConnection().getMetaData())), resultSet, columnIndex);
+    }
+
+    @Override
+    final void set(final Compiler compiler, final ResultSet resultSet, final int columnIndex) throws SQLException {
       assertMutable();
       this.columnIndex = columnIndex;
-      this.value = Compiler.getCompiler(DBVendor.valueOf(resultSet.getStatement().getConnection().getMetaData())).getParameter(this, resultSet, columnIndex);
+      this.value = compiler.getParameter(this, resultSet, columnIndex);
     }
 
     @Override
@@ -1464,19 +1521,34 @@ public final class data {
 
     @Override
     final void get(final PreparedStatement statement, final int parameterIndex) throws SQLException {
-      Compiler.getCompiler(DBVendor.valueOf(statement.getConnection().getMetaData())).setParameter(this, statement, parameterIndex);
+      get(Compiler.getCompiler(DBVendor.valueOf(statement.getConnection().getMetaData())), statement, parameterIndex);
+    }
+
+    @Override
+    final void get(final Compiler compiler, final PreparedStatement statement, final int parameterIndex) throws SQLException {
+      compiler.setParameter(this, statement, parameterIndex);
     }
 
     @Override
     final void update(final ResultSet resultSet, final int columnIndex) throws SQLException {
-      Compiler.getCompiler(DBVendor.valueOf(resultSet.getStatement().getConnection().getMetaData())).updateColumn(this, resultSet, columnIndex);
+      update(Compiler.getCompiler(DBVendor.valueOf(resultSet.getStatement().getConnection().getMetaData())), resultSet, columnIndex);
+    }
+
+    @Override
+    final void update(final Compiler compiler, final ResultSet resultSet, final int columnIndex) throws SQLException {
+      compiler.updateColumn(this, resultSet, columnIndex);
     }
 
     @Override
     final void set(final ResultSet resultSet, final int columnIndex) throws SQLException {
+      set(Compiler.getCompiler(DBVendor.valueOf(resultSet.getStatement().getConnection().getMetaData())), resultSet, columnIndex);
+    }
+
+    @Override
+    final void set(final Compiler compiler, final ResultSet resultSet, final int columnIndex) throws SQLException {
       assertMutable();
       this.columnIndex = columnIndex;
-      this.value = Compiler.getCompiler(DBVendor.valueOf(resultSet.getStatement().getConnection().getMetaData())).getParameter(this, resultSet, columnIndex);
+      this.value = compiler.getParameter(this, resultSet, columnIndex);
     }
 
     @Override
@@ -1672,7 +1744,7 @@ public final class data {
       if (rows.getConcurrency() == Concurrency.READ_ONLY)
         throw new IllegalStateException(rows.getConcurrency().getClass().getSimpleName() + "." + rows.getConcurrency());
 
-      update(rows.resultSet, columnIndex);
+      update(rows.getCompiler(), rows.resultSet, columnIndex);
     }
 
     public final <V extends Column<T>>V AS(final V column) {
@@ -1690,6 +1762,14 @@ public final class data {
       Compiler.compile(this, compilation, isExpression);
     }
 
+    /**
+     * @return Whether {@link #evaluate(Set)} of this column evaluates to the
+     *         value of this column itself.
+     */
+    final boolean isEvaluatedAsValue() {
+      return ref == null && wrapper() == null;
+    }
+
     @Override
     Object evaluate(final Set<Evaluable> visited) {
       if (ref == null || visited.contains(this))
@@ -1704,6 +1784,53 @@ public final class data {
     abstract void get(PreparedStatement statement, int parameterIndex) throws IOException, SQLException;
     abstract void set(ResultSet resultSet, int columnIndex) throws SQLException;
     abstract void update(ResultSet resultSet, int columnIndex) throws SQLException;
+
+    /**
+     * Binds the value of this column to the specified parameter of the
+     * provided {@link PreparedStatement}, using the provided {@link Compiler}
+     * of the vendor of the statement's connection. Columns whose binding is
+     * vendor-specific override this method to avoid resolving the vendor from
+     * the connection for each parameter.
+     *
+     * @param compiler The {@link Compiler} of the vendor of the connection.
+     * @param statement The {@link PreparedStatement}.
+     * @param parameterIndex The index of the parameter.
+     * @throws IOException If an I/O error has occurred.
+     * @throws SQLException If a SQL error has occurred.
+     */
+    void get(final Compiler compiler, final PreparedStatement statement, final int parameterIndex) throws IOException, SQLException {
+      get(statement, parameterIndex);
+    }
+
+    /**
+     * Sets the value of this column from the specified column of the provided
+     * {@link ResultSet}, using the provided {@link Compiler} of the vendor of
+     * the result set's connection.
+     *
+     * @param compiler The {@link Compiler} of the vendor of the connection.
+     * @param resultSet The {@link ResultSet}.
+     * @param columnIndex The index of the column.
+     * @throws SQLException If a SQL error has occurred.
+     * @see #get(Compiler,PreparedStatement,int)
+     */
+    void set(final Compiler compiler, final ResultSet resultSet, final int columnIndex) throws SQLException {
+      set(resultSet, columnIndex);
+    }
+
+    /**
+     * Updates the specified column of the current row of the provided
+     * {@link ResultSet} with the value of this column, using the provided
+     * {@link Compiler} of the vendor of the result set's connection.
+     *
+     * @param compiler The {@link Compiler} of the vendor of the connection.
+     * @param resultSet The {@link ResultSet}.
+     * @param columnIndex The index of the column.
+     * @throws SQLException If a SQL error has occurred.
+     * @see #get(Compiler,PreparedStatement,int)
+     */
+    void update(final Compiler compiler, final ResultSet resultSet, final int columnIndex) throws SQLException {
+      update(resultSet, columnIndex);
+    }
     abstract String compile(DBVendor vendor) throws IOException;
     abstract String declare(DBVendor vendor);
     abstract Column<?> scaleTo(Column<?> column);
@@ -1832,19 +1959,34 @@ public final class data {
 
     @Override
     final void get(final PreparedStatement statement, final int parameterIndex) throws SQLException {
-      Compiler.getCompiler(DBVendor.valueOf(statement.getConnection().getMetaData())).setParameter(this, statement, parameterIndex);
+      get(Compiler.getCompiler(DBVendor.valueOf(statement.getConnection().getMetaData())), statement, parameterIndex);
+    }
+
+    @Override
+    final void get(final Compiler compiler, final PreparedStatement statement, final int parameterIndex) throws SQLException {
+      compiler.setParameter(this, statement, parameterIndex);
     }
 
     @Override
     final void update(final ResultSet resultSet, final int columnIndex) throws SQLException {
-      Compiler.getCompiler(DBVendor.valueOf(resultSet.getStatement().getConnection().getMetaData())).updateColumn(this, resultSet, columnIndex);
+      update(Compiler.getCompiler(DBVendor.valueOf(resultSet.getStatement().getConnection().getMetaData())), resultSet, columnIndex);
+    }
+
+    @Override
+    final void update(final Compiler compiler, final ResultSet resultSet, final int columnIndex) throws SQLException {
+      compiler.updateColumn(this, resultSet, columnIndex);
     }
 
     @Override
     final void set(final ResultSet resultSet, final int columnIndex) throws SQLException {
+      set(Compiler.getCompiler(DBVendor.valueOf(resultSet.getStatement().getConnection().getMetaData())), resultSet, columnIndex);
+    }
+
+    @Override
+    final void set(final Compiler compiler, final ResultSet resultSet, final int columnIndex) throws SQLException {
       assertMutable();
       this.columnIndex = columnIndex;
-      this.value = Compiler.getCompiler(DBVendor.valueOf(resultSet.getStatement().getConnection().getMetaData())).getParameter(this, resultSet, columnIndex);
+      this.value = compiler.getParameter(this, resultSet, columnIndex);
     }
 
     @Override
@@ -2534,11 +2676,26 @@ public final class data {
     public static final NULL NULL = new NULL();
 
     private static final IdentityHashMap<Class<?>,Short> typeToLength = new IdentityHashMap<>(2);
+    private static final ConcurrentHashMap<Class<?>,HashMap<String,Object>> typeToConstants = new ConcurrentHashMap<>();
     private static volatile ConcurrentHashMap<Class<?>,Method> classToFromStringMethod;
 
     private final Class<T> enumType;
     private final Function<String,T> fromStringFunction;
 
+    private static HashMap<String,Object> getConstants(final Class<?> enumType) {
+      HashMap<String,Object> constants = typeToConstants.get(enumType);
+      if (constants != null)
+        return constants;
+
+      final Object[] values = enumType.getEnumConstants();
+      constants = new HashMap<>(values.length * 4 / 3 + 1);
+      for (final Object value : values)
+        constants.put(value.toString(), value);
+
+      typeToConstants.put(enumType, constants);
+      return constants;
+    }
+
     private static short calcEnumLength(final Class<?> enumType) {
       final Short cached = typeToLength.get(enumType);
       if (cached != null)
@@ -2677,6 +2834,7 @@ public final class data {
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     final void set(final ResultSet resultSet, final int columnIndex) throws SQLException {
       assertMutable();
       this.columnIndex = columnIndex;
@@ -2686,14 +2844,11 @@ public final class data {
         return;
       }
 
-      for (final T constant : enumType.getEnumConstants()) {
-        if (constant.toString().equals(value)) {
-          this.value = constant;
-          return;
-        }
-      }
+      final T constant = (T)getConstants(enumType).get(value);
+      if (constant == null)
+        throw new IllegalArgumentException("Unknown enum value: " + value);
 
-      throw new IllegalArgumentException("Unknown enum value: " + value);
+      this.value = constant;
     }
 
     @Override
@@ -2775,6 +2930,24 @@ public final class data {
     abstract String name();
     abstract Table newInstance();
 
+    /**
+     * @return Whether the entities of this table are cached in the
+     *         {@link EntityCache} of the data source, as declared with
+     *         {@code jsql:cache="true"}.
+     */
+    boolean cacheable() {
+      return false;
+    }
+
+    /**
+     * @return Whether all entities of this table are held in the
+     *         {@link ReferenceCache} of the data source, as declared with
+     *         {@code jsql:preload="true"}.
+     */
+    boolean preloaded() {
+      return false;
+    }
+
     @Override
     protected abstract Table clone();
 
@@ -2956,6 +3129,17 @@ public final class data {
       return isNull() ? defaultValue : value;
     }
 
+    public double getAsDouble() {
+      if (isNull())
+        throw new NullPointerException("NULL");
+
+      return value;
+    }
+
+    public double getAsDouble(final double defaultValue) {
+      return isNull() ? defaultValue : value;
+    }
+
     @Override
     public Float get() {
       return isNull() ? null : value;
@@ -3270,6 +3454,17 @@ public final class data {
       return isNull() ? defaultValue : value;
     }
 
+    public long getAsLong() {
+      if (isNull())
+        throw new NullPointerException("NULL");
+
+      return value;
+    }
+
+    public long getAsLong(final long defaultValue) {
+      return isNull() ? defaultValue : value;
+    }
+
     @Override
     public Integer get() {
       return isNull() ? null : value;
@@ -3650,6 +3845,28 @@ public final class data {
       return isNull() ? defaultValue : value;
     }
 
+    public int getAsInt() {
+      if (isNull())
+        throw new NullPointerException("NULL");
+
+      return value;
+    }
+
+    public int getAsInt(final int defaultValue) {
+      return isNull() ? defaultValue : value;
+    }
+
+    public long getAsLong() {
+      if (isNull())
+        throw new NullPointerException("NULL");
+
+      return value;
+    }
+
+    public long getAsLong(final long defaultValue) {
+      return isNull() ? defaultValue : value;
+    }
+
     @Override
     public Short get() {
       return isNull() ? null : value;
@@ -4065,6 +4282,39 @@ public final class data {
       return isNull() ? defaultValue : value;
     }
 
+    public short getAsShort() {
+      if (isNull())
+        throw new NullPointerException("NULL");
+
+      return value;
+    }
+
+    public short getAsShort(final short defaultValue) {
+      return isNull() ? defaultValue : value;
+    }
+
+    public int getAsInt() {
+      if (isNull())
+        throw new NullPointerException("NULL");
+
+      return value;
+    }
+
+    public int getAsInt(final int defaultValue) {
+      return isNull() ? defaultValue : value;
+    }
+
+    public long getAsLong() {
+      if (isNull())
+        throw new NullPointerException("NULL");
+
+      return value;
+    }
+
+    public long getAsLong(final long defaultValue) {
+      return isNull() ? defaultValue : value;
+    }
+
     @Override
     public Byte get() {
       return isNull() ? null : value;
@@ -4465,19 +4715,34 @@ public final class data {
 
     @Override
     final void get(final PreparedStatement statement, final int parameterIndex) throws SQLException {
-      Compiler.getCompiler(DBVendor.valueOf(statement.getConnection().getMetaData())).setParameter(this, statement, parameterIndex);
+      get(Compiler.getCompiler(DBVendor.valueOf(statement.getConnection().getMetaData())), statement, parameterIndex);
+    }
+
+    @Override
+    final void get(final Compiler compiler, final PreparedStatement statement, final int parameterIndex) throws SQLException {
+      compiler.setParameter(this, statement, parameterIndex);
     }
 
     @Override
     final void update(final ResultSet resultSet, final int columnIndex) throws SQLException {
-      Compiler.getCompiler(DBVendor.valueOf(resultSet.getStatement().getConnection().getMetaData())).updateColumn(this, resultSet, columnIndex);
+      update(Compiler.getCompiler(DBVendor.valueOf(resultSet.getStatement().getConnection().getMetaData())), resultSet, columnIndex);
+    }
+
+    @Override
+    final void update(final Compiler compiler, final ResultSet resultSet, final int columnIndex) throws SQLException {
+      compiler.updateColumn(this, resultSet, columnIndex);
     }
 
     @Override
     final void set(final ResultSet resultSet, final int columnIndex) throws SQLException {
+      set(Compiler.getCompiler(DBVendor.valueOf(resultSet.getStatement().getConnection().getMetaData())), resultSet, columnIndex);
+    }
+
+    @Override
+    final void set(final Compiler compiler, final ResultSet resultSet, final int columnIndex) throws SQLException {
       assertMutable();
       this.columnIndex = columnIndex;
-      this.value = Compiler.getCompiler(DBVendor.valueOf(resultSet.getStatement().getConnection().getMetaData())).getParameter(this, resultSet, columnIndex);
+      this.value = compiler.getParameter(this, resultSet, columnIndex);
     }
 
     @Override
@@ -1481,6 +1481,41 @@ final class function {
       throw new UnsupportedOperationException("Unsupported Number type: " + b.getClass().getName());
     }
 
+    /**
+     * Evaluates this operator on the values of the provided columns without
+     * boxing the operands, if both columns are non-null columns of the same
+     * primitive numeric type that evaluate to their own values.
+     *
+     * @param a The first column.
+     * @param b The second column.
+     * @return The result of this operator, or {@code null} if the provided
+     *         columns are not eligible for primitive evaluation.
+     */
+    final Number evaluatePrimitive(final data.Column<?> a, final data.Column<?> b) {
+      if (!a.isEvaluatedAsValue() || !b.isEvaluatedAsValue() || a.isNull() || b.isNull())
+        return null;
+
+      if (a instanceof data.INT && b instanceof data.INT)
+        return evaluate(((data.INT)a).getAsInt(), ((data.INT)b).getAsInt());
+
+      if (a instanceof data.BIGINT && b instanceof data.BIGINT)
+        return evaluate(((data.BIGINT)a).getAsLong(), ((data.BIGINT)b).getAsLong());
+
+      if (a instanceof data.DOUBLE && b instanceof data.DOUBLE)
+        return evaluate(((data.DOUBLE)a).getAsDouble(), ((data.DOUBLE)b).getAsDouble());
+
+      if (a instanceof data.FLOAT && b instanceof data.FLOAT)
+        return evaluate(((data.FLOAT)a).getAsFloat(), ((data.FLOAT)b).getAsFloat());
+
+      if (a instanceof data.SMALLINT && b instanceof data.SMALLINT)
+        return evaluate(((data.SMALLINT)a).getAsShort(), ((data.SMALLINT)b).getAsShort());
+
+      if (a instanceof data.TINYINT && b instanceof data.TINYINT)
+        return evaluate(((data.TINYINT)a).getAsByte(), ((data.TINYINT)b).getAsByte());
+
+      return null;
+    }
+
     abstract float evaluate(float a, float b);
     abstract double evaluate(double a, double b);
     abstract Number evaluate(byte a, byte b);
@@ -180,6 +180,40 @@ public class Generator {
     Files.write(javaFile.toPath(), out.toString().getBytes());
   }
 
+  /**
+   * Returns the name of the primitive accessor of the {@link data.Column} of
+   * the specified numeric column, the name of the class with which to compare
+   * its floating point values (or {@code null} if its values are integral),
+   * and the name of its boxed class, or {@code null} if the column is not of
+   * a primitive numeric type.
+   *
+   * @param column The {@link $Column}.
+   * @return The primitive accessor, comparator class, and boxed class of the
+   *         specified column, or {@code null} if the column is not of a
+   *         primitive numeric type.
+   */
+  private static String[] getPrimitiveAccessor(final $Column column) {
+    if (column instanceof $Tinyint)
+      return new String[] {"getAsByte", null, Byte.class.getName()};
+
+    if (column instanceof $Smallint)
+      return new String[] {"getAsShort", null, Short.class.getName()};
+
+    if (column instanceof $Int)
+      return new String[] {"getAsInt", null, Integer.class.getName()};
+
+    if (column instanceof $Bigint)
+      return new String[] {"getAsLong", null, Long.class.getName()};
+
+    if (column instanceof $Float)
+      return new String[] {"getAsFloat", Float.class.getName(), Float.class.getName()};
+
+    if (column instanceof $Double)
+      return new String[] {"getAsDouble", Double.class.getName(), Double.class.getName()};
+
+    return null;
+  }
+
   private static final Object THIS = new Object();
   private static final Object MUTABLE = new Object();
 
@@ -197,6 +231,9 @@ public class Generator {
           throw new GeneratorExecutionException("Unknown generateOnInsert specification: " + type.getSqlxGenerateOnInsert$().text());
       }
 
+      if (type.getJsqlIntern$() != null && type.getJsqlIntern$().text())
+        return new Type(column, data.CHAR.class, params, type.getDefault$() == null ? null : type.getDefault$().text(), generateOnInsert, generateOnUpdate, type.getJsqlKeyForUpdate$() != null && type.getJsqlKeyForUpdate$().text(), type.getLength$() == null ? null : type.getLength$().text(), type.getVarying$().text(), true);
+
       return new Type(column, data.CHAR.class, params, type.getDefault$() == null ? null : type.getDefault$().text(), generateOnInsert, generateOnUpdate, type.getJsqlKeyForUpdate$() != null && type.getJsqlKeyForUpdate$().text(), type.getLength$() == null ? null : type.getLength$().text(), type.getVarying$().text());
     }
 
@@ -625,6 +662,18 @@ public class Generator {
       out.append("    ").append(entityName).append(" newInstance() {\n");
       out.append("      return new ").append(entityName).append("(true, true);\n");
       out.append("    }\n\n");
+      if (table.getJsqlCache$() != null && table.getJsqlCache$().text()) {
+        out.append("    @").append(Override.class.getName()).append('\n');
+        out.append("    boolean cacheable() {\n");
+        out.append("      return true;\n");
+        out.append("    }\n\n");
+      }
+      if (table.getJsqlPreload$() != null && table.getJsqlPreload$().text()) {
+        out.append("    @").append(Override.class.getName()).append('\n');
+        out.append("    boolean preloaded() {\n");
+        out.append("      return true;\n");
+        out.append("    }\n\n");
+      }
       out.append("    /** Creates a new {@code ").append(entityName).append("}. */\n");
       out.append("    public ").append(entityName).append("() {\n");
       out.append("      this(true, false, new ").append(data.Column.class.getCanonicalName()).append("[").append(totalColumnCount).append("], new ").append(data.Column.class.getCanonicalName()).append("[").append(totalPrimaryCount).append("], new ").append(data.Column.class.getCanonicalName()).append("[").append(totalAutoCount).append("]);\n");
@@ -747,8 +796,16 @@ public class Generator {
 
       equalsColumns = primaryColumns.size() > 0 ? primaryColumns : columns;
       out.append("      final ").append(entityName).append(" that = (").append(entityName).append(")obj;");
-      for (final $Column column : equalsColumns)
-        out.append("\n      if (this.").append(Identifiers.toInstanceCase(column.getName$().text())).append(".get() != null ? !this.").append(Identifiers.toInstanceCase(column.getName$().text())).append(".get().equals(that.").append(Identifiers.toInstanceCase(column.getName$().text())).append(".get()) : that.").append(Identifiers.toInstanceCase(column.getName$().text())).append(".get() != null)\n        return false;\n");
+      for (final $Column column : equalsColumns) {
+        final String instanceName = Identifiers.toInstanceCase(column.getName$().text());
+        final String[] primitive = getPrimitiveAccessor(column);
+        if (primitive == null)
+          out.append("\n      if (this.").append(instanceName).append(".get() != null ? !this.").append(instanceName).append(".get().equals(that.").append(instanceName).append(".get()) : that.").append(instanceName).append(".get() != null)\n        return false;\n");
+        else if (primitive[1] != null)
+          out.append("\n      if (this.").append(instanceName).append(".isNull() ? !that.").append(instanceName).append(".isNull() : that.").append(instanceName).append(".isNull() || ").append(primitive[1]).append(".compare(this.").append(instanceName).append('.').append(primitive[0]).append("(), that.").append(instanceName).append('.').append(primitive[0]).append("()) != 0)\n        return false;\n");
+        else
+          out.append("\n      if (this.").append(instanceName).append(".isNull() ? !that.").append(instanceName).append(".isNull() : that.").append(instanceName).append(".isNull() || this.").append(instanceName).append('.').append(primitive[0]).append("() != that.").append(instanceName).append('.').append(primitive[0]).append("())\n        return false;\n");
+      }
 
       out.append("\n      return true;");
     }
@@ -764,8 +821,16 @@ public class Generator {
       out.append("    public int hashCode() {\n");
       out.append("      int hashCode = 1;");
       for (final $Column column : equalsColumns) {
-        out.append("\n      if (").append(Identifiers.toInstanceCase(column.getName$().text())).append(".get() != null)");
-        out.append("\n        hashCode = 31 * hashCode + this.").append(Identifiers.toInstanceCase(column.getName$().text())).append(".get().hashCode();\n");
+        final String instanceName = Identifiers.toInstanceCase(column.getName$().text());
+        final String[] primitive = getPrimitiveAccessor(column);
+        if (primitive == null) {
+          out.append("\n      if (").append(instanceName).append(".get() != null)");
+          out.append("\n        hashCode = 31 * hashCode + this.").append(instanceName).append(".get().hashCode();\n");
+        }
+        else {
+          out.append("\n      if (!").append(instanceName).append(".isNull())");
+          out.append("\n        hashCode = 31 * hashCode + ").append(primitive[2]).append(".hashCode(this.").append(instanceName).append('.').append(primitive[0]).append("());\n");
+        }
       }
       out.append("\n      return hashCode;");
       out.append("\n    }");
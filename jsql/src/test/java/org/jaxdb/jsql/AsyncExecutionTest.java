@@ -0,0 +1,52 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb.jsql;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+public class AsyncExecutionTest {
+  private static final class TestSchema extends Schema {
+  }
+
+  @Test
+  public void testThreadLocalRegistry() throws ExecutionException, InterruptedException {
+    final Connector connector = () -> {
+      throw new UnsupportedOperationException();
+    };
+
+    Registry.threadLocal().register(TestSchema.class, connector, "async");
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    AsyncExecution.setExecutor(executor);
+    try {
+      // The task sees the registrations of the submitting thread
+      assertSame(connector, AsyncExecution.submit(null, () -> Registry.getConnector(TestSchema.class, "async")).get());
+
+      // The registry of the executor thread is restored once the task has finished
+      assertNull(executor.submit(() -> Registry.getConnector(TestSchema.class, "async")).get());
+    }
+    finally {
+      AsyncExecution.setExecutor(null);
+      executor.shutdown();
+    }
+  }
+}
@@ -0,0 +1,211 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jaxdb.jsql;
+
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.derby.jdbc.EmbeddedDriver;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ConnectionPoolTest {
+  private static final String url = "jdbc:derby:memory:ConnectionPoolTest;create=true";
+
+  @BeforeClass
+  @SuppressWarnings("unused")
+  public static void beforeClass() {
+    new EmbeddedDriver();
+  }
+
+  private static ConnectionPool.Builder newBuilder() {
+    return new ConnectionPool.Builder(() -> DriverManager.getConnection(url));
+  }
+
+  @Test
+  public void testReuse() throws SQLException {
+    try (final ConnectionPool pool = newBuilder().withMaxSize(2).build()) {
+      final Connection connection = pool.getConnection();
+      assertEquals(1, pool.getActiveCount());
+      connection.close();
+      assertTrue(connection.isClosed());
+      assertEquals(0, pool.getActiveCount());
+      assertEquals(1, pool.getIdleCount());
+
+      try (final Connection reused = pool.getConnection()) {
+        assertTrue(reused.isValid(1));
+      }
+
+      assertEquals(2, pool.getBorrowCount());
+      assertEquals(1, pool.getCreateCount());
+      assertEquals(1, pool.getSize());
+    }
+  }
+
+  @Test
+  public void testClosedHandle() throws SQLException {
+    try (final ConnectionPool pool = newBuilder().build()) {
+      final Connection connection = pool.getConnection();
+      connection.close();
+      connection.close();
+      try {
+        connection.createStatement();
+        fail("Expected SQLException");
+      }
+      catch (final SQLException e) {
+      }
+    }
+  }
+
+  @Test
+  public void testMaxSize() throws SQLException {
+    try (final ConnectionPool pool = newBuilder().withMaxSize(1).withMaxWait(50, TimeUnit.MILLISECONDS).build()) {
+      try (final Connection connection = pool.getConnection()) {
+        assertEquals(1d, pool.getUtilization(), 0d);
+        try {
+          pool.getConnection();
+          fail("Expected SQLTransientConnectionException");
+        }
+        catch (final SQLTransientConnectionException e) {
+        }
+      }
+
+      assertTrue(pool.getWaitTime(TimeUnit.MILLISECONDS) >= 50);
+      try (final Connection connection = pool.getConnection()) {
+        assertEquals(1, pool.getCreateCount());
+      }
+    }
+  }
+
+  @Test
+  public void testStateReset() throws SQLException {
+    try (final ConnectionPool pool = newBuilder().withMaxSize(1).build()) {
+      try (final Connection connection = pool.getConnection()) {
+        assertTrue(connection.getAutoCommit());
+        connection.setAutoCommit(false);
+        connection.setReadOnly(true);
+        connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+      }
+
+      try (final Connection connection = pool.getConnection()) {
+        assertTrue(connection.getAutoCommit());
+        assertFalse(connection.isReadOnly());
+        assertNotEquals(Connection.TRANSACTION_SERIALIZABLE, connection.getTransactionIsolation());
+      }
+    }
+  }
+
+  @Test
+  public void testIdleEviction() throws InterruptedException, SQLException {
+    try (final ConnectionPool pool = newBuilder().withMaxSize(3).withMinSize(1).withIdleTimeout(10, TimeUnit.MILLISECONDS).build()) {
+      final Connection c1 = pool.getConnection();
+      final Connection c2 = pool.getConnection();
+      final Connection c3 = pool.getConnection();
+      c1.close();
+      c2.close();
+      Thread.sleep(50);
+      c3.close();
+      assertEquals(2, pool.getEvictionCount());
+      assertEquals(1, pool.getSize());
+      assertEquals(1, pool.getIdleCount());
+    }
+  }
+
+  @Test
+  public void testMinSize() throws SQLException {
+    try (final ConnectionPool pool = newBuilder().withMaxSize(3).withMinSize(2).build()) {
+      assertEquals(2, pool.getSize());
+      assertEquals(2, pool.getIdleCount());
+      assertEquals(2, pool.getCreateCount());
+      try (
+        final Connection c1 = pool.getConnection();
+        final Connection c2 = pool.getConnection();
+      ) {
+        assertEquals(2, pool.getCreateCount());
+        assertEquals(0, pool.getIdleCount());
+      }
+    }
+  }
+
+  @Test
+  public void testEvictionOnBorrow() throws InterruptedException, SQLException {
+    try (final ConnectionPool pool = newBuilder().withMaxSize(3).withMinSize(1).withIdleTimeout(10, TimeUnit.MILLISECONDS).build()) {
+      final Connection c1 = pool.getConnection();
+      final Connection c2 = pool.getConnection();
+      final Connection c3 = pool.getConnection();
+      c1.close();
+      c2.close();
+      c3.close();
+      assertEquals(0, pool.getEvictionCount());
+      assertEquals(3, pool.getIdleCount());
+
+      Thread.sleep(50);
+      try (final Connection connection = pool.getConnection()) {
+        assertEquals(2, pool.getEvictionCount());
+        assertEquals(1, pool.getSize());
+        assertEquals(0, pool.getIdleCount());
+      }
+    }
+  }
+
+  @Test
+  public void testCloseConcurrently() throws InterruptedException, SQLException {
+    final ConnectionPool pool = newBuilder().withMaxSize(4).build();
+
+    final Thread[] threads = new Thread[4];
+    for (int i = 0; i < threads.length; ++i) {
+      threads[i] = new Thread(() -> {
+        try {
+          while (true)
+            pool.getConnection().close();
+        }
+        catch (final SQLException e) {
+        }
+      });
+      threads[i].start();
+    }
+
+    Thread.sleep(50);
+    pool.close();
+    for (final Thread thread : threads)
+      thread.join();
+
+    // Connections that are returned while the pool is being closed are not left open
+    assertEquals(0, pool.getSize());
+    assertEquals(0, pool.getIdleCount());
+  }
+
+  @Test
+  public void testClose() throws SQLException {
+    final ConnectionPool pool = newBuilder().build();
+    final Connection connection = pool.getConnection();
+    pool.close();
+    connection.close();
+    assertEquals(0, pool.getSize());
+    try {
+      pool.getConnection();
+      fail("Expected SQLException");
+    }
+    catch (final SQLException e) {
+    }
+  }
+}
@@ -0,0 +1,111 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+
+package org.jaxdb.jsql;
+
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.Test;
+
+public class InternerTest {
+  private enum Color implements EntityEnum {
+    RED,
+    GREEN;
+
+    @Override
+    public int length() {
+      return toString().length();
+    }
+
+    @Override
+    public char charAt(final int index) {
+      return toString().charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+      return toString().subSequence(start, end);
+    }
+  }
+
+  @Test
+  public void testOf() {
+    assertSame(Interner.of(InternerTest.class, "a"), Interner.of(InternerTest.class, "a"));
+    assertNotSame(Interner.of(InternerTest.class, "a"), Interner.of(InternerTest.class, "b"));
+    assertNotSame(Interner.of(InternerTest.class, "a"), Interner.of(Color.class, "a"));
+  }
+
+  @Test
+  public void testIntern() {
+    final Interner interner = Interner.of(InternerTest.class, "testIntern");
+    final String a = new String("US");
+    final String b = new String("US");
+    assertNotSame(a, b);
+    assertSame(a, interner.intern(a));
+    assertSame(a, interner.intern(b));
+    assertNull(interner.intern(null));
+  }
+
+  @Test
+  public void testMaxSize() {
+    final Interner interner = Interner.of(InternerTest.class, "testMaxSize");
+    for (int i = 0; i < Interner.MAX_SIZE; ++i) {
+      final String value = String.valueOf(i);
+      assertSame(value, interner.intern(value));
+    }
+
+    // Values admitted before the dictionary was full remain canonical
+    assertSame(interner.intern("0"), interner.intern(new String("0")));
+
+    // Values beyond the maximum size are not admitted
+    final String a = new String("overflow");
+    final String b = new String("overflow");
+    assertSame(a, interner.intern(a));
+    assertSame(b, interner.intern(b));
+  }
+
+  @Test
+  public void testUnknownEnum() throws SQLException {
+    try (
+      final Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+      final Statement statement = connection.createStatement();
+      final ResultSet resultSet = statement.executeQuery("SELECT 'GREEN', 'BLUE', NULL");
+    ) {
+      assertTrue(resultSet.next());
+      final data.ENUM<Color> column = new data.ENUM<>(Color.class);
+      column.set(resultSet, 1);
+      assertSame(Color.GREEN, column.get());
+
+      try {
+        column.set(resultSet, 2);
+        fail("Expected IllegalArgumentException");
+      }
+      catch (final IllegalArgumentException e) {
+        assertEquals("Unknown enum value: BLUE", e.getMessage());
+      }
+
+      column.set(resultSet, 3);
+      assertNull(column.get());
+    }
+  }
+}
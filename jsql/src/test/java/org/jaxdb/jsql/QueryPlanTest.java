@@ -0,0 +1,126 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+
+package org.jaxdb.jsql;
+
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.derby.jdbc.EmbeddedDriver;
+import org.jaxdb.vendor.DBVendor;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class QueryPlanTest {
+  @BeforeClass
+  @SuppressWarnings("unused")
+  public static void beforeClass() {
+    new EmbeddedDriver();
+  }
+
+  private static void createTable(final Connection connection) throws SQLException {
+    try (final Statement statement = connection.createStatement()) {
+      statement.execute("CREATE TABLE t (id INT PRIMARY KEY, name VARCHAR(32))");
+      statement.execute("INSERT INTO t VALUES (1, 'a'), (2, 'b')");
+    }
+  }
+
+  private static QueryPlan.Node assertScan(final QueryPlan plan, final QueryPlan.ScanType scanType) {
+    final List<QueryPlan.Node> scans = plan.getScans();
+    assertEquals(plan.toString(), 1, scans.size());
+    final QueryPlan.Node scan = scans.get(0);
+    assertEquals(plan.toString(), scanType, scan.getScanType());
+    assertTrue(plan.toString(), "t".equalsIgnoreCase(scan.getTable()));
+    return scan;
+  }
+
+  @Test
+  public void testDerby() throws SQLException {
+    final Compiler compiler = Compiler.getCompiler(DBVendor.DERBY);
+    try (final Connection connection = DriverManager.getConnection("jdbc:derby:memory:QueryPlanTest;create=true")) {
+      createTable(connection);
+      final QueryPlan.Node scan = assertScan(compiler.explain(connection, "SELECT name FROM t WHERE id = 1", null), QueryPlan.ScanType.INDEX_SCAN);
+      assertNotNull(scan.getIndex());
+      assertTrue(scan.getEstimatedRows() >= 0);
+
+      assertNull(assertScan(compiler.explain(connection, "SELECT name FROM t WHERE name = 'a'", null), QueryPlan.ScanType.TABLE_SCAN).getIndex());
+    }
+  }
+
+  @Test
+  public void testSQLite() throws SQLException {
+    final Compiler compiler = Compiler.getCompiler(DBVendor.SQLITE);
+    try (final Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+      createTable(connection);
+      final QueryPlan.Node scan = assertScan(compiler.explain(connection, "SELECT name FROM t WHERE id = 1", null), QueryPlan.ScanType.INDEX_SCAN);
+      assertNotNull(scan.getIndex());
+
+      assertScan(compiler.explain(connection, "SELECT name FROM t WHERE name = 'a'", null), QueryPlan.ScanType.TABLE_SCAN);
+      assertScan(compiler.explain(connection, "SELECT id FROM t WHERE id = 1", null), QueryPlan.ScanType.COVERING_INDEX_SCAN);
+    }
+  }
+
+  @Test
+  public void testPostgreSQL() {
+    final List<String[]> rows = Arrays.asList(
+      new String[] {"Hash Join  (cost=1.09..2.21 rows=7 width=72)"},
+      new String[] {"  Hash Cond: (a.id = b.id)"},
+      new String[] {"  ->  Seq Scan on t a  (cost=0.00..1.07 rows=7 width=36)"},
+      new String[] {"  ->  Hash  (cost=1.07..1.07 rows=1 width=36)"},
+      new String[] {"        ->  Index Only Scan using t_pkey on t b  (cost=0.15..8.17 rows=1 width=36)"},
+      new String[] {"              Index Cond: (id = 1)"});
+
+    final List<QueryPlan.Node> roots = Compiler.getCompiler(DBVendor.POSTGRE_SQL).parsePlan(new String[] {"QUERY PLAN"}, rows);
+    assertEquals(1, roots.size());
+    final QueryPlan.Node join = roots.get(0);
+    assertEquals(QueryPlan.ScanType.OTHER, join.getScanType());
+    assertEquals(7, join.getEstimatedRows());
+    assertEquals(2, join.getChildren().size());
+
+    final QueryPlan.Node seqScan = join.getChildren().get(0);
+    assertEquals(QueryPlan.ScanType.TABLE_SCAN, seqScan.getScanType());
+    assertEquals("t", seqScan.getTable());
+
+    final QueryPlan.Node indexScan = join.getChildren().get(1).getChildren().get(0);
+    assertEquals(QueryPlan.ScanType.COVERING_INDEX_SCAN, indexScan.getScanType());
+    assertEquals("t_pkey", indexScan.getIndex());
+    assertEquals(1, indexScan.getEstimatedRows());
+  }
+
+  @Test
+  public void testMySQL() {
+    final String[] labels = {"id", "select_type", "table", "partitions", "type", "possible_keys", "key", "key_len", "ref", "rows", "filtered", "Extra"};
+    final List<String[]> rows = Arrays.asList(
+      new String[] {"1", "SIMPLE", "a", null, "ALL", null, null, null, null, "7", "14.29", "Using where"},
+      new String[] {"1", "SIMPLE", "b", null, "eq_ref", "PRIMARY", "PRIMARY", "4", "a.id", "1", "100.00", null},
+      new String[] {"1", "SIMPLE", "c", null, "ref", "idx", "idx", "4", "const", "3", "100.00", "Using index"});
+
+    final List<QueryPlan.Node> roots = Compiler.getCompiler(DBVendor.MY_SQL).parsePlan(labels, rows);
+    assertEquals(3, roots.size());
+    assertEquals(QueryPlan.ScanType.TABLE_SCAN, roots.get(0).getScanType());
+    assertEquals(7, roots.get(0).getEstimatedRows());
+    assertEquals(QueryPlan.ScanType.INDEX_SCAN, roots.get(1).getScanType());
+    assertEquals("PRIMARY", roots.get(1).getIndex());
+    assertEquals(QueryPlan.ScanType.COVERING_INDEX_SCAN, roots.get(2).getScanType());
+  }
+}
@@ -0,0 +1,172 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+
+package org.jaxdb.jsql;
+
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.derby.jdbc.EmbeddedDriver;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ReplicaSetTest {
+  private static final class TestSchema extends Schema {
+  }
+
+  private static Connector connector(final String name) {
+    return () -> DriverManager.getConnection("jdbc:derby:memory:ReplicaSetTest" + name + ";create=true");
+  }
+
+  private static String getURL(final Connection connection) throws SQLException {
+    final String url = connection.getMetaData().getURL();
+    final int start = url.indexOf("ReplicaSetTest") + 14;
+    final int end = url.indexOf(';', start);
+    return end < 0 ? url.substring(start) : url.substring(start, end);
+  }
+
+  private static String read(final String id) throws SQLException {
+    try (final Connection connection = Schema.getReadConnection(TestSchema.class, id, true)) {
+      return getURL(connection);
+    }
+  }
+
+  @BeforeClass
+  @SuppressWarnings("unused")
+  public static void beforeClass() {
+    new EmbeddedDriver();
+  }
+
+  private static void register(final String id, final Registry.Routing routing, final long pinAfterWrite) throws SQLException {
+    final Registry registry = Registry.threadLocal();
+    registry.register(TestSchema.class, connector("Primary"), id);
+    registry.registerReplicas(TestSchema.class, id, routing, pinAfterWrite, TimeUnit.MINUTES, connector("Replica1"), connector("Replica2"));
+    // The vendor is resolved from the primary
+    assertEquals("Primary", read(id));
+  }
+
+  @Test
+  public void testRoundRobin() throws SQLException {
+    register("roundRobin", Registry.Routing.ROUND_ROBIN, 0);
+    final String first = read("roundRobin");
+    final String second = read("roundRobin");
+    assertTrue(first.startsWith("Replica"));
+    assertTrue(second.startsWith("Replica"));
+    assertNotEquals(first, second);
+    assertEquals(first, read("roundRobin"));
+  }
+
+  @Test
+  public void testLeastLoaded() throws SQLException {
+    register("leastLoaded", Registry.Routing.LEAST_LOADED, 0);
+    final ReplicaSet replicas = Registry.getRegistration(TestSchema.class, "leastLoaded").replicas;
+    try (final Connection first = Schema.getReadConnection(TestSchema.class, "leastLoaded", true)) {
+      assertArrayEquals(new int[] {1, 0}, replicas.getLoads());
+      try (final Connection second = Schema.getReadConnection(TestSchema.class, "leastLoaded", true)) {
+        assertNotEquals(getURL(first), getURL(second));
+        assertArrayEquals(new int[] {1, 1}, replicas.getLoads());
+      }
+
+      assertArrayEquals(new int[] {1, 0}, replicas.getLoads());
+      assertEquals("Replica2", read("leastLoaded"));
+    }
+
+    assertArrayEquals(new int[] {0, 0}, replicas.getLoads());
+  }
+
+  @Test
+  public void testInitialize() throws SQLException {
+    register("initialize", Registry.Routing.ROUND_ROBIN, 0);
+    // The functions of the Compiler are registered on each replica
+    for (int i = 0; i < 2; ++i) {
+      try (
+        final Connection connection = Schema.getReadConnection(TestSchema.class, "initialize", true);
+        final Statement statement = connection.createStatement();
+        final ResultSet resultSet = statement.executeQuery("VALUES LOG2(CAST(8 AS DOUBLE))");
+      ) {
+        assertTrue(getURL(connection).startsWith("Replica"));
+        assertTrue(resultSet.next());
+        assertEquals(3, resultSet.getDouble(1), 0);
+      }
+    }
+  }
+
+  @Test
+  public void testPinAfterWrite() throws SQLException {
+    register("pin", Registry.Routing.ROUND_ROBIN, 1);
+    assertTrue(read("pin").startsWith("Replica"));
+    Registry.getRegistration(TestSchema.class, "pin").replicas.pin();
+    assertEquals("Primary", read("pin"));
+    try (final Connection connection = Schema.getConnection(TestSchema.class, "pin", true)) {
+      assertEquals("Primary", getURL(connection));
+    }
+  }
+
+  @Test
+  public void testPinOnCommit() throws SQLException {
+    register("pinOnCommit", Registry.Routing.ROUND_ROBIN, 1);
+    final ReplicaSet replicas = Registry.getRegistration(TestSchema.class, "pinOnCommit").replicas;
+    try (final Transaction transaction = new Transaction(TestSchema.class, "pinOnCommit")) {
+      transaction.getConnection();
+      transaction.pinOnCommit(replicas);
+      assertTrue(read("pinOnCommit").startsWith("Replica"));
+      transaction.rollback();
+      assertTrue(read("pinOnCommit").startsWith("Replica"));
+
+      transaction.pinOnCommit(replicas);
+      assertTrue(read("pinOnCommit").startsWith("Replica"));
+      transaction.commit();
+      assertEquals("Primary", read("pinOnCommit"));
+    }
+  }
+
+  @Test
+  public void testReadOnlyTransaction() throws SQLException {
+    register("readOnly", Registry.Routing.ROUND_ROBIN, 0);
+    try (final Transaction transaction = new Transaction(TestSchema.class, "readOnly")) {
+      assertEquals("Primary", getURL(transaction.getConnection()));
+      try {
+        transaction.setReadOnly(true);
+        fail("Expected IllegalStateException");
+      }
+      catch (final IllegalStateException e) {
+      }
+    }
+
+    try (final Transaction transaction = new Transaction(TestSchema.class, "readOnly").setReadOnly(true)) {
+      final Connection connection = transaction.getConnection();
+      assertTrue(getURL(connection).startsWith("Replica"));
+      assertTrue(connection.isReadOnly());
+    }
+  }
+
+  @Test
+  public void testNotRegistered() {
+    try {
+      Registry.threadLocal().registerReplicas(TestSchema.class, "none", Registry.Routing.ROUND_ROBIN, 0, TimeUnit.SECONDS, connector("Replica1"));
+      fail("Expected IllegalStateException");
+    }
+    catch (final IllegalStateException e) {
+    }
+  }
+}
@@ -0,0 +1,122 @@
+/* Copyright (c) 2021 JAX-DB
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+
+package org.jaxdb.jsql;
+
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.derby.jdbc.EmbeddedDriver;
+import org.jaxdb.vendor.DBVendor;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class SlowQueryLogTest {
+  @BeforeClass
+  @SuppressWarnings("unused")
+  public static void beforeClass() {
+    new EmbeddedDriver();
+  }
+
+  private static void createTable(final Connection connection) throws SQLException {
+    try (final Statement statement = connection.createStatement()) {
+      statement.execute("CREATE TABLE t (id INT PRIMARY KEY, name VARCHAR(32))");
+      statement.execute("INSERT INTO t VALUES (1, 'a'), (2, 'b')");
+    }
+  }
+
+  @Test
+  public void testBuilder() {
+    try {
+      new SlowQueryLog.Builder(-1, TimeUnit.MILLISECONDS);
+      fail("Expected IllegalArgumentException");
+    }
+    catch (final IllegalArgumentException e) {
+    }
+
+    try {
+      new SlowQueryLog.Builder(1, TimeUnit.MILLISECONDS).withMaxReportsPerSecond(0);
+      fail("Expected IllegalArgumentException");
+    }
+    catch (final IllegalArgumentException e) {
+    }
+
+    final SlowQueryLog log = new SlowQueryLog.Builder(2, TimeUnit.MILLISECONDS).withExplain(true).build();
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(2), log.getThreshold());
+    assertTrue(log.isExplain());
+  }
+
+  @Test
+  public void testRateLimit() throws InterruptedException {
+    final SlowQueryLog log = new SlowQueryLog.Builder(0, TimeUnit.MILLISECONDS).withMaxReportsPerSecond(10).build();
+    assertTrue(log.acquire());
+    assertFalse(log.acquire());
+    assertFalse(log.acquire());
+    assertEquals(2, log.getSuppressedCount());
+    Thread.sleep(100);
+    assertTrue(log.acquire());
+  }
+
+  @Test
+  public void testCaller() {
+    final StackTraceElement caller = SlowQueryLog.getCaller();
+    assertNotNull(caller);
+    assertFalse(caller.getClassName().startsWith("org.jaxdb.jsql."));
+  }
+
+  @Test
+  public void testSnapshot() {
+    assertEquals(0, SlowQueryLog.snapshot(null).size());
+
+    final data.INT id = new data.INT();
+    id.set(1);
+    final data.CHAR name = new data.CHAR(32, true);
+    name.set("a");
+    final List<data.Column<?>> snapshot = SlowQueryLog.snapshot(Arrays.asList(id, name));
+    id.set(2);
+    name.set("b");
+    assertEquals(Integer.valueOf(1), snapshot.get(0).get());
+    assertEquals("a", snapshot.get(1).get());
+
+    assertNull(SlowQueryLog.snapshot(Arrays.asList(id, new data.BLOB())));
+  }
+
+  @Test
+  public void testDerbyExplain() throws SQLException {
+    try (final Connection connection = DriverManager.getConnection("jdbc:derby:memory:SlowQueryLogTest;create=true")) {
+      createTable(connection);
+      final String plan = Compiler.getCompiler(DBVendor.DERBY).explain(connection, "SELECT name FROM t WHERE id = 1", null).toString();
+      assertTrue(plan, plan.contains("Index Scan"));
+    }
+  }
+
+  @Test
+  public void testSQLiteExplain() throws SQLException {
+    try (final Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+      createTable(connection);
+      final String plan = Compiler.getCompiler(DBVendor.SQLITE).explain(connection, "SELECT name FROM t WHERE name = 'a'", null).toString();
+      assertTrue(plan, plan.contains("SCAN"));
+    }
+  }
+}